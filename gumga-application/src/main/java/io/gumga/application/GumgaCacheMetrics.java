@@ -0,0 +1,20 @@
+package io.gumga.application;
+
+import java.util.Map;
+
+/**
+ * Cache cujas métricas são expostas pela API do cache junto com as do {@link GumgaSecondLevelCache} e do
+ * {@link GumgaSearchCache}. Basta registrar a implementação como bean
+ */
+public interface GumgaCacheMetrics {
+
+    /**
+     * @return Nome do cache nas métricas
+     */
+    String getName();
+
+    /**
+     * @return Métricas do cache
+     */
+    Map<String, Number> getMetrics();
+}
@@ -0,0 +1,164 @@
+package io.gumga.application;
+
+import io.gumga.core.QueryObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Subgraph;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.PluralAttribute;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plano de carga das associações de uma página de pesquisa, informado em {@link QueryObject#getFetchGraph()} ou
+ * {@link QueryObject#getFetch()}. Depois da consulta da página, as associações de todas as entidades da página são
+ * carregadas com uma única consulta pelos ids com a dica {@code javax.persistence.loadgraph}, evitando uma consulta por
+ * entidade e associação na serialização. A consulta da página e a de contagem não recebem fetch joins, por isso a
+ * paginação continua sendo feita no banco mesmo com associações de coleção. Entity graphs e caminhos inexistentes ou
+ * que não são associações são ignorados
+ *
+ * @author Equipe Gumga
+ */
+final class GumgaFetchPlan {
+
+    private static final Logger log = LoggerFactory.getLogger(GumgaFetchPlan.class);
+    private static final String LOAD_GRAPH = "javax.persistence.loadgraph";
+
+    private GumgaFetchPlan() {
+    }
+
+    /**
+     * Carrega as associações do plano nas entidades da página, que continuam as mesmas instâncias do contexto de
+     * persistência
+     *
+     * @param entityManager EntityManager da pesquisa
+     * @param entityClass Classe da entidade
+     * @param query Pesquisa com o plano de carga
+     * @param entities Entidades da página
+     */
+    static <T> void load(EntityManager entityManager, Class<T> entityClass, QueryObject query, List<?> entities) {
+        if (entities == null || entities.isEmpty() || !query.hasFetchPlan()) {
+            return;
+        }
+        EntityGraph<?> graph = graph(entityManager, entityClass, query);
+        if (graph == null) {
+            return;
+        }
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        Set<Object> distinct = new LinkedHashSet<>();
+        for (Object entity : entities) {
+            distinct.add(persistenceUnitUtil.getIdentifier(entity));
+        }
+        List<Object> ids = new ArrayList<>(distinct);
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        String hql = "select obj from " + entityType.getName() + " obj where obj."
+                + entityType.getId(entityType.getIdType().getJavaType()).getName() + " in (:gumgaIds)";
+        for (int start = 0; start < ids.size(); start += GumgaGenericRepository.ID_CHUNK_SIZE) {
+            entityManager.createQuery(hql)
+                    .setParameter("gumgaIds", ids.subList(start, Math.min(start + GumgaGenericRepository.ID_CHUNK_SIZE, ids.size())))
+                    .setHint(LOAD_GRAPH, graph)
+                    .getResultList();
+        }
+    }
+
+    /**
+     * @return O entity graph nomeado da pesquisa ou o montado com os caminhos, null se o graph nomeado não existe ou
+     * se nenhum caminho é válido
+     */
+    static <T> EntityGraph<?> graph(EntityManager entityManager, Class<T> entityClass, QueryObject query) {
+        if (query.getFetchGraph() != null && !query.getFetchGraph().trim().isEmpty()) {
+            try {
+                return entityManager.getEntityGraph(query.getFetchGraph().trim());
+            } catch (IllegalArgumentException e) {
+                log.warn("Entity graph " + query.getFetchGraph().trim() + " de " + entityClass.getName() + " inexistente, plano de carga ignorado");
+                return null;
+            }
+        }
+        Node tree = tree(entityManager.getMetamodel(), entityClass, query.getFetch());
+        if (tree.isEmpty()) {
+            return null;
+        }
+        EntityGraph<T> graph = entityManager.createEntityGraph(entityClass);
+        tree.forEach((name, children) -> {
+            if (children.isEmpty()) {
+                graph.addAttributeNodes(name);
+            } else {
+                addChildren(graph.addSubgraph(name), children);
+            }
+        });
+        return graph;
+    }
+
+    private static void addChildren(Subgraph<?> subgraph, Node tree) {
+        tree.forEach((name, children) -> {
+            if (children.isEmpty()) {
+                subgraph.addAttributeNodes(name);
+            } else {
+                addChildren(subgraph.addSubgraph(name), children);
+            }
+        });
+    }
+
+    /**
+     * Agrupa os caminhos em uma árvore de associações, para que cada associação apareça uma única vez no graph
+     */
+    private static Node tree(Metamodel metamodel, Class<?> entityClass, String[] paths) {
+        Node tree = new Node();
+        if (paths == null) {
+            return tree;
+        }
+        for (String path : paths) {
+            String[] names = path.trim().split("\\.");
+            if (!isAssociationPath(metamodel.managedType(entityClass), names)) {
+                log.warn("Associação " + path.trim() + " de " + entityClass.getName() + " ignorada no plano de carga");
+                continue;
+            }
+            Node node = tree;
+            for (String name : names) {
+                node = node.computeIfAbsent(name, n -> new Node());
+            }
+        }
+        return tree;
+    }
+
+    private static boolean isAssociationPath(ManagedType<?> type, String[] names) {
+        for (String name : names) {
+            Attribute<?, ?> attribute = type == null ? null : attribute(type, name);
+            if (attribute == null || !(attribute.isAssociation() || attribute.isCollection())) {
+                return false;
+            }
+            Type<?> target = attribute.isCollection()
+                    ? ((PluralAttribute<?, ?, ?>) attribute).getElementType()
+                    : ((SingularAttribute<?, ?>) attribute).getType();
+            type = target instanceof ManagedType ? (ManagedType<?>) target : null;
+        }
+        return true;
+    }
+
+    private static Attribute<?, ?> attribute(ManagedType<?> type, String name) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Associação do plano com as associações aninhadas
+     */
+    private static class Node extends LinkedHashMap<String, Node> {
+    }
+}
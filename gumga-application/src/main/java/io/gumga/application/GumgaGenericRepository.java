@@ -1,25 +1,30 @@
 package io.gumga.application;
 
 import com.google.common.base.Strings;
+import io.gumga.application.count.GumgaCountContext;
+import io.gumga.application.count.GumgaCountStrategies;
+import io.gumga.core.GumgaCountMode;
 import io.gumga.core.GumgaThreadScope;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
-import io.gumga.core.TenancyPublicMarking;
 import io.gumga.core.gquery.ComparisonOperator;
 import io.gumga.core.gquery.Criteria;
 import io.gumga.core.gquery.GQuery;
+import io.gumga.core.gquery.Projection;
 import io.gumga.domain.*;
 import io.gumga.domain.logicaldelete.GumgaLDModel;
+import io.gumga.domain.logicaldelete.GumgaSharedLDModel;
 import io.gumga.domain.repository.GumgaCrudRepository;
-import io.gumga.domain.repository.GumgaMultitenancyUtil;
-import io.gumga.domain.shared.GumgaSharedModel;
+import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.Disjunction;
-import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Restrictions;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.RevisionType;
+import org.hibernate.envers.query.AuditEntity;
+import org.hibernate.envers.query.AuditQuery;
 import org.hibernate.internal.SQLQueryImpl;
 import org.hibernate.transform.AliasToBeanResultTransformer;
 import org.hibernate.transform.AliasToEntityMapResultTransformer;
@@ -34,25 +39,42 @@ import org.springframework.data.jpa.repository.support.CrudMethodMetadata;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceUnitUtil;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.metamodel.EntityType;
 import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static org.hibernate.criterion.Order.asc;
 import static org.hibernate.criterion.Order.desc;
 import static org.hibernate.criterion.Projections.rowCount;
 import static org.hibernate.criterion.Restrictions.isNull;
-import static org.hibernate.criterion.Restrictions.like;
 import static org.hibernate.criterion.Restrictions.or;
 
 @NoRepositoryBean
@@ -60,43 +82,193 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
 
     protected final JpaEntityInformation<T, ID> entityInformation;
     protected final EntityManager entityManager;
+    protected final GumgaEntityDescriptor entityDescriptor;
+    /**
+     * Quantidade máxima de ids em cada consulta IN do {@link #findAllById(Iterable)}
+     */
+    public static final int ID_CHUNK_SIZE = 500;
+    /**
+     * Fetch size e quantidade de registros entre cada desanexação das entidades lidas utilizados pelo {@link #stream(QueryObject)}
+     */
+    public static final int STREAM_BATCH_SIZE = 500;
     private static final Logger log = LoggerFactory.getLogger(GumgaGenericRepository.class);
+    private static final Set<Connection> INITIALIZED_CONNECTIONS = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
 
     public GumgaGenericRepository(JpaEntityInformation<T, ID> entityInformation, EntityManager entityManager) {
         super(entityInformation, entityManager);
         this.entityManager = entityManager;
         this.entityInformation = entityInformation;
+        this.entityDescriptor = GumgaEntityDescriptor.of(entityInformation.getJavaType());
     }
 
     @Override
     public SearchResult<T> search(QueryObject query) {
-        if (GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getOracleLikeMapWithAdjust())) {
-            log.warn("ORACLE ADJUST");
-            entityManager.createNativeQuery("alter session set nls_comp=linguistic").executeUpdate();
-            entityManager.createNativeQuery("alter session set nls_sort=latin_ai").executeUpdate();
-            entityManager.createNativeQuery("alter session set nls_date_format = 'YYYY-MM-DD'").executeUpdate();
-            entityManager.createNativeQuery("alter session set nls_timestamp_format = 'YYYY-MM-DD HH24:MI:SS'").executeUpdate();
+        adjustOracleSession();
+        return fetch(query, cached(query, q -> searchWithoutCache(q, null)));
+    }
+
+    /**
+     * Carrega as associações do plano de carga da pesquisa nas entidades da página, com uma consulta para a página
+     * inteira em vez de uma por entidade durante a serialização
+     *
+     * @see GumgaFetchPlan
+     */
+    private SearchResult<T> fetch(QueryObject query, SearchResult<T> result) {
+        GumgaFetchPlan.load(entityManager, entityInformation.getJavaType(), query, result.getValues());
+        return result;
+    }
+
+    /**
+     * Pesquisa que lê apenas alguns atributos da entidade, inclusive de associações ({@code company.name}), com uma
+     * projeção na própria consulta em vez de carregar as entidades completas. A pesquisa por chave (keyset) precisa das
+     * entidades para montar o cursor e copia os atributos após a pesquisa
+     *
+     * @param query Pesquisa
+     * @param fields Atributos
+     * @return Um mapa do atributo para o seu valor por registro
+     */
+    @Override
+    public SearchResult<Map<String, Object>> search(QueryObject query, String[] fields) {
+        if (query.isKeyset()) {
+            return GumgaCrudRepository.super.search(query, fields);
         }
+        adjustOracleSession();
+        GumgaProjection projection = new GumgaProjection(entityManager.getMetamodel(), entityInformation.getJavaType(),
+                entityInformation.getIdAttribute().getName(), fields);
+        SearchResult<?> result = searchWithoutCache(query, projection);
+        return new SearchResult<>(query, result.getCount(), projection.toMaps(result.getValues()), result.getCursor());
+    }
 
+    /**
+     * @param projection Projeção dos atributos, ou null para carregar as entidades
+     */
+    private SearchResult searchWithoutCache(QueryObject query, GumgaProjection projection) {
         if (query.isGQuery()) {
-            return findByGQuery(query);
+            return findByGQueryWithoutCache(query, projection);
         }
 
         if (query.isAQO()) {
-            return aqoSearch(query);
+            query.setAq(GumgaGenericRepositoryHelper.hql(query.getAqo()));
+            return advancedSearch(query, projection);
         }
 
         if (query.isAdvanced()) {
-            return advancedSearch(query);
+            return advancedSearch(query, projection);
         }
+        boolean nextPage = isNextPageCount(query);
         Long count = 0l;
-        if (query.isSearchCount()) {
-            count = count(query);
+        if (query.isSearchCount() && !nextPage) {
+            String shape = "q=" + query.getQ() + ";fields=" + Arrays.toString(query.getSearchFields()) + ";phonetic=" + query.isPhonetic() + ";inactive=" + query.isInactiveSearch();
+            count = countWithStrategy(query, !Strings.isNullOrEmpty(query.getQ()), shape, () -> count(query));
+        }
+
+        GumgaKeysetPagination keyset = query.isKeyset() ? new GumgaKeysetPagination(query, false, entityManager.getMetamodel().managedType(entityInformation.getJavaType())) : null;
+        List data = query.isCountOnly() ? Collections.emptyList() : getOrdered(query, keyset, projection);
+        if (nextPage) {
+            count = nextPageCount(query, data, keyset != null);
+        }
+
+        return new SearchResult<>(query, count, data, keyset == null ? null : keyset.nextCursor(data, query.getPageSize()));
+    }
+
+    /**
+     * Executa o comando de inicialização da sessão do banco ({@link GumgaQueryDialect#getSessionInitSql()}) uma única
+     * vez por conexão física. Quando o pool já o executa ao criar a conexão (connectionInitSql do
+     * {@link io.gumga.application.spring.config.OracleDataSourceProvider}) nada é feito
+     *
+     * @see GumgaQueryParserProvider#getSessionInitSql()
+     */
+    private void adjustOracleSession() {
+        String sessionInitSql = GumgaQueryParserProvider.getSessionInitSql();
+        if (sessionInitSql == null) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            Connection physical = physicalConnection(connection);
+            if (INITIALIZED_CONNECTIONS.contains(physical)) {
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sessionInitSql);
+            }
+            INITIALIZED_CONNECTIONS.add(physical);
+        });
+    }
+
+    private static Connection physicalConnection(Connection connection) {
+        try {
+            if (connection.isWrapperFor(Connection.class)) {
+                Connection unwrapped = connection.unwrap(Connection.class);
+                if (unwrapped != null) {
+                    return unwrapped;
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Conexão sem unwrap, a sessão será ajustada por conexão lógica", e);
+        }
+        return connection;
+    }
+
+    @Override
+    public Stream<T> stream(QueryObject query) {
+        return stream(query, STREAM_BATCH_SIZE);
+    }
+
+    @Override
+    public Stream<T> stream(GQuery gQuery) {
+        return stream(gQuery, STREAM_BATCH_SIZE);
+    }
+
+    @Override
+    public void forEach(QueryObject query, int batchSize, Consumer<? super T> consumer) {
+        try (Stream<T> stream = stream(query, batchSize)) {
+            stream.forEach(consumer);
         }
+    }
 
-        List<T> data = query.isCountOnly() ? Collections.emptyList() : getOrdered(query);
+    @Override
+    public void forEach(GQuery gQuery, int batchSize, Consumer<? super T> consumer) {
+        try (Stream<T> stream = stream(gQuery, batchSize)) {
+            stream.forEach(consumer);
+        }
+    }
 
-        return new SearchResult<>(query, count, data);
+    /**
+     * Percorre todos os registros da pesquisa com um cursor FORWARD_ONLY, ignorando a paginação do {@link QueryObject}.
+     * As mesmas condições de multitenancy e remoção lógica do {@link #search(QueryObject)} são aplicadas
+     *
+     * @param query Pesquisa simples, avançada ou GQuery
+     * @param batchSize Fetch size do JDBC e quantidade de registros entre cada desanexação das entidades lidas
+     * @return Stream que deve ser fechado para liberar o cursor
+     */
+    private Stream<T> stream(QueryObject query, int batchSize) {
+        adjustOracleSession();
+        if (query.isGQuery()) {
+            return scroll(createQueryGQueryWithQueryObject(query, null, null), batchSize);
+        }
+        if (query.isAQO()) {
+            query.setAq(GumgaGenericRepositoryHelper.hql(query.getAqo()));
+        }
+        if (query.isAdvanced()) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            String modelo = createAdvancedModel(query, parameters);
+            String hql = String.format(modelo + " ORDER BY %s", entityInformation.getEntityName(), query.getAq(), getOrderField(query.getSortField(), query.getSortDir()));
+            return scroll(GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters), batchSize);
+        }
+        Pesquisa<T> pesquisa = getPesquisa(query);
+        addOrder(pesquisa, query);
+        pesquisa.setFetchSize(batchSize);
+        return GumgaScrollableStream.of(pesquisa.scroll(ScrollMode.FORWARD_ONLY), session(), batchSize);
+    }
+
+    private Stream<T> stream(GQuery gQuery, int batchSize) {
+        return scroll(createQueryWithGQuery(gQuery), batchSize);
+    }
+
+    private Stream<T> scroll(Query query, int batchSize) {
+        org.hibernate.Query hibernateQuery = query.unwrap(org.hibernate.Query.class);
+        hibernateQuery.setFetchSize(batchSize);
+        return GumgaScrollableStream.of(hibernateQuery.scroll(ScrollMode.FORWARD_ONLY), session(), batchSize);
     }
 
     public SearchResult<T> aqoSearch(QueryObject query) {
@@ -104,8 +276,31 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         return advancedSearch(query);
     }
 
-    private List<T> getOrdered(QueryObject query) {
+    private List getOrdered(QueryObject query, GumgaKeysetPagination keyset, GumgaProjection projection) {
         Pesquisa<T> pesquisa = getPesquisa(query);
+        if (keyset == null) {
+            addOrder(pesquisa, query);
+        } else {
+            if (!query.getSortField().isEmpty()) {
+                createAliasIfNecessary(pesquisa, query.getSortField());
+            }
+            keyset.addOrder(pesquisa);
+        }
+        if (projection != null) {
+            projection.apply(pesquisa);
+        }
+
+        if (keyset != null) {
+            if (keyset.hasCursor()) {
+                pesquisa.add(keyset.toCriterion());
+            }
+            return pesquisa.setMaxResults(pageLimit(query)).list();
+        }
+
+        return pesquisa.setFirstResult(query.getStart()).setMaxResults(pageLimit(query)).list();
+    }
+
+    private void addOrder(Pesquisa<T> pesquisa, QueryObject query) {
         String sortField = query.getSortField();
         String sortType = query.getSortDir();
 
@@ -117,9 +312,6 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         } else {
             pesquisa.addOrder(asc("id")); //GUMGA-478
         }
-
-
-        return pesquisa.setFirstResult(query.getStart()).setMaxResults(query.getPageSize()).list();
     }
 
     private Long count(QueryObject query) {
@@ -127,6 +319,125 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         return uniqueResult == null ? 0L : ((Number) uniqueResult).longValue();
     }
 
+    /**
+     * Calcula o total da pesquisa com a estratégia registrada para o {@link GumgaCountMode} informado
+     *
+     * @param query Pesquisa
+     * @param filtered true se a pesquisa possui filtros informados pelo usuário
+     * @param shape Descrição dos filtros da pesquisa, utilizada como chave do cache
+     * @param exactCount Count exato da pesquisa
+     * @return Total de registros
+     */
+    private Long countWithStrategy(QueryObject query, boolean filtered, String shape, Supplier<Long> exactCount) {
+        boolean tenancy = hasMultitenancy() && GumgaThreadScope.organizationCode.get() != null
+                && !Boolean.TRUE.equals(GumgaThreadScope.ignoreCheckOwnership.get());
+        String key = entityInformation.getJavaType().getName() + "|" + (tenancy ? GumgaThreadScope.organizationCode.get() : "") + "|"
+                + sharedKey() + "|" + shape;
+        GumgaCountContext context = new GumgaCountContext(query, entityInformation.getJavaType(), entityManager, filtered || tenancy || hasLogicalDelete(), key, exactCount);
+        return GumgaCountStrategies.get(query.getCountMode()).count(context);
+    }
+
+    private String sharedKey() {
+        return entityDescriptor.isShared() ? GumgaThreadScope.instanceOi.get() + "|" + GumgaThreadScope.login.get() : "";
+    }
+
+    /**
+     * Executa a pesquisa utilizando o cache de resultados da entidade quando ela está anotada com {@link GumgaResultCache}.
+     * O cache guarda apenas os ids da página, recarregados com o multitenancy a cada acerto, e não é utilizado em
+     * transações de escrita, que podem enxergar alterações ainda não confirmadas, nem em pesquisas com plano de carga,
+     * cujas associações precisam ser carregadas nas mesmas instâncias lidas pela consulta da página
+     *
+     * @param query Pesquisa
+     * @param search Pesquisa sem cache
+     * @return Resultado do cache ou da pesquisa
+     */
+    private SearchResult<T> cached(QueryObject query, Function<QueryObject, SearchResult<T>> search) {
+        GumgaResultCache annotation = entityDescriptor.getResultCache();
+        if (annotation == null || query.hasFetchPlan() || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return search.apply(query);
+        }
+        GumgaSearchCache.EntityCache cache = GumgaSearchCache.of(entityInformation.getJavaType(), annotation);
+        String key = resultCacheKey(query);
+        GumgaSearchCache.Page page = cache.get(key);
+        if (page != null) {
+            List<T> data = reload(page.getIds());
+            if (data != null) {
+                return new SearchResult<>(query, page.getCount(), data, page.getCursor());
+            }
+            cache.remove(key);
+        }
+
+        long generation = cache.generation();
+        SearchResult<T> result = search.apply(query);
+        List<Object> ids = new ArrayList<>(result.getValues().size());
+        for (T entity : result.getValues()) {
+            ids.add(entityInformation.getId(entity));
+        }
+        cache.put(key, new GumgaSearchCache.Page(result.getCount(), ids, result.getCursor()), generation);
+        return result;
+    }
+
+    /**
+     * @param ids Ids da página em cache
+     * @return Entidades na ordem dos ids, ou null se alguma delas não existe mais ou não é visível ao usuário
+     */
+    private List<T> reload(List<Object> ids) {
+        Map<Object, T> found = findByIds(entityInformation.getJavaType(), ids);
+        List<T> data = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            T entity = found.get(id);
+            if (entity == null) {
+                return null;
+            }
+            data.add(entity);
+        }
+        return data;
+    }
+
+    /**
+     * Chave do cache de resultados: entidade, padrão do oi do usuário, pesquisa, ordenação, página e modo do total
+     */
+    private String resultCacheKey(QueryObject query) {
+        boolean tenancy = hasMultitenancy() && GumgaThreadScope.organizationCode.get() != null
+                && !Boolean.TRUE.equals(GumgaThreadScope.ignoreCheckOwnership.get());
+        GQuery gQuery = query.getgQuery();
+        return entityInformation.getEntityName() + "|" + (tenancy ? entityDescriptor.getMultitenancyPattern() : "") + "|" + sharedKey()
+                + "|q=" + query.getQ() + ";fields=" + Arrays.toString(query.getSearchFields()) + ";aq=" + query.getAq() + ";aqo=" + query.getAqo()
+                + ";gq=" + (gQuery == null ? "" : gQuery.getJoins() + gQuery + ";distinct=" + gQuery.useDistinct())
+                + ";sort=" + query.getSortField() + " " + query.getSortDir()
+                + ";start=" + query.getStart() + ";pageSize=" + query.getPageSize() + ";cursor=" + query.getCursor()
+                + ";count=" + query.getCountMode() + "," + query.isSearchCount() + "," + query.isCountOnly()
+                + ";phonetic=" + query.isPhonetic() + ";inactive=" + query.isInactiveSearch();
+    }
+
+    /**
+     * @return true quando o total é obtido buscando um registro além da página, ver {@link GumgaCountMode#NEXT_PAGE}
+     */
+    private boolean isNextPageCount(QueryObject query) {
+        return query.isSearchCount() && !query.isCountOnly() && query.getCountMode() == GumgaCountMode.NEXT_PAGE && query.getPageSize() < Integer.MAX_VALUE;
+    }
+
+    private int pageLimit(QueryObject query) {
+        return isNextPageCount(query) ? query.getPageSize() + 1 : query.getPageSize();
+    }
+
+    /**
+     * Remove o registro excedente buscado para verificar se existe uma próxima página
+     *
+     * @param query Pesquisa
+     * @param data Registros retornados, com no máximo um registro além da página
+     * @param keyset true se a pesquisa utiliza paginação por chave, onde o start é ignorado
+     * @return start + registros da página, somado de 1 quando existe uma próxima página
+     */
+    private long nextPageCount(QueryObject query, List<?> data, boolean keyset) {
+        boolean hasNext = data.size() > query.getPageSize();
+        if (hasNext) {
+            data.remove(data.size() - 1);
+        }
+        return (keyset ? 0 : query.getStart()) + data.size() + (hasNext ? 1 : 0);
+    }
+
     private Pesquisa<T> getPesquisa(QueryObject query) {
         if (query.getQ() == null && !query.isAdvanced()) {
             throw new IllegalArgumentException("Para realizar a pesquisa simples, q não pode ser nulo.");
@@ -140,40 +451,7 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         Pesquisa<T> pesquisa = search().add(or(fieldsCriterions));
 
         if (hasMultitenancy() && GumgaThreadScope.organizationCode.get() != null) {
-            String oiPattern = GumgaMultitenancyUtil.getMultitenancyPattern(entityInformation.getJavaType().getAnnotation(GumgaMultitenancy.class));
-            Criterion multitenancyCriterion;
-            Criterion sharedCriterion;
-            GumgaMultitenancy gumgaMultitenancy = getDomainClass().getAnnotation(GumgaMultitenancy.class);
-            if (GumgaSharedModel.class.isAssignableFrom(entityInformation.getJavaType()) || GumgaSharedModelUUID.class.isAssignableFrom(entityInformation.getJavaType())) {
-                String instanceOi = GumgaThreadScope.instanceOi.get() + GumgaSharedModel.GLOBAL;
-                sharedCriterion = or(
-                        //  like("1","1",MatchMode.EXACT)
-                        like("gumgaOrganizations", "," + oiPattern + ",", MatchMode.ANYWHERE),
-                        like("gumgaOrganizations", "," + instanceOi + ",", MatchMode.ANYWHERE),
-                        like("gumgaUsers", "," + GumgaThreadScope.login.get() + ",", MatchMode.ANYWHERE)
-                );
-
-                if (gumgaMultitenancy.allowPublics()) {
-                    if (gumgaMultitenancy.publicMarking() == TenancyPublicMarking.NULL) {
-                        multitenancyCriterion = or(like("oi", oiPattern, MatchMode.START), Restrictions.isNull("oi"), sharedCriterion);
-                    } else {
-                        multitenancyCriterion = or(like("oi", oiPattern, MatchMode.START), Restrictions.eq("oi", gumgaMultitenancy.publicMarking().getMark()), sharedCriterion);
-                    }
-                } else {
-                    multitenancyCriterion = or(like("oi", oiPattern, MatchMode.START), sharedCriterion);
-                }
-            } else if (gumgaMultitenancy.allowPublics()) {
-                if (gumgaMultitenancy.publicMarking() == TenancyPublicMarking.NULL) {
-                    multitenancyCriterion = or(like("oi", oiPattern, MatchMode.START), Restrictions.isNull("oi"));
-                } else {
-                    multitenancyCriterion = or(like("oi", oiPattern, MatchMode.START), Restrictions.eq("oi", gumgaMultitenancy.publicMarking().getMark()));
-                }
-            } else {
-                multitenancyCriterion = or(like("oi", oiPattern, MatchMode.START));
-            }
-
-            pesquisa.add(multitenancyCriterion);
-
+            pesquisa.add(entityDescriptor.tenancyCriterion());
         }
 
         if (hasLogicalDelete()) {
@@ -196,16 +474,22 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
      * @{@link GumgaMultitenancy}
      */
     public boolean hasMultitenancy() {
-        return entityInformation.getJavaType().isAnnotationPresent(GumgaMultitenancy.class);
+        return entityDescriptor.hasMultitenancy();
     }
 
     public boolean hasLogicalDelete() {
-        return GumgaLDModel.class.isAssignableFrom(entityInformation.getJavaType());
+        return entityDescriptor.hasLogicalDelete();
     }
 
     public String getMultitenancyPattern() {
-        GumgaMultitenancy tenacy = entityInformation.getJavaType().getAnnotation(GumgaMultitenancy.class);
-        return GumgaMultitenancyUtil.getMultitenancyPattern(tenacy);
+        return entityDescriptor.getMultitenancyPattern();
+    }
+
+    /**
+     * @return Metadados da entidade do repositório
+     */
+    public GumgaEntityDescriptor getEntityDescriptor() {
+        return entityDescriptor;
     }
 
     private void createAliasIfNecessary(Pesquisa<T> pesquisa, String field) {
@@ -236,40 +520,33 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
      */
     @Override
     public T findOne(ID id) {
-        if (GumgaSharedModel.class.isAssignableFrom(entityInformation.getJavaType()) || GumgaSharedModelUUID.class.isAssignableFrom(entityInformation.getJavaType())) {
-//            T result = fetchOne(new GQuery(new Criteria("obj.id", ComparisonOperator.EQUAL, id)));
-//            if(result != null) {
-//                return result;
-//            } else {
-//                if (!GumgaThreadScope.ignoreCheckOwnership.get()) {
-//                    throw new EntityNotFoundException("cannot find " + entityInformation.getJavaType() + " with id: " + id);
-//                }
-//            }
-            QueryObject qo = new QueryObject();
-            if (GumgaSharedModelUUID.class.isAssignableFrom(entityInformation.getJavaType())) {
-                qo.setAq("obj.id='" + id + "'");
-            } else {
-                qo.setAq("obj.id=" + id);
-            }
-
-            SearchResult<T> search = this.search(qo);
-            if (search.getCount() == 1) {
-                return search.getValues().get(0);
-            }
-            if (!GumgaThreadScope.ignoreCheckOwnership.get()) {
-                throw new EntityNotFoundException("cannot find " + entityInformation.getJavaType() + " with id: " + id);
-            }
-        }
-
         T resource = super.findOne(id);
 
         if (resource == null) {
             throw new EntityNotFoundException("cannot find " + entityInformation.getJavaType() + " with id: " + id);
         }
-        checkOwnership(resource);
+        if (entityDescriptor.isShared()) {
+            checkSharedOwnership(resource, id);
+        } else {
+            checkOwnership(resource);
+        }
         return resource;
     }
 
+    /**
+     * Aplica à entidade compartilhada já carregada (do banco ou do cache de segundo nível) as mesmas regras da
+     * pesquisa: multitenancy, compartilhamento e remoção lógica
+     */
+    private void checkSharedOwnership(T resource, ID id) {
+        if (Boolean.TRUE.equals(GumgaThreadScope.ignoreCheckOwnership.get())) {
+            return;
+        }
+        boolean active = !entityDescriptor.hasSharedLogicalDelete() || Boolean.TRUE.equals(((GumgaSharedLDModel) resource).getGumgaActive());
+        if (!active || !entityDescriptor.isVisible(resource)) {
+            throw new EntityNotFoundException("cannot find " + entityInformation.getJavaType() + " with id: " + id);
+        }
+    }
+
     /**
      * Generic findOne
      *
@@ -299,6 +576,10 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
      * @return resultado da pesquisa
      */
     private SearchResult<T> advancedSearch(QueryObject query) {
+        return advancedSearch(query, null);
+    }
+
+    private SearchResult advancedSearch(QueryObject query, GumgaProjection projection) {
 //        System.out.println("---RECEBIDA----->"+query.getAq());
 //        if (query.getAq().startsWith("{")) {
 //            try {
@@ -315,62 +596,85 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
 //        if (!QueryObject.EMPTY.equals(query.getAqo())) {
 //            //query.setAq(hqlFromQes);
 //        }
-        if (GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getMySqlLikeMap())
-                || GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getH2LikeMap())) {
-            query.setAq(query.getAq().replaceAll("to_timestamp\\(", "").replaceAll(",'yyyy/MM/dd HH24:mi:ss'\\)", ""));
-        }
 //        System.out.println("---CONVERTIDA----->"+query.getAq());
-        String modelo = "from %s obj WHERE %s";
-        if (hasMultitenancy()) {
-            String ld = "";
-            if (hasLogicalDelete()) {
-                ld = " obj.gumgaActive=" + (!query.isInactiveSearch()) + " and ";
-            }
-            GumgaMultitenancy gumgaMultiTenancy = getDomainClass().getAnnotation(GumgaMultitenancy.class);
-            String oiPattern = GumgaMultitenancyUtil.getMultitenancyPattern(gumgaMultiTenancy);
-            String sharedCriterion = " ";
-
-            if (GumgaSharedModel.class.isAssignableFrom(entityInformation.getJavaType()) || GumgaSharedModelUUID.class.isAssignableFrom(entityInformation.getJavaType())) {
-                String instanceOi = GumgaThreadScope.instanceOi.get() + GumgaSharedModel.GLOBAL;
+        Map<String, Object> tenancyParameters = new LinkedHashMap<>();
+        String where = createAdvancedWhere(query, tenancyParameters);
+        String modelo = "from %s obj" + where;
 
-                sharedCriterion = "or (obj.gumgaOrganizations like '%%," + oiPattern + ",%%' or "
-                        + "obj.gumgaOrganizations like '%%," + instanceOi + ",%%' or "
-                        + "obj.gumgaUsers like '%%," + GumgaThreadScope.login.get() + ",%%') ";
-            }
-            if (gumgaMultiTenancy.allowPublics()) {
-                if (gumgaMultiTenancy.publicMarking() == TenancyPublicMarking.NULL) {
-                    modelo = "from %s obj WHERE (" + ld + "obj.oi is null OR obj.oi like '" + oiPattern + "%%' " + sharedCriterion + ")  AND (%s) ";
-                } else {
-                    modelo = "from %s obj WHERE (" + ld + "obj.oi = '" + gumgaMultiTenancy.publicMarking().getMark() + "' OR obj.oi like '" + oiPattern + "%%' " + sharedCriterion + ")  AND (%s) ";
-                }
-            } else {
-                modelo = "from %s obj WHERE (" + ld + "obj.oi like '" + oiPattern + "%%' " + sharedCriterion + ")  AND (%s) ";
-            }
-        }
+        Map<String, Object> parameters = new LinkedHashMap<>(tenancyParameters);
+        GumgaKeysetPagination keyset = query.isKeyset() ? new GumgaKeysetPagination(query, true, entityManager.getMetamodel().managedType(entityInformation.getJavaType())) : null;
+        String keysetWhere = keyset != null && keyset.hasCursor() ? " AND " + keyset.toHql(parameters).replace("%", "%%") : "";
+        String pageModel = projection == null ? modelo
+                : "SELECT " + projection.getSelect(Collections.emptyList()) + " from %s obj" + projection.getJoins() + where;
 
         String hqlConsulta;
-        if (query.getSortField().isEmpty()) {
-            hqlConsulta = String.format(modelo + " ORDER BY obj.id ", entityInformation.getEntityName(), query.getAq());
+        if (keyset != null) {
+            hqlConsulta = String.format(pageModel + keysetWhere + " ORDER BY " + keyset.toOrderHql(), entityInformation.getEntityName(), query.getAq());
+        } else if (query.getSortField().isEmpty()) {
+            hqlConsulta = String.format(pageModel + keysetWhere + " ORDER BY obj.id ", entityInformation.getEntityName(), query.getAq());
         } else {
             String orderField = getOrderField(query.getSortField(), query.getSortDir());
-            hqlConsulta = String.format(modelo + " ORDER BY %s", entityInformation.getEntityName(), query.getAq(), orderField);
+            hqlConsulta = String.format(pageModel + keysetWhere + " ORDER BY %s", entityInformation.getEntityName(), query.getAq(), orderField);
         }
 
+        boolean nextPage = isNextPageCount(query);
         Long total = 0l;
-        if (query.isSearchCount()) {
+        if (query.isSearchCount() && !nextPage) {
             String hqlConta = String.format("SELECT count(obj) " + modelo, entityInformation.getEntityName(), query.getAq());
-            Query qConta = entityManager.createQuery(hqlConta);
-            total = (Long) qConta.getSingleResult();
+            Map<String, Object> countParameters = tenancyParameters;
+            total = countWithStrategy(query, true, "aq=" + query.getAq() + ";inactive=" + query.isInactiveSearch(), () -> (Long) GumgaQueryParameterBinder.bind(entityManager.createQuery(hqlConta), countParameters).getSingleResult());
         }
 
 
-        Query qConsulta = entityManager.createQuery(hqlConsulta);
-        qConsulta.setMaxResults(query.getPageSize());
-        qConsulta.setFirstResult(query.getStart());
+        Query qConsulta = GumgaQueryParameterBinder.bind(entityManager.createQuery(hqlConsulta), parameters);
+        qConsulta.setMaxResults(pageLimit(query));
+        if (keyset == null) {
+            qConsulta.setFirstResult(query.getStart());
+        }
         List resultList = query.isCountOnly() ? Collections.emptyList() : qConsulta.getResultList();
+        if (nextPage) {
+            total = nextPageCount(query, resultList, keyset != null);
+        }
+        if (keyset != null) {
+            return new SearchResult<>(query, total, resultList, keyset.nextCursor(resultList, query.getPageSize()));
+        }
         return new SearchResult<>(query, total, resultList);
     }
 
+    /**
+     * Monta o modelo HQL da pesquisa avançada, com os marcadores da entidade e do aq, aplicando o multitenancy
+     * e a remoção lógica
+     *
+     * @param query Pesquisa avançada
+     * @param parameters Mapa onde os parâmetros do multitenancy serão adicionados
+     * @return Modelo HQL no formato de {@link String#format(String, Object...)}
+     */
+    private String createAdvancedModel(QueryObject query, Map<String, Object> parameters) {
+        return "from %s obj" + createAdvancedWhere(query, parameters);
+    }
+
+    /**
+     * Monta a cláusula WHERE da pesquisa avançada, com o marcador do aq, para ser colocada depois do FROM e dos
+     * joins da consulta
+     *
+     * @param query Pesquisa avançada
+     * @param parameters Mapa onde os parâmetros do multitenancy serão adicionados
+     * @return Cláusula WHERE iniciada por espaço, no formato de {@link String#format(String, Object...)}
+     */
+    private String createAdvancedWhere(QueryObject query, Map<String, Object> parameters) {
+        if (GumgaQueryParserProvider.getDialect().isMySqlOrH2()) {
+            query.setAq(query.getAq().replaceAll("to_timestamp\\(", "").replaceAll(",'yyyy/MM/dd HH24:mi:ss'\\)", ""));
+        }
+        if (!hasMultitenancy()) {
+            return " WHERE (%s)";
+        }
+        String ld = "";
+        if (hasLogicalDelete()) {
+            ld = " obj.gumgaActive=" + (!query.isInactiveSearch()) + " and ";
+        }
+        return " WHERE (" + ld + entityDescriptor.getTenancyHql(parameters) + ")  AND (%s) ";
+    }
+
     @Override
     public <A> SearchResult<A> advancedSearch(String selectQueryWithoutWhere, String countQuery, String ordenationId, QueryObject whereQuery) {
         if (Strings.isNullOrEmpty(ordenationId)) {
@@ -484,7 +788,11 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
      */
     @Override
     public <S extends T> S save(S entity) {
-        return super.save(entity);
+        S saved = super.save(entity);
+        if (entityDescriptor.hasSharedIndex()) {
+            GumgaShareIndex.update(entityManager, entityDescriptor, saved);
+        }
+        return saved;
     }
 
     @Override
@@ -598,19 +906,102 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
 
     @Override
     public List<T> findAll(Iterable<ID> ids) {
+        return findAllById(ids);
+    }
+
+    /**
+     * Pesquisa as entidades pelos ids em blocos de {@link #ID_CHUNK_SIZE} utilizando IN, com a condição de
+     * multitenancy aplicada na consulta. O proprietário de cada entidade encontrada é verificado da mesma forma que no
+     * {@link #findOne(Serializable)}
+     *
+     * @param ids ids das entidades
+     * @return entidades na mesma ordem dos ids informados
+     * @throws EntityNotFoundException quando algum id não existe ou não pertence à organização do usuário
+     */
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
         if (ids == null || !ids.iterator().hasNext()) {
             return Collections.emptyList();
         }
-        List<T> toReturn = new ArrayList<>();
+        Class<?> idType = entityInformation.getIdType();
+        List<Object> requested = new ArrayList<>();
         for (ID id : ids) {
-            Object found = findOne(id);
-            if (found != null) {
-                toReturn.add((T) found);
+            requested.add(GumgaQueryParameterBinder.coerce(id, idType));
+        }
+        Map<Object, T> found = findByIds(entityInformation.getJavaType(), requested);
+
+        List<T> toReturn = new ArrayList<>(requested.size());
+        for (Object id : requested) {
+            T entity = found.get(id);
+            if (entity == null) {
+                throw new EntityNotFoundException("cannot find " + entityInformation.getJavaType() + " with id: " + id);
             }
+            toReturn.add(entity);
         }
         return toReturn;
     }
 
+    /**
+     * Pesquisa entidades de qualquer classe pelos ids da mesma forma que o {@link #findAllById(Iterable)}
+     *
+     * @param clazz Classe das entidades
+     * @param ids   ids das entidades, convertidos para o tipo do id da classe
+     * @return entidades encontradas, ids inexistentes ou de outra organização são ignorados
+     */
+    @Override
+    public <A> List<A> genericFindAll(Class<A> clazz, Collection<?> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Class<?> idType = entityManager.getMetamodel().entity(clazz).getIdType().getJavaType();
+        List<Object> requested = new ArrayList<>();
+        for (Object id : ids) {
+            requested.add(GumgaQueryParameterBinder.coerce(id, idType));
+        }
+        return new ArrayList<>(findByIds(clazz, requested).values());
+    }
+
+    /**
+     * Busca as entidades em blocos de {@link #ID_CHUNK_SIZE} ids utilizando IN, com a condição de multitenancy na consulta
+     *
+     * @param clazz Classe das entidades
+     * @param ids   ids já convertidos para o tipo do id
+     * @return entidades encontradas pelo id
+     */
+    private <A> Map<Object, A> findByIds(Class<A> clazz, List<Object> ids) {
+        EntityType<A> entityType = entityManager.getMetamodel().entity(clazz);
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(clazz);
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        boolean ignoreOwnership = Boolean.TRUE.equals(GumgaThreadScope.ignoreCheckOwnership.get());
+        boolean tenancy = descriptor.hasMultitenancy() && GumgaThreadScope.organizationCode.get() != null && !ignoreOwnership;
+        String hql = "select obj from " + entityType.getName() + " obj where obj."
+                + entityType.getId(entityType.getIdType().getJavaType()).getName() + " in (:gumgaIds)";
+        Map<String, Object> tenancyParameters = new LinkedHashMap<>();
+        if (tenancy) {
+            hql += " and " + (descriptor.isShared() ? descriptor.getTenancyHql(tenancyParameters) : descriptor.getTenancyHqlWithNull(tenancyParameters));
+        }
+        // mesma regra do findOne das entidades compartilhadas, que não retorna registros removidos logicamente
+        if (descriptor.hasSharedLogicalDelete() && !ignoreOwnership) {
+            hql += " and obj.gumgaActive = true";
+        }
+
+        Map<Object, A> found = new LinkedHashMap<>();
+        for (int start = 0; start < distinct.size(); start += ID_CHUNK_SIZE) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("gumgaIds", distinct.subList(start, Math.min(start + ID_CHUNK_SIZE, distinct.size())));
+            parameters.putAll(tenancyParameters);
+            List<A> chunk = GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters).getResultList();
+            for (A entity : chunk) {
+                if (!descriptor.isShared()) {
+                    checkOwnership(entity);
+                }
+                found.put(persistenceUnitUtil.getIdentifier(entity), entity);
+            }
+        }
+        return found;
+    }
+
     /**
      * Pesquisa na base de dados baseado na entidade tipada na interface
      *
@@ -662,7 +1053,9 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
     /**
      * Remove todas as entidades tipada na interface
      *
-     * @{@link GumgaCrudRepository} da base dados
+     * @{@link GumgaCrudRepository} da base dados. Com remoção lógica cada entidade é marcada como inativa pelo
+     * {@link #delete(Object)}, passando pela auditoria e pelos listeners; para marcar muitos registros sem carregá-los
+     * utilize {@link #bulkDelete(GQuery)}
      */
     @Override
     public void deleteAll() {
@@ -675,23 +1068,221 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         }
     }
 
+    /**
+     * Com remoção lógica as entidades são apenas marcadas como inativas, como no {@link #delete(Object)}. Sem ela as
+     * entidades são removidas em um único comando, após a verificação de que pertencem à organização do usuário
+     *
+     * @param entities Entidades a remover
+     */
     @Override
     public void deleteInBatch(Iterable<T> entities) {
-        if (hasMultitenancy()) {
-            //em razão do tenenacy ter que verificar um por um , é igual ao delete
+        if (hasLogicalDelete()) {
             delete(entities);
+            return;
+        }
+        List<Object> ids = new ArrayList<>();
+        for (T entity : entities) {
+            if (hasMultitenancy()) {
+                checkOwnership(entity);
+            }
+            ids.add(entityInformation.getId(entity));
         }
         super.deleteInBatch(entities);
+        if (entityDescriptor.hasSharedIndex()) {
+            GumgaShareIndex.removeAll(entityManager, entityDescriptor, ids);
+        }
     }
 
+    /**
+     * Remove cada entidade com o {@link #delete(Object)}, que verifica a organização e aplica a remoção lógica
+     *
+     * @param entities Entidades a remover
+     */
     @Override
     public void delete(Iterable<? extends T> entities) {
-        if (hasMultitenancy()) {
-            for (T entity : entities) {
-                delete(entity);
+        super.delete(entities);
+    }
+
+    @Override
+    public List<ID> findIds(GQuery gQuery) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String joins = gQuery.getJoins(parameters);
+        String hql = "select distinct obj." + entityInformation.getIdAttribute().getName() + " from "
+                + entityInformation.getEntityName() + " obj" + joins + createWhere(gQuery, parameters);
+        return GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters).getResultList();
+    }
+
+    /**
+     * Remoção em lote pelos ids, em comandos de {@link #ID_CHUNK_SIZE} ids. Com remoção lógica é um único
+     * {@code update ... set gumgaActive = false} por bloco, sem remoção lógica é o mesmo que
+     * {@link #bulkDeletePermanent(Collection)}. Apenas os registros da organização do usuário são alterados. Como todo
+     * comando em lote do JPA, não passa pelos listeners das entidades nem gera revisões de auditoria, e as instâncias já
+     * carregadas no contexto de persistência não são atualizadas
+     *
+     * @param ids Ids das entidades
+     * @return Quantidade de registros alterados
+     */
+    @Override
+    public int bulkDelete(Collection<ID> ids) {
+        if (!hasLogicalDelete()) {
+            return bulkDeletePermanent(ids);
+        }
+        return bulkExecute("update " + entityInformation.getEntityName() + " obj set obj.gumgaActive = false", coerceIds(ids));
+    }
+
+    /**
+     * Remoção em lote das entidades do filtro em um único comando, {@code update ... where id in (select ...)} com a
+     * condição do filtro e a organização do usuário na subconsulta, sem carregar os ids. No MySQL, que não permite a
+     * subconsulta na tabela alterada, os ids são carregados e removidos como em {@link #bulkDelete(Collection)}
+     *
+     * @param gQuery Filtro das entidades
+     * @return Quantidade de registros alterados
+     */
+    @Override
+    public int bulkDelete(GQuery gQuery) {
+        if (!hasLogicalDelete()) {
+            return bulkDeletePermanent(gQuery);
+        }
+        if (GumgaQueryParserProvider.getDialect() == GumgaQueryDialect.MYSQL) {
+            return bulkDelete(findIds(gQuery));
+        }
+        return bulkExecute("update " + entityInformation.getEntityName() + " set gumgaActive = false", gQuery);
+    }
+
+    /**
+     * Remoção física em lote pelos ids, em comandos {@code delete} de {@link #ID_CHUNK_SIZE} ids, inclusive de entidades
+     * com remoção lógica. Apenas os registros da organização do usuário são removidos. Como todo comando em lote do
+     * JPA, não executa as cascatas das associações nem gera revisões de auditoria
+     *
+     * @param ids Ids das entidades
+     * @return Quantidade de registros removidos
+     */
+    @Override
+    public int bulkDeletePermanent(Collection<ID> ids) {
+        List<Object> requested = coerceIds(ids);
+        if (entityDescriptor.hasSharedIndex() && isOwnershipFiltered()) {
+            // os compartilhamentos são removidos apenas dos registros da organização, que são os removidos
+            Map<String, Object> ownershipParameters = new LinkedHashMap<>();
+            String hql = "select obj." + entityInformation.getIdAttribute().getName() + " from " + entityInformation.getEntityName()
+                    + " obj where obj." + entityInformation.getIdAttribute().getName() + " in (:gumgaIds) and " + entityDescriptor.getOwnershipHql(ownershipParameters);
+            List<Object> owned = new ArrayList<>();
+            for (int start = 0; start < requested.size(); start += ID_CHUNK_SIZE) {
+                Map<String, Object> parameters = new LinkedHashMap<>(ownershipParameters);
+                parameters.put("gumgaIds", requested.subList(start, Math.min(start + ID_CHUNK_SIZE, requested.size())));
+                owned.addAll(GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters).getResultList());
             }
+            requested = owned;
         }
-        super.delete(entities);
+        int deleted = bulkExecute("delete from " + entityInformation.getEntityName() + " obj", requested);
+        if (entityDescriptor.hasSharedIndex()) {
+            GumgaShareIndex.removeAll(entityManager, entityDescriptor, requested);
+        }
+        return deleted;
+    }
+
+    /**
+     * Remoção física em lote das entidades do filtro em um único comando, {@code delete ... where id in (select ...)},
+     * da mesma forma que {@link #bulkDelete(GQuery)}
+     *
+     * @param gQuery Filtro das entidades
+     * @return Quantidade de registros removidos
+     */
+    @Override
+    public int bulkDeletePermanent(GQuery gQuery) {
+        if (GumgaQueryParserProvider.getDialect() == GumgaQueryDialect.MYSQL) {
+            return bulkDeletePermanent(findIds(gQuery));
+        }
+        if (entityDescriptor.hasSharedIndex()) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            GumgaShareIndex.removeAll(entityManager, entityDescriptor, idsSubquery(gQuery, parameters), parameters);
+        }
+        return bulkExecute("delete from " + entityInformation.getEntityName(), gQuery);
+    }
+
+    private List<Object> coerceIds(Collection<ID> ids) {
+        Class<?> idType = entityInformation.getIdType();
+        Set<Object> requested = new LinkedHashSet<>();
+        if (ids != null) {
+            for (ID id : ids) {
+                requested.add(GumgaQueryParameterBinder.coerce(id, idType));
+            }
+        }
+        return new ArrayList<>(requested);
+    }
+
+    private boolean isOwnershipFiltered() {
+        return hasMultitenancy() && GumgaThreadScope.organizationCode.get() != null
+                && !Boolean.TRUE.equals(GumgaThreadScope.ignoreCheckOwnership.get());
+    }
+
+    /**
+     * Executa o comando em lote em blocos de {@link #ID_CHUNK_SIZE} ids, restrito aos registros da organização do
+     * usuário, e limpa o cache de resultados da entidade após o commit
+     *
+     * @param statement Comando HQL sem where, com o alias obj
+     * @param ids Ids já convertidos para o tipo do id
+     * @return Quantidade de registros alterados
+     */
+    private int bulkExecute(String statement, List<Object> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> ownershipParameters = new LinkedHashMap<>();
+        String hql = statement + " where obj." + entityInformation.getIdAttribute().getName() + " in (:gumgaIds)"
+                + (isOwnershipFiltered() ? " and " + entityDescriptor.getOwnershipHql(ownershipParameters) : "");
+        int count = 0;
+        for (int start = 0; start < ids.size(); start += ID_CHUNK_SIZE) {
+            Map<String, Object> parameters = new LinkedHashMap<>(ownershipParameters);
+            parameters.put("gumgaIds", ids.subList(start, Math.min(start + ID_CHUNK_SIZE, ids.size())));
+            count += GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters).executeUpdate();
+        }
+        invalidateResultCacheAfterCommit();
+        return count;
+    }
+
+    /**
+     * Executa o comando em lote nas entidades do filtro em um único comando, e limpa o cache de resultados da entidade
+     * após o commit
+     *
+     * @param statement Comando HQL sem where e sem alias
+     * @param gQuery Filtro das entidades
+     * @return Quantidade de registros alterados
+     */
+    private int bulkExecute(String statement, GQuery gQuery) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String hql = statement + " where " + entityInformation.getIdAttribute().getName() + " in (" + idsSubquery(gQuery, parameters) + ")";
+        int count = GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters).executeUpdate();
+        invalidateResultCacheAfterCommit();
+        return count;
+    }
+
+    /**
+     * @param gQuery Filtro das entidades
+     * @param parameters Mapa onde os valores dos parâmetros serão adicionados
+     * @return Subconsulta dos ids do filtro, restrita aos registros da organização do usuário como nos comandos em lote
+     */
+    private String idsSubquery(GQuery gQuery, Map<String, Object> parameters) {
+        String joins = gQuery.getJoins(parameters);
+        return "select obj." + entityInformation.getIdAttribute().getName() + " from " + entityInformation.getEntityName() + " obj"
+                + joins + createWhere(gQuery, parameters)
+                + (isOwnershipFiltered() ? " and " + entityDescriptor.getOwnershipHql(parameters) : "");
+    }
+
+    /**
+     * Os comandos em lote não passam pelos eventos do Hibernate que limpam os resultados e os totais em cache no commit
+     */
+    private void invalidateResultCacheAfterCommit() {
+        Class<T> entityClass = entityInformation.getJavaType();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            GumgaSearchCacheListener.invalidate(entityClass);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                GumgaSearchCacheListener.invalidate(entityClass);
+            }
+        });
     }
 
     /**
@@ -710,6 +1301,9 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
             return;
         }
         super.delete(entity);
+        if (entityDescriptor.hasSharedIndex()) {
+            GumgaShareIndex.remove(entityManager, entityDescriptor, entityInformation.getId(entity));
+        }
     }
 
 
@@ -739,22 +1333,69 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
 
     @Override
     public List<GumgaObjectAndRevision> listOldVersions(ID id) {
-        List<GumgaObjectAndRevision> aRetornar = new ArrayList<>();
+        return listRevisions(AuditReaderFactory.get(entityManager), id, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Histórico de revisões paginado, lido com uma única consulta do Envers que traz as versões da entidade junto com o
+     * {@link GumgaRevisionEntity} de cada revisão, além da consulta de contagem
+     *
+     * @param id Id da entidade
+     * @param start Posição da primeira revisão da página, em ordem crescente de revisão
+     * @param pageSize Quantidade de revisões da página
+     * @param diff Se true, retorna apenas os atributos alterados em relação à revisão anterior, sem as versões
+     * @return Revisões da página e a quantidade total de revisões
+     */
+    @Override
+    public SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff) {
         AuditReader ar = AuditReaderFactory.get(entityManager);
-        List<Number> revisoes = ar.getRevisions(entityInformation.getJavaType(), id);
-        for (Number n : revisoes) {
-            GumgaRevisionEntity gumgaRevisionEntity = entityManager.find(GumgaRevisionEntity.class, n.longValue());
-            T object = ar.find(entityInformation.getJavaType(), id, n.longValue());
-            aRetornar.add(new GumgaObjectAndRevision(gumgaRevisionEntity, object));
+        Number count = (Number) revisionsOf(ar, id).addProjection(AuditEntity.revisionNumber().count()).getSingleResult();
+        // a diferença da primeira revisão da página precisa da revisão anterior a ela
+        int first = diff && start > 0 ? start - 1 : start;
+        List<GumgaObjectAndRevision> revisions = listRevisions(ar, id, first, (int) Math.min(Integer.MAX_VALUE, (long) pageSize + start - first));
+        if (diff) {
+            EntityType<T> type = entityManager.getMetamodel().entity(entityInformation.getJavaType());
+            PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+            Object previous = null;
+            for (GumgaObjectAndRevision revision : revisions) {
+                Object current = revision.getObject();
+                revision.setChanges(GumgaRevisionDiff.changes(type, persistenceUnitUtil, previous, current));
+                revision.setObject(null);
+                previous = current;
+            }
+            revisions = revisions.subList(Math.min(start - first, revisions.size()), revisions.size());
+        }
+        return new SearchResult<>(start, pageSize, count, new ArrayList<>(revisions));
+    }
+
+    private AuditQuery revisionsOf(AuditReader ar, ID id) {
+        return ar.createQuery()
+                .forRevisionsOfEntity(entityInformation.getJavaType(), false, true)
+                .add(AuditEntity.id().eq(id));
+    }
+
+    /**
+     * @return Revisões em ordem crescente, a versão da entidade é null nas revisões de remoção
+     */
+    private List<GumgaObjectAndRevision> listRevisions(AuditReader ar, ID id, int first, int max) {
+        List<Object[]> rows = revisionsOf(ar, id)
+                .addOrder(AuditEntity.revisionNumber().asc())
+                .setFirstResult(first)
+                .setMaxResults(max)
+                .getResultList();
+        List<GumgaObjectAndRevision> revisions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            RevisionType revisionType = (RevisionType) row[2];
+            revisions.add(new GumgaObjectAndRevision((GumgaRevisionEntity) row[1], revisionType == RevisionType.DEL ? null : row[0], revisionType));
         }
-        return aRetornar;
+        return revisions;
     }
 
     private void checkOwnership(Object o) throws EntityNotFoundException {
         if (GumgaThreadScope.ignoreCheckOwnership.get() != null && GumgaThreadScope.ignoreCheckOwnership.get()) {
             return;
         }
-        if (!o.getClass().isAnnotationPresent(GumgaMultitenancy.class)) {
+        if (!GumgaEntityDescriptor.of(o.getClass()).hasMultitenancy()) {
             return;
         }
         if (GumgaThreadScope.organizationCode.get() == null) {
@@ -820,21 +1461,11 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         return search(qo);
     }
 
-    private String getWhereMultiTenancy() {
+    private String getWhereMultiTenancy(Map<String, Object> parameters) {
         String tenant = " where ";
 
         if (hasMultitenancy() && GumgaThreadScope.organizationCode.get() != null && (GumgaThreadScope.ignoreCheckOwnership.get() == null || !GumgaThreadScope.ignoreCheckOwnership.get())) {
-            String oiPattern = GumgaMultitenancyUtil.getMultitenancyPattern(entityInformation.getJavaType().getAnnotation(GumgaMultitenancy.class));
-            String oi = "obj.oi is null or obj.oi like '" + oiPattern + "%'";
-            if (GumgaSharedModel.class.isAssignableFrom(entityInformation.getJavaType()) || GumgaSharedModelUUID.class.isAssignableFrom(entityInformation.getJavaType())) {
-                String instanceOi = GumgaThreadScope.instanceOi.get() + GumgaSharedModel.GLOBAL;
-
-                tenant = tenant.concat("(".concat(oi)).concat(" or obj.gumgaOrganizations like '%," + oiPattern + ",%' or "
-                        + "obj.gumgaOrganizations like '%," + instanceOi + ",%' or "
-                        + "obj.gumgaUsers like '%," + GumgaThreadScope.login.get() + ",%') ");
-            } else {
-                tenant = tenant.concat("(").concat(oi).concat(")");
-            }
+            tenant = tenant.concat(entityDescriptor.getTenancyHqlWithNull(parameters));
         } else {
             tenant = tenant.concat(" 1=1");
         }
@@ -842,23 +1473,34 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
     }
 
     public SearchResult<T> findByGQuery(QueryObject queryObject) {
+        return fetch(queryObject, cached(queryObject, q -> findByGQueryWithoutCache(q, null)));
+    }
+
+    private SearchResult findByGQueryWithoutCache(QueryObject queryObject, GumgaProjection projection) {
         if (queryObject.getgQuery() == null) {
             queryObject.setgQuery(new GQuery());
         }
         GQuery gQuery = queryObject.getgQuery();
 
+        boolean nextPage = isNextPageCount(queryObject);
         Long total = 0l;
-        if (queryObject.isSearchCount()) {
-            Query queryCountWithGQuery = createQueryCountWithGQuery(gQuery);
-            total = (Long) queryCountWithGQuery.getSingleResult();
+        if (queryObject.isSearchCount() && !nextPage) {
+            total = countWithStrategy(queryObject, gQuery.hasCriteria(), "gq=" + gQuery.getJoins() + gQuery, () -> (Long) createQueryCountWithGQuery(gQuery).getSingleResult());
         }
 
-        Query queryWithGQuery = createQueryGQueryWithQueryObject(queryObject);
+        GumgaKeysetPagination keyset = queryObject.isKeyset() ? new GumgaKeysetPagination(queryObject, true, entityManager.getMetamodel().managedType(entityInformation.getJavaType())) : null;
+        Query queryWithGQuery = createQueryGQueryWithQueryObject(queryObject, keyset, projection);
 
-        queryWithGQuery.setMaxResults(queryObject.getPageSize());
-        queryWithGQuery.setFirstResult(queryObject.getStart());
+        queryWithGQuery.setMaxResults(pageLimit(queryObject));
+        if (keyset == null) {
+            queryWithGQuery.setFirstResult(queryObject.getStart());
+        }
+        List resultList = queryWithGQuery.getResultList();
+        if (nextPage) {
+            total = nextPageCount(queryObject, resultList, keyset != null);
+        }
 
-        return new SearchResult(queryObject, total, queryWithGQuery.getResultList());
+        return new SearchResult(queryObject, total, resultList, keyset == null ? null : keyset.nextCursor(resultList, queryObject.getPageSize()));
     }
 
     @Override
@@ -882,18 +1524,50 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         return resultList;
     }
 
+    @Override
+    public List<Map<String, Object>> aggregate(GQuery gQuery) {
+        if (!gQuery.hasAggregation()) {
+            throw new IllegalArgumentException("A agregação precisa de ao menos uma projeção");
+        }
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String joins = gQuery.getJoins(parameters);
+        String where = createWhere(gQuery, parameters);
+        if (hasLogicalDelete()) {
+            where = where.concat(" and obj.gumgaActive = true");
+        }
+        String groupBy = gQuery.getGroupByHql();
+        String hql = "select " + gQuery.getSelectHql() + " from " + entityInformation.getEntityName() + " obj"
+                + joins + where + groupBy + gQuery.getHavingHql(parameters)
+                + (groupBy.isEmpty() ? "" : groupBy.replaceFirst(" group by ", " order by "));
+
+        List<Projection> projections = gQuery.getProjections();
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object row : GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters).getResultList()) {
+            Object[] values = projections.size() == 1 ? new Object[]{row} : (Object[]) row;
+            Map<String, Object> line = new LinkedHashMap<>();
+            for (int i = 0; i < projections.size(); i++) {
+                line.put(projections.get(i).getName(), values[i]);
+            }
+            result.add(line);
+        }
+        return result;
+    }
+
     @Override
     public void deletePermanentGumgaLDModel(T entity) {
         super.delete(entity);
+        if (entityDescriptor.hasSharedIndex()) {
+            GumgaShareIndex.remove(entityManager, entityDescriptor, entityInformation.getId(entity));
+        }
     }
 
     @Override
     public void deletePermanentGumgaLDModel(ID id) {
-        super.delete(findOne(id));
+        deletePermanentGumgaLDModel(findOne(id));
     }
 
 
-    private Query createQueryGQueryWithQueryObject(QueryObject queryObject) {
+    private Query createQueryGQueryWithQueryObject(QueryObject queryObject, GumgaKeysetPagination keyset, GumgaProjection projection) {
         if (queryObject.getgQuery() == null) {
             queryObject.setgQuery(new GQuery());
         }
@@ -905,13 +1579,30 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
 //        if(!sortField.isEmpty()) {
 //            sort = sortField + ("asc".equals(sortDir) ? " asc" : " desc");
 //        }
-        String sort = getOrderField(queryObject.getSortField(), queryObject.getSortDir());
+        String sort = keyset != null ? keyset.toOrderHql() : getOrderField(queryObject.getSortField(), queryObject.getSortDir());
         Boolean useDistinct = gQuery.useDistinct();
         String query = (useDistinct ? "select distinct" : "select") + " obj FROM ".concat(entityInformation.getEntityName()).concat(" obj");
 
-        String where = createWhere(gQuery);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String joins = gQuery.getJoins(parameters);
+        if (projection != null) {
+            // com distinct, as expressões da ordenação também precisam estar no select
+            List<String> orderExpressions = new ArrayList<>();
+            if (useDistinct) {
+                for (String order : sort.split(",")) {
+                    orderExpressions.add(order.trim().replaceFirst("(?i)\\s+(asc|desc)(\\s+nulls\\s+(first|last))?$", ""));
+                }
+            }
+            query = (useDistinct ? "select distinct " : "select ") + projection.getSelect(orderExpressions)
+                    + " FROM " + entityInformation.getEntityName() + " obj";
+            joins = joins.concat(projection.getJoins());
+        }
+        String where = createWhere(gQuery, parameters);
+        if (keyset != null && keyset.hasCursor()) {
+            where = where.concat(" and ").concat(keyset.toHql(parameters));
+        }
 
-        return entityManager.createQuery(query.concat(gQuery.getJoins()).concat(where).concat(" order by ").concat(sort));
+        return GumgaQueryParameterBinder.bind(entityManager.createQuery(query.concat(joins).concat(where).concat(" order by ").concat(sort)), parameters);
     }
 
     private void getOrderField(Pesquisa<T> pesquisa, String sortField, String sorDir) {
@@ -987,42 +1678,50 @@ public class GumgaGenericRepository<T, ID extends Serializable> extends SimpleJp
         Boolean useDistinct = gQuery.useDistinct();
         String query = (useDistinct ? "select distinct" : "select") + " obj FROM ".concat(entityInformation.getEntityName()).concat(" obj");
 
-        String where = createWhere(gQuery);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String joins = gQuery.getJoins(parameters);
+        String where = createWhere(gQuery, parameters);
 
-        return entityManager.createQuery(query.concat(gQuery.getJoins()).concat(where));
+        return GumgaQueryParameterBinder.bind(entityManager.createQuery(query.concat(joins).concat(where)), parameters);
     }
 
     private Query createQueryCountWithGQuery(GQuery gQuery) {
         Boolean useDistinct = gQuery.useDistinct();
         String query = (useDistinct ? "select distinct" : "select") + " count(obj) FROM ".concat(entityInformation.getEntityName()).concat(" obj");
 
-        String where = createWhere(gQuery);
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-//        criteriaBuilder.
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String joins = gQuery.getJoins(parameters);
+        String where = createWhere(gQuery, parameters);
 
-        return entityManager.createQuery(query.concat(gQuery.getJoins()).concat(where));
+        return GumgaQueryParameterBinder.bind(entityManager.createQuery(query.concat(joins).concat(where)), parameters);
     }
 
-    private String createWhere(GQuery gQuery) {
-        String gQueryWhere = gQuery.toString();
+    /**
+     * Monta a condição da consulta com os valores como parâmetros nomeados, consultas de mesmo formato
+     * geram o mesmo HQL e reaproveitam o plano de consulta do Hibernate
+     * @param gQuery Consulta
+     * @param parameters Mapa onde os valores dos parâmetros serão adicionados
+     * @return Condição da consulta
+     */
+    private String createWhere(GQuery gQuery, Map<String, Object> parameters) {
+        GQuery where = entityDescriptor.hasNormalizedFields() ? gQuery.withNormalizedFields(entityDescriptor::getNormalizedField) : gQuery;
+        String gQueryWhere = where.toHql(parameters);
 
-        if (GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getMySqlLikeMap())) {
-            gQueryWhere = removeFunctionToTimestamp(gQueryWhere)
-                    .replaceAll("translate\\(", "")
-                    .replaceAll(", 'âàãáÁÂÀÃéêÉÊíÍóôõÓÔÕüúÜÚÇç','AAAAAAAAEEEEIIOOOOOOUUUUCC'\\)", "");
-        } else {
-            if (GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getH2LikeMap())) {
-                gQueryWhere = removeFunctionToTimestamp(gQueryWhere);
-            }
+        if (GumgaQueryParserProvider.getDialect() == GumgaQueryDialect.MYSQL) {
+            gQueryWhere = removeFunctionTranslate(gQueryWhere);
         }
 
-        return getWhereMultiTenancy().concat(StringUtils.isEmpty(gQueryWhere) ? "" : " and ".concat(gQueryWhere));
+        return getWhereMultiTenancy(parameters).concat(StringUtils.isEmpty(gQueryWhere) ? "" : " and ".concat(gQueryWhere));
     }
 
-    private String removeFunctionToTimestamp(String gQueryWhere) {
-        gQueryWhere = gQueryWhere.replaceAll("to_timestamp\\(", "")
-                .replaceAll(",'yyyy/MM/dd HH24:mi:ss'\\)", "");
-        return gQueryWhere;
+    /**
+     * O MySQL não possui a função translate, a comparação sem acentos fica a cargo do collation da coluna
+     * @param gQueryWhere Condição da consulta
+     * @return Condição sem a função translate
+     */
+    private String removeFunctionTranslate(String gQueryWhere) {
+        return gQueryWhere.replaceAll("translate\\(", "")
+                .replaceAll(",\\s*" + Pattern.quote(Criteria.SOURCE_CHARS) + "\\s*,\\s*" + Pattern.quote(Criteria.TARGET_CHARS) + "\\)", "");
     }
 
 }
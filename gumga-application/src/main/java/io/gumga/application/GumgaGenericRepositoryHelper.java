@@ -3,15 +3,16 @@ package io.gumga.application;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gumga.core.QueryObjectElement;
+import io.gumga.core.utils.AsciiFolding;
 import io.gumga.core.utils.ReflectionUtils;
 import io.gumga.domain.AbstractStringCriterionParser;
+import io.gumga.domain.GumgaQueryDialect;
 import io.gumga.domain.GumgaQueryParserProvider;
 import io.gumga.domain.domains.GumgaMoney;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.text.Normalizer;
 import java.util.*;
 import org.apache.commons.lang.StringEscapeUtils;
 
@@ -155,7 +156,7 @@ public class GumgaGenericRepositoryHelper {
                     type = field.getType();
                 }
                 GumgaFieldStereotype fieldStereotype = getFieldStereotype(type);
-                if (GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getOracleLikeMap()) && fieldStereotype == GumgaFieldStereotype.TEXT) {
+                if (GumgaQueryParserProvider.getDialect() == GumgaQueryDialect.ORACLE && fieldStereotype == GumgaFieldStereotype.TEXT) {
                     aRetornar += "upper(translate(obj." + qoe.getAttribute()
                             + ",'" + AbstractStringCriterionParser.SOURCE_CHARS + "','" + AbstractStringCriterionParser.TARGET_CHARS + "'"
                             + ")" + ")";
@@ -178,9 +179,7 @@ public class GumgaGenericRepositoryHelper {
      * @return parametro sem acentos
      */
     public static String removeAcentos(String str) {
-        str = Normalizer.normalize(str, Normalizer.Form.NFD);
-        str = str.replaceAll("[^\\p{ASCII}]", "");
-        return str;
+        return AsciiFolding.fold(str);
 
     }
     
@@ -0,0 +1,139 @@
+package io.gumga.application;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reindexação executada em segundo plano pelo {@link GumgaIndexManager}, com o progresso e a vazão da indexação
+ *
+ * @author Equipe Gumga
+ */
+public class GumgaIndexJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private final long id;
+    private final List<String> entities;
+    private final String oi;
+    private final Date startedAt = new Date();
+    private final LongAdder total = new LongAdder();
+    private final LongAdder loaded = new LongAdder();
+    private final LongAdder indexed = new LongAdder();
+    private volatile Status status = Status.RUNNING;
+    private volatile Date finishedAt;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    GumgaIndexJob(long id, List<String> entities, String oi) {
+        this.id = id;
+        this.entities = entities;
+        this.oi = oi;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public List<String> getEntities() {
+        return entities;
+    }
+
+    /**
+     * @return Prefixo do oi reindexado, ou null quando todas as organizações são reindexadas
+     */
+    public String getOi() {
+        return oi;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return Quantidade de entidades a indexar, conhecida à medida que os ids são carregados
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getLoaded() {
+        return loaded.sum();
+    }
+
+    public long getIndexed() {
+        return indexed.sum();
+    }
+
+    /**
+     * @return Documentos indexados por segundo desde o início da reindexação
+     */
+    public double getThroughput() {
+        long end = finishedAt == null ? System.currentTimeMillis() : finishedAt.getTime();
+        long elapsed = Math.max(1L, end - startedAt.getTime());
+        return getIndexed() * 1000d / elapsed;
+    }
+
+    boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void addTotal(long count) {
+        total.add(count);
+    }
+
+    void addLoaded(long count) {
+        loaded.add(count);
+    }
+
+    void addIndexed(long count) {
+        indexed.add(count);
+    }
+
+    void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void fail(Throwable throwable) {
+        finish(Status.FAILED, String.valueOf(throwable));
+    }
+
+    boolean cancel() {
+        if (status != Status.RUNNING) {
+            return false;
+        }
+        finish(Status.CANCELLED, null);
+        Future<?> running = future;
+        if (running != null) {
+            running.cancel(true);
+        }
+        return true;
+    }
+
+    private synchronized void finish(Status status, String error) {
+        if (this.status == Status.RUNNING) {
+            this.status = status;
+            this.error = error;
+            this.finishedAt = new Date();
+        }
+    }
+}
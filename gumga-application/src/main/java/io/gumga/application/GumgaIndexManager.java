@@ -0,0 +1,458 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.GumgaValues;
+import io.gumga.core.exception.ForbiddenException;
+import io.gumga.domain.GumgaEntityDescriptor;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.search.FullTextSession;
+import org.hibernate.search.MassIndexer;
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.search.query.dsl.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Manutenção dos índices do Hibernate Search em segundo plano, sem bloquear a API:
+ * <ul>
+ * <li>reindexação completa de entidades pelo {@link MassIndexer}, com lotes e threads definidos por
+ * {@link GumgaValues#getIndexBatchSize()} e {@link GumgaValues#getIndexThreads()};</li>
+ * <li>reindexação incremental das entidades de uma organização, que atualiza os documentos sem apagar o índice;</li>
+ * <li>verificação da consistência do índice por amostragem das linhas da tabela visíveis para o usuário atual;</li>
+ * <li>preenchimento da tabela {@link io.gumga.domain.shared.GumgaShare} das entidades anotadas com
+ * {@link io.gumga.domain.shared.GumgaSharedIndex} que já possuem registros.</li>
+ * </ul>
+ * Durante a reindexação completa o índice da entidade é recriado e as pesquisas textuais dessa entidade retornam apenas
+ * os documentos já indexados. As reindexações finalizadas são descartadas após {@link GumgaValues#getIndexJobRetention()}
+ *
+ * @author Equipe Gumga
+ */
+@Service
+public class GumgaIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(GumgaIndexManager.class);
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired(required = false)
+    private GumgaValues gumgaValues;
+
+    private final Map<Long, GumgaIndexJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private ExecutorService executor;
+    private ExecutorService watcher;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(daemon("gumga-indexer"));
+        watcher = Executors.newCachedThreadPool(daemon("gumga-indexer-watcher"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobs.values().forEach(GumgaIndexJob::cancel);
+        executor.shutdownNow();
+        watcher.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @return Classes das entidades anotadas com {@link org.hibernate.search.annotations.Indexed}
+     */
+    public Set<Class<?>> getIndexedTypes() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return Search.getFullTextEntityManager(entityManager).getSearchFactory().getIndexedTypes();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * @param name Nome simples ou completo da classe
+     * @return Classe da entidade indexada
+     * @throws IllegalArgumentException se a entidade não é indexada
+     */
+    public Class<?> getIndexedType(String name) {
+        for (Class<?> indexedType : getIndexedTypes()) {
+            if (indexedType.getName().equals(name) || indexedType.getSimpleName().equals(name)) {
+                return indexedType;
+            }
+        }
+        throw new IllegalArgumentException("Entidade não indexada: " + name);
+    }
+
+    /**
+     * Recria o índice das entidades com o {@link MassIndexer}
+     *
+     * @param entities Entidades, ou nenhuma para todas as entidades indexadas
+     * @return Reindexação iniciada
+     */
+    public GumgaIndexJob reindex(Class<?>... entities) {
+        Class<?>[] types = entities.length == 0 ? getIndexedTypes().toArray(new Class<?>[0]) : entities;
+        GumgaIndexJob job = register(types, null);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            MassIndexer indexer = Search.getFullTextEntityManager(entityManager).createIndexer(types)
+                    .batchSizeToLoadObjects(getBatchSize())
+                    .threadsToLoadObjects(Math.max(1, gumgaValues == null ? 2 : gumgaValues.getIndexThreads()))
+                    .cacheMode(CacheMode.IGNORE)
+                    .progressMonitor(new JobProgressMonitor(job));
+            Future<?> future = indexer.start();
+            job.setFuture(future);
+            watcher.execute(() -> watch(job, future));
+        } catch (RuntimeException e) {
+            job.fail(e);
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+        return job;
+    }
+
+    /**
+     * Finaliza a reindexação com o resultado do {@link MassIndexer}, que não informa as falhas ao monitor de progresso
+     */
+    static void watch(GumgaIndexJob job, Future<?> future) {
+        try {
+            future.get();
+            job.complete();
+        } catch (CancellationException e) {
+            job.cancel();
+        } catch (ExecutionException e) {
+            log.error("Erro ao reindexar " + job.getEntities(), e.getCause());
+            job.fail(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reindexa apenas as entidades de uma organização, atualizando os documentos existentes sem apagar o índice.
+     * As reindexações por organização são executadas uma de cada vez
+     *
+     * @param entity Entidade com multitenancy
+     * @param oi Prefixo do oi da organização, que deve pertencer à organização do usuário atual
+     * @return Reindexação agendada
+     * @throws ForbiddenException se não há organização atual ou o oi não pertence a ela
+     */
+    public GumgaIndexJob reindex(Class<?> entity, String oi) {
+        if (oi == null) {
+            throw new IllegalArgumentException("Informe o oi da organização");
+        }
+        String organizationCode = GumgaThreadScope.organizationCode.get();
+        if (organizationCode == null || !oi.startsWith(organizationCode)) {
+            throw new ForbiddenException("A organização " + organizationCode + " não pode reindexar o oi " + oi);
+        }
+        GumgaIndexJob job = register(new Class<?>[]{entity}, oi);
+        job.setFuture(executor.submit(() -> reindexTenant(job, entity, oi)));
+        return job;
+    }
+
+    private void reindexTenant(GumgaIndexJob job, Class<?> entity, String oi) {
+        int batchSize = getBatchSize();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            FullTextSession session = Search.getFullTextSession(entityManager.unwrap(Session.class));
+            session.setFlushMode(FlushMode.MANUAL);
+            session.setCacheMode(CacheMode.IGNORE);
+            entityManager.getTransaction().begin();
+            job.addTotal((Long) session.createQuery("select count(obj) from " + entity.getName() + " obj where obj.oi like :oi")
+                    .setParameter("oi", oi + "%").uniqueResult());
+            ScrollableResults results = session.createQuery("from " + entity.getName() + " obj where obj.oi like :oi")
+                    .setParameter("oi", oi + "%")
+                    .setFetchSize(batchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                int pending = 0;
+                while (!job.isCancelled() && results.next()) {
+                    session.index(results.get(0));
+                    job.addLoaded(1);
+                    if (++pending == batchSize) {
+                        session.flushToIndexes();
+                        session.clear();
+                        job.addIndexed(pending);
+                        pending = 0;
+                    }
+                }
+                session.flushToIndexes();
+                job.addIndexed(pending);
+            } finally {
+                results.close();
+            }
+            entityManager.getTransaction().commit();
+            job.complete();
+        } catch (RuntimeException e) {
+            log.error("Erro ao reindexar " + entity.getName() + " da organização " + oi, e);
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            job.fail(e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * @param name Nome simples ou completo da classe
+     * @return Classe da entidade anotada com {@link io.gumga.domain.shared.GumgaSharedIndex}
+     * @throws IllegalArgumentException se a entidade não mantém a tabela de compartilhamentos
+     */
+    public Class<?> getSharedIndexType(String name) {
+        for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entityType.getJavaType();
+            if ((type.getName().equals(name) || type.getSimpleName().equals(name)) && GumgaEntityDescriptor.of(type).hasSharedIndex()) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Entidade sem @GumgaSharedIndex: " + name);
+    }
+
+    /**
+     * Recria a tabela {@link io.gumga.domain.shared.GumgaShare} de uma entidade a partir de gumga_orgs e gumga_users de
+     * todas as organizações. Deve ser executada uma vez ao anotar com {@link io.gumga.domain.shared.GumgaSharedIndex} uma
+     * entidade que já possui registros, pois até lá os compartilhamentos existentes não são encontrados pelas pesquisas.
+     * Percorre a tabela em lotes de {@link GumgaValues#getIndexBatchSize()} entidades, cada lote na sua transação
+     *
+     * @param entity Entidade anotada com {@link io.gumga.domain.shared.GumgaSharedIndex}
+     * @return Reconstrução agendada
+     */
+    public GumgaIndexJob rebuildShares(Class<?> entity) {
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(entity);
+        if (!descriptor.hasSharedIndex()) {
+            throw new IllegalArgumentException("Entidade sem @GumgaSharedIndex: " + entity.getName());
+        }
+        GumgaIndexJob job = register(new Class<?>[]{entity}, null);
+        job.setFuture(executor.submit(() -> rebuildShares(job, descriptor)));
+        return job;
+    }
+
+    private void rebuildShares(GumgaIndexJob job, GumgaEntityDescriptor descriptor) {
+        Class<?> entity = descriptor.getEntityClass();
+        int batchSize = getBatchSize();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Session session = entityManager.unwrap(Session.class);
+            session.setCacheMode(CacheMode.IGNORE);
+            String idProperty = session.getSessionFactory().getClassMetadata(entity).getIdentifierPropertyName();
+            job.addTotal((Long) entityManager.createQuery("select count(obj) from " + entity.getName() + " obj").getSingleResult());
+            Object last = null;
+            while (!job.isCancelled()) {
+                entityManager.getTransaction().begin();
+                Query query = entityManager.createQuery("from " + entity.getName() + " obj"
+                        + (last == null ? "" : " where obj." + idProperty + " > :last") + " order by obj." + idProperty);
+                if (last != null) {
+                    query.setParameter("last", last);
+                }
+                List<?> entities = query.setMaxResults(batchSize).getResultList();
+                if (entities.isEmpty()) {
+                    entityManager.getTransaction().commit();
+                    break;
+                }
+                job.addLoaded(entities.size());
+                GumgaShareIndex.rebuild(entityManager, descriptor, entities);
+                entityManager.getTransaction().commit();
+                job.addIndexed(entities.size());
+                last = session.getIdentifier(entities.get(entities.size() - 1));
+                entityManager.clear();
+            }
+            job.complete();
+        } catch (RuntimeException e) {
+            log.error("Erro ao recriar os compartilhamentos de " + entity.getName(), e);
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            job.fail(e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Compara a quantidade de linhas da tabela com a de documentos do índice e verifica se uma amostra de ids da tabela
+     * está no índice. Nas entidades com multitenancy apenas as linhas e os documentos visíveis para o usuário atual são
+     * considerados
+     *
+     * @param entity Entidade indexada
+     * @param sampleSize Quantidade de linhas da amostra, limitada ao máximo de cláusulas de uma consulta do Lucene
+     * @return rows, documents, sampled e missing (ids da amostra que não estão no índice). documents é null quando o
+     * índice não pode ser limitado à organização do usuário ({@link GumgaOiClassBridge#tenancyQuery})
+     */
+    public Map<String, Object> check(Class<?> entity, int sampleSize) {
+        sampleSize = Math.max(0, Math.min(sampleSize, BooleanQuery.getMaxClauseCount()));
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(entity);
+        boolean scoped = descriptor.getMultitenancy() != null && GumgaThreadScope.organizationCode.get() != null;
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String where = scoped ? " where " + descriptor.getTenancyHql(parameters) : "";
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
+            String idProperty = entityManager.unwrap(Session.class).getSessionFactory().getClassMetadata(entity).getIdentifierPropertyName();
+            long rows = (Long) GumgaQueryParameterBinder.bind(entityManager.createQuery("select count(obj) from " + entity.getName() + " obj" + where), parameters)
+                    .getSingleResult();
+            org.apache.lucene.search.Query documentsQuery = !scoped ? new MatchAllDocsQuery()
+                    : GumgaOiClassBridge.isDeclaredOn(entity) ? GumgaOiClassBridge.tenancyQuery(descriptor) : null;
+            Integer documents = documentsQuery == null ? null : fullTextEntityManager.createFullTextQuery(documentsQuery, entity).getResultSize();
+
+            int start = rows > sampleSize ? ThreadLocalRandom.current().nextInt((int) Math.min(Integer.MAX_VALUE, rows - sampleSize)) : 0;
+            List<?> sample = GumgaQueryParameterBinder.bind(entityManager.createQuery("select obj." + idProperty + " from " + entity.getName() + " obj"
+                    + where + " order by obj." + idProperty), parameters)
+                    .setFirstResult(start)
+                    .setMaxResults(sampleSize)
+                    .getResultList();
+
+            Set<Object> missing = new HashSet<>(sample);
+            if (!sample.isEmpty()) {
+                QueryBuilder builder = fullTextEntityManager.getSearchFactory().buildQueryBuilder().forEntity(entity).get();
+                BooleanQuery ids = new BooleanQuery();
+                for (Object id : sample) {
+                    ids.add(builder.keyword().onField(idProperty).matching(id).createQuery(), BooleanClause.Occur.SHOULD);
+                }
+                FullTextQuery query = fullTextEntityManager.createFullTextQuery(ids, entity);
+                query.setProjection(ProjectionConstants.ID);
+                query.setMaxResults(sample.size());
+                for (Object row : query.getResultList()) {
+                    missing.remove(((Object[]) row)[0]);
+                }
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("entity", entity.getName());
+            result.put("rows", rows);
+            result.put("documents", documents);
+            result.put("sampled", sample.size());
+            result.put("missing", new ArrayList<>(missing));
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * @return Reindexações em execução e as finalizadas há menos de {@link GumgaValues#getIndexJobRetention()}
+     */
+    public Collection<GumgaIndexJob> getJobs() {
+        expireJobs(System.currentTimeMillis());
+        return jobs.values();
+    }
+
+    public GumgaIndexJob getJob(long id) {
+        expireJobs(System.currentTimeMillis());
+        return jobs.get(id);
+    }
+
+    /**
+     * Descarta as reindexações finalizadas há mais de {@link GumgaValues#getIndexJobRetention()}
+     *
+     * @param now Instante atual em milissegundos
+     */
+    void expireJobs(long now) {
+        long retention = gumgaValues == null ? 60L * 60L * 1000L : gumgaValues.getIndexJobRetention();
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && now - job.getFinishedAt().getTime() > retention);
+    }
+
+    /**
+     * @param id Id da reindexação
+     * @return true se a reindexação estava em execução e foi cancelada
+     */
+    public boolean cancel(long id) {
+        GumgaIndexJob job = jobs.get(id);
+        return job != null && job.cancel();
+    }
+
+    private GumgaIndexJob register(Class<?>[] entities, String oi) {
+        expireJobs(System.currentTimeMillis());
+        List<String> names = Arrays.stream(entities).map(Class::getName).collect(Collectors.toList());
+        GumgaIndexJob job = new GumgaIndexJob(sequence.incrementAndGet(), names, oi);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private int getBatchSize() {
+        return Math.max(1, gumgaValues == null ? 50 : gumgaValues.getIndexBatchSize());
+    }
+
+    /**
+     * Atualiza o progresso da reindexação com os eventos do {@link MassIndexer}. O término, inclusive com falha, é
+     * registrado pelo {@link #watch(GumgaIndexJob, Future)}
+     */
+    private static class JobProgressMonitor implements MassIndexerProgressMonitor {
+
+        private final GumgaIndexJob job;
+
+        private JobProgressMonitor(GumgaIndexJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void documentsAdded(long increment) {
+            job.addIndexed(increment);
+        }
+
+        @Override
+        public void documentsBuilt(int number) {
+        }
+
+        @Override
+        public void entitiesLoaded(int size) {
+            job.addLoaded(size);
+        }
+
+        @Override
+        public void addToTotalCount(long count) {
+            job.addTotal(count);
+        }
+
+        @Override
+        public void indexingCompleted() {
+        }
+    }
+}
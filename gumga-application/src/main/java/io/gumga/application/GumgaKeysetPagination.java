@@ -0,0 +1,311 @@
+package io.gumga.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gumga.core.QueryObject;
+import io.gumga.domain.Pesquisa;
+import org.hibernate.NullPrecedence;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Paginação por chave (keyset/seek) das pesquisas do {@link GumgaGenericRepository}.
+ * Ao invés de descartar os registros anteriores com setFirstResult, a próxima página é buscada a partir
+ * dos valores de ordenação do último registro retornado, com o id como critério de desempate.
+ * Os valores são transportados entre as requisições em um token opaco (JSON em Base64 URL) e convertidos
+ * de volta para o tipo do atributo de ordenação no metamodelo, nunca para um tipo informado pelo cliente.
+ * Valores nulos são tratados como maiores que todos os outros: a ordenação da pesquisa por chave usa
+ * nulls last nas colunas ascendentes e nulls first nas descendentes, em qualquer banco
+ */
+public class GumgaKeysetPagination {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ID = "id";
+    private static final String INVALID_CURSOR = "Invalid search cursor";
+
+    private final List<String> columns = new ArrayList<>();
+    private final List<Boolean> descending = new ArrayList<>();
+    private final List<Class<?>> types = new ArrayList<>();
+    private final List<Object> values;
+    private final boolean hql;
+
+    /**
+     * @param query Pesquisa com o token de continuação
+     * @param hql true quando as colunas serão utilizadas em HQL com o alias obj, false para Criteria
+     * @param entityType Tipo da entidade no metamodelo, de onde vêm os tipos dos valores do token
+     * @throws IllegalArgumentException se um campo de ordenação não é um atributo da entidade
+     */
+    public GumgaKeysetPagination(QueryObject query, boolean hql, ManagedType<?> entityType) {
+        this.hql = hql;
+        parseOrder(query.getSortField(), query.getSortDir());
+        for (String column : columns) {
+            types.add(attributeType(entityType, propertyPath(column)));
+        }
+        this.values = decode(query.getCursor());
+    }
+
+    /**
+     * Monta as colunas de ordenação da mesma forma que o {@link GumgaGenericRepository}, incluindo o id
+     * ao final quando ele não foi informado
+     */
+    private void parseOrder(String sortField, String sortDir) {
+        String[] fields = sortField == null || sortField.trim().isEmpty() ? new String[0] : sortField.split(",");
+        String[] types = sortDir == null ? new String[0] : sortDir.split(",");
+        boolean existsID = false;
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i].trim();
+            columns.add(field);
+            descending.add(i < types.length && types[i].trim().equalsIgnoreCase("desc"));
+            existsID = existsID || ID.equals(propertyPath(field));
+        }
+        if (!existsID) {
+            columns.add(hql ? "obj." + ID : ID);
+            descending.add(false);
+        }
+    }
+
+    private static Class<?> attributeType(ManagedType<?> entityType, String path) {
+        ManagedType<?> type = entityType;
+        Class<?> javaType = null;
+        for (String name : path.split("\\.")) {
+            Attribute<?, ?> attribute = null;
+            if (type != null) {
+                for (Attribute<?, ?> candidate : type.getAttributes()) {
+                    if (candidate.getName().equals(name)) {
+                        attribute = candidate;
+                    }
+                }
+            }
+            if (!(attribute instanceof SingularAttribute)) {
+                throw new IllegalArgumentException("The sort field " + path + " cannot be used with a search cursor");
+            }
+            Type<?> attributeType = ((SingularAttribute<?, ?>) attribute).getType();
+            type = attributeType instanceof ManagedType ? (ManagedType<?>) attributeType : null;
+            javaType = attribute.getJavaType();
+        }
+        return javaType;
+    }
+
+    /**
+     * @return true se o token informado possui valores, false na primeira página
+     */
+    public boolean hasCursor() {
+        return values != null;
+    }
+
+    /**
+     * @return Ordenação HQL da pesquisa por chave, com a posição dos nulos explícita
+     */
+    public String toOrderHql() {
+        StringJoiner order = new StringJoiner(",");
+        for (int i = 0; i < columns.size(); i++) {
+            order.add(columns.get(i) + (descending.get(i) ? " desc nulls first" : " asc nulls last"));
+        }
+        return order.toString();
+    }
+
+    /**
+     * Mesma ordenação de {@link #toOrderHql()} aplicada na pesquisa com Criteria
+     *
+     * @param pesquisa Pesquisa sem ordenação
+     */
+    public void addOrder(Pesquisa<?> pesquisa) {
+        for (int i = 0; i < columns.size(); i++) {
+            pesquisa.addOrder(descending.get(i) ? Order.desc(columns.get(i)).nulls(NullPrecedence.FIRST)
+                    : Order.asc(columns.get(i)).nulls(NullPrecedence.LAST));
+        }
+    }
+
+    /**
+     * Condição HQL que seleciona os registros posteriores ao último registro da página anterior
+     *
+     * @param parameters Mapa onde os valores dos parâmetros serão adicionados
+     * @return Condição HQL ou null na primeira página
+     */
+    public String toHql(Map<String, Object> parameters) {
+        if (!hasCursor()) {
+            return null;
+        }
+        StringJoiner or = new StringJoiner(" or ", "(", ")");
+        for (int i = 0; i < columns.size(); i++) {
+            if (!hasAfter(i)) {
+                continue;
+            }
+            StringJoiner and = new StringJoiner(" and ", "(", ")");
+            for (int j = 0; j < i; j++) {
+                and.add(equalHql(j, parameters));
+            }
+            and.add(afterHql(i, parameters));
+            or.add(and.toString());
+        }
+        return or.toString();
+    }
+
+    /**
+     * Com os nulos no fim, não há registros depois de um nulo em uma coluna ascendente
+     */
+    private boolean hasAfter(int index) {
+        return values.get(index) != null || descending.get(index);
+    }
+
+    private String afterHql(int index, Map<String, Object> parameters) {
+        String column = columns.get(index);
+        if (values.get(index) == null) {
+            return column + " is not null";
+        }
+        String name = "gumgaKeyset" + parameters.size();
+        parameters.put(name, values.get(index));
+        return descending.get(index) ? column + " < :" + name : "(" + column + " > :" + name + " or " + column + " is null)";
+    }
+
+    private String equalHql(int index, Map<String, Object> parameters) {
+        if (values.get(index) == null) {
+            return columns.get(index) + " is null";
+        }
+        String name = "gumgaKeyset" + parameters.size();
+        parameters.put(name, values.get(index));
+        return columns.get(index) + " = :" + name;
+    }
+
+    /**
+     * Mesma condição de {@link #toHql(Map)} no formato Criteria do Hibernate
+     *
+     * @return Criterion ou null na primeira página
+     */
+    public Criterion toCriterion() {
+        if (!hasCursor()) {
+            return null;
+        }
+        List<Criterion> branches = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if (!hasAfter(i)) {
+                continue;
+            }
+            List<Criterion> conditions = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                conditions.add(values.get(j) == null ? Restrictions.isNull(columns.get(j)) : Restrictions.eq(columns.get(j), values.get(j)));
+            }
+            conditions.add(afterCriterion(i));
+            branches.add(Restrictions.and(conditions.toArray(new Criterion[conditions.size()])));
+        }
+        return Restrictions.or(branches.toArray(new Criterion[branches.size()]));
+    }
+
+    private Criterion afterCriterion(int index) {
+        String column = columns.get(index);
+        if (values.get(index) == null) {
+            return Restrictions.isNotNull(column);
+        }
+        return descending.get(index) ? Restrictions.lt(column, values.get(index))
+                : Restrictions.or(Restrictions.gt(column, values.get(index)), Restrictions.isNull(column));
+    }
+
+    /**
+     * Gera o token de continuação a partir do último registro da página
+     *
+     * @param data Registros da página atual
+     * @param pageSize Tamanho da página
+     * @return Token ou null quando não há próxima página
+     */
+    public String nextCursor(List<?> data, int pageSize) {
+        if (data == null || data.isEmpty() || data.size() < pageSize) {
+            return null;
+        }
+        BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(data.get(data.size() - 1));
+        List<String> encoded = new ArrayList<>();
+        for (String column : columns) {
+            encoded.add(encodeValue(last.getPropertyValue(propertyPath(column))));
+        }
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("s", signature());
+        token.put("v", encoded);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(token));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create the search cursor", e);
+        }
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (isTemporal(value.getClass())) {
+            return String.valueOf(((Date) GumgaQueryParameterBinder.coerce(value, Date.class)).getTime());
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        Map<String, Object> token;
+        try {
+            token = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor.trim()), Map.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+        Object encoded = token.get("v");
+        if (!signature().equals(token.get("s")) || !(encoded instanceof List) || ((List<?>) encoded).size() != columns.size()) {
+            throw new IllegalArgumentException("The search cursor does not match the current ordering");
+        }
+        List<Object> decoded = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = ((List<Object>) encoded).get(i);
+            if (value != null && !(value instanceof String)) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            decoded.add(value == null ? null : decodeValue((String) value, types.get(i)));
+        }
+        return decoded;
+    }
+
+    private static Object decodeValue(String value, Class<?> type) {
+        try {
+            if (isTemporal(type)) {
+                return GumgaQueryParameterBinder.coerce(new Date(Long.parseLong(value)), type);
+            }
+            Object decoded = GumgaQueryParameterBinder.coerce(value, type);
+            if (!GumgaQueryParameterBinder.wrap(type).isInstance(decoded)) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+    }
+
+    private static boolean isTemporal(Class<?> type) {
+        return Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type)
+                || LocalDate.class.equals(type) || LocalDateTime.class.equals(type);
+    }
+
+    private String signature() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < columns.size(); i++) {
+            joiner.add(propertyPath(columns.get(i)) + (descending.get(i) ? " desc" : " asc"));
+        }
+        return joiner.toString();
+    }
+
+    private static String propertyPath(String column) {
+        return column.startsWith("obj.") ? column.substring(4) : column;
+    }
+
+}
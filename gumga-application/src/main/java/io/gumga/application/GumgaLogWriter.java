@@ -0,0 +1,248 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaLogOverflowPolicy;
+import io.gumga.core.GumgaValues;
+import io.gumga.domain.GumgaLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gravação assíncrona dos logs de acesso ({@link GumgaLog}).
+ * Os logs são colocados em uma fila limitada e sem bloqueio e gravados em lotes por uma thread em segundo plano,
+ * retirando o insert do tempo de resposta das requisições. Cada lote é persistido diretamente no {@link EntityManager}
+ * em uma transação própria, sem passar pelo {@link GumgaLogService}, para que os inserts sejam agrupados pelo
+ * hibernate.jdbc.batch_size. O comportamento com a fila cheia é definido por {@link GumgaValues#getLogOverflowPolicy()}
+ * e as métricas da gravação são expostas por {@link #getMetrics()}
+ */
+@Service
+public class GumgaLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GumgaLogWriter.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GumgaValues gumgaValues;
+
+    private final Queue<GumgaLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private ScheduledExecutorService executor;
+    private TransactionTemplate transactionTemplate;
+    private int capacity;
+    private int batchSize;
+    private GumgaLogOverflowPolicy overflowPolicy;
+
+    public GumgaLogWriter() {
+    }
+
+    GumgaLogWriter(EntityManager entityManager, PlatformTransactionManager transactionManager, GumgaValues gumgaValues) {
+        this.entityManager = entityManager;
+        this.transactionManager = transactionManager;
+        this.gumgaValues = gumgaValues;
+    }
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        capacity = Math.max(1, gumgaValues.getLogQueueCapacity());
+        batchSize = Math.max(1, gumgaValues.getLogBatchSize());
+        overflowPolicy = gumgaValues.getLogOverflowPolicy() == null ? GumgaLogOverflowPolicy.DROP_NEWEST : gumgaValues.getLogOverflowPolicy();
+        long interval = Math.max(1L, gumgaValues.getLogFlushInterval());
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gumga-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Grava os logs pendentes e encerra a thread de gravação
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        log.info("GumgaLogWriter finalizado: " + getMetrics());
+    }
+
+    /**
+     * Coloca o log na fila de gravação sem aguardar o banco de dados
+     *
+     * @param gumgaLog Log de acesso
+     */
+    public void write(GumgaLog gumgaLog) {
+        if (!offer(gumgaLog)) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST:
+                    if (poll() != null) {
+                        dropped.increment();
+                    }
+                    if (!offer(gumgaLog)) {
+                        dropped.increment();
+                    }
+                    break;
+                case CALLER_RUNS:
+                    callerRuns.increment();
+                    save(Collections.singletonList(gumgaLog));
+                    break;
+                default:
+                    dropped.increment();
+            }
+        }
+        if (size.get() >= batchSize && !draining.get()) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.debug("GumgaLogWriter finalizado, o log será gravado no encerramento");
+            }
+        }
+    }
+
+    private boolean offer(GumgaLog gumgaLog) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        queue.offer(gumgaLog);
+        enqueued.increment();
+        return true;
+    }
+
+    private GumgaLog poll() {
+        GumgaLog gumgaLog = queue.poll();
+        if (gumgaLog != null) {
+            size.decrementAndGet();
+        }
+        return gumgaLog;
+    }
+
+    /**
+     * Grava a fila em lotes de {@link GumgaValues#getLogBatchSize()} até esvaziá-la
+     */
+    private void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<GumgaLog> batch = new ArrayList<>(batchSize);
+            GumgaLog gumgaLog;
+            while ((gumgaLog = poll()) != null) {
+                batch.add(gumgaLog);
+                if (batch.size() == batchSize) {
+                    save(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                save(batch);
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void save(List<GumgaLog> batch) {
+        try {
+            transactionTemplate.execute(status -> {
+                for (GumgaLog gumgaLog : batch) {
+                    entityManager.persist(gumgaLog);
+                }
+                return null;
+            });
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.error("Problema ao gravar " + batch.size() + " logs de acesso", e);
+        }
+    }
+
+    public int getQueueSize() {
+        return size.get();
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getCallerRuns() {
+        return callerRuns.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return Métricas da gravação dos logs
+     */
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("queueSize", getQueueSize());
+        metrics.put("enqueued", getEnqueued());
+        metrics.put("dropped", getDropped());
+        metrics.put("callerRuns", getCallerRuns());
+        metrics.put("written", getWritten());
+        metrics.put("failed", getFailed());
+        metrics.put("batches", getBatches());
+        return metrics;
+    }
+}
@@ -0,0 +1,167 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaValues;
+import io.gumga.domain.GumgaEntityDescriptor;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pesquisa textual em todas as entidades anotadas com {@link org.hibernate.search.annotations.Indexed}.
+ * As entidades indexadas e seus atributos {@link org.hibernate.search.annotations.Field} são descobertos uma única vez,
+ * na primeira pesquisa. Cada pesquisa é uma única consulta do Lucene sobre todas as entidades, ordenada por relevância e
+ * limitada aos melhores resultados. Nas entidades que indexam o oi pelo {@link GumgaOiClassBridge} o multitenancy é
+ * aplicado na própria consulta, nas demais ele é verificado nos resultados e as páginas seguintes da consulta são lidas
+ * até completar o limite de resultados visíveis, no máximo {@link #MAX_PAGES} páginas: quando os resultados são quase
+ * todos de outras organizações a pesquisa retorna os que encontrou, sem percorrer todo o índice
+ *
+ * @author Equipe Gumga
+ */
+@Service
+public class GumgaMultiEntitySearch {
+
+    /**
+     * Quantidade máxima de páginas de maxResults resultados lidas em uma pesquisa
+     */
+    static final int MAX_PAGES = 10;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired(required = false)
+    private GumgaValues gumgaValues;
+
+    private volatile List<IndexedEntity> indexedEntities;
+
+    /**
+     * @param text Texto pesquisado
+     * @return Melhores resultados de todas as entidades, limitados por {@link GumgaValues#getMultiSearchMaxResults()}
+     */
+    @Transactional(readOnly = true)
+    public List<Object> search(String text) {
+        return search(text, gumgaValues == null ? 100 : gumgaValues.getMultiSearchMaxResults());
+    }
+
+    /**
+     * @param text Texto pesquisado
+     * @param maxResults Quantidade máxima de resultados
+     * @return Resultados de todas as entidades ordenados por relevância, encontrados nas primeiras {@link #MAX_PAGES}
+     * páginas da consulta
+     */
+    @Transactional(readOnly = true)
+    public List<Object> search(String text, int maxResults) {
+        if (maxResults <= 0) {
+            return new ArrayList<>();
+        }
+        FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(em);
+        BooleanQuery query = new BooleanQuery();
+        List<Class<?>> classes = new ArrayList<>();
+        for (IndexedEntity entity : getIndexedEntities(fullTextEntityManager)) {
+            Query keyword = fullTextEntityManager.getSearchFactory().buildQueryBuilder().forEntity(entity.entityClass).get()
+                    .keyword().onFields(entity.fields).matching(text).createQuery();
+            query.add(restrict(entity, keyword), BooleanClause.Occur.SHOULD);
+            classes.add(entity.entityClass);
+        }
+        if (classes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        FullTextQuery fullTextQuery = fullTextEntityManager.createFullTextQuery(query, classes.toArray(new Class<?>[classes.size()]));
+        fullTextQuery.setMaxResults(maxResults);
+        List<Object> result = new ArrayList<>();
+        for (int first = 0, pages = 0; result.size() < maxResults && pages < MAX_PAGES; first += maxResults, pages++) {
+            fullTextQuery.setFirstResult(first);
+            List<?> page = fullTextQuery.getResultList();
+            for (Object found : page) {
+                if (result.size() < maxResults && found != null && GumgaEntityDescriptor.of(found.getClass()).isVisible(found)) {
+                    result.add(found);
+                }
+            }
+            if (page.size() < maxResults) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Limita a consulta da entidade à sua classe e ao oi do usuário atual, quando a entidade indexa o oi
+     */
+    private Query restrict(IndexedEntity entity, Query keyword) {
+        Query tenancy = entity.oiIndexed ? GumgaOiClassBridge.tenancyQuery(entity.descriptor) : null;
+        if (tenancy == null) {
+            return keyword;
+        }
+        BooleanQuery restricted = new BooleanQuery();
+        restricted.add(keyword, BooleanClause.Occur.MUST);
+        restricted.add(new TermQuery(new Term(ProjectionConstants.OBJECT_CLASS, entity.entityClass.getName())), BooleanClause.Occur.MUST);
+        restricted.add(tenancy, BooleanClause.Occur.MUST);
+        return restricted;
+    }
+
+    private List<IndexedEntity> getIndexedEntities(FullTextEntityManager fullTextEntityManager) {
+        List<IndexedEntity> entities = indexedEntities;
+        if (entities == null) {
+            synchronized (this) {
+                entities = indexedEntities;
+                if (entities == null) {
+                    entities = new ArrayList<>();
+                    for (Class<?> entityClass : fullTextEntityManager.getSearchFactory().getIndexedTypes()) {
+                        IndexedEntity entity = new IndexedEntity(entityClass);
+                        if (entity.fields.length > 0) {
+                            entities.add(entity);
+                        }
+                    }
+                    entities = Collections.unmodifiableList(entities);
+                    indexedEntities = entities;
+                }
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Entidade indexada com os nomes dos seus atributos {@link org.hibernate.search.annotations.Field}
+     */
+    private static class IndexedEntity {
+
+        private final Class<?> entityClass;
+        private final GumgaEntityDescriptor descriptor;
+        private final String[] fields;
+        private final boolean oiIndexed;
+
+        private IndexedEntity(Class<?> entityClass) {
+            this.entityClass = entityClass;
+            this.descriptor = GumgaEntityDescriptor.of(entityClass);
+            Set<String> names = new LinkedHashSet<>();
+            for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    org.hibernate.search.annotations.Field annotation = field.getAnnotation(org.hibernate.search.annotations.Field.class);
+                    if (annotation != null) {
+                        names.add(annotation.name().isEmpty() ? field.getName() : annotation.name());
+                    }
+                }
+            }
+            this.fields = names.toArray(new String[names.size()]);
+            this.oiIndexed = GumgaOiClassBridge.isDeclaredOn(entityClass);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.TenancyPublicMarking;
+import io.gumga.domain.GumgaEntityDescriptor;
+import io.gumga.domain.GumgaModel;
+import io.gumga.domain.GumgaModelUUID;
+import io.gumga.domain.GumgaMultitenancy;
+import io.gumga.domain.domains.GumgaOi;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.hibernate.search.annotations.ClassBridge;
+import org.hibernate.search.annotations.ClassBridges;
+import org.hibernate.search.bridge.FieldBridge;
+import org.hibernate.search.bridge.LuceneOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Indexa o oi da entidade, permitindo que o {@link GumgaMultiEntitySearch} aplique o multitenancy na própria consulta
+ * do Lucene. Deve ser declarado nas entidades indexadas com multitenancy:
+ * <pre>
+ * &#64;Indexed
+ * &#64;ClassBridge(name = GumgaOiClassBridge.FIELD, analyze = Analyze.NO, impl = GumgaOiClassBridge.class)
+ * </pre>
+ *
+ * @author Equipe Gumga
+ */
+public class GumgaOiClassBridge implements FieldBridge {
+
+    public static final String FIELD = "oi";
+
+    @Override
+    public void set(String name, Object value, Document document, LuceneOptions luceneOptions) {
+        GumgaOi oi = value instanceof GumgaModel ? ((GumgaModel<?>) value).getOi()
+                : value instanceof GumgaModelUUID ? ((GumgaModelUUID) value).getOi() : null;
+        if (oi != null && oi.getValue() != null) {
+            luceneOptions.addFieldToDocument(name, oi.getValue(), document);
+        }
+    }
+
+    /**
+     * @param entityClass Classe da entidade
+     * @return true se a classe ou uma superclasse declara esta ponte no campo {@link #FIELD}
+     */
+    static boolean isDeclaredOn(Class<?> entityClass) {
+        for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            List<ClassBridge> bridges = new ArrayList<>();
+            if (c.isAnnotationPresent(ClassBridge.class)) {
+                bridges.add(c.getAnnotation(ClassBridge.class));
+            }
+            if (c.isAnnotationPresent(ClassBridges.class)) {
+                Collections.addAll(bridges, c.getAnnotation(ClassBridges.class).value());
+            }
+            for (ClassBridge bridge : bridges) {
+                if (bridge.impl() == GumgaOiClassBridge.class && FIELD.equals(bridge.name())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Condição do Lucene equivalente ao multitenancy da entidade para o usuário atual, para entidades que declaram
+     * esta ponte
+     *
+     * @param descriptor Descritor da entidade
+     * @return Condição, ou null quando não há oi a restringir ou a condição não pode ser aplicada no índice (entidades
+     * compartilhadas e registros públicos com oi nulo)
+     */
+    static Query tenancyQuery(GumgaEntityDescriptor descriptor) {
+        GumgaMultitenancy multitenancy = descriptor.getMultitenancy();
+        if (multitenancy == null || descriptor.isShared() || GumgaThreadScope.organizationCode.get() == null
+                || (multitenancy.allowPublics() && multitenancy.publicMarking() == TenancyPublicMarking.NULL)) {
+            return null;
+        }
+        BooleanQuery tenancy = new BooleanQuery();
+        tenancy.add(new PrefixQuery(new Term(FIELD, descriptor.getMultitenancyPattern())), BooleanClause.Occur.SHOULD);
+        if (multitenancy.allowPublics()) {
+            tenancy.add(new TermQuery(new Term(FIELD, multitenancy.publicMarking().getMark())), BooleanClause.Occur.SHOULD);
+        }
+        return tenancy;
+    }
+}
@@ -0,0 +1,220 @@
+package io.gumga.application;
+
+import io.gumga.domain.Pesquisa;
+import org.hibernate.criterion.ProjectionList;
+import org.hibernate.criterion.Projections;
+import org.hibernate.sql.JoinType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Projeção de uma pesquisa em alguns atributos da entidade, utilizada pelo
+ * {@link GumgaGenericRepository#search(io.gumga.core.QueryObject, String[])}. Os atributos podem navegar por
+ * associações e componentes ({@code company.name}, {@code address.city}); cada associação é lida com um left join, de
+ * modo que uma associação nula não remove o registro da pesquisa. Atributos inexistentes ou que passam por coleções são
+ * ignorados, como na cópia dos atributos por reflexão. O id da entidade é sempre a primeira coluna da projeção
+ *
+ * @author Equipe Gumga
+ */
+final class GumgaProjection {
+
+    private static final Logger log = LoggerFactory.getLogger(GumgaProjection.class);
+    private static final Pattern PATH = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*(\\.[A-Za-z_$][A-Za-z0-9_$]*)*");
+    private static final String ALIAS_PREFIX = "gumgaField";
+
+    private final String idAttribute;
+    private final List<String> fields = new ArrayList<>();
+    private final List<Column> columns = new ArrayList<>();
+    private final Map<String, Join> joins = new LinkedHashMap<>();
+
+    /**
+     * @param metamodel Metamodelo do JPA
+     * @param entityClass Classe da entidade
+     * @param idAttribute Atributo id da entidade
+     * @param requested Atributos pedidos, com ou sem espaços
+     */
+    GumgaProjection(Metamodel metamodel, Class<?> entityClass, String idAttribute, String[] requested) {
+        this.idAttribute = idAttribute;
+        ManagedType<?> root = metamodel.managedType(entityClass);
+        for (String field : requested) {
+            String path = field.trim();
+            if (fields.contains(path)) {
+                continue;
+            }
+            Column column = PATH.matcher(path).matches() ? resolve(metamodel, root, path.split("\\.")) : null;
+            if (column == null) {
+                log.warn("Atributo " + path + " de " + entityClass.getName() + " ignorado na projeção");
+                continue;
+            }
+            fields.add(path);
+            columns.add(column);
+        }
+    }
+
+    private Column resolve(Metamodel metamodel, ManagedType<?> root, String[] segments) {
+        ManagedType<?> type = root;
+        String alias = null;
+        String path = null;
+        for (int i = 0; i < segments.length; i++) {
+            boolean last = i == segments.length - 1;
+            Attribute<?, ?> attribute;
+            try {
+                attribute = type.getAttribute(segments[i]);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (attribute.isCollection()) {
+                return null;
+            }
+            String current = path == null ? segments[i] : path + "." + segments[i];
+            switch (attribute.getPersistentAttributeType()) {
+                case BASIC:
+                    return last ? new Column(alias, current, null) : null;
+                case EMBEDDED:
+                    if (last) {
+                        return new Column(alias, current, null);
+                    }
+                    path = current;
+                    type = metamodel.embeddable(((SingularAttribute<?, ?>) attribute).getJavaType());
+                    break;
+                case MANY_TO_ONE:
+                case ONE_TO_ONE:
+                    String key = (alias == null ? "obj" : alias) + "." + current;
+                    Join join = joins.get(key);
+                    if (join == null) {
+                        join = new Join(alias, current, ALIAS_PREFIX + joins.size());
+                        joins.put(key, join);
+                    }
+                    if (last) {
+                        return new Column(alias, current, join.alias);
+                    }
+                    alias = join.alias;
+                    path = null;
+                    type = metamodel.managedType(((SingularAttribute<?, ?>) attribute).getJavaType());
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Atributos aceitos, na ordem pedida
+     */
+    List<String> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * @param extra Expressões adicionais selecionadas após os atributos, como as da ordenação de uma consulta distinct
+     * @return Lista de expressões da cláusula select em HQL (alias obj)
+     */
+    String getSelect(List<String> extra) {
+        List<String> select = new ArrayList<>();
+        select.add("obj." + idAttribute);
+        for (Column column : columns) {
+            select.add(column.hql());
+        }
+        select.addAll(extra);
+        return String.join(", ", select);
+    }
+
+    /**
+     * @return Left joins das associações dos atributos em HQL, iniciando com espaço
+     */
+    String getJoins() {
+        StringBuilder hql = new StringBuilder();
+        for (Join join : joins.values()) {
+            hql.append(" left join ").append(join.parent == null ? "obj" : join.parent).append('.').append(join.path).append(' ').append(join.alias);
+        }
+        return hql.toString();
+    }
+
+    /**
+     * Aplica a projeção a uma pesquisa Criteria, reaproveitando os aliases já criados para as associações dos atributos
+     * pesquisados e da ordenação
+     *
+     * @param pesquisa Pesquisa
+     */
+    void apply(Pesquisa<?> pesquisa) {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        for (Join join : joins.values()) {
+            String parent = join.parent == null ? null : aliases.get(join.parent);
+            if (parent == null && pesquisa.getAliases().contains(join.path)) {
+                aliases.put(join.alias, join.path);
+                continue;
+            }
+            pesquisa.createAlias(parent == null ? join.path : parent + "." + join.path, join.alias, JoinType.LEFT_OUTER_JOIN);
+            aliases.put(join.alias, join.alias);
+        }
+        ProjectionList projection = Projections.projectionList().add(Projections.property(idAttribute));
+        for (Column column : columns) {
+            String parent = column.alias == null ? null : aliases.get(column.alias);
+            projection.add(Projections.property(parent == null ? column.path : parent + "." + column.path));
+        }
+        pesquisa.setProjection(projection);
+    }
+
+    /**
+     * @param rows Linhas da consulta projetada
+     * @return Um mapa por linha, do atributo pedido para o seu valor
+     */
+    List<Map<String, Object>> toMaps(List<?> rows) {
+        List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] values = row instanceof Object[] ? (Object[]) row : new Object[]{row};
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                map.put(fields.get(i), values[i + 1]);
+            }
+            maps.add(map);
+        }
+        return maps;
+    }
+
+    /**
+     * Atributo projetado: caminho a partir de um alias (ou da raiz) e, quando o atributo é uma associação, o alias do
+     * seu join, selecionado em HQL no lugar do caminho
+     */
+    private static class Column {
+
+        private final String alias;
+        private final String path;
+        private final String joinAlias;
+
+        private Column(String alias, String path, String joinAlias) {
+            this.alias = alias;
+            this.path = path;
+            this.joinAlias = joinAlias;
+        }
+
+        private String hql() {
+            return joinAlias != null ? joinAlias : (alias == null ? "obj" : alias) + "." + path;
+        }
+    }
+
+    private static class Join {
+
+        private final String parent;
+        private final String path;
+        private final String alias;
+
+        private Join(String parent, String path, String alias) {
+            this.parent = parent;
+            this.path = path;
+            this.alias = alias;
+        }
+    }
+}
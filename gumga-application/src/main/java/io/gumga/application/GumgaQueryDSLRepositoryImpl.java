@@ -8,8 +8,8 @@ import com.mysema.query.types.path.PathBuilder;
 import io.gumga.core.SearchResult;
 import io.gumga.core.TenancyPublicMarking;
 import io.gumga.domain.GumgaMultitenancy;
+import io.gumga.domain.GumgaTenancyPredicate;
 import io.gumga.domain.domains.GumgaOi;
-import io.gumga.domain.repository.GumgaMultitenancyUtil;
 import io.gumga.domain.repository.GumgaQueryDSLRepository;
 import io.gumga.domain.repository.ISpecification;
 import org.springframework.data.domain.Page;
@@ -184,16 +184,19 @@ public class GumgaQueryDSLRepositoryImpl<T, ID extends Serializable> extends Gum
     }
 
     private BooleanExpression getOiExpression() {
-        GumgaMultitenancy tenancy = getDomainClass().getAnnotation(GumgaMultitenancy.class);
-        String oiPattern = GumgaMultitenancyUtil.getMultitenancyPattern(tenancy);
+        GumgaMultitenancy tenancy = entityDescriptor.getMultitenancy();
+        String oiPattern = entityDescriptor.getMultitenancyPattern();
         ComparablePath<GumgaOi> oi = new ComparablePath<>(GumgaOi.class, PathMetadataFactory.forProperty(this.path, "oi"));
+        BooleanExpression oiExpression = GumgaTenancyPredicate.useRange(oiPattern)
+                ? oi.goe(new GumgaOi(oiPattern)).and(oi.lt(new GumgaOi(GumgaTenancyPredicate.upperBound(oiPattern))))
+                : oi.stringValue().startsWith(oiPattern);
         if (tenancy.allowPublics()) {
             if (tenancy.publicMarking().equals(TenancyPublicMarking.NULL)) {
-                return oi.stringValue().startsWith(oiPattern).or(oi.isNull());
+                return oiExpression.or(oi.isNull());
             }
-            return oi.stringValue().startsWith(oiPattern).or(oi.eq(GumgaOi.MARK_PUBLIC));
+            return oiExpression.or(oi.eq(GumgaOi.MARK_PUBLIC));
         }
-        return oi.stringValue().startsWith(oiPattern);
+        return oiExpression;
     }
 
 }
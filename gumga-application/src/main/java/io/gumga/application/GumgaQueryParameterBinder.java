@@ -0,0 +1,168 @@
+package io.gumga.application;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Faz a ligação dos parâmetros nomeados gerados pelo {@link io.gumga.core.gquery.GQuery} na {@link Query},
+ * convertendo os valores recebidos (normalmente String vindas do JSON) para o tipo esperado pelo atributo da entidade
+ */
+public class GumgaQueryParameterBinder {
+
+    private GumgaQueryParameterBinder() {
+    }
+
+    /**
+     * Liga todos os parâmetros na consulta
+     * @param query Consulta
+     * @param parameters Parâmetros nomeados e seus valores
+     * @return A própria consulta
+     */
+    public static Query bind(Query query, Map<String, Object> parameters) {
+        parameters.forEach((name, value) -> {
+            Parameter<?> parameter = query.getParameter(name);
+            query.setParameter(name, coerce(value, parameter.getParameterType()));
+        });
+        return query;
+    }
+
+    /**
+     * Converte o valor para o tipo esperado
+     * @param value Valor
+     * @param expectedType Tipo esperado, quando nulo o valor é retornado sem conversão
+     * @return Valor convertido
+     */
+    public static Object coerce(Object value, Class<?> expectedType) {
+        if (value == null || expectedType == null) {
+            return value;
+        }
+        if (value instanceof Collection) {
+            List<Object> values = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                values.add(coerce(element, expectedType));
+            }
+            return values;
+        }
+        Class<?> type = wrap(expectedType);
+        if (type.isInstance(value)) {
+            return value;
+        }
+        try {
+            if (Number.class.isAssignableFrom(type)) {
+                return toNumber(value, type);
+            }
+            if (type.isEnum()) {
+                return toEnum(value, type);
+            }
+            if (Boolean.class.equals(type)) {
+                return Boolean.valueOf(value.toString());
+            }
+            if (Character.class.equals(type) && value.toString().length() == 1) {
+                return value.toString().charAt(0);
+            }
+            if (String.class.equals(type)) {
+                return value.toString();
+            }
+            Object date = toDate(value, type);
+            if (date != null) {
+                return date;
+            }
+            Constructor<?> constructor = type.getConstructor(String.class);
+            return constructor.newInstance(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for type " + type.getSimpleName(), e);
+        } catch (ReflectiveOperationException e) {
+            return value;
+        }
+    }
+
+    private static Object toNumber(Object value, Class<?> type) {
+        String text = value instanceof Number ? value.toString() : value.toString().trim();
+        if (Long.class.equals(type)) {
+            return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(text);
+        }
+        if (Integer.class.equals(type)) {
+            return value instanceof Number ? ((Number) value).intValue() : Integer.valueOf(text);
+        }
+        if (Short.class.equals(type)) {
+            return value instanceof Number ? ((Number) value).shortValue() : Short.valueOf(text);
+        }
+        if (Byte.class.equals(type)) {
+            return value instanceof Number ? ((Number) value).byteValue() : Byte.valueOf(text);
+        }
+        if (Double.class.equals(type)) {
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(text);
+        }
+        if (Float.class.equals(type)) {
+            return value instanceof Number ? ((Number) value).floatValue() : Float.valueOf(text);
+        }
+        if (BigInteger.class.equals(type)) {
+            return new BigInteger(text);
+        }
+        if (BigDecimal.class.equals(type)) {
+            return new BigDecimal(text);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toEnum(Object value, Class<?> type) {
+        if (value instanceof Number) {
+            return type.getEnumConstants()[((Number) value).intValue()];
+        }
+        return Enum.valueOf((Class<Enum>) type, value.toString());
+    }
+
+    private static Object toDate(Object value, Class<?> type) {
+        Date date = null;
+        if (value instanceof Date) {
+            date = (Date) value;
+        } else if (value instanceof Calendar) {
+            date = ((Calendar) value).getTime();
+        } else if (value instanceof LocalDateTime) {
+            date = Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant());
+        } else if (value instanceof LocalDate) {
+            date = Date.from(((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        }
+        if (date == null) {
+            return null;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return date;
+        }
+        if (Calendar.class.isAssignableFrom(type)) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime(date);
+            return calendar;
+        }
+        if (LocalDateTime.class.equals(type)) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        }
+        if (LocalDate.class.equals(type)) {
+            return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        return null;
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (int.class.equals(type)) return Integer.class;
+        if (long.class.equals(type)) return Long.class;
+        if (double.class.equals(type)) return Double.class;
+        if (float.class.equals(type)) return Float.class;
+        if (short.class.equals(type)) return Short.class;
+        if (byte.class.equals(type)) return Byte.class;
+        if (char.class.equals(type)) return Character.class;
+        if (boolean.class.equals(type)) return Boolean.class;
+        return type;
+    }
+}
@@ -0,0 +1,86 @@
+package io.gumga.application;
+
+import io.gumga.domain.GumgaFieldChange;
+
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Diferença dos atributos entre duas revisões consecutivas de uma entidade auditada, calculada a partir das versões já
+ * carregadas pelo Envers. Componentes são comparados atributo a atributo ({@code endereco.cidade}) e associações pelo id,
+ * sem carregar a entidade associada. Coleções não são comparadas, pois cada uma exigiria uma consulta por revisão
+ *
+ * @author Equipe Gumga
+ */
+final class GumgaRevisionDiff {
+
+    private GumgaRevisionDiff() {
+    }
+
+    /**
+     * @param type Tipo da entidade no metamodelo do JPA
+     * @param persistenceUnitUtil Utilitário para ler o id das associações sem inicializá-las
+     * @param previous Versão anterior, ou null na inclusão
+     * @param current Versão atual, ou null na remoção
+     * @return Atributos com valores diferentes
+     */
+    static List<GumgaFieldChange> changes(ManagedType<?> type, PersistenceUnitUtil persistenceUnitUtil, Object previous, Object current) {
+        List<GumgaFieldChange> changes = new ArrayList<>();
+        addChanges(changes, "", type, persistenceUnitUtil, previous, current);
+        return changes;
+    }
+
+    private static void addChanges(List<GumgaFieldChange> changes, String prefix, ManagedType<?> type,
+                                   PersistenceUnitUtil persistenceUnitUtil, Object previous, Object current) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.isCollection()) {
+                continue;
+            }
+            String name = prefix + attribute.getName();
+            Object oldValue = value(attribute, previous);
+            Object newValue = value(attribute, current);
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                addChanges(changes, name + ".", (ManagedType<?>) ((SingularAttribute<?, ?>) attribute).getType(), persistenceUnitUtil, oldValue, newValue);
+                continue;
+            }
+            if (attribute.isAssociation()) {
+                oldValue = oldValue == null ? null : persistenceUnitUtil.getIdentifier(oldValue);
+                newValue = newValue == null ? null : persistenceUnitUtil.getIdentifier(newValue);
+            }
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.add(new GumgaFieldChange(name, oldValue, newValue));
+            }
+        }
+    }
+
+    private static Object value(Attribute<?, ?> attribute, Object owner) {
+        if (owner == null) {
+            return null;
+        }
+        Member member = attribute.getJavaMember();
+        try {
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                field.setAccessible(true);
+                return field.get(owner);
+            }
+            if (member instanceof Method) {
+                Method method = (Method) member;
+                method.setAccessible(true);
+                return method.invoke(owner);
+            }
+            return null;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Não foi possível ler o atributo " + attribute.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.gumga.application;
+
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Expõe um {@link ScrollableResults} como {@link Stream}, mantendo em memória apenas um lote de entidades.
+ * A cada lote lido as alterações pendentes são enviadas ao banco (exceto em transações somente leitura) e as entidades
+ * retornadas pelo lote são desanexadas da sessão. Entidades que já estavam na sessão antes do Stream continuam anexadas,
+ * assim como as associações carregadas junto com as entidades do lote. O cursor é liberado ao fechar o Stream
+ */
+public class GumgaScrollableStream {
+
+    private GumgaScrollableStream() {
+    }
+
+    /**
+     * @param results Resultados posicionados antes do primeiro registro
+     * @param session Sessão que carregou os resultados
+     * @param batchSize Quantidade de registros entre cada remoção das entidades lidas da sessão
+     * @param <T> Tipo dos registros
+     * @return Stream sequencial dos registros
+     */
+    public static <T> Stream<T> of(ScrollableResults results, Session session, int batchSize) {
+        if (batchSize <= 0) {
+            results.close();
+            throw new IllegalArgumentException("batchSize must be greater than zero");
+        }
+        Set<Object> managed = Collections.newSetFromMap(new IdentityHashMap<>());
+        managed.addAll(((SessionImplementor) session).getPersistenceContext().getEntitiesByKey().values());
+        Iterator<T> iterator = new Iterator<T>() {
+            private final List<Object> batch = new ArrayList<>(batchSize);
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    if (batch.size() == batchSize) {
+                        evictBatch();
+                    }
+                    hasNext = results.next();
+                }
+                return hasNext;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                T entity = (T) results.get(0);
+                batch.add(entity);
+                return entity;
+            }
+
+            private void evictBatch() {
+                if (session.getFlushMode() != FlushMode.MANUAL) {
+                    session.flush();
+                }
+                for (Object entity : batch) {
+                    if (!managed.contains(entity) && session.contains(entity)) {
+                        session.evict(entity);
+                    }
+                }
+                batch.clear();
+            }
+        };
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(results::close);
+    }
+}
@@ -0,0 +1,147 @@
+package io.gumga.application;
+
+import io.gumga.core.utils.GumgaLocalCache;
+import io.gumga.domain.GumgaResultCache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro dos caches de resultados das entidades anotadas com {@link GumgaResultCache}, utilizado pelo
+ * {@link GumgaGenericRepository}. Cada entidade possui o seu cache e uma geração, incrementada a cada limpeza: um
+ * resultado carregado antes de uma limpeza não é guardado, evitando que uma pesquisa concorrente com o commit de uma
+ * alteração mantenha dados antigos no cache
+ *
+ * @author Equipe Gumga
+ */
+public final class GumgaSearchCache {
+
+    private static final Map<Class<?>, EntityCache> caches = new ConcurrentHashMap<>();
+
+    private GumgaSearchCache() {
+    }
+
+    /**
+     * @param entityClass Classe da entidade
+     * @param annotation Configuração do cache da entidade
+     * @return Cache da entidade, criado na primeira chamada
+     */
+    static EntityCache of(Class<?> entityClass, GumgaResultCache annotation) {
+        return caches.computeIfAbsent(entityClass, c -> new EntityCache(annotation));
+    }
+
+    /**
+     * Limpa o cache da entidade e o das suas superclasses, que também retornam registros da entidade
+     *
+     * @param changed Classe da entidade incluída, alterada ou removida
+     */
+    public static void invalidate(Class<?> changed) {
+        caches.forEach((entityClass, cache) -> {
+            if (entityClass.isAssignableFrom(changed)) {
+                cache.invalidateAll();
+            }
+        });
+    }
+
+    public static void invalidateAll() {
+        caches.values().forEach(EntityCache::invalidateAll);
+    }
+
+    /**
+     * @return Tamanho, acertos, falhas, expirações e taxa de acerto do cache de cada entidade
+     */
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        caches.forEach((entityClass, cache) -> {
+            GumgaLocalCache<String, Page> results = cache.results;
+            long hits = results.getHits();
+            long requests = hits + results.getMisses();
+            Map<String, Object> entity = new LinkedHashMap<>();
+            entity.put("size", results.size());
+            entity.put("hits", hits);
+            entity.put("misses", results.getMisses());
+            entity.put("evictions", results.getEvictions());
+            entity.put("invalidations", cache.generation.get());
+            entity.put("hitRate", requests == 0 ? 0d : hits / (double) requests);
+            metrics.put(entityClass.getName(), entity);
+        });
+        return metrics;
+    }
+
+    /**
+     * Cache de resultados de uma entidade
+     */
+    static class EntityCache {
+
+        private final GumgaLocalCache<String, Page> results;
+        private final AtomicLong generation = new AtomicLong();
+
+        private EntityCache(GumgaResultCache annotation) {
+            this.results = new GumgaLocalCache<>(annotation.ttl(), annotation.unit(), annotation.maxSize());
+        }
+
+        Page get(String key) {
+            return results.getIfPresent(key);
+        }
+
+        /**
+         * @return Geração atual, informada ao guardar um resultado carregado a partir de agora
+         */
+        long generation() {
+            return generation.get();
+        }
+
+        /**
+         * Guarda o resultado apenas se o cache não foi limpo desde o início da sua carga
+         */
+        void put(String key, Page page, long loadedAt) {
+            if (generation.get() == loadedAt) {
+                results.put(key, page);
+                if (generation.get() != loadedAt) {
+                    results.invalidate(key);
+                }
+            }
+        }
+
+        void remove(String key) {
+            results.invalidate(key);
+        }
+
+        private void invalidateAll() {
+            generation.incrementAndGet();
+            results.invalidateAll();
+        }
+    }
+
+    /**
+     * Resultado mantido em cache: o total, os ids da página na ordem da pesquisa e o cursor da próxima página
+     */
+    static class Page {
+
+        private final Long count;
+        private final List<Object> ids;
+        private final String cursor;
+
+        Page(Long count, List<Object> ids, String cursor) {
+            this.count = count;
+            this.ids = Collections.unmodifiableList(ids);
+            this.cursor = cursor;
+        }
+
+        Long getCount() {
+            return count;
+        }
+
+        List<Object> getIds() {
+            return ids;
+        }
+
+        String getCursor() {
+            return cursor;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.gumga.application;
+
+import io.gumga.application.count.GumgaCachedCountStrategy;
+import io.gumga.application.count.GumgaCountStrategies;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+/**
+ * Limpa o {@link GumgaSearchCache} e os totais do {@link GumgaCachedCountStrategy} da entidade após o commit de cada
+ * inclusão, alteração (inclusive a remoção lógica) e remoção. Os eventos são registrados uma única vez no
+ * SessionFactory. Como o count em cache pode ser pedido para qualquer entidade, todas elas são tratadas
+ *
+ * @author Equipe Gumga
+ */
+@Service
+public class GumgaSearchCacheListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getPersister().getMappedClass());
+    }
+
+    /**
+     * Limpa os resultados e os totais em cache da entidade
+     *
+     * @param changed Classe da entidade incluída, alterada ou removida
+     */
+    public static void invalidate(Class<?> changed) {
+        GumgaSearchCache.invalidate(changed);
+        GumgaCountStrategies.getCachedStrategy().invalidate(changed);
+    }
+
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    /**
+     * @return true para todas as entidades, pois qualquer uma pode ter o count em cache
+     */
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+}
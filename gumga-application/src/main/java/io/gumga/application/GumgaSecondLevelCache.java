@@ -0,0 +1,103 @@
+package io.gumga.application;
+
+import net.sf.ehcache.CacheException;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Statistics;
+import net.sf.ehcache.management.ManagementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.Cacheable;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.metamodel.EntityType;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estatísticas e limpeza do cache de segundo nível das entidades anotadas com {@link javax.persistence.Cacheable},
+ * configurado por {@link io.gumga.application.spring.config.DatabaseConfigSupport#getSecondLevelCacheProperties()}.
+ * As regiões também são publicadas no JMX (net.sf.ehcache) na inicialização da aplicação.
+ * A multitenancy é verificada pelo repositório em cada entidade retornada pelo cache, como nas entidades lidas do banco
+ *
+ * @author Equipe Gumga
+ */
+@Service
+public class GumgaSecondLevelCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GumgaSecondLevelCache.class);
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void registerMBeans() {
+        for (CacheManager cacheManager : CacheManager.ALL_CACHE_MANAGERS) {
+            try {
+                ManagementService.registerMBeans(cacheManager, ManagementFactory.getPlatformMBeanServer(), true, true, false, true);
+            } catch (CacheException e) {
+                log.warn("Regiões do cache " + cacheManager.getName() + " já publicadas no JMX: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return Elementos, acertos, falhas, expulsões e taxa de acerto de cada região do cache
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (CacheManager cacheManager : CacheManager.ALL_CACHE_MANAGERS) {
+            for (String name : cacheManager.getCacheNames()) {
+                Ehcache cache = cacheManager.getEhcache(name);
+                if (cache == null) {
+                    continue;
+                }
+                Statistics statistics = cache.getStatistics();
+                long hits = statistics.getCacheHits();
+                long requests = hits + statistics.getCacheMisses();
+                Map<String, Object> region = new LinkedHashMap<>();
+                region.put("size", statistics.getObjectCount());
+                region.put("hits", hits);
+                region.put("misses", statistics.getCacheMisses());
+                region.put("evictions", statistics.getEvictionCount());
+                region.put("hitRate", requests == 0 ? 0d : hits / (double) requests);
+                metrics.put(name, region);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @param name Nome simples ou completo da classe
+     * @return Classe da entidade anotada com {@link Cacheable}
+     * @throws IllegalArgumentException se a entidade não é mantida no cache
+     */
+    public Class<?> getCachedType(String name) {
+        for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entityType.getJavaType();
+            Cacheable cacheable = type.getAnnotation(Cacheable.class);
+            if ((type.getName().equals(name) || type.getSimpleName().equals(name)) && cacheable != null && cacheable.value()) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Entidade sem @Cacheable: " + name);
+    }
+
+    /**
+     * Remove do cache todas as instâncias da entidade. Os comandos update e delete em HQL já removem as instâncias da
+     * entidade alterada; é necessário após alterações feitas diretamente no banco, fora da aplicação
+     *
+     * @param entity Classe da entidade
+     */
+    public void evict(Class<?> entity) {
+        entityManagerFactory.getCache().evict(entity);
+    }
+
+    public void evictAll() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
@@ -3,10 +3,11 @@ package io.gumga.application;
 import io.gumga.application.service.AbstractGumgaService;
 import io.gumga.core.GumgaIdable;
 import io.gumga.core.QueryObject;
-import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.GQuery;
 import io.gumga.domain.GumgaMultitenancy;
 import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.GumgaServiceable;
+import io.gumga.domain.customfields.GumgaCustomizableModel;
 import io.gumga.domain.logicaldelete.GumgaLDModel;
 import io.gumga.domain.repository.GumgaCrudRepository;
 import org.springframework.context.annotation.Scope;
@@ -14,7 +15,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Classe abstrata que contém métodos para criação de serviços para manipulação de entidade (criação, alteração, deleção e busca)
@@ -31,29 +35,16 @@ public abstract class GumgaService<T extends GumgaIdable<ID>, ID extends Seriali
     }
 
     /**
-     * Processo executado antes do Método pesquisa da classe
+     * Executa o consumer para cada resultado da pesquisa, percorrendo todos os registros com um cursor e sem paginação
      *
-     * @param query Objeto de pesquisa
-     * @{@link GumgaService}
+     * @param query     Objeto de pesquisa
+     * @param batchSize Quantidade de registros mantidos em memória por vez
+     * @param consumer  Ação executada para cada entidade
      */
-    public void beforePesquisa(QueryObject query) {
-    }
-
-    /**
-     * Processo executado apos do Método pesquisa da classe
-     *
-     * @param result Resultado da pesquisa
-     * @{@link GumgaService}
-     */
-    public void afterPesquisa(SearchResult<T> result) {
-    }
-
     @Transactional(readOnly = true)
-    public SearchResult<T> pesquisa(QueryObject query) {
+    public void forEach(QueryObject query, int batchSize, Consumer<? super T> consumer) {
         beforePesquisa(query);
-        SearchResult<T> result = repository.search(query);
-        afterPesquisa(result);
-        return result;
+        repository.forEach(query, batchSize, consumer);
     }
 
     /**
@@ -101,6 +92,18 @@ public abstract class GumgaService<T extends GumgaIdable<ID>, ID extends Seriali
         return entity;
     }
 
+    /**
+     * Procura várias entidades pelas primary keys
+     *
+     * @param clazz entidade a ser procurada
+     * @param ids   primary keys da entidade
+     * @return entidades encontradas
+     */
+    @Transactional(readOnly = true)
+    public List<Object> genericViewAll(Class clazz, Collection<?> ids) {
+        return repository.genericFindAll(clazz, ids);
+    }
+
     /**
      * Processo executado antes do Método delete da classe
      * {@link GumgaServiceable}
@@ -148,6 +151,113 @@ public abstract class GumgaService<T extends GumgaIdable<ID>, ID extends Seriali
         afterDelete();
     }
 
+    /**
+     * Processo executado antes das remoções em lote pelos ids da classe {@link GumgaService}
+     *
+     * @param ids       Ids das entidades a serem removidas
+     * @param permanent Indica remoção física, mesmo das entidades com remoção lógica
+     */
+    public void beforeBulkDelete(Collection<ID> ids, boolean permanent) {
+    }
+
+    /**
+     * Processo executado apos as remoções em lote pelos ids da classe {@link GumgaService}
+     *
+     * @param ids       Ids pedidos, os de outras organizações não são alterados
+     * @param permanent Indica remoção física, mesmo das entidades com remoção lógica
+     */
+    public void afterBulkDelete(Collection<ID> ids, boolean permanent) {
+    }
+
+    /**
+     * Processo executado antes das remoções em lote pelo filtro da classe {@link GumgaService}, que não carregam os ids
+     *
+     * @param gQuery    Filtro das entidades a serem removidas
+     * @param permanent Indica remoção física, mesmo das entidades com remoção lógica
+     */
+    public void beforeBulkDelete(GQuery gQuery, boolean permanent) {
+    }
+
+    /**
+     * Processo executado apos as remoções em lote pelo filtro da classe {@link GumgaService}
+     *
+     * @param gQuery    Filtro das entidades removidas
+     * @param permanent Indica remoção física, mesmo das entidades com remoção lógica
+     */
+    public void afterBulkDelete(GQuery gQuery, boolean permanent) {
+    }
+
+    /**
+     * Remove as entidades em lote, com comandos em conjunto em vez de um por entidade. Entidades com remoção lógica
+     * são marcadas como inativas
+     *
+     * @param ids Ids das entidades
+     * @return Quantidade de registros alterados
+     */
+    @Transactional
+    public int bulkDelete(Collection<ID> ids) {
+        return bulkDelete(ids, false);
+    }
+
+    /**
+     * Remove em lote as entidades do filtro, da mesma forma que {@link #bulkDelete(Collection)}, em um único comando
+     * sem carregar os ids
+     *
+     * @param gQuery Filtro das entidades
+     * @return Quantidade de registros alterados
+     */
+    @Transactional
+    public int bulkDelete(GQuery gQuery) {
+        return bulkDelete(gQuery, false);
+    }
+
+    /**
+     * Remove fisicamente as entidades em lote, inclusive as de remoção lógica, sem cascatas nem auditoria
+     *
+     * @param ids Ids das entidades
+     * @return Quantidade de registros removidos
+     */
+    @Transactional
+    public int bulkDeletePermanent(Collection<ID> ids) {
+        return bulkDelete(ids, true);
+    }
+
+    /**
+     * Remove fisicamente em lote as entidades do filtro, da mesma forma que {@link #bulkDeletePermanent(Collection)},
+     * em um único comando sem carregar os ids
+     *
+     * @param gQuery Filtro das entidades
+     * @return Quantidade de registros removidos
+     */
+    @Transactional
+    public int bulkDeletePermanent(GQuery gQuery) {
+        return bulkDelete(gQuery, true);
+    }
+
+    private int bulkDelete(Collection<ID> ids, boolean permanent) {
+        beforeBulkDelete(ids, permanent);
+        int count = permanent ? repository.bulkDeletePermanent(ids) : repository.bulkDelete(ids);
+        if (gces != null) {
+            gces.deleteCustomFields(clazz(), ids);
+        }
+        afterBulkDelete(ids, permanent);
+        return count;
+    }
+
+    /**
+     * Os ids do filtro são carregados apenas para remover os atributos genéricos das entidades customizáveis, antes da
+     * remoção das entidades
+     */
+    private int bulkDelete(GQuery gQuery, boolean permanent) {
+        beforeBulkDelete(gQuery, permanent);
+        if (gces != null && GumgaCustomizableModel.class.isAssignableFrom(clazz())) {
+            gces.deleteCustomFields(clazz(), repository.findIds(gQuery));
+        }
+        int count = permanent ? repository.bulkDeletePermanent(gQuery) : repository.bulkDelete(gQuery);
+        afterBulkDelete(gQuery, permanent);
+        return count;
+    }
+
     /**
      * Processo executado antes do Método Save
      *
@@ -232,6 +342,33 @@ public abstract class GumgaService<T extends GumgaIdable<ID>, ID extends Seriali
         return entity;
     }
 
+    /**
+     * Salva as entidades em uma única transação. As entidades existentes são carregadas com uma única consulta antes
+     * de serem atualizadas e os comandos são enviados ao banco em lotes (hibernate.jdbc.batch_size). Ids que não
+     * existem na base são salvos da mesma forma que no {@link #save(GumgaIdable)}
+     *
+     * @param resources Entidades a serem salvas
+     * @return entidades salvas
+     */
+    @Transactional
+    public List<T> saveAll(List<T> resources) {
+        List<ID> existing = new ArrayList<>();
+        for (T resource : resources) {
+            if (resource.getId() != null) {
+                existing.add(resource.getId());
+            }
+        }
+        if (!existing.isEmpty()) {
+            repository.genericFindAll(clazz(), existing);
+        }
+        List<T> saved = new ArrayList<>(resources.size());
+        for (T resource : resources) {
+            saved.add(save(resource));
+        }
+        repository.flush();
+        return saved;
+    }
+
     /**
      * Sincronizar os dados do EntityManager com o banco de dados
      */
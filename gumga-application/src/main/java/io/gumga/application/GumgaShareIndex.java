@@ -0,0 +1,163 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaIdable;
+import io.gumga.domain.GumgaEntityDescriptor;
+import io.gumga.domain.shared.GumgaShare;
+import io.gumga.domain.shared.GumgaShareable;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantém a tabela {@link GumgaShare} das entidades anotadas com {@link io.gumga.domain.shared.GumgaSharedIndex},
+ * na mesma transação em que a entidade é salva ou removida
+ */
+final class GumgaShareIndex {
+
+    private GumgaShareIndex() {
+    }
+
+    /**
+     * Sincroniza a tabela com os compartilhamentos atuais da entidade, incluindo e removendo apenas as diferenças
+     *
+     * @param entityManager EntityManager da transação
+     * @param descriptor Descritor da entidade
+     * @param entity Entidade salva
+     */
+    static void update(EntityManager entityManager, GumgaEntityDescriptor descriptor, Object entity) {
+        if (!(entity instanceof GumgaShareable) || !(entity instanceof GumgaIdable)) {
+            return;
+        }
+        Object id = ((GumgaIdable<?>) entity).getId();
+        if (id == null) {
+            return;
+        }
+        String entityName = descriptor.getEntityClass().getName();
+        Set<String> organizations = split(((GumgaShareable) entity).getGumgaOrganizations());
+        Set<String> users = split(((GumgaShareable) entity).getGumgaUsers());
+        for (GumgaShare share : find(entityManager, descriptor, id)) {
+            Set<String> current = GumgaShare.KIND_ORGANIZATION.equals(share.getKind()) ? organizations : users;
+            if (!current.remove(share.getValue())) {
+                entityManager.remove(share);
+            }
+        }
+        persist(entityManager, entityName, id, organizations, users);
+    }
+
+    /**
+     * Recria os compartilhamentos de entidades já gravadas a partir de gumga_orgs e gumga_users, removendo as linhas
+     * anteriores dessas entidades. Usado para preencher a tabela ao anotar uma entidade que já possui registros
+     *
+     * @param entityManager EntityManager da transação
+     * @param descriptor Descritor da entidade
+     * @param entities Entidades gravadas
+     */
+    static void rebuild(EntityManager entityManager, GumgaEntityDescriptor descriptor, List<?> entities) {
+        List<Object> shareables = new ArrayList<>(entities.size());
+        List<Object> ids = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            if (entity instanceof GumgaShareable && entity instanceof GumgaIdable && ((GumgaIdable<?>) entity).getId() != null) {
+                shareables.add(entity);
+                ids.add(((GumgaIdable<?>) entity).getId());
+            }
+        }
+        removeAll(entityManager, descriptor, ids);
+        String entityName = descriptor.getEntityClass().getName();
+        for (int i = 0; i < shareables.size(); i++) {
+            GumgaShareable shareable = (GumgaShareable) shareables.get(i);
+            persist(entityManager, entityName, ids.get(i), split(shareable.getGumgaOrganizations()), split(shareable.getGumgaUsers()));
+        }
+    }
+
+    /**
+     * Remove os compartilhamentos de uma entidade removida
+     *
+     * @param entityManager EntityManager da transação
+     * @param descriptor Descritor da entidade
+     * @param id Id da entidade
+     */
+    static void remove(EntityManager entityManager, GumgaEntityDescriptor descriptor, Object id) {
+        if (id == null) {
+            return;
+        }
+        entityManager.createQuery("delete from GumgaShare share where share.entityName = :entity and share." + descriptor.getShareIdProperty() + " = :id")
+                .setParameter("entity", descriptor.getEntityClass().getName())
+                .setParameter("id", idValue(id))
+                .executeUpdate();
+    }
+
+    /**
+     * Remove os compartilhamentos de entidades removidas em lote, em blocos de {@link GumgaGenericRepository#ID_CHUNK_SIZE} ids
+     *
+     * @param entityManager EntityManager da transação
+     * @param descriptor Descritor da entidade
+     * @param ids Ids das entidades
+     */
+    static void removeAll(EntityManager entityManager, GumgaEntityDescriptor descriptor, List<?> ids) {
+        List<Object> values = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            if (id != null) {
+                values.add(idValue(id));
+            }
+        }
+        for (int start = 0; start < values.size(); start += GumgaGenericRepository.ID_CHUNK_SIZE) {
+            entityManager.createQuery("delete from GumgaShare share where share.entityName = :entity and share." + descriptor.getShareIdProperty() + " in (:ids)")
+                    .setParameter("entity", descriptor.getEntityClass().getName())
+                    .setParameter("ids", values.subList(start, Math.min(start + GumgaGenericRepository.ID_CHUNK_SIZE, values.size())))
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Remove em um único comando os compartilhamentos das entidades retornadas pela subconsulta, antes da remoção em
+     * lote dessas entidades
+     *
+     * @param entityManager EntityManager da transação
+     * @param descriptor Descritor da entidade
+     * @param idsHql Subconsulta HQL dos ids das entidades
+     * @param parameters Parâmetros da subconsulta
+     */
+    static void removeAll(EntityManager entityManager, GumgaEntityDescriptor descriptor, String idsHql, Map<String, Object> parameters) {
+        Map<String, Object> all = new LinkedHashMap<>(parameters);
+        all.put("gumgaRemovedEntity", descriptor.getEntityClass().getName());
+        GumgaQueryParameterBinder.bind(entityManager.createQuery("delete from GumgaShare removed where removed.entityName = :gumgaRemovedEntity and removed."
+                + descriptor.getShareIdProperty() + " in (" + idsHql + ")"), all).executeUpdate();
+    }
+
+    private static void persist(EntityManager entityManager, String entityName, Object id, Set<String> organizations, Set<String> users) {
+        for (String organization : organizations) {
+            entityManager.persist(new GumgaShare(entityName, id, GumgaShare.KIND_ORGANIZATION, organization));
+        }
+        for (String user : users) {
+            entityManager.persist(new GumgaShare(entityName, id, GumgaShare.KIND_USER, user));
+        }
+    }
+
+    private static List<GumgaShare> find(EntityManager entityManager, GumgaEntityDescriptor descriptor, Object id) {
+        return entityManager.createQuery("from GumgaShare share where share.entityName = :entity and share." + descriptor.getShareIdProperty() + " = :id", GumgaShare.class)
+                .setParameter("entity", descriptor.getEntityClass().getName())
+                .setParameter("id", idValue(id))
+                .getResultList();
+    }
+
+    private static Object idValue(Object id) {
+        return id instanceof Number ? (Object) ((Number) id).longValue() : String.valueOf(id);
+    }
+
+    private static Set<String> split(String values) {
+        Set<String> result = new LinkedHashSet<>();
+        if (values != null) {
+            for (String value : values.split(",")) {
+                if (!value.isEmpty()) {
+                    result.add(value);
+                }
+            }
+        }
+        return result;
+    }
+}
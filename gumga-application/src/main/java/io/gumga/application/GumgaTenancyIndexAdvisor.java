@@ -0,0 +1,71 @@
+package io.gumga.application;
+
+import io.gumga.domain.GumgaEntityDescriptor;
+import io.gumga.domain.GumgaTenancyPredicate;
+import org.hibernate.Session;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gera os comandos DDL dos índices compostos (oi, id) necessários às entidades anotadas com
+ * {@link io.gumga.domain.GumgaMultitenancy}. Com esses índices a condição de multitenancy (principalmente no modo
+ * {@link GumgaTenancyPredicate.Mode#RANGE}) e a ordenação padrão por id são resolvidas pelo índice, sem percorrer a tabela.
+ * Os comandos não são executados, devem ser revisados e aplicados pelas migrações da aplicação
+ *
+ * @author Equipe Gumga
+ */
+public class GumgaTenancyIndexAdvisor {
+
+    private static final int MAX_INDEX_NAME = 30;
+
+    private GumgaTenancyIndexAdvisor() {
+    }
+
+    /**
+     * @param entityManager EntityManager da unidade de persistência
+     * @return Um comando create index por tabela com multitenancy
+     */
+    public static List<String> advise(EntityManager entityManager) {
+        Map<String, String> statements = new LinkedHashMap<>();
+        Map<String, ClassMetadata> allMetadata = entityManager.unwrap(Session.class).getSessionFactory().getAllClassMetadata();
+        for (ClassMetadata metadata : allMetadata.values()) {
+            if (!(metadata instanceof AbstractEntityPersister)) {
+                continue;
+            }
+            AbstractEntityPersister persister = (AbstractEntityPersister) metadata;
+            Class<?> entityClass = persister.getMappedClass();
+            if (entityClass == null || !GumgaEntityDescriptor.of(entityClass).hasMultitenancy()) {
+                continue;
+            }
+            String[] oiColumns = persister.getPropertyColumnNames("oi");
+            String[] idColumns = persister.getIdentifierColumnNames();
+            if (oiColumns.length != 1 || idColumns.length == 0) {
+                continue;
+            }
+            String table = persister.getPropertyTableName("oi");
+            List<String> columns = new ArrayList<>();
+            columns.add(oiColumns[0]);
+            for (String idColumn : idColumns) {
+                columns.add(idColumn);
+            }
+            statements.putIfAbsent(table, "create index " + indexName(table) + " on " + table + " (" + String.join(", ", columns) + ")");
+        }
+        return new ArrayList<>(statements.values());
+    }
+
+    private static String indexName(String table) {
+        String name = "ix_" + table.substring(table.lastIndexOf('.') + 1).replace("\"", "").toLowerCase();
+        String suffix = "_oi_id";
+        if (name.length() + suffix.length() > MAX_INDEX_NAME) {
+            String hash = Integer.toHexString(table.hashCode());
+            name = name.substring(0, MAX_INDEX_NAME - suffix.length() - hash.length() - 1) + "_" + hash;
+        }
+        return name + suffix;
+    }
+}
@@ -6,26 +6,20 @@
 package io.gumga.application;
 
 import org.apache.lucene.search.Query;
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.metadata.ClassMetadata;
-import org.hibernate.search.annotations.Indexed;
 import org.hibernate.search.jpa.FullTextEntityManager;
-import org.hibernate.search.jpa.FullTextQuery;
 import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.Entity;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  *
@@ -38,6 +32,9 @@ public class GumgaUntypedRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private GumgaMultiEntitySearch multiEntitySearch;
+
     public GumgaUntypedRepository() {
 
     }
@@ -56,32 +53,13 @@ public class GumgaUntypedRepository {
 
     /**
      * Fazer a pesquisa com os atributos que estão anotados com {@link org.hibernate.search.annotations.Field}
+     * em todas as entidades indexadas, ver {@link GumgaMultiEntitySearch}
      * @param text
-     * @return dados da pesquisa
+     * @return dados da pesquisa, ordenados por relevância
      */
     @Transactional(readOnly = true)
     public List<Object> fullTextSearch(String text) {
-        List aRetornar = new ArrayList();
-
-        for (Class entidade : getAllIndexedEntities()) {
-            FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(em);
-            QueryBuilder qb = fullTextEntityManager.getSearchFactory().buildQueryBuilder().forEntity(entidade).get();
-            String atributos = "";
-            List<Field> todosAtributos = getTodosAtributos(entidade);
-            for (Field f : todosAtributos) {
-                if (f.isAnnotationPresent(org.hibernate.search.annotations.Field.class)) {
-                    atributos += f.getName() + ",";
-                }
-            }
-            if (!atributos.isEmpty()) {
-                atributos = atributos.substring(0, atributos.length() - 1);
-                Query query = qb.keyword().onFields(atributos.split(",")).matching(text).createQuery();
-                FullTextQuery fullTextQuery = fullTextEntityManager.createFullTextQuery(query, entidade);
-                List resultList = fullTextQuery.getResultList();
-                aRetornar.addAll(resultList);
-            }
-        }
-        return aRetornar;
+        return multiEntitySearch.search(text);
     }
 
     /**
@@ -99,25 +77,4 @@ public class GumgaUntypedRepository {
         return aRetornar;
     }
 
-    /**
-     * Pegar as entidades que estão anotadas com {@link Indexed}
-     * @return dados da pesquisa
-     */
-    @Transactional(readOnly = true)
-    private List<Class> getAllIndexedEntities() {
-        List<Class> aRetornar = new ArrayList<>();
-        EntityManager entityManager = em.getEntityManagerFactory().createEntityManager();
-
-        Session session = entityManager.unwrap(Session.class);
-        SessionFactory sessionFactory = session.getSessionFactory();
-        Map<String, ClassMetadata> map = sessionFactory.getAllClassMetadata();
-        for (String k : map.keySet()) {
-            Class mappedClass = map.get(k).getMappedClass();
-            if (mappedClass.isAnnotationPresent(Entity.class) && mappedClass.isAnnotationPresent(Indexed.class)) {
-                aRetornar.add(mappedClass);
-            }
-        }
-        return aRetornar;
-    }
-
 }
@@ -0,0 +1,82 @@
+package io.gumga.application.count;
+
+import io.gumga.core.utils.GumgaLocalCache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantém o count exato em cache por entidade, tenant e filtros da pesquisa durante alguns segundos.
+ * Grids que paginam a mesma pesquisa executam o count uma única vez dentro do tempo de expiração.
+ * Cada entidade possui uma geração, incrementada após o commit de qualquer inclusão, alteração ou remoção e incluída
+ * na chave dos seus totais: os totais anteriores deixam de ser encontrados e expiram, sem percorrer o cache. Um total
+ * carregado durante o commit de uma alteração não é mantido
+ */
+public class GumgaCachedCountStrategy implements GumgaCountStrategy {
+
+    private final GumgaLocalCache<String, Long> cache;
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public GumgaCachedCountStrategy() {
+        this(30, TimeUnit.SECONDS, 10000);
+    }
+
+    /**
+     * @param ttl Tempo de expiração de cada total
+     * @param unit Unidade do tempo de expiração
+     * @param maxSize Quantidade máxima de totais mantidos
+     */
+    public GumgaCachedCountStrategy(long ttl, TimeUnit unit, int maxSize) {
+        this.cache = new GumgaLocalCache<>(ttl, unit, maxSize);
+    }
+
+    @Override
+    public long count(GumgaCountContext context) {
+        long loadedAt = generation(context.getEntityClass()).get();
+        String key = key(context.getKey(), loadedAt);
+        Long count = cache.get(key, k -> context.exactCount());
+        if (generation(context.getEntityClass()).get() != loadedAt) {
+            cache.invalidate(key, count);
+        }
+        return count;
+    }
+
+    /**
+     * @param key Chave da pesquisa
+     * @param generation Geração da entidade pesquisada
+     * @return Chave do total em cache
+     */
+    public static String key(String key, long generation) {
+        return key + "|" + generation;
+    }
+
+    /**
+     * @param entityClass Classe da entidade
+     * @return Geração atual dos totais da entidade
+     */
+    public long getGeneration(Class<?> entityClass) {
+        return generation(entityClass).get();
+    }
+
+    /**
+     * Descarta os totais da entidade e os das suas superclasses, que também contam registros da entidade.
+     * Chamado pelo {@link io.gumga.application.GumgaSearchCacheListener} após o commit de cada alteração
+     *
+     * @param changed Classe da entidade incluída, alterada ou removida
+     */
+    public void invalidate(Class<?> changed) {
+        for (Class<?> c = changed; c != null && c != Object.class; c = c.getSuperclass()) {
+            generation(c).incrementAndGet();
+        }
+    }
+
+    private AtomicLong generation(Class<?> entityClass) {
+        return generations.computeIfAbsent(entityClass, c -> new AtomicLong());
+    }
+
+    public GumgaLocalCache<String, Long> getCache() {
+        return cache;
+    }
+}
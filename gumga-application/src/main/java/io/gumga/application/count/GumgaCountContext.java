@@ -0,0 +1,64 @@
+package io.gumga.application.count;
+
+import io.gumga.core.QueryObject;
+
+import javax.persistence.EntityManager;
+import java.util.function.Supplier;
+
+/**
+ * Dados de uma pesquisa necessários para calcular o seu total de registros
+ */
+public class GumgaCountContext {
+
+    private final QueryObject query;
+    private final Class<?> entityClass;
+    private final EntityManager entityManager;
+    private final boolean filtered;
+    private final String key;
+    private final Supplier<Long> exactCount;
+
+    /**
+     * @param query Pesquisa
+     * @param entityClass Classe da entidade pesquisada
+     * @param entityManager EntityManager da pesquisa
+     * @param filtered true se o total é restrito por filtros, tenancy ou exclusão lógica
+     * @param key Chave que identifica a entidade, o tenant e os filtros da pesquisa
+     * @param exactCount Executa o count exato da pesquisa
+     */
+    public GumgaCountContext(QueryObject query, Class<?> entityClass, EntityManager entityManager, boolean filtered, String key, Supplier<Long> exactCount) {
+        this.query = query;
+        this.entityClass = entityClass;
+        this.entityManager = entityManager;
+        this.filtered = filtered;
+        this.key = key;
+        this.exactCount = exactCount;
+    }
+
+    public QueryObject getQuery() {
+        return query;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    public boolean isFiltered() {
+        return filtered;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return Total exato de registros da pesquisa
+     */
+    public long exactCount() {
+        Long count = exactCount.get();
+        return count == null ? 0L : count;
+    }
+}
@@ -0,0 +1,54 @@
+package io.gumga.application.count;
+
+import io.gumga.core.GumgaCountMode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro das estratégias de count utilizadas pelo {@link io.gumga.application.GumgaGenericRepository}.
+ * O modo {@link GumgaCountMode#NEXT_PAGE} é resolvido pelo próprio repositório, pois altera a consulta da página
+ */
+public final class GumgaCountStrategies {
+
+    private static final GumgaCachedCountStrategy CACHED = new GumgaCachedCountStrategy();
+    private static final Map<GumgaCountMode, GumgaCountStrategy> strategies = new ConcurrentHashMap<>();
+
+    static {
+        strategies.put(GumgaCountMode.EXACT, GumgaCountContext::exactCount);
+        strategies.put(GumgaCountMode.CACHED, CACHED);
+        strategies.put(GumgaCountMode.ESTIMATE, new GumgaEstimatedCountStrategy(CACHED));
+    }
+
+    private GumgaCountStrategies() {
+    }
+
+    /**
+     * @param mode Modo de count
+     * @return Estratégia registrada para o modo, ou a exata quando não há estratégia registrada
+     */
+    public static GumgaCountStrategy get(GumgaCountMode mode) {
+        GumgaCountStrategy strategy = mode == null ? null : strategies.get(mode);
+        return strategy == null ? strategies.get(GumgaCountMode.EXACT) : strategy;
+    }
+
+    /**
+     * Substitui a estratégia de um modo de count
+     *
+     * @param mode Modo de count
+     * @param strategy Estratégia
+     */
+    public static void register(GumgaCountMode mode, GumgaCountStrategy strategy) {
+        if (mode == GumgaCountMode.NEXT_PAGE) {
+            throw new IllegalArgumentException("NEXT_PAGE is resolved by the repository and can not be replaced");
+        }
+        strategies.put(mode, strategy);
+    }
+
+    /**
+     * @return Estratégia padrão do modo {@link GumgaCountMode#CACHED}
+     */
+    public static GumgaCachedCountStrategy getCachedStrategy() {
+        return CACHED;
+    }
+}
@@ -0,0 +1,16 @@
+package io.gumga.application.count;
+
+/**
+ * Estratégia de cálculo do total de registros de uma pesquisa do {@link io.gumga.application.GumgaGenericRepository}.
+ * As estratégias são registradas por {@link io.gumga.core.GumgaCountMode} em {@link GumgaCountStrategies}
+ */
+@FunctionalInterface
+public interface GumgaCountStrategy {
+
+    /**
+     * @param context Dados da pesquisa e acesso ao count exato
+     * @return Total de registros
+     */
+    long count(GumgaCountContext context);
+
+}
@@ -0,0 +1,71 @@
+package io.gumga.application.count;
+
+import io.gumga.domain.GumgaQueryDialect;
+import io.gumga.domain.GumgaQueryParserProvider;
+import org.hibernate.Session;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.util.List;
+
+/**
+ * Utiliza a estimativa de registros mantida pelas estatísticas do banco de dados
+ * (pg_class.reltuples no PostgreSQL e user_tables.num_rows no Oracle).
+ * A estimativa é da tabela inteira, por isso só é utilizada quando a pesquisa não possui filtros, tenancy ou exclusão lógica.
+ * Nos demais casos, ou quando o banco não possui estatísticas, o cálculo é delegado à estratégia alternativa
+ */
+public class GumgaEstimatedCountStrategy implements GumgaCountStrategy {
+
+    private final GumgaCountStrategy fallback;
+
+    /**
+     * @param fallback Estratégia utilizada quando não é possível estimar
+     */
+    public GumgaEstimatedCountStrategy(GumgaCountStrategy fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public long count(GumgaCountContext context) {
+        if (!context.isFiltered()) {
+            Long estimate = estimate(context);
+            if (estimate != null) {
+                return estimate;
+            }
+        }
+        return fallback.count(context);
+    }
+
+    private Long estimate(GumgaCountContext context) {
+        String sql;
+        String table = tableName(context);
+        if (table == null) {
+            return null;
+        }
+        GumgaQueryDialect dialect = GumgaQueryParserProvider.getDialect();
+        if (dialect == GumgaQueryDialect.POSTGRESQL) {
+            sql = "select cast(reltuples as bigint) from pg_class where relkind = 'r' and relname = :table";
+            table = table.toLowerCase();
+        } else if (dialect.isOracle()) {
+            sql = "select num_rows from user_tables where table_name = :table";
+            table = table.toUpperCase();
+        } else {
+            return null;
+        }
+        List<?> result = context.getEntityManager().createNativeQuery(sql).setParameter("table", table).getResultList();
+        if (result.isEmpty() || !(result.get(0) instanceof Number)) {
+            return null;
+        }
+        long estimate = ((Number) result.get(0)).longValue();
+        return estimate < 0 ? null : estimate;
+    }
+
+    private String tableName(GumgaCountContext context) {
+        ClassMetadata metadata = context.getEntityManager().unwrap(Session.class).getSessionFactory().getClassMetadata(context.getEntityClass());
+        if (!(metadata instanceof AbstractEntityPersister)) {
+            return null;
+        }
+        String table = ((AbstractEntityPersister) metadata).getTableName();
+        return table.substring(table.lastIndexOf('.') + 1).replace("\"", "");
+    }
+}
@@ -1,6 +1,10 @@
 package io.gumga.application.customfields;
 
+import io.gumga.application.GumgaGenericRepository;
+import io.gumga.application.GumgaQueryParameterBinder;
 import io.gumga.core.GumgaIdable;
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.domain.GumgaEntityDescriptor;
 import io.gumga.domain.GumgaModel;
 import io.gumga.domain.customfields.GumgaCustomField;
 import io.gumga.domain.customfields.GumgaCustomFieldValue;
@@ -9,7 +13,14 @@ import java.util.ArrayList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -25,6 +36,9 @@ public class GumgaCustomEnhancerService {
     @Autowired
     private GumgaCustomFieldValueService customFieldValueService;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Configura valores padrões nos atributos customizados do objeto
      * @param object Objeto com atributos customizados
@@ -55,18 +69,57 @@ public class GumgaCustomEnhancerService {
      * @param gumgaModel Objeto com atributo customizado
      */
     public void loadCustomFields(Object gumgaModel) {
-        if (!(gumgaModel instanceof GumgaCustomizableModel)) {
-            return;
+        loadCustomFields(Collections.singletonList(gumgaModel));
+    }
+
+    /**
+     * Carrega os atributos customizados genéricos de vários <b>objetos</b>. Os campos são buscados uma vez por classe e
+     * os valores com uma consulta a cada {@link GumgaGenericRepository#ID_CHUNK_SIZE} objetos, ao invés de uma consulta
+     * por objeto e campo
+     * @param gumgaModels Objetos com atributo customizado, os demais são ignorados
+     */
+    public void loadCustomFields(Collection<?> gumgaModels) {
+        Map<Class<?>, List<GumgaModel>> byClass = new LinkedHashMap<>();
+        for (Object gumgaModel : gumgaModels) {
+            if (gumgaModel instanceof GumgaCustomizableModel) {
+                byClass.computeIfAbsent(gumgaModel.getClass(), c -> new ArrayList<>()).add((GumgaModel) gumgaModel);
+            }
         }
-        GumgaCustomizableModel gumgaCustomizable = (GumgaCustomizableModel) gumgaModel;
-        List<GumgaCustomField> customFields = loadAllCustomFields(gumgaModel.getClass());
-        for (GumgaCustomField cf : customFields) {
-            Object value = customFieldValueService.getValue(cf, (GumgaModel) gumgaModel);
-            if (value == null) {
-                value = newValue(cf);
+        byClass.forEach((clazz, models) -> {
+            List<GumgaCustomField> customFields = loadAllCustomFields(clazz);
+            Map<Long, Map<Long, GumgaCustomFieldValue>> values = customFields.isEmpty() ? Collections.emptyMap() : loadValues(customFields, models);
+            for (GumgaModel model : models) {
+                Map<Long, GumgaCustomFieldValue> modelValues = values.getOrDefault((Long) model.getId(), Collections.emptyMap());
+                for (GumgaCustomField cf : customFields) {
+                    Object value = modelValues.get(cf.getId());
+                    if (value == null) {
+                        value = newValue(cf);
+                    }
+                    ((GumgaCustomizableModel) model).getGumgaCustomFields().put(cf.getName(), value);
+                }
+            }
+        });
+    }
+
+    private Map<Long, Map<Long, GumgaCustomFieldValue>> loadValues(List<GumgaCustomField> customFields, List<GumgaModel> models) {
+        List<Long> ids = new ArrayList<>(models.size());
+        for (GumgaModel model : models) {
+            if (model.getId() != null) {
+                ids.add((Long) model.getId());
+            }
+        }
+        Map<Long, Map<Long, GumgaCustomFieldValue>> values = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += GumgaGenericRepository.ID_CHUNK_SIZE) {
+            List<GumgaCustomFieldValue> chunk = entityManager.createQuery("select obj from GumgaCustomFieldValue obj"
+                    + " where obj.field in (:fields) and obj.gumgaModelId in (:ids)", GumgaCustomFieldValue.class)
+                    .setParameter("fields", customFields)
+                    .setParameter("ids", ids.subList(start, Math.min(start + GumgaGenericRepository.ID_CHUNK_SIZE, ids.size())))
+                    .getResultList();
+            for (GumgaCustomFieldValue value : chunk) {
+                values.computeIfAbsent(value.getGumgaModelId(), id -> new HashMap<>()).put(value.getField().getId(), value);
             }
-            gumgaCustomizable.getGumgaCustomFields().put(cf.getName(), value);
         }
+        return values;
     }
 
     /**
@@ -122,4 +175,34 @@ public class GumgaCustomEnhancerService {
 
     }
 
+    /**
+     * Remove em lote os atributos genéricos de entidades removidas em lote, apenas os da organização do usuário
+     * @param clazz Classe das entidades
+     * @param ids Ids das entidades
+     */
+    public void deleteCustomFields(Class<?> clazz, Collection<?> ids) {
+        if (!GumgaCustomizableModel.class.isAssignableFrom(clazz) || ids == null || ids.isEmpty()) {
+            return;
+        }
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(GumgaCustomFieldValue.class);
+        boolean ownership = descriptor.hasMultitenancy() && GumgaThreadScope.organizationCode.get() != null
+                && !Boolean.TRUE.equals(GumgaThreadScope.ignoreCheckOwnership.get());
+        Map<String, Object> ownershipParameters = new LinkedHashMap<>();
+        String hql = "delete from GumgaCustomFieldValue obj where obj.gumgaModelId in (:ids)"
+                + " and obj.field.id in (select field.id from GumgaCustomField field where field.clazz = :clazz)"
+                + (ownership ? " and " + descriptor.getOwnershipHql(ownershipParameters) : "");
+        List<Long> values = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            if (id instanceof Number) {
+                values.add(((Number) id).longValue());
+            }
+        }
+        for (int start = 0; start < values.size(); start += GumgaGenericRepository.ID_CHUNK_SIZE) {
+            Map<String, Object> parameters = new LinkedHashMap<>(ownershipParameters);
+            parameters.put("ids", values.subList(start, Math.min(start + GumgaGenericRepository.ID_CHUNK_SIZE, values.size())));
+            parameters.put("clazz", clazz.getName());
+            GumgaQueryParameterBinder.bind(entityManager.createQuery(hql), parameters).executeUpdate();
+        }
+    }
+
 }
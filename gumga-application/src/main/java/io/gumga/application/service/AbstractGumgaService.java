@@ -1,9 +1,13 @@
 package io.gumga.application.service;
 
 import io.gumga.application.customfields.GumgaCustomEnhancerService;
+import io.gumga.core.QueryObject;
+import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.GQuery;
 import io.gumga.core.exception.NoMultiTenancyException;
 import io.gumga.core.utils.ReflectionUtils;
 import io.gumga.domain.GumgaMultitenancy;
+import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.customfields.GumgaCustomizableModel;
 import io.gumga.domain.domains.GumgaOi;
 import io.gumga.domain.repository.GumgaCrudRepository;
@@ -11,8 +15,12 @@ import io.gumga.domain.repository.GumgaMultitenancyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Classe abstrata que contém métodos para criação de serviços para manipulação da classe domínio, id da organização e busca de campos customizados
@@ -40,6 +48,119 @@ public abstract class AbstractGumgaService<T, ID extends Serializable> {
         return (Class<T>) ReflectionUtils.inferGenericType(getClass());
     }
 
+    /**
+     * @param base Classe que declara o método
+     * @param name Nome do método
+     * @param parameterTypes Tipos dos parâmetros
+     * @return true se o service atual sobrescreve o método declarado na classe base
+     */
+    protected boolean overrides(Class<?> base, String name, Class<?>... parameterTypes) {
+        try {
+            return getClass().getMethod(name, parameterTypes).getDeclaringClass() != base;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Processo executado antes de cada pesquisa
+     * @param query Objeto de pesquisa
+     */
+    public void beforePesquisa(QueryObject query) {
+    }
+
+    /**
+     * Processo executado após cada pesquisa de entidades
+     * @param result Resultado da pesquisa
+     */
+    public void afterPesquisa(SearchResult<T> result) {
+    }
+
+    /**
+     * Pesquisa as entidades de acordo com o filtro, executando os processos antes e após a pesquisa
+     * @param query Objeto de pesquisa
+     * @return Entidades encontradas
+     */
+    @Transactional(readOnly = true)
+    public SearchResult<T> pesquisa(QueryObject query) {
+        beforePesquisa(query);
+        SearchResult<T> result = repository.search(query);
+        afterPesquisa(result);
+        return result;
+    }
+
+    /**
+     * Pesquisa que lê apenas os atributos informados com uma projeção na consulta, sem carregar as entidades.
+     * Quando o service sobrescreve pesquisa ou afterPesquisa, que trabalham com as entidades, as entidades são
+     * pesquisadas normalmente e os atributos são copiados depois
+     *
+     * @param query Pesquisa
+     * @param fields Atributos, inclusive de associações (company.name)
+     * @return Um mapa do atributo para o seu valor por entidade encontrada
+     */
+    @Transactional(readOnly = true)
+    public SearchResult<Map<String, Object>> pesquisa(QueryObject query, String[] fields) {
+        if (overrides(AbstractGumgaService.class, "pesquisa", QueryObject.class) || overrides(AbstractGumgaService.class, "afterPesquisa", SearchResult.class)) {
+            return pesquisa(query).map(entity -> ReflectionUtils.objectFieldsToMap(fields, entity));
+        }
+        beforePesquisa(query);
+        return repository.search(query, fields);
+    }
+
+    /**
+     * Agregação (projeções, group by e having) executada no banco de dados, com o multitenancy aplicado.
+     * A soma e a média de atributos {@link io.gumga.domain.domains.GumgaMoney} retornam Double, o tipo da coluna
+     *
+     * @param gQuery Filtro e agregação
+     * @return Uma linha por grupo, mapa do nome de cada projeção para o seu valor
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> aggregate(GQuery gQuery) {
+        return repository.aggregate(gQuery);
+    }
+
+    /**
+     * Retornar as versões anteriores das entidades marcadas pelas auditoria, paginadas e lidas com uma única consulta
+     *
+     * @param id Id da entidade
+     * @param start Posição da primeira revisão da página
+     * @param pageSize Quantidade de revisões da página
+     * @param diff Se true, retorna apenas os atributos alterados em relação à revisão anterior
+     * @return Revisões da página e a quantidade total de revisões
+     */
+    @Transactional(readOnly = true)
+    public SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff) {
+        return repository.listOldVersions(id, start, pageSize, diff);
+    }
+
+    /**
+     * Processo executado antes da visualização de cada entidade
+     * @param id Identificador da entidade
+     */
+    public void beforeView(ID id) {
+    }
+
+    /**
+     * Processo executado após a visualização de cada entidade
+     * @param entity Entidade visualizada
+     */
+    public void afterView(T entity) {
+    }
+
+    /**
+     * Pesquisa várias entidades pelas primary keys com poucas consultas na base de dados
+     * @param ids Identificadores das entidades
+     * @return entidades na mesma ordem dos ids
+     */
+    @Transactional(readOnly = true)
+    public List<T> viewAll(List<ID> ids) {
+        ids.forEach(this::beforeView);
+        List<T> entities = repository.findAllById(ids);
+        loadGumgaCustomFields(entities);
+        entities.forEach(this::afterView);
+        return entities;
+    }
+
     /**
      * Carrega atributos customizados da entidade recebida por parâmetro, a mesma deve extender a entidade GumgaCustomizableModel
      * @param entity Entidade Customizavel
@@ -50,6 +171,14 @@ public abstract class AbstractGumgaService<T, ID extends Serializable> {
         }
     }
 
+    /**
+     * Carrega os atributos customizados de várias entidades com uma consulta dos valores por bloco de entidades
+     * @param entities Entidades, as que não extendem GumgaCustomizableModel são ignoradas
+     */
+    public void loadGumgaCustomFields(Collection<?> entities) {
+        gces.loadCustomFields(entities);
+    }
+
     /**
      * Carrega um objeto do tipo GumgaOi com o id da organização de acordo com a política de Multitenancy do usuário atual
      * @return GumgaOi
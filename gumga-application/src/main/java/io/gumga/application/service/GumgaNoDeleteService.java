@@ -1,8 +1,6 @@
 package io.gumga.application.service;
 
 import io.gumga.core.GumgaIdable;
-import io.gumga.core.QueryObject;
-import io.gumga.core.SearchResult;
 import io.gumga.domain.repository.GumgaCrudRepository;
 import io.gumga.domain.service.GumgaReadableServiceable;
 import io.gumga.domain.service.GumgaWritableServiceable;
@@ -25,27 +23,6 @@ public abstract class GumgaNoDeleteService<T extends GumgaIdable<ID>, ID extends
 		super(repository);
 	}
 
-	/**
-	 * Processo executado antes do método Pesquisa da classe {@link GumgaNoDeleteService}
-	 * @param query Objeto de pesquisa
-	 */
-	public void beforePesquisa(QueryObject query) { }
-
-	/**
-	 * Processo executado apos do método Pesquisa da classe {@link GumgaNoDeleteService}
-	 * @param result Resultado da pesquisa
-	 */
-	public void afterPesquisa(SearchResult<T> result) { }
-	
-	@Transactional(readOnly = true)
-	public SearchResult<T> pesquisa(QueryObject query) {
-		beforePesquisa(query);
-		SearchResult<T> result = repository.search(query);
-		afterPesquisa(result);
-		
-		return result;
-	}
-
 	/**
 	 * Processo executado antes do método view da classe {@link GumgaNoDeleteService}
 	 * @param id Id da Entidade
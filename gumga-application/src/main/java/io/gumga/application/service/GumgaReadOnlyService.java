@@ -1,8 +1,6 @@
 package io.gumga.application.service;
 
 import io.gumga.core.GumgaIdable;
-import io.gumga.core.QueryObject;
-import io.gumga.core.SearchResult;
 import io.gumga.domain.repository.GumgaCrudRepository;
 import io.gumga.domain.service.GumgaReadableServiceable;
 import org.springframework.context.annotation.Scope;
@@ -24,29 +22,6 @@ public abstract class GumgaReadOnlyService<T extends GumgaIdable<?>, ID extends
         super(repository);
     }
 
-    /**
-     * Processo executado antes do método Pesquisa da classe {@link GumgaReadableServiceable}
-     * @param query
-     */
-    public void beforePesquisa(QueryObject query) {
-    }
-
-    /**
-     * Processo executado apos do método Pesquisa da classe {@link GumgaReadableServiceable}
-     * @param result
-     */
-    public void afterPesquisa(SearchResult<T> result) {
-    }
-
-    @Transactional(readOnly = true)
-    public SearchResult<T> pesquisa(QueryObject query) {
-        beforePesquisa(query);
-        SearchResult<T> result = repository.search(query);
-        afterPesquisa(result);
-
-        return result;
-    }
-
     /**
      * Processo executado antes do método view da classe {@link GumgaReadableServiceable}
      * @param id
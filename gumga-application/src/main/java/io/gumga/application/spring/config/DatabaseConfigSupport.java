@@ -16,7 +16,7 @@ public class DatabaseConfigSupport {
      * @author gyowanny
      */
     public static enum Database {
-        H2, MYSQL, POSTGRES, ORACLE
+        H2, MYSQL, POSTGRES, ORACLE, ORACLE_ADJUST
     }
 
 
@@ -27,6 +27,7 @@ public class DatabaseConfigSupport {
         dsProviderMap.put(Database.MYSQL, new MySqlDataSourceProvider());
         dsProviderMap.put(Database.POSTGRES, new PostgreSqlDataSourceProvider());
         dsProviderMap.put(Database.ORACLE, new OracleDataSourceProvider());
+        dsProviderMap.put(Database.ORACLE_ADJUST, new OracleDataSourceProvider(true));
     }
 
     public DatabaseConfigSupport() {
@@ -81,6 +82,25 @@ public class DatabaseConfigSupport {
         properties.put("hibernate.connection.characterEncoding", "UTF-8");
         properties.put("hibernate.connection.useUnicode", "true");
         properties.put("hibernate.jdbc.batch_size", "50");
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
+        properties.put("hibernate.jdbc.batch_versioned_data", "true");
+        properties.putAll(getSecondLevelCacheProperties());
+        return properties;
+    }
+
+    /**
+     * Propriedades do cache de segundo nível: apenas as entidades anotadas com {@link javax.persistence.Cacheable}
+     * são mantidas em cache, na região local (ehcache) configurada em gumga-ehcache.xml
+     * @return Objeto com propriedades
+     */
+    public Properties getSecondLevelCacheProperties() {
+        Properties properties = new Properties();
+        properties.put("hibernate.cache.use_second_level_cache", "true");
+        properties.put("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+        properties.put("hibernate.cache.default_cache_concurrency_strategy", "read-write");
+        properties.put("net.sf.ehcache.configurationResourceName", "/gumga-ehcache.xml");
+        properties.put("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
         return properties;
     }
 
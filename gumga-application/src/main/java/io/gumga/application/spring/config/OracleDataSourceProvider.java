@@ -2,6 +2,7 @@ package io.gumga.application.spring.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.gumga.domain.GumgaQueryDialect;
 import io.gumga.domain.GumgaQueryParserProvider;
 
 import javax.sql.DataSource;
@@ -10,6 +11,21 @@ import javax.sql.DataSource;
  * Data source for the Oracle database
  */
 public class OracleDataSourceProvider implements DataSourceProvider {
+
+    private final boolean adjust;
+
+    public OracleDataSourceProvider() {
+        this(false);
+    }
+
+    /**
+     * @param adjust true para comparar textos sem acentos ({@link GumgaQueryDialect#ORACLE_WITH_ADJUST}). O ajuste da
+     * sessão é executado pelo pool uma única vez ao criar cada conexão
+     */
+    public OracleDataSourceProvider(boolean adjust) {
+        this.adjust = adjust;
+    }
+
     /**
      * Create Oracle datasource with fixed number of connections (minConnections: 5. maxConnections: 20)
      * @param url The url to access the database
@@ -33,7 +49,11 @@ public class OracleDataSourceProvider implements DataSourceProvider {
      */
     @Override
     public DataSource createDataSource(String url, String user, String password, int minConnections, int maxConnections) {
-        initDefaultMap();
+        if (adjust) {
+            GumgaQueryParserProvider.useDialect(GumgaQueryDialect.ORACLE_WITH_ADJUST, true);
+        } else {
+            initDefaultMap();
+        }
         HikariConfig config = new HikariConfig();
         config.setDataSourceClassName("oracle.jdbc.pool.OracleDataSource");
         config.addDataSourceProperty("url", url);
@@ -43,6 +63,9 @@ public class OracleDataSourceProvider implements DataSourceProvider {
         config.setMaximumPoolSize(maxConnections);
         config.setIdleTimeout(30000L);
         config.setInitializationFailFast(true);
+        if (adjust) {
+            config.setConnectionInitSql(GumgaQueryDialect.ORACLE_WITH_ADJUST.getSessionInitSql());
+        }
         return new HikariDataSource(config);
     }
 
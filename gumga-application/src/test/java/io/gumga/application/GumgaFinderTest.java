@@ -3,19 +3,46 @@ package io.gumga.application;
 import io.gumga.testmodel.CompanyRepository;
 import io.gumga.testmodel.Company;
 import io.gumga.testmodel.CompanyService;
+import io.gumga.testmodel.MarketPlace;
+import io.gumga.testmodel.MarketPlaceRepository;
+import io.gumga.testmodel.Person;
+import io.gumga.testmodel.PersonRepository;
+import io.gumga.testmodel.Stock;
+import io.gumga.testmodel.StockRepository;
 import io.gumga.application.SpringConfig;
+import io.gumga.core.GumgaCountMode;
 import io.gumga.core.GumgaThreadScope;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.AggregateFunction;
+import io.gumga.core.gquery.ComparisonOperator;
+import io.gumga.core.gquery.Criteria;
+import io.gumga.core.gquery.GQuery;
+import io.gumga.core.gquery.Projection;
+import io.gumga.domain.GumgaTenancyPredicate;
+import io.gumga.domain.domains.GumgaMoney;
+import org.hibernate.Hibernate;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -29,12 +56,29 @@ public class GumgaFinderTest {
         GumgaThreadScope.login.set("gumga@gumga.com.br");
     }
 
+    @After
+    public void restauraCondicaoDoOi() {
+        GumgaTenancyPredicate.mode = GumgaTenancyPredicate.Mode.LIKE;
+    }
+
     @Autowired
     private CompanyService service;
 
     @Autowired
     private CompanyRepository companyRespository;
 
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private MarketPlaceRepository marketPlaceRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
 
     @Test
     public void injectionSanityCheck() {
@@ -124,4 +168,431 @@ companyRespository.deleteAll();
         assertFalse(pesquisa.getValues().isEmpty());
     }
 
+    @Test
+    @Transactional
+    public void paginaPorChaveComCursor() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        for (String name : new String[]{"Alfa", "Beta", "Gama", "Delta", "Epsilon"}) {
+            Company empresa = new Company();
+            empresa.setName(name);
+            service.save(empresa);
+        }
+        QueryObject query = new QueryObject();
+        query.setSortField("name");
+        query.setPageSize(2);
+        query.setCursor("");
+        SearchResult<Company> pagina = service.pesquisa(query);
+        Assert.assertEquals(2, pagina.getValues().size());
+        Assert.assertEquals("Alfa", pagina.getValues().get(0).getName());
+        assertNotNull(pagina.getCursor());
+
+        query.setCursor(pagina.getCursor());
+        pagina = service.pesquisa(query);
+        Assert.assertEquals("Delta", pagina.getValues().get(0).getName());
+        Assert.assertEquals("Epsilon", pagina.getValues().get(1).getName());
+
+        query.setCursor(pagina.getCursor());
+        pagina = service.pesquisa(query);
+        Assert.assertEquals(1, pagina.getValues().size());
+        Assert.assertEquals("Gama", pagina.getValues().get(0).getName());
+        Assert.assertNull(pagina.getCursor());
+    }
+
+    @Test
+    @Transactional
+    public void paginaPorChaveComAqComOuSemMultitenancy() {
+        for (String name : new String[]{"Ana", "Bia", "Caio", "Duda", "Edu"}) {
+            personRepository.save(new Person(name));
+        }
+        QueryObject query = new QueryObject();
+        query.setAq("obj.name = 'Ana' or obj.name in ('Bia', 'Caio', 'Duda', 'Edu')");
+        query.setSortField("name");
+        query.setPageSize(2);
+        query.setCursor("");
+        List<String> nomes = new ArrayList<>();
+        do {
+            SearchResult<Person> pagina = personRepository.search(query);
+            pagina.getValues().forEach(pessoa -> nomes.add(pessoa.getName()));
+            query.setCursor(pagina.getCursor());
+        } while (query.getCursor() != null);
+        Assert.assertEquals(Arrays.asList("Ana", "Bia", "Caio", "Duda", "Edu"), nomes);
+    }
+
+    @Test
+    @Transactional
+    public void paginaPorChaveIncluindoValoresNulos() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        for (String name : new String[]{"Beta", null, "Alfa", null, "Gama"}) {
+            Company empresa = new Company();
+            empresa.setName(name);
+            service.save(empresa);
+        }
+
+        QueryObject query = new QueryObject();
+        query.setSortField("name");
+        query.setPageSize(2);
+        Assert.assertEquals(Arrays.asList("Alfa", "Beta", "Gama", null, null), nomesDeTodasAsPaginas(query));
+
+        QueryObject gQuery = new QueryObject();
+        gQuery.setgQuery(new GQuery());
+        gQuery.setSortField("obj.name");
+        gQuery.setSortDir("desc");
+        gQuery.setPageSize(2);
+        Assert.assertEquals(Arrays.asList(null, null, "Gama", "Beta", "Alfa"), nomesDeTodasAsPaginas(gQuery));
+
+        QueryObject avancada = new QueryObject();
+        avancada.setAq("obj.id > 0");
+        avancada.setSortField("obj.name");
+        avancada.setPageSize(3);
+        Assert.assertEquals(Arrays.asList("Alfa", "Beta", "Gama", null, null), nomesDeTodasAsPaginas(avancada));
+    }
+
+    private List<String> nomesDeTodasAsPaginas(QueryObject query) {
+        List<String> nomes = new ArrayList<>();
+        query.setCursor("");
+        do {
+            SearchResult<Company> pagina = service.pesquisa(query);
+            pagina.getValues().forEach(empresa -> nomes.add(empresa.getName()));
+            query.setCursor(pagina.getCursor());
+        } while (query.getCursor() != null);
+        return nomes;
+    }
+
+    @Test
+    @Transactional
+    public void paginaPorChaveComDatas() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        for (long dia = 3; dia > 0; dia--) {
+            service.save(new Company("Dia " + dia, new Date(dia * 86400000l), true));
+        }
+        QueryObject query = new QueryObject();
+        query.setSortField("date");
+        query.setPageSize(1);
+        Assert.assertEquals(Arrays.asList("Dia 1", "Dia 2", "Dia 3"), nomesDeTodasAsPaginas(query));
+    }
+
+    @Test
+    @Transactional
+    public void recusaCursorAdulterado() {
+        QueryObject query = new QueryObject();
+        query.setSortField("name");
+        for (String cursor : new String[]{"não é base64", token("{\"s\":\"name asc,id asc\",\"v\":[\"Alfa\",\"abc\"]}"),
+                token("{\"s\":\"name asc,id asc\",\"v\":[\"Alfa\",[\"java.lang.String\",\"1\"]]}")}) {
+            query.setCursor(cursor);
+            try {
+                service.pesquisa(query);
+                Assert.fail("Cursor inválido deveria ser recusado: " + cursor);
+            } catch (RuntimeException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("Invalid search cursor"));
+            }
+        }
+
+        query.setCursor(token("{\"s\":\"name desc,id asc\",\"v\":[\"Alfa\",\"1\"]}"));
+        try {
+            service.pesquisa(query);
+            Assert.fail("Cursor de outra ordenação deveria ser recusado");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("does not match the current ordering"));
+        }
+    }
+
+    private static String token(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @Transactional
+    public void contaApenasAProximaPagina() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        for (String name : new String[]{"Alfa", "Beta", "Gama"}) {
+            Company empresa = new Company();
+            empresa.setName(name);
+            service.save(empresa);
+        }
+        QueryObject query = new QueryObject();
+        query.setPageSize(2);
+        query.setCountMode(GumgaCountMode.NEXT_PAGE);
+        SearchResult<Company> pagina = service.pesquisa(query);
+        Assert.assertEquals(2, pagina.getValues().size());
+        Assert.assertEquals(3L, pagina.getCount().longValue());
+
+        query.setStart(2);
+        pagina = service.pesquisa(query);
+        Assert.assertEquals(1, pagina.getValues().size());
+        Assert.assertEquals(3L, pagina.getCount().longValue());
+    }
+
+    @Test
+    @Transactional
+    public void buscaVariosIdsRespeitandoOrganizacao() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        Company alfa = new Company();
+        alfa.setName("Alfa");
+        alfa = service.save(alfa);
+        Company beta = new Company();
+        beta.setName("Beta");
+        beta = service.save(beta);
+        GumgaThreadScope.organizationCode.set("2.");
+        Company outra = new Company();
+        outra.setName("Outra");
+        outra = service.save(outra);
+
+        GumgaThreadScope.organizationCode.set("1.");
+        List<Company> encontradas = companyRespository.findAll(Arrays.asList(beta.getId(), alfa.getId()));
+        Assert.assertEquals(2, encontradas.size());
+        Assert.assertEquals("Beta", encontradas.get(0).getName());
+        Assert.assertEquals("Alfa", encontradas.get(1).getName());
+
+        try {
+            service.viewAll(Arrays.asList(alfa.getId(), outra.getId()));
+            Assert.fail("Entidade de outra organização não deveria ser encontrada");
+        } catch (JpaObjectRetrievalFailureException e) {
+            Assert.assertTrue(e.getMessage().contains(String.valueOf(outra.getId())));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void percorreResultadosComCursor() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("2.");
+        Company outra = new Company();
+        outra.setName("Outra");
+        service.save(outra);
+        GumgaThreadScope.organizationCode.set("1.");
+        for (String name : new String[]{"Alfa", "Beta", "Gama", "Delta", "Epsilon"}) {
+            Company empresa = new Company();
+            empresa.setName(name);
+            service.save(empresa);
+        }
+
+        List<String> nomes = new ArrayList<>();
+        QueryObject query = new QueryObject();
+        query.setSortField("name");
+        query.setSortDir("asc");
+        companyRespository.forEach(query, 2, empresa -> nomes.add(empresa.getName()));
+        Assert.assertEquals(Arrays.asList("Alfa", "Beta", "Delta", "Epsilon", "Gama"), nomes);
+
+        try (Stream<Company> stream = companyRespository.stream(new GQuery(new Criteria("obj.name", ComparisonOperator.STARTS_WITH, "G")))) {
+            Assert.assertEquals(1, stream.count());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        Company alfa = companyRespository.findAll(new GQuery(new Criteria("obj.name", ComparisonOperator.EQUAL, "Alfa"))).get(0);
+        List<Company> lidas = new ArrayList<>();
+        companyRespository.forEach(query, 2, lidas::add);
+        Assert.assertTrue(entityManager.contains(alfa));
+        Assert.assertSame(alfa, lidas.get(0));
+        Assert.assertFalse(entityManager.contains(lidas.get(1)));
+    }
+
+    @Test
+    @Transactional
+    public void saveAllAtualizaExistentesEIgnoraIdsRemovidos() {
+        companyRespository.deleteAll();
+        Company alfa = service.save(new Company("Alfa"));
+        Company beta = service.save(new Company("Beta"));
+        entityManager.flush();
+        entityManager.clear();
+        companyRespository.delete(beta.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        alfa.setName("Alfa alterada");
+        List<Company> salvas = service.saveAll(Arrays.asList(alfa, beta));
+        entityManager.clear();
+
+        Assert.assertEquals(2, salvas.size());
+        Assert.assertEquals(alfa.getId(), salvas.get(0).getId());
+        List<String> nomes = new ArrayList<>();
+        for (Company empresa : companyRespository.findAll()) {
+            nomes.add(empresa.getName());
+        }
+        nomes.sort(null);
+        Assert.assertEquals(Arrays.asList("Alfa alterada", "Beta"), nomes);
+    }
+
+    @Test
+    @Transactional
+    public void filtraOrganizacaoPorIntervalo() {
+        companyRespository.deleteAll();
+        for (String oi : new String[]{"1.", "1.2.", "10.", "2."}) {
+            GumgaThreadScope.organizationCode.set(oi);
+            Company empresa = new Company();
+            empresa.setName("Empresa " + oi);
+            service.save(empresa);
+        }
+        GumgaThreadScope.organizationCode.set("1.");
+        GumgaTenancyPredicate.mode = GumgaTenancyPredicate.Mode.RANGE;
+        Assert.assertEquals("1/", GumgaTenancyPredicate.upperBound("1."));
+        Assert.assertEquals(2l, service.pesquisa(new QueryObject()).getCount().longValue());
+
+        QueryObject avancada = new QueryObject();
+        avancada.setAq("obj.name like '%'");
+        Assert.assertEquals(2l, service.pesquisa(avancada).getCount().longValue());
+
+        QueryObject gQuery = new QueryObject();
+        gQuery.setgQuery(new GQuery(new Criteria("obj.name", ComparisonOperator.STARTS_WITH, "Empresa")));
+        Assert.assertEquals(2, service.pesquisa(gQuery).getValues().size());
+
+        List<String> indices = GumgaTenancyIndexAdvisor.advise(entityManager);
+        Assert.assertTrue(indices.stream().anyMatch(ddl -> ddl.matches("(?i)create index \\w+ on company \\(oi, id\\)")));
+    }
+
+    @Test
+    @Transactional
+    public void pesquisaPeloCampoNormalizado() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        Company empresa = new Company();
+        empresa.setName("São João Açúcar");
+        service.save(empresa);
+        Company outra = new Company();
+        outra.setName("Outra");
+        service.save(outra);
+        entityManager.flush();
+        Assert.assertEquals("SAO JOAO ACUCAR", empresa.getNameNormalized());
+
+        QueryObject query = new QueryObject();
+        query.setQ("joão");
+        query.setSearchFields("name");
+        Assert.assertEquals(1l, service.pesquisa(query).getCount().longValue());
+
+        GQuery gQuery = new GQuery(new Criteria("obj.name", ComparisonOperator.STARTS_WITH, "são").addTranslate().addIgnoreCase());
+        QueryObject queryGQuery = new QueryObject();
+        queryGQuery.setgQuery(gQuery);
+        List<Company> values = service.pesquisa(queryGQuery).getValues();
+        Assert.assertEquals(1, values.size());
+        Assert.assertEquals("obj.name", gQuery.getCriteria().getField());
+        Assert.assertEquals("são", gQuery.getCriteria().getValue());
+    }
+
+    @Test
+    @Transactional
+    public void pesquisaApenasOsAtributosPedidos() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        Company empresa = new Company();
+        empresa.setName("Gumga");
+        empresa.setQuantidade(10l);
+        service.save(empresa);
+        GumgaThreadScope.organizationCode.set("2.");
+        Company outra = new Company();
+        outra.setName("Gumga Outra");
+        service.save(outra);
+        GumgaThreadScope.organizationCode.set("1.");
+        entityManager.flush();
+
+        QueryObject query = new QueryObject();
+        query.setQ("Gumga");
+        query.setSearchFields("name");
+        SearchResult<Map<String, Object>> result = service.pesquisa(query, new String[]{"name", " quantidade", "inexistente"});
+        Assert.assertEquals(1l, result.getCount().longValue());
+        Assert.assertEquals(Arrays.asList("name", "quantidade"), new ArrayList<>(result.getValues().get(0).keySet()));
+        Assert.assertEquals("Gumga", result.getValues().get(0).get("name"));
+        Assert.assertEquals(10l, result.getValues().get(0).get("quantidade"));
+
+        QueryObject queryGQuery = new QueryObject();
+        queryGQuery.setgQuery(new GQuery(new Criteria("obj.name", ComparisonOperator.STARTS_WITH, "Gumga")));
+        result = service.pesquisa(queryGQuery, new String[]{"name"});
+        Assert.assertEquals(1, result.getValues().size());
+        Assert.assertEquals("Gumga", result.getValues().get(0).get("name"));
+    }
+
+    @Test
+    @Transactional
+    public void agregaNoBancoRespeitandoOrganizacao() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        for (long quantidade : new long[]{10l, 20l, 5l}) {
+            Company empresa = new Company();
+            empresa.setName(quantidade == 5l ? "Outra" : "Gumga");
+            empresa.setQuantidade(quantidade);
+            service.save(empresa);
+        }
+        GumgaThreadScope.organizationCode.set("2.");
+        Company outraOrganizacao = new Company();
+        outraOrganizacao.setName("Gumga");
+        outraOrganizacao.setQuantidade(100l);
+        service.save(outraOrganizacao);
+        GumgaThreadScope.organizationCode.set("1.");
+        entityManager.flush();
+
+        GQuery gQuery = new GQuery()
+                .select(new Projection("obj.name"), new Projection(AggregateFunction.SUM, "obj.quantidade", "total"), new Projection(AggregateFunction.COUNT, "obj.id", "quantas"))
+                .groupBy("obj.name")
+                .having(new GQuery(new Criteria("count(obj.id)", ComparisonOperator.GREATER, 1l)));
+        List<Map<String, Object>> result = service.aggregate(gQuery);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals("Gumga", result.get(0).get("obj.name"));
+        Assert.assertEquals(30l, ((Number) result.get(0).get("total")).longValue());
+        Assert.assertEquals(2l, ((Number) result.get(0).get("quantas")).longValue());
+    }
+
+    @Test
+    @Transactional
+    public void somaValoresMonetariosComoDouble() {
+        companyRespository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        for (String faturamento : new String[]{"10.25", "20.25"}) {
+            Company empresa = new Company("Gumga");
+            empresa.setFaturamento(new GumgaMoney(new BigDecimal(faturamento)));
+            service.save(empresa);
+        }
+        entityManager.flush();
+
+        GQuery gQuery = new GQuery().select(new Projection(AggregateFunction.SUM, "obj.faturamento", "total"));
+        List<Map<String, Object>> result = service.aggregate(gQuery);
+        Assert.assertEquals(1, result.size());
+        Assert.assertTrue(result.get(0).get("total") instanceof Double);
+        Assert.assertEquals(30.5, (Double) result.get(0).get("total"), 0.001);
+    }
+
+    @Test
+    @Transactional
+    public void carregaAsAssociacoesDoPlanoDeCargaComAPagina() {
+        marketPlaceRepository.deleteAll();
+        stockRepository.deleteAll();
+        GumgaThreadScope.organizationCode.set("1.");
+        for (String nome : new String[]{"Centro", "Norte"}) {
+            Stock stock = stockRepository.save(new Stock());
+            stock.setNome(nome);
+            for (int i = 0; i < 2; i++) {
+                MarketPlace marketPlace = new MarketPlace();
+                marketPlace.setNome(nome + i);
+                marketPlace.setStock(stock);
+                marketPlaceRepository.save(marketPlace);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        QueryObject semPlano = new QueryObject();
+        SearchResult<Stock> result = stockRepository.search(semPlano);
+        Assert.assertFalse(Hibernate.isInitialized(result.getValues().get(0).getMarketPlaces()));
+        entityManager.clear();
+
+        QueryObject query = new QueryObject();
+        query.setFetch("marketPlaces, inexistente");
+        result = stockRepository.search(query);
+        Assert.assertEquals(2l, result.getCount().longValue());
+        for (Stock stock : result.getValues()) {
+            Assert.assertTrue(Hibernate.isInitialized(stock.getMarketPlaces()));
+            Assert.assertEquals(2, stock.getMarketPlaces().size());
+        }
+        entityManager.clear();
+
+        QueryObject graphInexistente = new QueryObject();
+        graphInexistente.setFetchGraph("inexistente");
+        result = stockRepository.search(graphInexistente);
+        Assert.assertEquals(2l, result.getCount().longValue());
+        Assert.assertFalse(Hibernate.isInitialized(result.getValues().get(0).getMarketPlaces()));
+    }
+
 }
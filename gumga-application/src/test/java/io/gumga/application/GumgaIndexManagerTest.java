@@ -0,0 +1,183 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.QueryObject;
+import io.gumga.core.exception.ForbiddenException;
+import io.gumga.testmodel.Bus;
+import io.gumga.testmodel.BusRepository;
+import io.gumga.testmodel.BusService;
+import io.gumga.testmodel.Memo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SpringConfig.class)
+public class GumgaIndexManagerTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GumgaIndexManager indexManager;
+
+    @Autowired
+    private BusRepository busRepository;
+
+    @Autowired
+    private BusService busService;
+
+    private TransactionTemplate transactionTemplate;
+    private Bus bus;
+
+    @Before
+    public void insereLinha() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        GumgaThreadScope.organizationCode.set("1.");
+        GumgaThreadScope.login.set("gumga@gumga.com.br");
+        Bus linha = new Bus("rebuild");
+        linha.addOrganization("7.");
+        bus = busRepository.save(linha);
+    }
+
+    @After
+    public void removeLinha() {
+        GumgaThreadScope.organizationCode.set("1.");
+        busRepository.delete(bus.getId());
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("from Memo", Memo.class).getResultList().forEach(entityManager::remove);
+            return null;
+        });
+    }
+
+    @Test
+    public void recriaOsCompartilhamentosDeRegistrosExistentes() throws InterruptedException {
+        transactionTemplate.execute(status -> entityManager
+                .createQuery("delete from GumgaShare share where share.entityName = :entity and share.numericId = :id")
+                .setParameter("entity", Bus.class.getName())
+                .setParameter("id", bus.getId())
+                .executeUpdate());
+        assertEquals(0L, visiveisPara("7."));
+
+        GumgaIndexJob job = indexManager.rebuildShares(indexManager.getSharedIndexType("Bus"));
+        aguarda(job);
+
+        assertSame(GumgaIndexJob.Status.COMPLETED, job.getStatus());
+        assertEquals(job.getTotal(), job.getIndexed());
+        assertEquals(1L, visiveisPara("7."));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recusaEntidadeSemIndiceDeCompartilhamentos() {
+        indexManager.getSharedIndexType("Company");
+    }
+
+    @Test
+    public void verificaApenasAsLinhasDaOrganizacao() {
+        insereAnotacao("1.", "primeira");
+        insereAnotacao("1.", "segunda");
+        insereAnotacao("2.", "terceira");
+
+        GumgaThreadScope.organizationCode.set("2.");
+        Map<String, Object> organizacao = indexManager.check(Memo.class, 10);
+        assertEquals(1L, organizacao.get("rows"));
+        assertEquals(1, organizacao.get("sampled"));
+        assertNull(organizacao.get("documents"));
+        assertEquals(Collections.emptyList(), organizacao.get("missing"));
+
+        GumgaThreadScope.organizationCode.remove();
+        Map<String, Object> todas = indexManager.check(Memo.class, 10);
+        assertEquals(3L, todas.get("rows"));
+        assertEquals(3, todas.get("documents"));
+    }
+
+    @Test(expected = ForbiddenException.class)
+    public void recusaReindexarOutraOrganizacao() {
+        GumgaThreadScope.organizationCode.set("2.");
+        indexManager.reindex(Memo.class, "1.");
+    }
+
+    @Test(expected = ForbiddenException.class)
+    public void recusaReindexarSemOrganizacao() {
+        GumgaThreadScope.organizationCode.remove();
+        indexManager.reindex(Memo.class, "1.");
+    }
+
+    @Test
+    public void reindexaAOrganizacaoDoUsuario() throws InterruptedException {
+        insereAnotacao("1.2.", "primeira");
+        insereAnotacao("2.", "segunda");
+        GumgaThreadScope.organizationCode.set("1.");
+        GumgaIndexJob job = indexManager.reindex(Memo.class, "1.2.");
+        aguarda(job);
+        assertSame(GumgaIndexJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1L, job.getTotal());
+        assertEquals(1L, job.getIndexed());
+    }
+
+    @Test
+    public void registraAFalhaDaReindexacaoCompleta() {
+        GumgaIndexJob falhou = new GumgaIndexJob(-1L, Collections.singletonList(Memo.class.getName()), null);
+        CompletableFuture<Void> falha = new CompletableFuture<>();
+        falha.completeExceptionally(new IllegalStateException("sem conexão"));
+        GumgaIndexManager.watch(falhou, falha);
+        assertSame(GumgaIndexJob.Status.FAILED, falhou.getStatus());
+        assertTrue(falhou.getError().contains("sem conexão"));
+
+        GumgaIndexJob concluiu = new GumgaIndexJob(-2L, Collections.singletonList(Memo.class.getName()), null);
+        GumgaIndexManager.watch(concluiu, CompletableFuture.completedFuture(null));
+        assertSame(GumgaIndexJob.Status.COMPLETED, concluiu.getStatus());
+    }
+
+    @Test
+    public void descartaReindexacoesFinalizadasAntigas() throws InterruptedException {
+        GumgaThreadScope.organizationCode.set("1.");
+        GumgaIndexJob job = indexManager.reindex(Memo.class, "1.");
+        aguarda(job);
+        assertSame(job, indexManager.getJob(job.getId()));
+
+        indexManager.expireJobs(job.getFinishedAt().getTime() + 60L * 60L * 1000L + 1L);
+        assertNull(indexManager.getJob(job.getId()));
+    }
+
+    private void insereAnotacao(String oi, String texto) {
+        GumgaThreadScope.organizationCode.set(oi);
+        transactionTemplate.execute(status -> {
+            entityManager.persist(new Memo(texto));
+            return null;
+        });
+    }
+
+    private long visiveisPara(String oi) {
+        GumgaThreadScope.organizationCode.set(oi);
+        QueryObject query = new QueryObject();
+        query.setAq("obj.line = 'rebuild'");
+        return busService.pesquisa(query).getCount();
+    }
+
+    private static void aguarda(GumgaIndexJob job) throws InterruptedException {
+        for (int i = 0; i < 200 && job.getStatus() == GumgaIndexJob.Status.RUNNING; i++) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaLogOverflowPolicy;
+import io.gumga.core.GumgaValues;
+import io.gumga.domain.GumgaLog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SpringConfig.class)
+public class GumgaLogWriterTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    @After
+    public void limpa() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> entityManager.createQuery("delete from GumgaLog").executeUpdate());
+    }
+
+    @Test
+    public void descartaOMaisNovoComAFilaCheia() {
+        GumgaLogWriter writer = writer(GumgaLogOverflowPolicy.DROP_NEWEST);
+        escreve(writer, "a", "b", "c");
+        assertEquals(1, writer.getDropped());
+        assertEquals(2, writer.getQueueSize());
+        assertEquals(0, gravados().size());
+
+        writer.stop();
+        assertEquals(Arrays.asList("a", "b"), gravados());
+        assertEquals(2, writer.getWritten());
+        assertEquals(0, writer.getQueueSize());
+    }
+
+    @Test
+    public void descartaOMaisAntigoComAFilaCheia() {
+        GumgaLogWriter writer = writer(GumgaLogOverflowPolicy.DROP_OLDEST);
+        escreve(writer, "a", "b", "c");
+        assertEquals(1, writer.getDropped());
+
+        writer.stop();
+        assertEquals(Arrays.asList("b", "c"), gravados());
+    }
+
+    @Test
+    public void gravaNaThreadDaRequisicaoComAFilaCheia() {
+        GumgaLogWriter writer = writer(GumgaLogOverflowPolicy.CALLER_RUNS);
+        escreve(writer, "a", "b", "c");
+        assertEquals(1, writer.getCallerRuns());
+        assertEquals(0, writer.getDropped());
+        assertEquals(Arrays.asList("c"), gravados());
+
+        writer.stop();
+        assertEquals(Arrays.asList("a", "b", "c"), gravados());
+        assertEquals(3, writer.getWritten());
+        assertEquals(2L, writer.getMetrics().get("batches"));
+    }
+
+    private GumgaLogWriter writer(GumgaLogOverflowPolicy policy) {
+        GumgaLogWriter writer = new GumgaLogWriter(entityManager, transactionManager, new GumgaValues() {
+            @Override
+            public int getLogQueueCapacity() {
+                return 2;
+            }
+
+            @Override
+            public long getLogFlushInterval() {
+                return 60L * 60L * 1000L;
+            }
+
+            @Override
+            public GumgaLogOverflowPolicy getLogOverflowPolicy() {
+                return policy;
+            }
+        });
+        writer.start();
+        return writer;
+    }
+
+    private void escreve(GumgaLogWriter writer, String... endPoints) {
+        for (String endPoint : endPoints) {
+            writer.write(new GumgaLog("gumga@gumga.com.br", "127.0.0.1", "1.", "Gumga", "teste", "op", endPoint, "GET", true));
+        }
+    }
+
+    private List<String> gravados() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("select obj.endPoint from GumgaLog obj order by obj.endPoint", String.class)
+                .getResultList());
+    }
+}
@@ -0,0 +1,86 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.testmodel.Memo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SpringConfig.class)
+public class GumgaMultiEntitySearchTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GumgaMultiEntitySearch multiEntitySearch;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void insereAnotacoes() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        insere("1.", "gumga primeira", "gumga segunda", "gumga terceira");
+        insere("2.", "gumga quarta");
+    }
+
+    @After
+    public void removeAnotacoes() {
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("from Memo", Memo.class).getResultList().forEach(entityManager::remove);
+            return null;
+        });
+    }
+
+    @Test
+    public void completaOLimiteComResultadosDaOrganizacao() {
+        GumgaThreadScope.organizationCode.set("2.");
+        List<Object> resultado = multiEntitySearch.search("gumga", 2);
+        assertEquals(1, resultado.size());
+        assertEquals("gumga quarta", ((Memo) resultado.get(0)).getText());
+
+        GumgaThreadScope.organizationCode.set("1.");
+        assertEquals(2, multiEntitySearch.search("gumga", 2).size());
+        assertEquals(3, multiEntitySearch.search("gumga", 10).size());
+    }
+
+    @Test
+    public void limitaAsPaginasLidasQuandoOsResultadosSaoDeOutraOrganizacao() {
+        String[] outras = new String[GumgaMultiEntitySearch.MAX_PAGES];
+        Arrays.fill(outras, "gumga outra");
+        insere("3.", outras);
+        insere("4.", "gumga final");
+
+        GumgaThreadScope.organizationCode.set("4.");
+        assertTrue(multiEntitySearch.search("gumga", 1).isEmpty());
+        assertEquals(1, multiEntitySearch.search("gumga", 2).size());
+    }
+
+    private void insere(String oi, String... textos) {
+        GumgaThreadScope.organizationCode.set(oi);
+        transactionTemplate.execute(status -> {
+            for (String texto : textos) {
+                entityManager.persist(new Memo(texto));
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package io.gumga.application;
+
+import io.gumga.application.service.GumgaReadOnlyService;
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.SearchResult;
+import io.gumga.domain.GumgaFieldChange;
+import io.gumga.domain.GumgaObjectAndRevision;
+import io.gumga.testmodel.Company;
+import io.gumga.testmodel.CompanyRepository;
+import io.gumga.testmodel.CompanyService;
+import org.hibernate.envers.RevisionType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SpringConfig.class)
+public class GumgaOldVersionsTest {
+
+    @Autowired
+    private CompanyService service;
+
+    @Autowired
+    private CompanyRepository repository;
+
+    private Company empresa;
+
+    @Before
+    public void criaRevisoes() {
+        GumgaThreadScope.organizationCode.set("1.");
+        GumgaThreadScope.login.set("gumga@gumga.com.br");
+        Company nova = new Company("v0");
+        nova.setQuantidade(0L);
+        empresa = service.save(nova);
+        for (long versao = 1; versao <= 3; versao++) {
+            Company alterada = service.view(empresa.getId());
+            alterada.setName("v" + versao);
+            if (versao == 3) {
+                alterada.setQuantidade(3L);
+            }
+            empresa = service.save(alterada);
+        }
+    }
+
+    @After
+    public void removeEmpresa() {
+        GumgaThreadScope.organizationCode.set("1.");
+        repository.delete(empresa.getId());
+    }
+
+    @Test
+    public void paginaAsRevisoesEmOrdemCrescente() {
+        SearchResult<GumgaObjectAndRevision> pagina = service.listOldVersions(empresa.getId(), 1, 2, false);
+        assertEquals(4L, pagina.getCount().longValue());
+        assertEquals(1, pagina.getStart());
+        assertEquals(2, pagina.getPageSize());
+        assertEquals(2, pagina.getValues().size());
+        assertEquals("v1", ((Company) pagina.getValues().get(0).getObject()).getName());
+        assertEquals("v2", ((Company) pagina.getValues().get(1).getObject()).getName());
+        assertSame(RevisionType.MOD, pagina.getValues().get(0).getRevisionType());
+        assertNull(pagina.getValues().get(0).getChanges());
+
+        SearchResult<GumgaObjectAndRevision> ultima = service.listOldVersions(empresa.getId(), 3, 2, false);
+        assertEquals(4L, ultima.getCount().longValue());
+        assertEquals(1, ultima.getValues().size());
+        assertEquals("v3", ((Company) ultima.getValues().get(0).getObject()).getName());
+    }
+
+    @Test
+    public void comparaAPrimeiraRevisaoDaPaginaComARevisaoAnterior() {
+        SearchResult<GumgaObjectAndRevision> pagina = service.listOldVersions(empresa.getId(), 2, 2, true);
+        assertEquals(4L, pagina.getCount().longValue());
+        assertEquals(2, pagina.getValues().size());
+
+        GumgaObjectAndRevision segunda = pagina.getValues().get(0);
+        assertNull(segunda.getObject());
+        assertChanges(segunda.getChanges(), "name", "v1", "v2");
+
+        GumgaObjectAndRevision terceira = pagina.getValues().get(1);
+        assertChanges(terceira.getChanges(), "name", "v2", "v3");
+        assertChanges(terceira.getChanges(), "quantidade", 0L, 3L);
+    }
+
+    @Test
+    public void comparaAInclusaoComNada() {
+        SearchResult<GumgaObjectAndRevision> pagina = service.listOldVersions(empresa.getId(), 0, 1, true);
+        assertEquals(1, pagina.getValues().size());
+        assertSame(RevisionType.ADD, pagina.getValues().get(0).getRevisionType());
+        assertChanges(pagina.getValues().get(0).getChanges(), "name", null, "v0");
+    }
+
+    @Test
+    public void serviceSomenteLeituraListaAsRevisoes() {
+        GumgaReadOnlyService<Company, Long> somenteLeitura = new GumgaReadOnlyService<Company, Long>(repository) {
+            @Override
+            public List<GumgaObjectAndRevision> listOldVersions(Long id) {
+                return repository.listOldVersions(id);
+            }
+        };
+        SearchResult<GumgaObjectAndRevision> pagina = somenteLeitura.listOldVersions(empresa.getId(), 0, 10, false);
+        assertEquals(4L, pagina.getCount().longValue());
+        assertEquals(4, pagina.getValues().size());
+    }
+
+    private static void assertChanges(List<GumgaFieldChange> changes, String field, Object oldValue, Object newValue) {
+        for (GumgaFieldChange change : changes) {
+            if (change.getField().equals(field)) {
+                assertEquals(oldValue, change.getOldValue());
+                assertEquals(newValue, change.getNewValue());
+                return;
+            }
+        }
+        throw new AssertionError("Alteração de " + field + " não encontrada em " + changes);
+    }
+}
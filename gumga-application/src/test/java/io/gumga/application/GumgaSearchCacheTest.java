@@ -0,0 +1,113 @@
+package io.gumga.application;
+
+import io.gumga.application.count.GumgaCachedCountStrategy;
+import io.gumga.application.count.GumgaCountContext;
+import io.gumga.application.count.GumgaCountStrategies;
+import io.gumga.domain.GumgaResultCache;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class GumgaSearchCacheTest {
+
+    @GumgaResultCache
+    public static class Cached {
+    }
+
+    public static class CachedChild extends Cached {
+    }
+
+    private GumgaSearchCache.EntityCache cache() {
+        GumgaSearchCache.EntityCache cache = GumgaSearchCache.of(Cached.class, Cached.class.getAnnotation(GumgaResultCache.class));
+        GumgaSearchCache.invalidate(Cached.class);
+        return cache;
+    }
+
+    @Test
+    public void guardaOsIdsDaPagina() {
+        GumgaSearchCache.EntityCache cache = cache();
+        cache.put("q", new GumgaSearchCache.Page(2L, Arrays.asList(1L, 2L), null), cache.generation());
+        GumgaSearchCache.Page page = cache.get("q");
+        assertNotNull(page);
+        assertEquals(Long.valueOf(2), page.getCount());
+        assertEquals(Arrays.asList(1L, 2L), page.getIds());
+    }
+
+    @Test
+    public void alteracaoDaSubclasseLimpaOCacheDaSuperclasse() {
+        GumgaSearchCache.EntityCache cache = cache();
+        cache.put("q", new GumgaSearchCache.Page(1L, Arrays.asList(1L), null), cache.generation());
+        GumgaSearchCache.invalidate(CachedChild.class);
+        assertNull(cache.get("q"));
+    }
+
+    @Test
+    public void naoGuardaResultadoCarregadoAntesDaLimpeza() {
+        GumgaSearchCache.EntityCache cache = cache();
+        long generation = cache.generation();
+        GumgaSearchCache.invalidate(Cached.class);
+        cache.put("q", new GumgaSearchCache.Page(1L, Arrays.asList(1L), null), generation);
+        assertNull(cache.get("q"));
+    }
+
+    @Test
+    public void alteracaoDeOutraEntidadeNaoLimpaOCache() {
+        GumgaSearchCache.EntityCache cache = cache();
+        cache.put("q", new GumgaSearchCache.Page(1L, Arrays.asList(1L), null), cache.generation());
+        GumgaSearchCache.invalidate(String.class);
+        assertNotNull(cache.get("q"));
+        Map<String, Object> metrics = (Map<String, Object>) GumgaSearchCache.getMetrics().get(Cached.class.getName());
+        assertEquals(1, metrics.get("size"));
+    }
+
+    @Test
+    public void alteracaoDaSubclasseLimpaOsTotaisEmCache() {
+        GumgaCachedCountStrategy strategy = GumgaCountStrategies.getCachedStrategy();
+        strategy.invalidate(Cached.class);
+        strategy.invalidate(String.class);
+        AtomicLong loads = new AtomicLong();
+        assertEquals(10L, strategy.count(context(Cached.class, loads, 10L)));
+        assertEquals(5L, strategy.count(context(CachedChild.class, loads, 5L)));
+        assertEquals(1L, strategy.count(context(String.class, loads, 1L)));
+        assertEquals(3L, loads.get());
+
+        GumgaSearchCacheListener.invalidate(CachedChild.class);
+        assertEquals(11L, strategy.count(context(Cached.class, loads, 11L)));
+        assertEquals(6L, strategy.count(context(CachedChild.class, loads, 6L)));
+        assertEquals(1L, strategy.count(context(String.class, loads, 2L)));
+        assertEquals(5L, loads.get());
+    }
+
+    @Test
+    public void naoGuardaTotalCarregadoDuranteOCommit() {
+        GumgaCachedCountStrategy strategy = GumgaCountStrategies.getCachedStrategy();
+        AtomicLong loads = new AtomicLong();
+        GumgaCountContext concorrente = new GumgaCountContext(null, Cached.class, null, false, Cached.class.getName() + "|1.||commit", () -> {
+            loads.incrementAndGet();
+            GumgaSearchCacheListener.invalidate(Cached.class);
+            return 7L;
+        });
+        assertEquals(7L, strategy.count(concorrente));
+        long generation = strategy.getGeneration(Cached.class);
+        assertNull(strategy.getCache().getIfPresent(GumgaCachedCountStrategy.key(Cached.class.getName() + "|1.||commit", generation - 1)));
+        assertEquals(8L, strategy.count(context(Cached.class, loads, 8L, "commit")));
+        assertEquals(2L, loads.get());
+    }
+
+    private static GumgaCountContext context(Class<?> entityClass, AtomicLong loads, long count) {
+        return context(entityClass, loads, count, "q");
+    }
+
+    private static GumgaCountContext context(Class<?> entityClass, AtomicLong loads, long count, String shape) {
+        return new GumgaCountContext(null, entityClass, null, false, entityClass.getName() + "|1.||" + shape, () -> {
+            loads.incrementAndGet();
+            return count;
+        });
+    }
+}
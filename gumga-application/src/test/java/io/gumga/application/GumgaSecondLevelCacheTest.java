@@ -0,0 +1,100 @@
+package io.gumga.application;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.domain.customfields.CustomFieldType;
+import io.gumga.domain.customfields.GumgaCustomField;
+import io.gumga.testmodel.Company;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SpringConfig.class)
+public class GumgaSecondLevelCacheTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GumgaSecondLevelCache secondLevelCache;
+
+    private TransactionTemplate transactionTemplate;
+    private Long id;
+
+    @Before
+    public void insereCampo() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        GumgaThreadScope.organizationCode.set("1.");
+        id = transactionTemplate.execute(status -> {
+            GumgaCustomField campo = new GumgaCustomField(Company.class.getName(), "cacheField", "Campo em cache", true, CustomFieldType.TEXT,
+                    "", "true", "''", "", 1.0, "MAIN_FIELDS", "a.b.c");
+            entityManager.persist(campo);
+            return campo.getId();
+        });
+        secondLevelCache.evictAll();
+    }
+
+    @After
+    public void removeCampo() {
+        transactionTemplate.execute(status -> {
+            entityManager.remove(entityManager.find(GumgaCustomField.class, id));
+            return null;
+        });
+    }
+
+    @Test
+    public void leDoCacheEntreTransacoes() {
+        long acertos = acertos();
+        carrega();
+        assertTrue(entityManagerFactory.getCache().contains(GumgaCustomField.class, id));
+        carrega();
+        carrega();
+        assertEquals(acertos + 2, acertos());
+        assertEquals(GumgaCustomField.class, secondLevelCache.getCachedType("GumgaCustomField"));
+    }
+
+    @Test
+    public void removeAsInstanciasDaEntidade() {
+        carrega();
+        assertTrue(entityManagerFactory.getCache().contains(GumgaCustomField.class, id));
+        secondLevelCache.evict(GumgaCustomField.class);
+        assertFalse(entityManagerFactory.getCache().contains(GumgaCustomField.class, id));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recusaEntidadeForaDoCache() {
+        secondLevelCache.getCachedType("Company");
+    }
+
+    private void carrega() {
+        transactionTemplate.execute(status -> entityManager.find(GumgaCustomField.class, id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private long acertos() {
+        Map<String, Object> region = (Map<String, Object>) secondLevelCache.getMetrics().get(GumgaCustomField.class.getName());
+        return region == null ? 0L : (Long) region.get("hits");
+    }
+}
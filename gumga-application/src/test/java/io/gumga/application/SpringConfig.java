@@ -3,6 +3,7 @@ package io.gumga.application;
 import io.gumga.application.GumgaRepositoryFactoryBean;
 import io.gumga.application.service.GumgaFreemarkerTemplateEngineService;
 import io.gumga.application.service.JasyptGumgaPasswordService;
+import io.gumga.application.spring.config.DatabaseConfigSupport;
 import io.gumga.core.GumgaValues;
 import io.gumga.core.exception.TemplateEngineException;
 import io.gumga.core.service.GumgaPasswordService;
@@ -49,6 +50,8 @@ public class SpringConfig {
         properties.put("eclipselink.weaving", "false");
         properties.put("hibernate.show_sql", "true");
         properties.put("hibernate.format_sql", "false");
+        properties.put("hibernate.search.default.directory_provider", "ram");
+        properties.putAll(new DatabaseConfigSupport().getSecondLevelCacheProperties());
 
         LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
         factory.setJpaVendorAdapter(vendorAdapter);
@@ -130,6 +130,16 @@ public class CustomFieldsTest {
         assertEquals(2, size);
     }
 
+    @Test
+    @Transactional
+    public void listEnhacedCarsInBatch() {
+        List<Car> result = carRepository.findAll();
+        enhancerService.loadCustomFields(result);
+        for (Car car : result) {
+            assertEquals(2, car.getGumgaCustomFields().size());
+        }
+    }
+
     @Test
     @Transactional
     public void newInstace() {
@@ -7,6 +7,7 @@ import io.gumga.application.SpringConfig;
 import io.gumga.core.GumgaThreadScope;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
+import io.gumga.domain.GumgaEntityDescriptor;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -17,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = {SpringConfig.class})
@@ -106,4 +108,24 @@ public class SharedModelTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void removeCompartilhamentoIndexado() {
+        assertTrue(GumgaEntityDescriptor.of(Bus.class).hasSharedIndex());
+        GumgaThreadScope.organizationCode.set("9.");
+        GumgaThreadScope.login.set("munif@gumga.com.br");
+        SearchResult<Bus> pesquisa = busService.pesquisa(new QueryObject());
+        assertEquals(2l, pesquisa.getCount().longValue());
+
+        Bus linha503 = pesquisa.getValues().stream().filter(b -> "503".equals(b.getLine())).findFirst().get();
+        linha503.removeUser("munif@gumga.com.br");
+        GumgaThreadScope.organizationCode.set("2.");
+        busRepository.save(linha503);
+
+        GumgaThreadScope.organizationCode.set("9.");
+        QueryObject qo = new QueryObject();
+        qo.setAq("obj.line like '%'");
+        assertEquals(1l, busService.pesquisa(qo).getCount().longValue());
+    }
+
 }
@@ -0,0 +1,117 @@
+package io.gumga.logicaldelete;
+
+import io.gumga.application.SpringConfig;
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.gquery.AggregateFunction;
+import io.gumga.core.gquery.ComparisonOperator;
+import io.gumga.core.gquery.Criteria;
+import io.gumga.core.gquery.GQuery;
+import io.gumga.core.gquery.Projection;
+import io.gumga.testmodel.Book;
+import io.gumga.testmodel.BookRepository;
+import io.gumga.testmodel.BookService;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.RevisionType;
+import org.hibernate.envers.query.AuditEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SpringConfig.class)
+public class LogicalDeleteAllTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private List<Long> ids;
+
+    @Before
+    public void insereLivros() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        GumgaThreadScope.organizationCode.set("1.");
+        GumgaThreadScope.login.set("gumga@gumga.com.br");
+        ids = new ArrayList<>();
+        for (String titulo : Arrays.asList("Dom Casmurro", "Vidas Secas")) {
+            ids.add(bookService.save(new Book(titulo)).getId());
+        }
+    }
+
+    @After
+    public void removeLivros() {
+        transactionTemplate.execute(status -> entityManager.createQuery("delete from Book book where book.id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate());
+    }
+
+    @Test
+    public void marcaCadaEntidadeComoInativaEGeraARevisao() {
+        transactionTemplate.execute(status -> {
+            Book carregado = entityManager.find(Book.class, ids.get(0));
+            bookRepository.deleteAll();
+            assertFalse(carregado.getGumgaActive());
+            return null;
+        });
+
+        List<Boolean> ativos = entityManager.createQuery("select book.gumgaActive from Book book where book.id in (:ids)", Boolean.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        assertEquals(Arrays.asList(false, false), ativos);
+
+        transactionTemplate.execute(status -> {
+            for (Long id : ids) {
+                List<Object[]> revisoes = AuditReaderFactory.get(entityManager).createQuery()
+                        .forRevisionsOfEntity(Book.class, false, true)
+                        .add(AuditEntity.id().eq(id))
+                        .addOrder(AuditEntity.revisionNumber().asc())
+                        .getResultList();
+                assertEquals(2, revisoes.size());
+                Object[] remocao = revisoes.get(1);
+                assertSame(RevisionType.MOD, remocao[2]);
+                assertFalse(((Book) remocao[0]).getGumgaActive());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void agregacaoIgnoraOsRemovidosLogicamente() {
+        transactionTemplate.execute(status -> {
+            bookRepository.delete(ids.get(0));
+            return null;
+        });
+
+        GQuery gQuery = new GQuery(new Criteria("obj.id", ComparisonOperator.IN, ids))
+                .select(new Projection(AggregateFunction.COUNT, "obj.id", "quantos"));
+        List<Map<String, Object>> result = bookService.aggregate(gQuery);
+        assertEquals(1, result.size());
+        assertEquals(1L, ((Number) result.get(0).get("quantos")).longValue());
+    }
+}
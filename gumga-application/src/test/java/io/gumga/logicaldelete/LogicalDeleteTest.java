@@ -4,16 +4,25 @@ import io.gumga.alldatabases.AllDatabasesTest;
 import io.gumga.application.SpringConfig;
 import io.gumga.core.GumgaThreadScope;
 import io.gumga.core.QueryObject;
+import io.gumga.core.gquery.ComparisonOperator;
+import io.gumga.core.gquery.Criteria;
+import io.gumga.core.gquery.GQuery;
 import io.gumga.mysql.MysqlSpringConfig;
 import io.gumga.testmodel.Book;
 import io.gumga.testmodel.BookRepository;
 import io.gumga.testmodel.BookService;
 import io.gumga.testmodel.Company;
 import io.gumga.testmodel.CompanyService;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Scanner;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,6 +39,8 @@ public class LogicalDeleteTest {
     protected BookService bookService;
     @Autowired
     private BookRepository bookRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Before
     @Transactional
@@ -104,6 +115,52 @@ public class LogicalDeleteTest {
         assertEquals(3, result.size());
     }
 
+    @Test
+    @Transactional
+    public void removeEmLoteLogicamenteEDepoisFisicamente() {
+        GumgaThreadScope.organizationCode.set("1.");
+        QueryObject query = new QueryObject();
+        List<Book> result = bookService.pesquisa(query).getValues();
+        assertEquals(4, result.size());
 
+        List<Long> ids = Arrays.asList(result.get(0).getId(), result.get(1).getId());
+        assertEquals(2, bookService.bulkDelete(ids));
+        entityManager.clear();
+        for (Long id : ids) {
+            assertFalse(entityManager.find(Book.class, id).getGumgaActive());
+        }
+        assertTrue(entityManager.find(Book.class, result.get(2).getId()).getGumgaActive());
+        assertEquals(2, bookService.pesquisa(query).getValues().size());
+
+        GQuery inativos = new GQuery(new Criteria("obj.gumgaActive", ComparisonOperator.EQUAL, false))
+                .and(new Criteria("obj.id", ComparisonOperator.IN, ids));
+        assertEquals(2, bookService.bulkDeletePermanent(inativos));
+        entityManager.clear();
+        for (Long id : ids) {
+            assertNull(entityManager.find(Book.class, id));
+        }
+        assertEquals(2, bookService.pesquisa(query).getValues().size());
+    }
+
+    @Test
+    @Transactional
+    public void removeEmLotePeloFiltroApenasDaOrganizacao() {
+        GumgaThreadScope.organizationCode.set("2.");
+        Long outraOrganizacao = bookService.save(new Book("Player One")).getId();
+        GumgaThreadScope.organizationCode.set("1.");
+        Long daOrganizacao = bookService.pesquisa(new QueryObject()).getValues().stream()
+                .filter(book -> "Player One".equals(book.getTitle())).findFirst().get().getId();
+
+        GQuery playerOne = new GQuery(new Criteria("obj.title", ComparisonOperator.EQUAL, "Player One"));
+        assertEquals(1, bookService.bulkDelete(playerOne));
+        entityManager.clear();
+        assertFalse(entityManager.find(Book.class, daOrganizacao).getGumgaActive());
+        assertTrue(entityManager.find(Book.class, outraOrganizacao).getGumgaActive());
+
+        assertEquals(1, bookService.bulkDeletePermanent(playerOne));
+        entityManager.clear();
+        assertNull(entityManager.find(Book.class, daOrganizacao));
+        assertTrue(entityManager.find(Book.class, outraOrganizacao).getGumgaActive());
+    }
 
 }
@@ -11,7 +11,12 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = {SpringConfig.class})
@@ -54,4 +59,22 @@ public class GumgaSharedLDModelTest {
         assertEquals(1, repository.findAll().size());
         assertEquals("Caito Mango Evergreen", repository.findAll().get(0).getNome());
     }
+
+    @Test
+    @Transactional
+    public void naoBuscaPorIdsRegistrosRemovidosLogicamente() {
+        GumgaThreadScope.organizationCode.set("1.");
+        PersonSharedLDModel ativa = repository.findAll().stream().filter(p -> p.getNome().startsWith("Caito")).findFirst().get();
+        PersonSharedLDModel removida = repository.findAll().stream().filter(p -> p.getNome().startsWith("Luska")).findFirst().get();
+        removida.setGumgaActive(false);
+        repository.save(removida);
+
+        assertEquals(1, repository.findAll(Collections.singletonList(ativa.getId())).size());
+        try {
+            repository.findAll(Arrays.asList(ativa.getId(), removida.getId()));
+            fail("Registro removido logicamente não deveria ser encontrado");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains(String.valueOf(removida.getId())));
+        }
+    }
 }
@@ -9,10 +9,14 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.SequenceGenerator;
+import org.hibernate.envers.AuditOverride;
+import org.hibernate.envers.Audited;
 
 @Entity
 @SequenceGenerator(name = GumgaModel.SEQ_NAME, sequenceName = "SEQ_CAR")
 @GumgaMultitenancy
+@Audited
+@AuditOverride(forClass = GumgaLDModel.class)
 public class Book extends GumgaLDModel<Long> {
 
     private String title;
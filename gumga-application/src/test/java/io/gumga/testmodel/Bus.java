@@ -2,6 +2,7 @@ package io.gumga.testmodel;
 
 import io.gumga.domain.GumgaModel;
 import io.gumga.domain.GumgaMultitenancy;
+import io.gumga.domain.shared.GumgaSharedIndex;
 import io.gumga.domain.shared.GumgaSharedModel;
 
 import javax.persistence.Entity;
@@ -10,6 +11,7 @@ import javax.persistence.SequenceGenerator;
 @Entity
 @SequenceGenerator(name = GumgaModel.SEQ_NAME, sequenceName = "SEQ_BUS")
 @GumgaMultitenancy
+@GumgaSharedIndex
 public class Bus extends GumgaSharedModel<Long> {
 
     public Bus() {
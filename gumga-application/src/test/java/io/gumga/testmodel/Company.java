@@ -3,7 +3,9 @@ package io.gumga.testmodel;
 import io.gumga.domain.GumgaModel;
 import io.gumga.domain.GumgaMultitenancy;
 import io.gumga.domain.GumgaMultitenancyPolicy;
+import io.gumga.domain.GumgaNormalized;
 import io.gumga.domain.domains.GumgaBoolean;
+import io.gumga.domain.domains.GumgaMoney;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -23,12 +25,16 @@ import org.hibernate.envers.Audited;
 public class Company extends GumgaModel<Long> {
 
     private String name;
+    @GumgaNormalized("name")
+    @Column(name = "name_normalized")
+    private String nameNormalized;
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "g_data")
     private Date date;
     private Boolean ativo;
     private Long quantidade;
     private BigDecimal valor;
+    private GumgaMoney faturamento;
     @Enumerated(EnumType.STRING)
     private Tipo tipo;
     private GumgaBoolean gumgaBoolean = new GumgaBoolean(true);
@@ -84,6 +90,10 @@ public class Company extends GumgaModel<Long> {
         this.name = name;
     }
 
+    public String getNameNormalized() {
+        return nameNormalized;
+    }
+
     public Date getDate() {
         return date;
     }
@@ -121,6 +131,14 @@ public class Company extends GumgaModel<Long> {
         this.valor = valor;
     }
 
+    public GumgaMoney getFaturamento() {
+        return faturamento;
+    }
+
+    public void setFaturamento(GumgaMoney faturamento) {
+        this.faturamento = faturamento;
+    }
+
     public Tipo getTipo() {
         return tipo;
     }
@@ -0,0 +1,37 @@
+package io.gumga.testmodel;
+
+import io.gumga.domain.GumgaModel;
+import io.gumga.domain.GumgaMultitenancy;
+import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Indexed;
+
+import javax.persistence.Entity;
+import javax.persistence.SequenceGenerator;
+
+/**
+ * Entidade indexada sem o oi no índice, o multitenancy da pesquisa textual é verificado nos resultados
+ */
+@Entity
+@SequenceGenerator(name = GumgaModel.SEQ_NAME, sequenceName = "SEQ_MEMO")
+@GumgaMultitenancy
+@Indexed
+public class Memo extends GumgaModel<Long> {
+
+    @Field
+    private String text;
+
+    public Memo() {
+    }
+
+    public Memo(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
@@ -3,7 +3,6 @@ package io.gumga.testmodel;
 import io.gumga.domain.GumgaModel;
 import io.gumga.domain.GumgaMultitenancy;
 import io.gumga.domain.logicaldelete.GumgaSharedLDModel;
-import io.gumga.domain.shared.GumgaSharedModel;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -12,11 +11,14 @@ import javax.persistence.SequenceGenerator;
 @Entity
 @GumgaMultitenancy
 @SequenceGenerator(name = GumgaModel.SEQ_NAME, sequenceName = "SEQ_PersonShared")
-public class PersonSharedLDModel extends GumgaSharedModel<Long> {
+public class PersonSharedLDModel extends GumgaSharedLDModel<Long> {
 
     @Column
     private String nome;
 
+    public PersonSharedLDModel() {
+    }
+
     public PersonSharedLDModel(String nome) {
         this.nome = nome;
     }
@@ -0,0 +1,29 @@
+package io.gumga.core;
+
+/**
+ * Forma de calcular o total de registros de uma pesquisa ({@link SearchResult#getCount()})
+ *
+ * @author Equipe Gumga
+ */
+public enum GumgaCountMode {
+
+    /**
+     * Executa o count exato da pesquisa
+     */
+    EXACT,
+    /**
+     * Não executa o count, busca um registro a mais que o tamanho da página para saber se existe uma próxima página.
+     * O total retornado é start + registros da página, somado de 1 quando existe próxima página
+     */
+    NEXT_PAGE,
+    /**
+     * Utiliza a estimativa de registros do banco de dados (PostgreSQL e Oracle) quando a pesquisa não possui filtros,
+     * nos demais casos utiliza o count em cache ({@link #CACHED})
+     */
+    ESTIMATE,
+    /**
+     * Executa o count exato e o mantém em cache por alguns segundos, por tenant e filtros da pesquisa
+     */
+    CACHED
+
+}
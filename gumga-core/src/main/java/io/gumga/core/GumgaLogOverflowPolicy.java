@@ -0,0 +1,22 @@
+package io.gumga.core;
+
+/**
+ * Comportamento da gravação assíncrona dos logs de acesso quando a fila está cheia
+ *
+ * @author Equipe Gumga
+ */
+public enum GumgaLogOverflowPolicy {
+
+    /**
+     * Descarta o log recebido
+     */
+    DROP_NEWEST,
+    /**
+     * Descarta o log mais antigo da fila para receber o novo
+     */
+    DROP_OLDEST,
+    /**
+     * Grava o log na própria thread da requisição, reduzindo o ritmo das requisições até a fila esvaziar
+     */
+    CALLER_RUNS
+}
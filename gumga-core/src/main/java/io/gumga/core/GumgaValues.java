@@ -3,6 +3,7 @@ package io.gumga.core;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
@@ -56,6 +57,20 @@ public interface GumgaValues {
         return 30l * 60l * 1000l;
     }
 
+    /**
+     * @return quantidade máxima de tokens mantidos no cache de autorização do GumgaCacheRequestFilterV2
+     */
+    default int getTokenCacheMaxSize() {
+        return 10000;
+    }
+
+    /**
+     * @return tempo máximo, em segundos, que uma autorização permanece no cache do GumgaCacheRequestFilterV2
+     */
+    default long getTokenCacheTtl() {
+        return 60l * 60l;
+    }
+
     /**
      * @return se o log está ativo
      */
@@ -63,6 +78,70 @@ public interface GumgaValues {
         return true;
     }
 
+    /**
+     * @return quantidade máxima de logs aguardando a gravação assíncrona
+     */
+    default int getLogQueueCapacity() {
+        return 10000;
+    }
+
+    /**
+     * @return quantidade de logs gravados em cada lote
+     */
+    default int getLogBatchSize() {
+        return 100;
+    }
+
+    /**
+     * @return intervalo máximo, em milissegundos, entre as gravações dos logs
+     */
+    default long getLogFlushInterval() {
+        return 1000L;
+    }
+
+    /**
+     * @return comportamento quando a fila de logs está cheia
+     */
+    default GumgaLogOverflowPolicy getLogOverflowPolicy() {
+        return GumgaLogOverflowPolicy.DROP_NEWEST;
+    }
+
+    /**
+     * @return quantidade máxima de resultados, ordenados por relevância, da pesquisa textual em todas as entidades
+     */
+    default int getMultiSearchMaxResults() {
+        return 100;
+    }
+
+    /**
+     * @return quantidade de entidades carregadas por lote na reindexação das entidades do Hibernate Search
+     */
+    default int getIndexBatchSize() {
+        return 50;
+    }
+
+    /**
+     * @return quantidade de threads que carregam as entidades na reindexação completa de uma entidade
+     */
+    default int getIndexThreads() {
+        return 2;
+    }
+
+    /**
+     * @return logins autorizados a executar as operações administrativas do framework, como limpar os caches pela
+     * {@code /api/gumgacache}. Por padrão nenhum usuário é autorizado
+     */
+    default Set<String> getAdminLogins() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return tempo, em milissegundos, que uma reindexação finalizada continua disponível para consulta
+     */
+    default long getIndexJobRetention() {
+        return 60L * 60L * 1000L;
+    }
+
     /**
      * @return Log da requisições aparece no console
      */
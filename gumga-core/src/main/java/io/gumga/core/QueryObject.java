@@ -1,8 +1,10 @@
 package io.gumga.core;
 
 import io.gumga.core.gquery.GQuery;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Classe para representar os parâmetros de uma pesquisa enviada ao Framework
@@ -77,6 +79,27 @@ public class QueryObject {
      */
     private boolean searchCount = true;
 
+    /**
+     * Token de continuação da paginação por chave (keyset). Quando informado, a pesquisa ignora o start e
+     * continua a partir do último registro da página anterior. Vazio inicia a paginação por chave na primeira página
+     */
+    private String cursor;
+
+    /**
+     * Forma de calcular o total de registros da pesquisa
+     */
+    private GumgaCountMode countMode = GumgaCountMode.EXACT;
+
+    /**
+     * Nome de um {@code @NamedEntityGraph} da entidade com as associações carregadas junto com a página
+     */
+    private String fetchGraph;
+
+    /**
+     * Associações carregadas junto com a página, inclusive aninhadas (company.address)
+     */
+    private String[] fetch;
+
     public boolean isGQuery() {
         return gQuery != null;
     }
@@ -219,6 +242,35 @@ public class QueryObject {
         return "QueryObject{ phonetic=" + phonetic + ", aq=" + aq + ", q=" + q + ", start=" + start + ", pageSize=" + pageSize + ", sortField=" + sortField + ", sortDir=" + sortDir + ", action=" + action + ", searchFields=" + Arrays.asList(searchFields == null ? Collections.EMPTY_LIST : searchFields) + '}';
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Token de continuação retornado em {@link SearchResult#getCursor()} da página anterior
+     */
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return true se a pesquisa utiliza paginação por chave (keyset) ao invés de deslocamento
+     */
+    public boolean isKeyset() {
+        return cursor != null;
+    }
+
+    public GumgaCountMode getCountMode() {
+        return countMode;
+    }
+
+    /**
+     * Forma de calcular o total de registros da pesquisa, o padrão é {@link GumgaCountMode#EXACT}
+     */
+    public void setCountMode(GumgaCountMode countMode) {
+        this.countMode = countMode == null ? GumgaCountMode.EXACT : countMode;
+    }
+
     public boolean isSearchCount() {
         return searchCount;
     }
@@ -226,4 +278,46 @@ public class QueryObject {
     public void setSearchCount(boolean searchCount) {
         this.searchCount = searchCount;
     }
+
+    public String getFetchGraph() {
+        return fetchGraph;
+    }
+
+    public void setFetchGraph(String fetchGraph) {
+        this.fetchGraph = fetchGraph;
+    }
+
+    /**
+     * @return Associações informadas, separando as que vieram juntas por vírgula ("company, company.address"), ou
+     * null se nenhuma foi informada
+     */
+    public String[] getFetch() {
+        if (fetch == null) {
+            return null;
+        }
+        List<String> paths = new ArrayList<>();
+        for (String value : fetch) {
+            if (value == null) {
+                continue;
+            }
+            for (String path : value.split(",")) {
+                if (!path.trim().isEmpty()) {
+                    paths.add(path.trim());
+                }
+            }
+        }
+        return paths.toArray(new String[paths.size()]);
+    }
+
+    public void setFetch(String... fetch) {
+        this.fetch = fetch;
+    }
+
+    /**
+     * @return true se a pesquisa informa um entity graph ou associações a carregar junto com a página
+     */
+    public boolean hasFetchPlan() {
+        String[] paths = getFetch();
+        return (fetchGraph != null && !fetchGraph.trim().isEmpty()) || (paths != null && paths.length > 0);
+    }
 }
@@ -16,18 +16,28 @@ public class SearchResult<T> {
     private final Long count;
     private final int start;
     private final List<T> values;
+    private final String cursor;
 
     public SearchResult(int start, int pageSize, Number count, List<T> data) {
+        this(start, pageSize, count, data, null);
+    }
+
+    public SearchResult(int start, int pageSize, Number count, List<T> data, String cursor) {
         this.start = start;
         this.pageSize = pageSize;
         this.count = count.longValue();
         this.values = data;
+        this.cursor = cursor;
     }
 
     public SearchResult(QueryObject query, Number count, List<T> data) {
         this(query.getStart(), query.getPageSize(), count, data);
     }
 
+    public SearchResult(QueryObject query, Number count, List<T> data, String cursor) {
+        this(query.getStart(), query.getPageSize(), count, data, cursor);
+    }
+
     public int getPageSize() {
         return pageSize;
     }
@@ -48,7 +58,17 @@ public class SearchResult<T> {
      * @return A funcao como SearchResult
      */
     public <A> SearchResult<A> map(Function<? super T, A> fn) {
-        return new SearchResult<>(start, pageSize, count, values.stream().map(fn).collect(Collectors.toList()));
+        return new SearchResult<>(start, pageSize, count, values.stream().map(fn).collect(Collectors.toList()), cursor);
+    }
+
+    /**
+     * Token de continuação para a próxima página na paginação por chave (keyset),
+     * nulo quando não há próxima página ou a pesquisa não utiliza keyset
+     *
+     * @return Token a ser enviado em {@link QueryObject#setCursor(String)}
+     */
+    public String getCursor() {
+        return cursor;
     }
 
     public List<T> getValues() {
@@ -0,0 +1,27 @@
+package io.gumga.core.gquery;
+
+/**
+ * Funções de agregação de uma {@link Projection} do {@link GQuery}
+ */
+public enum AggregateFunction {
+    COUNT("count(%s)"),
+    COUNT_DISTINCT("count(distinct %s)"),
+    SUM("sum(%s)"),
+    AVG("avg(%s)"),
+    MIN("min(%s)"),
+    MAX("max(%s)");
+
+    private final String hql;
+
+    AggregateFunction(String hql) {
+        this.hql = hql;
+    }
+
+    /**
+     * @param field Atributo agregado
+     * @return Expressão HQL da função sobre o atributo
+     */
+    public String toHql(String field) {
+        return String.format(hql, field);
+    }
+}
@@ -1,10 +1,12 @@
 package io.gumga.core.gquery;
 
+import io.gumga.core.utils.AsciiFolding;
+
 import java.io.Serializable;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
@@ -16,6 +18,13 @@ public class Criteria implements Serializable {
     public static final String TARGET_CHARS = "'AAAAAAAAEEEEIIOOOOOOUUUUCC'";
 
     public static boolean doTranslate = true;
+
+    private static final String TRANSLATE_FUNCTION = "translate(%s," + SOURCE_CHARS + "," + TARGET_CHARS + ")";
+    /**
+     * Funções do campo geradas por {@link #addTranslate()} e {@link #addIgnoreCase()}, em qualquer ordem
+     */
+    private static final Set<String> NORMALIZABLE_FUNCTIONS = new HashSet<>(Arrays.asList(
+            String.format(TRANSLATE_FUNCTION, "lower(%s)"), String.format("lower(%s)", TRANSLATE_FUNCTION)));
     /**
      * Campo a ser levado em consideração no critério de busca
      */
@@ -191,11 +200,11 @@ public class Criteria implements Serializable {
                     if(objects[0] instanceof Number) {
                         return field + comparisonOperator.hql +  objects[0] + " AND " + objects[1];
                     } else {
-                        Date parse = parse(String.valueOf(objects[0]));
-                        if(isDate(objects[0], parse)) {
-                            Date parse2 = parse(String.valueOf(objects[1]));
-                            String format1 = new SimpleDateFormat("yyyy-MM-dd").format(parse != null ? parse : objects[0]);
-                            String format2 = new SimpleDateFormat("yyyy-MM-dd").format(parse2 != null ? parse2 : objects[1]);
+                        LocalDate firstDate = toLocalDate(objects[0]);
+                        if(firstDate != null) {
+                            LocalDate secondDate = toLocalDate(objects[1]);
+                            String format1 = firstDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
+                            String format2 = (secondDate != null ? secondDate : firstDate).format(DateTimeFormatter.ISO_LOCAL_DATE);
 
                             return field + comparisonOperator.hql + String.format("to_timestamp('%s 00:00:00','yyyy/MM/dd HH24:mi:ss')", format1) + " AND " + String.format("to_timestamp('%s 23:59:59','yyyy/MM/dd HH24:mi:ss')", format2);
                         }
@@ -206,9 +215,9 @@ public class Criteria implements Serializable {
                 if(objects[0] instanceof Number) {
                     return field + comparisonOperator.hql +  objects[0] + " AND " + objects[0];
                 } else {
-                    Date parse = parse(String.valueOf(objects[0]));
-                    if(isDate(objects[0], parse)) {
-                        String format1 = new SimpleDateFormat("yyyy-MM-dd").format(parse != null ? parse : objects[0]);
+                    LocalDate date = toLocalDate(objects[0]);
+                    if(date != null) {
+                        String format1 = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
                         return field + comparisonOperator.hql + String.format("to_timestamp('%s 00:00:00','yyyy/MM/dd HH24:mi:ss')", format1) + " AND " + String.format("to_timestamp('%s 23:59:59','yyyy/MM/dd HH24:mi:ss')", format1);
                     }
                 }
@@ -219,9 +228,9 @@ public class Criteria implements Serializable {
             if(value instanceof Number) {
                 return field + comparisonOperator.hql +  value + " AND " + value;
             }  else {
-                Date parse = parse(String.valueOf(value));
-                if(isDate(value, parse)) {
-                    String format1 = new SimpleDateFormat("yyyy-MM-dd").format(parse != null ? parse : value);
+                LocalDate date = toLocalDate(value);
+                if(date != null) {
+                    String format1 = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
                     return field + comparisonOperator.hql + String.format("to_timestamp('%s 00:00:00','yyyy/MM/dd HH24:mi:ss')", format1) + " AND " + String.format("to_timestamp('%s 23:59:59','yyyy/MM/dd HH24:mi:ss')", format1);
                 }
             }
@@ -235,9 +244,9 @@ public class Criteria implements Serializable {
             return field + comparisonOperator.hql + value;
 
         } else {
-            Date parse = parse(String.valueOf(value));
-            if(isDate(value, parse)) {
-                String format = new SimpleDateFormat("yyyy-MM-dd").format(parse != null ? parse : value);
+            LocalDate date = toLocalDate(value);
+            if(date != null) {
+                String format = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
 
                 switch (this.comparisonOperator) {
                     case EQUAL:
@@ -260,60 +269,180 @@ public class Criteria implements Serializable {
         return String.format(fieldFunction, field) + comparisonOperator.hql + String.format(valueFunction, "\'" + value.toString().replaceAll("\'", "''") + "\'");
     }
 
-    public Criteria addIgnoreCase() {
-        fieldFunction = String.format(fieldFunction, "lower(%s)");
-        valueFunction = String.format(valueFunction, "lower(%s)");
-        return this;
+    /**
+     * Gera o trecho HQL do critério utilizando parâmetros nomeados no lugar dos literais.
+     * Critérios de mesmo formato geram sempre o mesmo HQL, permitindo o reaproveitamento
+     * do plano de consulta do Hibernate e do cache de statements do JDBC.
+     * @param parameters Mapa onde os valores dos parâmetros criados serão adicionados
+     * @return Trecho HQL com os parâmetros nomeados
+     */
+    public String toHql(Map<String, Object> parameters) {
+        Object value = this.value;
+
+        if(value == null) {
+            return field + comparisonOperator.hql + " null";
+        }
+
+        if(value instanceof Map) {
+            Object result = convertMapInCriteriaField(value);
+            if(result instanceof CriteriaField) {
+                this.value = result;
+            }
+            value = result;
+        }
+
+        if (ComparisonOperator.STARTS_WITH.equals(this.comparisonOperator)) {
+            value = value + "%";
+        } else if (ComparisonOperator.ENDS_WITH.equals(this.comparisonOperator)) {
+            value = "%" + value;
+        } else if (ComparisonOperator.CONTAINS.equals(this.comparisonOperator) || ComparisonOperator.NOT_CONTAINS.equals(this.comparisonOperator)) {
+            value = "%" + value + "%";
+        }
+
+        if(ComparisonOperator.IN.equals(this.comparisonOperator)) {
+            if(value instanceof Collection) {
+                Collection values = (Collection) value;
+                boolean hasField = false;
+                for (Object object : values) {
+                    hasField = hasField || object instanceof CriteriaField;
+                }
+                if(!hasField) {
+                    return field + comparisonOperator.hql + "(" + addParameter(parameters, new ArrayList<>(values)) + ")";
+                }
+                StringJoiner joiner = new StringJoiner(",");
+                for (Object object : values) {
+                    joiner.add(object instanceof CriteriaField ? object.toString() : addParameter(parameters, object));
+                }
+                return field + comparisonOperator.hql + "(" + joiner + ")";
+            }
+            if(value instanceof CriteriaField) {
+                return field + comparisonOperator.hql + "(" + value + ")";
+            }
+            return field + comparisonOperator.hql + "(" + addParameter(parameters, value) + ")";
+        }
+
+        if(value instanceof CriteriaField || value instanceof Boolean) {
+            return field + comparisonOperator.hql + value;
+        }
+
+        if(ComparisonOperator.IN_ELEMENTS.equals(this.comparisonOperator)) {
+            return addParameter(parameters, value) + comparisonOperator.hql + "(" + field + ")";
+        }
+
+        if(ComparisonOperator.BETWEEN.equals(this.comparisonOperator)) {
+            Object first = value;
+            Object second = value;
+            if(value instanceof Collection) {
+                Object[] objects = ((Collection) value).toArray();
+                first = objects[0];
+                second = objects.length >= 2 ? objects[1] : objects[0];
+            }
+            if(!(first instanceof Number)) {
+                LocalDate firstDate = toLocalDate(first);
+                if(firstDate != null) {
+                    LocalDate secondDate = toLocalDate(second);
+                    return field + comparisonOperator.hql + addParameter(parameters, startOfDay(firstDate)) + " AND " + addParameter(parameters, endOfDay(secondDate != null ? secondDate : firstDate));
+                }
+            }
+            return field + comparisonOperator.hql + addParameter(parameters, first) + " AND " + addParameter(parameters, second);
+        }
+
+        if(value instanceof Number) {
+            return field + comparisonOperator.hql + addParameter(parameters, value);
+        }
+
+        LocalDate date = toLocalDate(value);
+        if(date != null) {
+            switch (this.comparisonOperator) {
+                case EQUAL:
+                    return field + ComparisonOperator.GREATER_EQUAL.hql + addParameter(parameters, startOfDay(date)) + " AND " +
+                            field + ComparisonOperator.LOWER_EQUAL.hql + addParameter(parameters, endOfDay(date));
+                case GREATER_EQUAL:
+                case GREATER:
+                    return field + comparisonOperator.hql + addParameter(parameters, startOfDay(date));
+                case LOWER_EQUAL:
+                case LOWER:
+                    return field + comparisonOperator.hql + addParameter(parameters, endOfDay(date));
+            }
+        }
+
+        return String.format(fieldFunction, field) + comparisonOperator.hql + String.format(valueFunction, addParameter(parameters, value.toString()));
     }
 
     /**
-     * Adiciona translate no critério (ignora caracteres especiais)
-     * @return Critério de busca
+     * Adiciona um valor ao mapa de parâmetros
+     * @param parameters Mapa de parâmetros
+     * @param value Valor do parâmetro
+     * @return Nome do parâmetro no formato HQL, exemplo: :gq0
      */
-    public Criteria addTranslate() {
-        if (doTranslate) {
-            fieldFunction = String.format(fieldFunction, "translate(%s," + SOURCE_CHARS + "," + TARGET_CHARS + ")");
-            valueFunction = String.format(fieldFunction, "translate(%s," + SOURCE_CHARS + "," + TARGET_CHARS + ")");
-        }
-        return this;
+    private static String addParameter(Map<String, Object> parameters, Object value) {
+        String name = "gq" + parameters.size();
+        parameters.put(name, value);
+        return ":" + name;
     }
 
     /**
-     * Formatos de datas utilizados na conversão das mesmas no critério de busca
+     * Converte o valor para data, caso ele represente uma. Textos são reconhecidos pelo {@link DateLiteral}
+     * @param value Valor do critério
+     * @return Data ou null caso o valor não seja uma data
      */
-    private final String[] formats = {
-            "yyyy-MM-dd'T'HH:mm:ss'Z'",   "yyyy-MM-dd'T'HH:mm:ssZ",
-            "yyyy-MM-dd'T'HH:mm:ss",      "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'",
-            "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "yyyy-MM-dd HH:mm:ss",
-            "MM/dd/yyyy HH:mm:ss",        "MM/dd/yyyy'T'HH:mm:ss.SSS'Z'",
-            "MM/dd/yyyy'T'HH:mm:ss.SSSZ", "MM/dd/yyyy'T'HH:mm:ss.SSS",
-            "MM/dd/yyyy'T'HH:mm:ssZ",     "MM/dd/yyyy'T'HH:mm:ss",
-            "yyyy:MM:dd HH:mm:ss",
-            "yyyy-MM-dd", "yyyy/MM/dd"
-    };
+    private static LocalDate toLocalDate(Object value) {
+        if(value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if(value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        if(value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if(value instanceof Date) {
+            return ((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        return value instanceof CharSequence ? DateLiteral.parseDate((CharSequence) value) : null;
+    }
+
+    private static Date startOfDay(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Date endOfDay(LocalDate date) {
+        return Date.from(date.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public Criteria addIgnoreCase() {
+        fieldFunction = String.format(fieldFunction, "lower(%s)");
+        valueFunction = String.format(valueFunction, "lower(%s)");
+        return this;
+    }
 
     /**
-     * Cria data a partir de uma String levando em consideração os formatos possíveis
-     * @param d String
-     * @return Data
+     * Critério equivalente que compara a cópia normalizada do campo (sem acentos e em caixa alta), sem funções sobre a
+     * coluna para que a comparação possa utilizar um índice. O valor é normalizado da mesma forma. Apenas critérios com
+     * translate e ignoreCase ({@link #addTranslate()} e {@link #addIgnoreCase()}, em qualquer ordem) e valor texto são
+     * trocados, pois só eles ignoram acentos e caixa como o campo normalizado
+     * @param normalizedField Campo normalizado, ou null se o campo não possui
+     * @return Novo critério, ou o próprio critério quando ele não pode utilizar o campo normalizado
      */
-    private Date parse(String d) {
-        SimpleDateFormat sdf;
-        if (d != null) {
-            for (String parse : formats) {
-                sdf = new SimpleDateFormat(parse);
-                try {
-                    return sdf.parse(d);
-                } catch (ParseException e) {
-//                    System.out.println("Trying to converter date to pattern: " + parse);
-                }
-            }
+    public Criteria withNormalizedField(Object normalizedField) {
+        if (normalizedField == null || !NORMALIZABLE_FUNCTIONS.contains(fieldFunction) || !(value instanceof CharSequence)) {
+            return this;
         }
-        return null;
+        Criteria normalized = new Criteria(normalizedField, comparisonOperator, AsciiFolding.foldUpperCase(value.toString()));
+        normalized.values = values;
+        return normalized;
     }
 
-    private Boolean isDate(Object value, Date parse) {
-        return value instanceof Date || value instanceof LocalDate || value instanceof LocalDateTime || parse != null;
+    /**
+     * Adiciona translate no critério (ignora caracteres especiais)
+     * @return Critério de busca
+     */
+    public Criteria addTranslate() {
+        if (doTranslate) {
+            fieldFunction = String.format(fieldFunction, TRANSLATE_FUNCTION);
+            valueFunction = String.format(fieldFunction, TRANSLATE_FUNCTION);
+        }
+        return this;
     }
 
     public static void main(String[] args) {
@@ -1,5 +1,7 @@
 package io.gumga.core.gquery;
 
+import java.util.Map;
+
 /**
  * Critério de Junção utilizado no {@link GQuery}
  */
@@ -24,6 +26,14 @@ public class CriteriaJoin {
     public String toString() {
         return type.getName() + criteria.toString();
     }
+
+    /**
+     * @param parameters Mapa onde os valores dos parâmetros serão adicionados
+     * @return Critério da junção no formato HQL com os valores como parâmetros nomeados
+     */
+    public String toHql(Map<String, Object> parameters) {
+        return type.getName() + criteria.toHql(parameters);
+    }
 }
 enum CriteriaJoinType {
     ON(" on "), AND(" and "), OR(" or ");
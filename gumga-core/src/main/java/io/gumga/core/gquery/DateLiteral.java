@@ -0,0 +1,120 @@
+package io.gumga.core.gquery;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Reconhece os textos de data aceitos nos critérios do {@link GQuery}:
+ * {@code yyyy-MM-dd}, {@code yyyy/MM/dd}, {@code yyyy:MM:dd HH:mm:ss} e {@code MM/dd/yyyy}, com hora, milissegundos e
+ * fuso opcionais ({@code 2017-01-31T10:00:00.000Z}, {@code 01/31/2017 10:00:00}).
+ * O formato é escolhido pelo separador da data, sem tentativas sucessivas, e textos que não têm a forma de uma data são
+ * descartados sem nenhuma exceção. Os formatadores são imutáveis e compartilhados entre as threads.
+ * Um 'Z' no final do texto é ignorado, a data e hora são consideradas no fuso do servidor
+ *
+ * @author Equipe Gumga
+ */
+public final class DateLiteral {
+
+    private static final String TIME = "[['T'][' ']HH:mm:ss[.SSS]['Z'][xx][xxx]]";
+    private static final DateTimeFormatter ISO = formatter("uuuu-MM-dd" + TIME);
+    private static final DateTimeFormatter SLASH = formatter("uuuu/MM/dd");
+    private static final DateTimeFormatter COLON = formatter("uuuu:MM:dd HH:mm:ss");
+    private static final DateTimeFormatter US = formatter("MM/dd/uuuu" + TIME);
+
+    private static final int MIN_LENGTH = 10;
+    private static final int MAX_LENGTH = 29;
+
+    private DateLiteral() {
+    }
+
+    private static DateTimeFormatter formatter(String pattern) {
+        return DateTimeFormatter.ofPattern(pattern).withResolverStyle(ResolverStyle.STRICT);
+    }
+
+    /**
+     * @param text Texto
+     * @return Data e hora no fuso do servidor, ou null se o texto não for uma data válida
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        DateTimeFormatter formatter = formatterFor(text);
+        if (formatter == null) {
+            return null;
+        }
+        try {
+            TemporalAccessor parsed = formatter.parse(text);
+            LocalDate date = LocalDate.from(parsed);
+            if (!parsed.isSupported(ChronoField.HOUR_OF_DAY)) {
+                return date.atStartOfDay();
+            }
+            LocalDateTime dateTime = LocalDateTime.of(date, LocalTime.from(parsed));
+            if (parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+                return OffsetDateTime.of(dateTime, ZoneOffset.from(parsed))
+                        .atZoneSameInstant(ZoneId.systemDefault())
+                        .toLocalDateTime();
+            }
+            return dateTime;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param text Texto
+     * @return Data no fuso do servidor, ou null se o texto não for uma data válida
+     */
+    public static LocalDate parseDate(CharSequence text) {
+        LocalDateTime dateTime = parse(text);
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    /**
+     * Verificação da forma do texto, feita antes de qualquer formatador
+     *
+     * @param text Texto
+     * @return Formatador correspondente ao separador da data, ou null se o texto não tem a forma de uma data
+     */
+    private static DateTimeFormatter formatterFor(CharSequence text) {
+        if (text == null || text.length() < MIN_LENGTH || text.length() > MAX_LENGTH) {
+            return null;
+        }
+        if (digits(text, 0, 4)) {
+            char separator = text.charAt(4);
+            if (text.charAt(7) != separator || !digits(text, 5, 7) || !digits(text, 8, 10)) {
+                return null;
+            }
+            switch (separator) {
+                case '-':
+                    return ISO;
+                case '/':
+                    return SLASH;
+                case ':':
+                    return COLON;
+                default:
+                    return null;
+            }
+        }
+        if (digits(text, 0, 2) && text.charAt(2) == '/' && digits(text, 3, 5) && text.charAt(5) == '/' && digits(text, 6, 10)) {
+            return US;
+        }
+        return null;
+    }
+
+    private static boolean digits(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,6 +2,8 @@ package io.gumga.core.gquery;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * Classe para criação de objetos de pesquisa orientada a objeto (consulta no banco de dados)
@@ -29,6 +31,23 @@ public class GQuery implements Serializable {
      * Indica se adicionara DISTINCT na consulta para evitar repetição de registros
      */
     private Boolean useDistinct = Boolean.FALSE;
+    /**
+     * Colunas do resultado de uma agregação, atributos agrupados ou funções de agregação
+     */
+    private List<Projection> projections = new LinkedList<>();
+    /**
+     * Atributos do group by da agregação
+     */
+    private List<String> groupBy = new LinkedList<>();
+    /**
+     * Condição sobre os grupos da agregação, os campos dos critérios podem ser funções de agregação, exemplo: sum(obj.valor)
+     */
+    private GQuery having;
+
+    /**
+     * Campo aceito nos critérios do having: um atributo ou uma função de agregação sobre um atributo
+     */
+    private static final Pattern HAVING_FIELD = Pattern.compile("(?i:count|sum|avg|min|max)\\((?i:distinct )?" + Projection.PATH.pattern() + "\\)|" + Projection.PATH.pattern());
 
     /**
      * Construtor da classe que iniciará uma modelo de consulta simples
@@ -189,6 +208,29 @@ public class GQuery implements Serializable {
         return builder.toString();
     }
 
+    /**
+     * @param parameters Mapa onde os valores dos parâmetros das junções serão adicionados
+     * @return Parte da hql onde se encontram as junções, com os valores como parâmetros nomeados
+     */
+    public String getJoins(Map<String, Object> parameters) {
+        StringBuilder builder = new StringBuilder();
+        appendJoins(this, builder, parameters);
+        return builder.toString();
+    }
+
+    /**
+     * Monta as junções de consultas e sub-consultas utilizando parâmetros nomeados
+     * @param gQuery Consulta
+     * @param builder String
+     * @param parameters Mapa de parâmetros
+     */
+    private void appendJoins(GQuery gQuery, StringBuilder builder, Map<String, Object> parameters) {
+        gQuery.joins.forEach(join -> builder.append(join.toHql(parameters)));
+        if(gQuery.getSubQuerys() != null) {
+            gQuery.getSubQuerys().forEach(s -> appendJoins(s, builder, parameters));
+        }
+    }
+
     /**
      * Na busca de joins, este método monta as junções de consultas e sub-consultas em uma String
      * @param gQuery Consulta
@@ -269,6 +311,46 @@ public class GQuery implements Serializable {
         return "(" + criteria.toString() + ")";
     }
 
+    /**
+     * Gera a condição HQL da consulta utilizando parâmetros nomeados no lugar dos literais,
+     * consultas de mesmo formato geram sempre o mesmo HQL
+     * @param parameters Mapa onde os valores dos parâmetros serão adicionados
+     * @return Condição HQL da consulta
+     */
+    public String toHql(Map<String, Object> parameters) {
+        if (null != logicalOperator) {
+            switch (logicalOperator) {
+                case SIMPLE:
+                    return "(" + criteria.toHql(parameters) + ")";
+                case NOT:
+                    return "(!" + criteria.toHql(parameters) + ")";
+                case AND:
+                case OR:
+                    if (subQuerys == null || subQuerys.isEmpty()) {
+                        return "1 = 1";
+                    }
+                    StringBuilder r = new StringBuilder("(").append(subQuerys.get(0).toHql(parameters));
+                    for (int i = 1; i < subQuerys.size(); i++) {
+                        r.append(" ").append(logicalOperator.toString()).append(" ").append(subQuerys.get(i).toHql(parameters));
+                    }
+                    return r.append(")").toString();
+                default:
+                    break;
+            }
+        }
+        return "(" + criteria.toHql(parameters) + ")";
+    }
+
+    /**
+     * @return true se a consulta possui junções ou critérios além do critério vazio (1 = 1) do construtor padrão
+     */
+    public boolean hasCriteria() {
+        if (!joins.isEmpty() || (subQuerys != null && !subQuerys.isEmpty())) {
+            return true;
+        }
+        return criteria != null && !(criteria.getField() instanceof Number && criteria.getValue() instanceof Number);
+    }
+
     public void addIgnoreCase() {
         if (criteria != null) {
             criteria.addIgnoreCase();
@@ -278,6 +360,138 @@ public class GQuery implements Serializable {
         }
     }
 
+    /**
+     * Cópia da consulta com {@link Criteria#withNormalizedField(Object)} aplicado em todos os critérios, sem alterar
+     * a consulta original
+     * @param normalizedField Função que retorna o campo normalizado de um campo, ou null se ele não possui
+     * @return Nova consulta
+     */
+    public GQuery withNormalizedFields(Function<Object, ?> normalizedField) {
+        GQuery copy = new GQuery(logicalOperator, criteria == null ? null : criteria.withNormalizedField(normalizedField.apply(criteria.getField())));
+        if (subQuerys != null) {
+            copy.subQuerys = new ArrayList<>(subQuerys.size());
+            subQuerys.forEach(gq -> copy.subQuerys.add(gq.withNormalizedFields(normalizedField)));
+        }
+        copy.joins = new LinkedList<>(joins);
+        copy.useDistinct = useDistinct;
+        copy.projections = new LinkedList<>(projections);
+        copy.groupBy = new LinkedList<>(groupBy);
+        copy.having = having;
+        return copy;
+    }
+
+    /**
+     * Adiciona colunas ao resultado da agregação
+     * @param projections Atributos agrupados ou funções de agregação
+     * @return GQuery
+     */
+    public GQuery select(Projection... projections) {
+        this.projections.addAll(Arrays.asList(projections));
+        return this;
+    }
+
+    /**
+     * Adiciona atributos ao group by da agregação
+     * @param fields Atributos, exemplo: obj.status
+     * @return GQuery
+     */
+    public GQuery groupBy(String... fields) {
+        this.groupBy.addAll(Arrays.asList(fields));
+        return this;
+    }
+
+    /**
+     * Define a condição sobre os grupos da agregação
+     * @param having Condição, exemplo: new GQuery(new Criteria("sum(obj.valor)", ComparisonOperator.GREATER, 100))
+     * @return GQuery
+     */
+    public GQuery having(GQuery having) {
+        this.having = having;
+        return this;
+    }
+
+    /**
+     * @return true se a consulta possui projeções, ou seja, é uma agregação
+     */
+    public boolean hasAggregation() {
+        return projections != null && !projections.isEmpty();
+    }
+
+    /**
+     * @return Colunas do select da agregação, na ordem das projeções
+     * @throws IllegalArgumentException se algum atributo não é um caminho de atributo válido
+     */
+    public String getSelectHql() {
+        StringBuilder builder = new StringBuilder();
+        for (Projection projection : projections) {
+            builder.append(builder.length() == 0 ? "" : ", ").append(projection.toHql());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return Parte da hql com o group by, vazia quando não há atributos agrupados
+     * @throws IllegalArgumentException se algum atributo não é um caminho de atributo válido
+     */
+    public String getGroupByHql() {
+        if (groupBy == null || groupBy.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(" group by ");
+        for (int i = 0; i < groupBy.size(); i++) {
+            builder.append(i == 0 ? "" : ", ").append(Projection.path(groupBy.get(i)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param parameters Mapa onde os valores dos parâmetros do having serão adicionados
+     * @return Parte da hql com o having, vazia quando não há condição sobre os grupos
+     * @throws IllegalArgumentException se algum campo não é um atributo ou uma função de agregação sobre um atributo
+     */
+    public String getHavingHql(Map<String, Object> parameters) {
+        if (having == null) {
+            return "";
+        }
+        validateHaving(having);
+        return " having ".concat(having.toHql(parameters));
+    }
+
+    private void validateHaving(GQuery gQuery) {
+        Criteria criteria = gQuery.getCriteria();
+        if (criteria != null && !(criteria.getField() instanceof Number && criteria.getValue() instanceof Number)
+                && (criteria.getField() == null || !HAVING_FIELD.matcher(criteria.getField().toString()).matches())) {
+            throw new IllegalArgumentException("Campo inválido no having: " + criteria.getField());
+        }
+        if (gQuery.getSubQuerys() != null) {
+            gQuery.getSubQuerys().forEach(this::validateHaving);
+        }
+    }
+
+    public List<Projection> getProjections() {
+        return projections;
+    }
+
+    public void setProjections(List<Projection> projections) {
+        this.projections = projections == null ? new LinkedList<>() : projections;
+    }
+
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(List<String> groupBy) {
+        this.groupBy = groupBy == null ? new LinkedList<>() : groupBy;
+    }
+
+    public GQuery getHaving() {
+        return having;
+    }
+
+    public void setHaving(GQuery having) {
+        this.having = having;
+    }
+
     public Boolean getUseDistinct() {
         return useDistinct;
     }
@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Junção utilizada no {@link GQuery}
@@ -55,6 +56,19 @@ public class Join implements Serializable {
         return stringBuilder.toString();
     }
 
+    /**
+     * @param parameters Mapa onde os valores dos parâmetros serão adicionados
+     * @return Junção no formato HQL com os valores como parâmetros nomeados
+     */
+    public String toHql(Map<String, Object> parameters) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(type.getName() + table);
+        this.subQuerys.forEach(criteriaJoin -> {
+            stringBuilder.append(criteriaJoin.toHql(parameters));
+        });
+        return stringBuilder.toString();
+    }
+
 //    public static void main(String[] args) {
 //        GQuery join = new GQuery(new Criteria("nome", ComparisonOperator.EQUAL, "felipe"))
 //                .join(
@@ -0,0 +1,109 @@
+package io.gumga.core.gquery;
+
+import java.io.Serializable;
+import java.util.regex.Pattern;
+
+/**
+ * Coluna do resultado de uma agregação do {@link GQuery}: um atributo agrupado ou uma função de agregação sobre um
+ * atributo. Exemplos:
+ * <pre>
+ * new Projection("obj.status")
+ * new Projection(AggregateFunction.SUM, "obj.valor", "total")
+ * </pre>
+ */
+public class Projection implements Serializable {
+
+    /**
+     * Caminho de atributo a partir do alias obj ou do alias de uma junção
+     */
+    static final Pattern PATH = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*(\\.[A-Za-z_$][A-Za-z0-9_$]*)*");
+
+    /**
+     * Atributo, exemplo: obj.valor
+     */
+    private String field;
+    /**
+     * Função de agregação, null para um atributo agrupado
+     */
+    private AggregateFunction function;
+    /**
+     * Nome da coluna no resultado
+     */
+    private String alias;
+
+    protected Projection() {
+    }
+
+    public Projection(String field) {
+        this(null, field, null);
+    }
+
+    public Projection(AggregateFunction function, String field) {
+        this(function, field, null);
+    }
+
+    public Projection(AggregateFunction function, String field, String alias) {
+        this.function = function;
+        this.field = field;
+        this.alias = alias;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public AggregateFunction getFunction() {
+        return function;
+    }
+
+    public void setFunction(AggregateFunction function) {
+        this.function = function;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    /**
+     * @return Nome da coluna no resultado: o alias informado ou o atributo, precedido da função (sum_obj.valor)
+     */
+    public String getName() {
+        if (alias != null && !alias.isEmpty()) {
+            return alias;
+        }
+        return function == null ? field : function.name().toLowerCase() + "_" + field;
+    }
+
+    /**
+     * @return Expressão HQL da coluna
+     * @throws IllegalArgumentException se o atributo não é um caminho de atributo válido
+     */
+    public String toHql() {
+        return function == null ? path(field) : function.toHql(path(field));
+    }
+
+    /**
+     * @param field Atributo
+     * @return O próprio atributo, validado para ser concatenado no HQL
+     * @throws IllegalArgumentException se o atributo não é um caminho de atributo válido
+     */
+    static String path(String field) {
+        if (field == null || !PATH.matcher(field).matches()) {
+            throw new IllegalArgumentException("Atributo inválido na agregação: " + field);
+        }
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return toHql();
+    }
+}
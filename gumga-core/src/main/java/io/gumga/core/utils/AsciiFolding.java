@@ -0,0 +1,53 @@
+package io.gumga.core.utils;
+
+import java.text.Normalizer;
+
+/**
+ * Remove acentos de textos sem utilizar expressões regulares. Equivale a
+ * {@code Normalizer.normalize(text, Form.NFD).replaceAll("[^\\p{ASCII}]", "")}, mas textos que já são ASCII são
+ * retornados sem nenhuma cópia.
+ *
+ * @author Equipe Gumga
+ */
+public final class AsciiFolding {
+
+    private AsciiFolding() {
+    }
+
+    /**
+     * @param text Texto
+     * @return Texto decomposto sem os caracteres fora da tabela ASCII, ou null se o texto for null
+     */
+    public static String fold(String text) {
+        if (text == null || isAscii(text)) {
+            return text;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c < 128) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * @param text Texto
+     * @return Texto sem acentos em caixa alta, ou null se o texto for null
+     */
+    public static String foldUpperCase(String text) {
+        String folded = fold(text);
+        return folded == null ? null : folded.toUpperCase();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
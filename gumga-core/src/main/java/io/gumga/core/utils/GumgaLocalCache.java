@@ -0,0 +1,241 @@
+package io.gumga.core.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache local em memória com tempo de expiração e tamanho máximo.
+ * Requisições simultâneas para a mesma chave aguardam uma única carga do valor, executada fora do bloqueio do cache.
+ * Quando o tamanho máximo é atingido, os valores menos acessados são removidos primeiro (LRU), com custo constante
+ * por inclusão
+ *
+ * @author Equipe Gumga
+ * @param <K> Tipo da chave
+ * @param <V> Tipo do valor
+ */
+public class GumgaLocalCache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long ttlMillis;
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param ttl Tempo de expiração de cada valor
+     * @param unit Unidade do tempo de expiração
+     * @param maxSize Quantidade máxima de valores mantidos
+     */
+    public GumgaLocalCache(long ttl, TimeUnit unit, int maxSize) {
+        if (ttl <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("ttl and maxSize must be greater than zero");
+        }
+        this.ttlMillis = unit.toMillis(ttl);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Retorna o valor da chave, carregando-o quando não existe ou está expirado.
+     * Exceções do loader são repassadas e o valor não é mantido em cache
+     *
+     * @param key Chave
+     * @param loader Função de carga do valor
+     * @return Valor
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> entry;
+        Entry<V> created = null;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+                created = new Entry<>(new FutureTask<>(() -> loader.apply(key)));
+                entries.put(key, created);
+                evictIfNecessary();
+            }
+        }
+        if (created == null) {
+            hits.increment();
+            return entry.get();
+        }
+        misses.increment();
+        created.load(ttlMillis);
+        try {
+            return created.get();
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key, created);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param key Chave
+     * @return Valor da chave ou null quando não existe, está expirado ou ainda está sendo carregado
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null || !entry.task.isDone() || entry.isExpired(System.currentTimeMillis())) {
+            misses.increment();
+            return null;
+        }
+        try {
+            V value = entry.get();
+            hits.increment();
+            return value;
+        } catch (RuntimeException e) {
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Adiciona ou substitui o valor de uma chave
+     *
+     * @param key Chave
+     * @param value Valor
+     */
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(new FutureTask<>(() -> value));
+        entry.load(ttlMillis);
+        synchronized (entries) {
+            entries.put(key, entry);
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * Remove o valor de uma chave
+     *
+     * @param key Chave
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Remove o valor de uma chave somente se ele ainda for o valor informado, sem afetar um valor carregado depois
+     *
+     * @param key Chave
+     * @param value Valor a ser removido
+     */
+    public void invalidate(K key, V value) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.task.isDone() && entry.holds(value)) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Remove os valores cujas chaves atendem ao filtro
+     *
+     * @param filter Filtro das chaves
+     */
+    public void invalidateIf(Predicate<? super K> filter) {
+        synchronized (entries) {
+            entries.keySet().removeIf(filter);
+        }
+    }
+
+    /**
+     * Remove todos os valores
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Remove os valores menos acessados até respeitar o tamanho máximo. Valores ainda em carga são mantidos, pois há
+     * requisições aguardando por eles. Deve ser chamado com o bloqueio do cache
+     */
+    private void evictIfNecessary() {
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            if (eldest.next().task.isDone()) {
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final FutureTask<V> task;
+        private volatile long expireAt = Long.MAX_VALUE;
+
+        private Entry(FutureTask<V> task) {
+            this.task = task;
+        }
+
+        private void load(long ttlMillis) {
+            task.run();
+            expireAt = System.currentTimeMillis() + ttlMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return task.isDone() && now >= expireAt;
+        }
+
+        /**
+         * @return true se a carga terminou com o valor informado
+         */
+        private boolean holds(V value) {
+            try {
+                return task.get() == value;
+            } catch (InterruptedException | ExecutionException e) {
+                return false;
+            }
+        }
+
+        private V get() {
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -3,8 +3,9 @@ package io.gumga.core.utils;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +19,7 @@ import org.slf4j.LoggerFactory;
 public class ReflectionUtils {
     
     private static final Logger log = LoggerFactory.getLogger(ReflectionUtils.class);
+    private static final Map<Class<?>, Map<String, Field>> FIELDS = new ConcurrentHashMap<>();
 
     private ReflectionUtils() {
     }
@@ -135,23 +137,43 @@ public class ReflectionUtils {
     }
 
     /**
-     * Retorna um mapa com os valores dos atributos que estão em um objetos
+     * Retorna um mapa com os valores dos atributos que estão em um objetos.
+     * Os atributos encontrados em cada classe ficam em cache; os nomes inexistentes são ignorados e não são guardados,
+     * para que nomes informados na requisição não aumentem o cache indefinidamente
      *
      * @param fields campos
      * @param obj Objeto
      */
-      public static Map<String, Object> objectFieldsToMap(String[] fields, Object obj) {
-        Map<String, Object> row = new HashMap<>();
+    public static Map<String, Object> objectFieldsToMap(String[] fields, Object obj) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        Map<String, Field> classFields = FIELDS.computeIfAbsent(obj.getClass(), c -> new ConcurrentHashMap<>());
         for (String f : fields) {
+            String name = f.trim();
+            Field field = classFields.get(name);
+            if (field == null) {
+                field = accessibleField(obj.getClass(), name);
+                if (field == null) {
+                    continue;
+                }
+                classFields.putIfAbsent(name, field);
+            }
             try {
-                Field field = ReflectionUtils.getField(obj.getClass(), f.trim());
-                field.setAccessible(true);
-                row.put(f.trim(), field.get(obj));
-            } catch (Exception ex) {
-                log.error("Problemas ao mapear os atributos.",ex);
+                row.put(name, field.get(obj));
+            } catch (IllegalAccessException ex) {
+                log.error("Problemas ao mapear os atributos.", ex);
             }
         }
         return row;
     }
 
+    private static Field accessibleField(Class<?> clazz, String name) {
+        Field field = findField(clazz, name);
+        if (field == null) {
+            log.debug("Atributo " + name + " não encontrado em " + clazz.getName());
+            return null;
+        }
+        field.setAccessible(true);
+        return field;
+    }
+
 }
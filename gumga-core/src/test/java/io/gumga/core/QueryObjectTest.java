@@ -0,0 +1,31 @@
+package io.gumga.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QueryObjectTest {
+
+    @Test
+    public void separaAsAssociacoesInformadasJuntas() {
+        QueryObject query = new QueryObject();
+        query.setFetch("company, company.address", " ", "tags");
+        assertArrayEquals(new String[]{"company", "company.address", "tags"}, query.getFetch());
+        assertTrue(query.hasFetchPlan());
+    }
+
+    @Test
+    public void aceitaAssociacoesNulas() {
+        QueryObject query = new QueryObject();
+        query.setFetch((String[]) null);
+        assertNull(query.getFetch());
+        assertFalse(query.hasFetchPlan());
+
+        query.setFetch((String) null);
+        assertArrayEquals(new String[0], query.getFetch());
+        assertFalse(query.hasFetchPlan());
+    }
+}
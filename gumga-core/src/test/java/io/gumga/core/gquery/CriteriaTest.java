@@ -1,5 +1,9 @@
 package io.gumga.core.gquery;
 
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -135,4 +139,75 @@ public class CriteriaTest {
     }
 
 
+    @Test
+    public void testHqlParameters() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Criteria c = new Criteria("name", ComparisonOperator.STARTS_WITH, "munif");
+        assertEquals("name like :gq0", c.toHql(parameters));
+        assertEquals("munif%", parameters.get("gq0"));
+    }
+
+    @Test
+    public void testHqlSameShape() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        Map<String, Object> second = new LinkedHashMap<>();
+        String hql1 = new Criteria("obj.name", ComparisonOperator.EQUAL, "munif").toHql(first);
+        String hql2 = new Criteria("obj.name", ComparisonOperator.EQUAL, "o'brien").toHql(second);
+        assertEquals(hql1, hql2);
+        assertEquals("o'brien", second.get("gq0"));
+    }
+
+    @Test
+    public void testHqlIn() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Criteria c = new Criteria("obj.id", ComparisonOperator.IN, Arrays.asList(1, 2, 3));
+        assertEquals("obj.id in (:gq0)", c.toHql(parameters));
+        assertEquals(Arrays.asList(1, 2, 3), parameters.get("gq0"));
+    }
+
+    @Test
+    public void testHqlDate() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Criteria c = new Criteria("obj.birth", ComparisonOperator.EQUAL, "2017-10-07");
+        assertEquals("obj.birth >= :gq0 AND obj.birth <= :gq1", c.toHql(parameters));
+        assertTrue(parameters.get("gq0") instanceof Date);
+        assertTrue(parameters.get("gq1") instanceof Date);
+    }
+
+    @Test
+    public void testHqlBoolean() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Criteria c = new Criteria("ativo", ComparisonOperator.EQUAL, true);
+        assertEquals("ativo = true", c.toHql(parameters));
+        assertTrue(parameters.isEmpty());
+    }
+
+    @Test
+    public void testNormalizedFieldWithTranslateAndIgnoreCase() {
+        Criteria translateLower = new Criteria("obj.name", ComparisonOperator.STARTS_WITH, "são").addTranslate().addIgnoreCase();
+        Criteria lowerTranslate = new Criteria("obj.name", ComparisonOperator.STARTS_WITH, "são").addIgnoreCase().addTranslate();
+        for (Criteria original : Arrays.asList(translateLower, lowerTranslate)) {
+            String fieldFunction = original.getFieldFunction();
+            Criteria normalized = original.withNormalizedField("obj.nameNormalized");
+            assertNotSame(original, normalized);
+            assertEquals("obj.nameNormalized", normalized.getField());
+            assertEquals("SAO", normalized.getValue());
+            assertEquals("%s", normalized.getFieldFunction());
+            assertEquals("obj.name", original.getField());
+            assertEquals("são", original.getValue());
+            assertEquals(fieldFunction, original.getFieldFunction());
+        }
+    }
+
+    @Test
+    public void testNormalizedFieldKeepsOtherFunctions() {
+        Criteria ignoreCase = new Criteria("obj.name", ComparisonOperator.EQUAL, "São").addIgnoreCase();
+        assertSame(ignoreCase, ignoreCase.withNormalizedField("obj.nameNormalized"));
+        Criteria upper = new Criteria("obj.name", ComparisonOperator.EQUAL, "São");
+        upper.setFieldFunction("upper(%s)");
+        assertSame(upper, upper.withNormalizedField("obj.nameNormalized"));
+        Criteria plain = new Criteria("obj.name", ComparisonOperator.EQUAL, "São");
+        assertSame(plain, plain.withNormalizedField("obj.nameNormalized"));
+    }
+
 }
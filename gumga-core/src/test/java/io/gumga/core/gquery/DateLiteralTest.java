@@ -0,0 +1,39 @@
+package io.gumga.core.gquery;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DateLiteralTest {
+
+    @Test
+    public void reconheceOsFormatosAceitos() {
+        LocalDateTime expected = LocalDateTime.of(2017, 1, 31, 10, 0);
+        assertEquals(LocalDate.of(2017, 1, 31).atStartOfDay(), DateLiteral.parse("2017-01-31"));
+        assertEquals(LocalDate.of(2017, 1, 31).atStartOfDay(), DateLiteral.parse("2017/01/31"));
+        assertEquals(expected, DateLiteral.parse("2017-01-31T10:00:00Z"));
+        assertEquals(expected, DateLiteral.parse("2017-01-31 10:00:00"));
+        assertEquals(expected, DateLiteral.parse("2017:01:31 10:00:00"));
+        assertEquals(expected, DateLiteral.parse("01/31/2017 10:00:00"));
+        assertEquals(expected.withNano(123000000), DateLiteral.parse("01/31/2017T10:00:00.123Z"));
+    }
+
+    @Test
+    public void descartaTextosQueNaoSaoDatas() {
+        assertNull(DateLiteral.parse("munif"));
+        assertNull(DateLiteral.parse("12345678901"));
+        assertNull(DateLiteral.parse("2017-01-31 e mais texto"));
+        assertNull(DateLiteral.parse("2017-02-30"));
+        assertNull(DateLiteral.parse(null));
+    }
+
+    @Test
+    public void criteriaComTextoDeData() {
+        Criteria c = new Criteria("obj.birth", ComparisonOperator.GREATER_EQUAL, "2017-01-31T10:00:00Z");
+        assertEquals("obj.birth >= to_timestamp('2017-01-31 00:00:00','yyyy/MM/dd HH24:mi:ss')", c.toString());
+    }
+}
@@ -6,6 +6,8 @@
 package io.gumga.core.gquery;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -110,4 +112,54 @@ public class GQueryTest {
         assertEquals("(((name like 'munif%') OR (name like 'vicente%') OR (name like 'duda%')) AND (name like '%gebara%'))", gQuery.toString());
     }
 
+    @Test
+    public void testHql() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        GQuery gQuery = new GQuery(new Criteria("name", ComparisonOperator.STARTS_WITH, "munif"))
+                .or(new Criteria("age", ComparisonOperator.GREATER, 18));
+        assertEquals("((name like :gq0) OR (age > :gq1))", gQuery.toHql(parameters));
+        assertEquals("munif%", parameters.get("gq0"));
+        assertEquals(18, parameters.get("gq1"));
+    }
+
+    @Test
+    public void testAggregate() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        GQuery gQuery = new GQuery(new Criteria("obj.ativo", ComparisonOperator.EQUAL, true))
+                .select(new Projection("obj.status"), new Projection(AggregateFunction.SUM, "obj.valor", "total"), new Projection(AggregateFunction.COUNT_DISTINCT, "obj.cliente.id"))
+                .groupBy("obj.status")
+                .having(new GQuery(new Criteria("sum(obj.valor)", ComparisonOperator.GREATER, 100)));
+        assertTrue(gQuery.hasAggregation());
+        assertEquals("obj.status, sum(obj.valor), count(distinct obj.cliente.id)", gQuery.getSelectHql());
+        assertEquals(" group by obj.status", gQuery.getGroupByHql());
+        assertEquals(" having (sum(obj.valor) > :gq0)", gQuery.getHavingHql(parameters));
+        assertEquals(100, parameters.get("gq0"));
+        assertEquals("total", gQuery.getProjections().get(1).getName());
+        assertEquals("count_distinct_obj.cliente.id", gQuery.getProjections().get(2).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateInvalidField() {
+        new GQuery().select(new Projection(AggregateFunction.SUM, "obj.valor) from Outra x where (1=1")).getSelectHql();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateInvalidHaving() {
+        new GQuery().having(new GQuery(new Criteria("1=1 or sum(obj.valor)", ComparisonOperator.GREATER, 100))).getHavingHql(new LinkedHashMap<>());
+    }
+
+    @Test
+    public void testWithNormalizedFieldsKeepsTheOriginal() {
+        GQuery gQuery = new GQuery(new Criteria("obj.name", ComparisonOperator.CONTAINS, "joão").addTranslate().addIgnoreCase())
+                .and(new Criteria("obj.code", ComparisonOperator.EQUAL, "ção").addTranslate().addIgnoreCase());
+        String original = gQuery.toString();
+
+        GQuery normalized = gQuery.withNormalizedFields(field -> "obj.name".equals(field) ? "obj.nameNormalized" : null);
+
+        assertEquals(original, gQuery.toString());
+        assertTrue(normalized.toString().contains("obj.nameNormalized"));
+        assertTrue(normalized.toString().contains("obj.code"));
+        assertFalse(normalized.toString().contains("obj.name)"));
+    }
+
 }
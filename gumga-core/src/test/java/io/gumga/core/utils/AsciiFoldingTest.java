@@ -0,0 +1,31 @@
+package io.gumga.core.utils;
+
+import org.junit.Test;
+
+import java.text.Normalizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AsciiFoldingTest {
+
+    @Test
+    public void removeAcentos() {
+        assertEquals("Sao Joao acucar", AsciiFolding.fold("São João açúcar"));
+        assertEquals("CORACAO", AsciiFolding.foldUpperCase("coração"));
+    }
+
+    @Test
+    public void textoAsciiNaoECopiado() {
+        String text = "gumga 123";
+        assertSame(text, AsciiFolding.fold(text));
+        assertNull(AsciiFolding.fold(null));
+    }
+
+    @Test
+    public void equivaleAoNormalizerComRegex() {
+        String text = "ÀÁÂÃÄÅ àáâãäå ÈÉÊË èéêë Ìí Òóôõö Ùúûü Çç Ññ ß € 日本";
+        assertEquals(Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", ""), AsciiFolding.fold(text));
+    }
+}
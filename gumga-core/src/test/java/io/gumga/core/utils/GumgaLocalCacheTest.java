@@ -0,0 +1,127 @@
+package io.gumga.core.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class GumgaLocalCacheTest {
+
+    @Test
+    public void carregaUmaVezEReaproveita() {
+        GumgaLocalCache<String, Long> cache = new GumgaLocalCache<>(1, TimeUnit.MINUTES, 10);
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(Long.valueOf(10), cache.get("a", k -> 10L + loads.getAndIncrement()));
+        assertEquals(Long.valueOf(10), cache.get("a", k -> 10L + loads.getAndIncrement()));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void expiraAposOTempo() throws InterruptedException {
+        GumgaLocalCache<String, Integer> cache = new GumgaLocalCache<>(20, TimeUnit.MILLISECONDS, 10);
+        cache.put("a", 1);
+        Thread.sleep(40);
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(Integer.valueOf(2), cache.get("a", k -> 2));
+    }
+
+    @Test
+    public void respeitaTamanhoMaximo() {
+        GumgaLocalCache<Integer, Integer> cache = new GumgaLocalCache<>(1, TimeUnit.MINUTES, 3);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(3, cache.size());
+        assertEquals(7, cache.getEvictions());
+    }
+
+    @Test
+    public void removeOMenosAcessado() {
+        GumgaLocalCache<Integer, Integer> cache = new GumgaLocalCache<>(1, TimeUnit.MINUTES, 3);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        assertEquals(Integer.valueOf(1), cache.getIfPresent(1));
+        cache.put(4, 4);
+        assertEquals(3, cache.size());
+        assertNull(cache.getIfPresent(2));
+        assertEquals(Integer.valueOf(1), cache.getIfPresent(1));
+        assertEquals(Integer.valueOf(4), cache.getIfPresent(4));
+    }
+
+    @Test
+    public void naoMantemErroEmCache() {
+        GumgaLocalCache<String, Integer> cache = new GumgaLocalCache<>(1, TimeUnit.MINUTES, 10);
+        try {
+            cache.get("a", k -> {
+                throw new IllegalStateException("falha");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("falha", e.getMessage());
+        }
+        assertEquals(Integer.valueOf(1), cache.get("a", k -> 1));
+    }
+
+    @Test
+    public void cargaUnicaParaRequisicoesSimultaneas() throws Exception {
+        GumgaLocalCache<String, Integer> cache = new GumgaLocalCache<>(1, TimeUnit.MINUTES, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Future<?>[] futures = new Future<?>[8];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = executor.submit(() -> {
+                start.await();
+                return cache.get("a", k -> {
+                    loads.incrementAndGet();
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return 1;
+                });
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            assertEquals(1, future.get());
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void invalidaPorFiltro() {
+        GumgaLocalCache<String, Integer> cache = new GumgaLocalCache<>(1, TimeUnit.MINUTES, 10);
+        cache.put("Car|1", 1);
+        cache.put("Car|2", 2);
+        cache.put("Company|1", 3);
+        cache.invalidateIf(k -> k.startsWith("Car|"));
+        assertEquals(1, cache.size());
+        assertEquals(Integer.valueOf(3), cache.getIfPresent("Company|1"));
+    }
+
+    @Test
+    public void invalidaSomenteOValorInformado() {
+        GumgaLocalCache<String, String> cache = new GumgaLocalCache<>(1, TimeUnit.MINUTES, 10);
+        String antigo = new String("negado");
+        cache.put("a", antigo);
+        cache.put("a", "permitido");
+        cache.invalidate("a", antigo);
+        assertEquals("permitido", cache.getIfPresent("a"));
+        cache.invalidate("a", "permitido");
+        assertNull(cache.getIfPresent("a"));
+    }
+}
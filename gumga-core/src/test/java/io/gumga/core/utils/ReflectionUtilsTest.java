@@ -0,0 +1,34 @@
+package io.gumga.core.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReflectionUtilsTest {
+
+    static class Pessoa {
+        private Long id = 1L;
+    }
+
+    static class Cliente extends Pessoa {
+        private String nome = "Ana";
+    }
+
+    @Test
+    public void mapeiaOsAtributosDaClasseEDasSuperclasses() {
+        Map<String, Object> row = ReflectionUtils.objectFieldsToMap(new String[]{"nome", " id"}, new Cliente());
+        assertEquals(Arrays.asList("nome", "id"), Arrays.asList(row.keySet().toArray()));
+        assertEquals("Ana", row.get("nome"));
+        assertEquals(1L, row.get("id"));
+    }
+
+    @Test
+    public void ignoraAtributosInexistentes() {
+        Map<String, Object> row = ReflectionUtils.objectFieldsToMap(new String[]{"nome", "inexistente"}, new Cliente());
+        assertEquals(1, row.size());
+        assertEquals("Ana", row.get("nome"));
+    }
+}
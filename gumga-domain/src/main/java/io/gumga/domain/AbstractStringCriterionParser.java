@@ -1,5 +1,6 @@
 package io.gumga.domain;
 
+import io.gumga.core.utils.AsciiFolding;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Restrictions;
@@ -7,7 +8,6 @@ import org.hibernate.type.StandardBasicTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.Normalizer;
 
 /**
  * Esta classe é utilizada internamente ao framework para prover compatibilidade
@@ -25,7 +25,7 @@ public abstract class AbstractStringCriterionParser implements CriterionParser {
     @Override
     public Criterion parse(String field, String value) {
 
-        value = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", "");
+        value = AsciiFolding.fold(value);
 
         String[] chain = field.split("\\.");
 
@@ -0,0 +1,418 @@
+package io.gumga.domain;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.TenancyPublicMarking;
+import io.gumga.core.utils.AsciiFolding;
+import io.gumga.core.utils.ReflectionUtils;
+import io.gumga.domain.domains.GumgaOi;
+import io.gumga.domain.logicaldelete.GumgaLDModel;
+import io.gumga.domain.logicaldelete.GumgaSharedLDModel;
+import io.gumga.domain.repository.GumgaMultitenancyUtil;
+import io.gumga.domain.shared.GumgaShare;
+import io.gumga.domain.shared.GumgaShareable;
+import io.gumga.domain.shared.GumgaSharedIndex;
+import io.gumga.domain.shared.GumgaSharedModel;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.MatchMode;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hibernate.criterion.Restrictions.and;
+import static org.hibernate.criterion.Restrictions.ge;
+import static org.hibernate.criterion.Restrictions.like;
+import static org.hibernate.criterion.Restrictions.lt;
+import static org.hibernate.criterion.Restrictions.or;
+
+/**
+ * Metadados de uma entidade utilizados pelo Framework (multitenancy, compartilhamento e remoção lógica).
+ * São calculados uma única vez por classe, junto com as condições de multitenancy em HQL, evitando reflexão a cada pesquisa
+ *
+ * @author Equipe Gumga
+ */
+public final class GumgaEntityDescriptor {
+
+    public static final String OI_PARAMETER = "gumgaOi";
+    public static final String SHARED_OI_PARAMETER = "gumgaSharedOi";
+    public static final String SHARED_INSTANCE_OI_PARAMETER = "gumgaSharedInstanceOi";
+    public static final String SHARED_LOGIN_PARAMETER = "gumgaSharedLogin";
+    public static final String OI_START_PARAMETER = "gumgaOiStart";
+    public static final String OI_END_PARAMETER = "gumgaOiEnd";
+    public static final String SHARE_ENTITY_PARAMETER = "gumgaShareEntity";
+
+    private static final String LIKE_BRANCH = "obj.oi like :" + OI_PARAMETER;
+    private static final String RANGE_BRANCH = "(obj.oi >= :" + OI_START_PARAMETER + " and obj.oi < :" + OI_END_PARAMETER + ")";
+
+    private static final Map<Class<?>, GumgaEntityDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    private final Class<?> entityClass;
+    private final GumgaMultitenancy multitenancy;
+    private final boolean shared;
+    private final boolean sharedIndex;
+    private final boolean logicalDelete;
+    private final boolean sharedLogicalDelete;
+    private final boolean uuid;
+    private final Map<String, Field[]> normalizedFields;
+    private final GumgaResultCache resultCache;
+    private final List<String> publicBranches;
+    private final List<String> sharedBranches;
+    private final String tenancyHql;
+    private final String tenancyHqlWithNull;
+    private final String rangeTenancyHql;
+    private final String rangeTenancyHqlWithNull;
+
+    private GumgaEntityDescriptor(Class<?> entityClass) {
+        this.entityClass = entityClass;
+        this.multitenancy = entityClass.getAnnotation(GumgaMultitenancy.class);
+        this.shared = GumgaSharedModel.class.isAssignableFrom(entityClass) || GumgaSharedModelUUID.class.isAssignableFrom(entityClass);
+        this.sharedIndex = shared && entityClass.isAnnotationPresent(GumgaSharedIndex.class);
+        this.logicalDelete = GumgaLDModel.class.isAssignableFrom(entityClass);
+        this.sharedLogicalDelete = GumgaSharedLDModel.class.isAssignableFrom(entityClass);
+        this.uuid = GumgaModelUUID.class.isAssignableFrom(entityClass) || GumgaSharedModelUUID.class.isAssignableFrom(entityClass);
+        this.normalizedFields = findNormalizedFields(entityClass);
+        this.resultCache = entityClass.getAnnotation(GumgaResultCache.class);
+
+        if (sharedIndex) {
+            this.sharedBranches = Collections.singletonList("obj.id in (select share." + getShareIdProperty() + " from GumgaShare share"
+                    + " where share.entityName = :" + SHARE_ENTITY_PARAMETER
+                    + " and ((share.kind = '" + GumgaShare.KIND_ORGANIZATION + "' and share.value in (:" + SHARED_OI_PARAMETER + ", :" + SHARED_INSTANCE_OI_PARAMETER + "))"
+                    + " or (share.kind = '" + GumgaShare.KIND_USER + "' and share.value = :" + SHARED_LOGIN_PARAMETER + ")))");
+        } else {
+            this.sharedBranches = shared ? Collections.unmodifiableList(Arrays.asList(
+                    "obj.gumgaOrganizations like :" + SHARED_OI_PARAMETER,
+                    "obj.gumgaOrganizations like :" + SHARED_INSTANCE_OI_PARAMETER,
+                    "obj.gumgaUsers like :" + SHARED_LOGIN_PARAMETER)) : Collections.emptyList();
+        }
+        String publicBranch = null;
+        if (multitenancy != null && multitenancy.allowPublics()) {
+            publicBranch = multitenancy.publicMarking() == TenancyPublicMarking.NULL ? "obj.oi is null" : "obj.oi = '" + multitenancy.publicMarking().getMark() + "'";
+        }
+        this.publicBranches = publicBranch == null ? Collections.emptyList() : Collections.singletonList(publicBranch);
+        List<String> nullBranch = Collections.singletonList("obj.oi is null");
+        this.tenancyHql = join(publicBranches, LIKE_BRANCH);
+        this.tenancyHqlWithNull = join(nullBranch, LIKE_BRANCH);
+        this.rangeTenancyHql = join(publicBranches, RANGE_BRANCH);
+        this.rangeTenancyHqlWithNull = join(nullBranch, RANGE_BRANCH);
+    }
+
+    private static Map<String, Field[]> findNormalizedFields(Class<?> entityClass) {
+        Map<String, Field[]> fields = new LinkedHashMap<>();
+        for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field normalized : c.getDeclaredFields()) {
+                GumgaNormalized annotation = normalized.getAnnotation(GumgaNormalized.class);
+                if (annotation == null || fields.containsKey(annotation.value())) {
+                    continue;
+                }
+                Field source = ReflectionUtils.findField(entityClass, annotation.value());
+                if (source == null || source.getType() != String.class || normalized.getType() != String.class) {
+                    throw new IllegalArgumentException("@GumgaNormalized(\"" + annotation.value() + "\") em " + entityClass.getName()
+                            + "." + normalized.getName() + " deve ligar dois atributos String");
+                }
+                source.setAccessible(true);
+                normalized.setAccessible(true);
+                fields.put(annotation.value(), new Field[]{source, normalized});
+            }
+        }
+        return fields.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(fields);
+    }
+
+    private String join(List<String> nullBranches, String oiBranch) {
+        List<String> branches = new ArrayList<>(nullBranches);
+        branches.add(oiBranch);
+        branches.addAll(sharedBranches);
+        return "(" + String.join(" or ", branches) + ")";
+    }
+
+    /**
+     * @param entityClass Classe da entidade
+     * @return Descritor da classe, criado na primeira chamada e reaproveitado nas seguintes
+     */
+    public static GumgaEntityDescriptor of(Class<?> entityClass) {
+        return descriptors.computeIfAbsent(entityClass, GumgaEntityDescriptor::new);
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return true se a entidade está anotada com {@link GumgaMultitenancy}
+     */
+    public boolean hasMultitenancy() {
+        return multitenancy != null;
+    }
+
+    /**
+     * @return Anotação {@link GumgaMultitenancy} da entidade ou null
+     */
+    public GumgaMultitenancy getMultitenancy() {
+        return multitenancy;
+    }
+
+    /**
+     * @return Marcação dos registros públicos, ou {@link TenancyPublicMarking#NULL} quando a entidade não possui multitenancy
+     */
+    public TenancyPublicMarking getPublicMarking() {
+        return multitenancy == null ? TenancyPublicMarking.NULL : multitenancy.publicMarking();
+    }
+
+    /**
+     * @return true se a entidade pode ser compartilhada com outras organizações e usuários
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * @return true se os compartilhamentos da entidade são mantidos na tabela {@link GumgaShare}
+     */
+    public boolean hasSharedIndex() {
+        return sharedIndex;
+    }
+
+    /**
+     * @return Atributo de {@link GumgaShare} que guarda o id da entidade
+     */
+    public String getShareIdProperty() {
+        return uuid ? "stringId" : "numericId";
+    }
+
+    /**
+     * @return Anotação {@link GumgaResultCache} da entidade ou null quando os resultados não são mantidos em cache
+     */
+    public GumgaResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @return true se a entidade possui atributos anotados com {@link GumgaNormalized}
+     */
+    public boolean hasNormalizedFields() {
+        return !normalizedFields.isEmpty();
+    }
+
+    /**
+     * @param property Atributo original, com ou sem o alias obj (nome ou obj.nome)
+     * @return Atributo normalizado no mesmo formato, ou null se o atributo não possui cópia normalizada
+     */
+    public String getNormalizedField(Object property) {
+        if (normalizedFields.isEmpty() || property == null) {
+            return null;
+        }
+        String name = property.toString();
+        String alias = name.startsWith("obj.") ? "obj." : "";
+        Field[] fields = normalizedFields.get(name.substring(alias.length()));
+        return fields == null ? null : alias + fields[1].getName();
+    }
+
+    /**
+     * Preenche os atributos normalizados da entidade a partir dos atributos originais
+     *
+     * @param entity Entidade
+     */
+    public void normalize(Object entity) {
+        for (Field[] fields : normalizedFields.values()) {
+            try {
+                fields[1].set(entity, AsciiFolding.foldUpperCase((String) fields[0].get(entity)));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * @return true se a entidade possui remoção lógica
+     */
+    public boolean hasLogicalDelete() {
+        return logicalDelete;
+    }
+
+    /**
+     * @return true se a entidade compartilhada possui o estado de remoção lógica do {@link GumgaSharedLDModel}
+     */
+    public boolean hasSharedLogicalDelete() {
+        return sharedLogicalDelete;
+    }
+
+    /**
+     * @return true se o id da entidade é um UUID
+     */
+    public boolean isUUID() {
+        return uuid;
+    }
+
+    /**
+     * @return Padrão do oi do usuário atual de acordo com a política de multitenancy da entidade
+     */
+    public String getMultitenancyPattern() {
+        return GumgaMultitenancyUtil.getMultitenancyPattern(multitenancy);
+    }
+
+    /**
+     * Condição HQL (alias obj) de multitenancy respeitando os registros públicos e o compartilhamento da entidade.
+     * Para montar uma consulta prefira {@link #getTenancyHql(Map)}, que lê o {@link GumgaTenancyPredicate#mode} uma
+     * única vez para a condição e os parâmetros
+     *
+     * @return Condição com os parâmetros de {@link #tenancyParameters()}
+     */
+    public String getTenancyHql() {
+        return useRange(getMultitenancyPattern()) ? rangeTenancyHql : tenancyHql;
+    }
+
+    /**
+     * Condição HQL (alias obj) de multitenancy respeitando os registros públicos e o compartilhamento da entidade
+     *
+     * @param parameters Recebe os valores dos parâmetros da condição para o usuário atual
+     * @return Condição
+     */
+    public String getTenancyHql(Map<String, Object> parameters) {
+        String oiPattern = getMultitenancyPattern();
+        boolean range = useRange(oiPattern);
+        putTenancyParameters(parameters, oiPattern, range);
+        return range ? rangeTenancyHql : tenancyHql;
+    }
+
+    /**
+     * Condição HQL (alias obj) de multitenancy que sempre considera os registros com oi nulo, utilizada pelo GQuery
+     *
+     * @param parameters Recebe os valores dos parâmetros da condição para o usuário atual
+     * @return Condição
+     */
+    public String getTenancyHqlWithNull(Map<String, Object> parameters) {
+        String oiPattern = getMultitenancyPattern();
+        boolean range = useRange(oiPattern);
+        putTenancyParameters(parameters, oiPattern, range);
+        return range ? rangeTenancyHqlWithNull : tenancyHqlWithNull;
+    }
+
+    /**
+     * @return Valores dos parâmetros das condições HQL de multitenancy para o usuário atual
+     */
+    public Map<String, Object> tenancyParameters() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String oiPattern = getMultitenancyPattern();
+        putTenancyParameters(parameters, oiPattern, useRange(oiPattern));
+        return parameters;
+    }
+
+    private void putTenancyParameters(Map<String, Object> parameters, String oiPattern, boolean range) {
+        putOiParameters(parameters, oiPattern, range);
+        if (sharedIndex) {
+            parameters.put(SHARE_ENTITY_PARAMETER, entityClass.getName());
+            parameters.put(SHARED_OI_PARAMETER, oiPattern);
+            parameters.put(SHARED_INSTANCE_OI_PARAMETER, GumgaThreadScope.instanceOi.get() + GumgaSharedModel.GLOBAL);
+            parameters.put(SHARED_LOGIN_PARAMETER, String.valueOf(GumgaThreadScope.login.get()));
+        } else if (shared) {
+            parameters.put(SHARED_OI_PARAMETER, "%," + oiPattern + ",%");
+            parameters.put(SHARED_INSTANCE_OI_PARAMETER, "%," + GumgaThreadScope.instanceOi.get() + GumgaSharedModel.GLOBAL + ",%");
+            parameters.put(SHARED_LOGIN_PARAMETER, "%," + GumgaThreadScope.login.get() + ",%");
+        }
+    }
+
+    private static void putOiParameters(Map<String, Object> parameters, String oiPattern, boolean range) {
+        if (range) {
+            parameters.put(OI_START_PARAMETER, oiPattern);
+            parameters.put(OI_END_PARAMETER, GumgaTenancyPredicate.upperBound(oiPattern));
+        } else {
+            parameters.put(OI_PARAMETER, oiPattern + "%");
+        }
+    }
+
+    /**
+     * Condição HQL (alias obj) dos registros que pertencem à organização do usuário atual: oi nulo ou iniciado pelo oi
+     * do usuário, sem os registros públicos marcados ou compartilhados. É a mesma regra da verificação de propriedade
+     * feita pelo repositório antes de alterar ou remover uma entidade
+     *
+     * @param parameters Recebe os valores dos parâmetros da condição para o usuário atual
+     * @return Condição
+     */
+    public String getOwnershipHql(Map<String, Object> parameters) {
+        String oiPattern = getMultitenancyPattern();
+        boolean range = useRange(oiPattern);
+        putOiParameters(parameters, oiPattern, range);
+        return "(obj.oi is null or " + (range ? RANGE_BRANCH : LIKE_BRANCH) + ")";
+    }
+
+    /**
+     * Mesma regra de {@link #getTenancyHql()} aplicada a uma entidade já carregada, para resultados que não vêm de uma
+     * consulta HQL ou Criteria (pesquisa textual, por exemplo)
+     *
+     * @param entity Entidade
+     * @return true se a entidade pode ser vista pelo usuário atual
+     */
+    public boolean isVisible(Object entity) {
+        if (multitenancy == null || GumgaThreadScope.organizationCode.get() == null) {
+            return true;
+        }
+        GumgaOi oi = entity instanceof GumgaModel ? ((GumgaModel<?>) entity).getOi()
+                : entity instanceof GumgaModelUUID ? ((GumgaModelUUID) entity).getOi() : null;
+        String value = oi == null ? null : oi.getValue();
+        if (multitenancy.allowPublics() && (multitenancy.publicMarking() == TenancyPublicMarking.NULL
+                ? value == null : multitenancy.publicMarking().getMark().equals(value))) {
+            return true;
+        }
+        String oiPattern = getMultitenancyPattern();
+        if (value != null && value.startsWith(oiPattern)) {
+            return true;
+        }
+        if (entity instanceof GumgaShareable) {
+            String organizations = "," + ((GumgaShareable) entity).getGumgaOrganizations() + ",";
+            String users = "," + ((GumgaShareable) entity).getGumgaUsers() + ",";
+            return organizations.contains("," + oiPattern + ",")
+                    || organizations.contains("," + GumgaThreadScope.instanceOi.get() + GumgaSharedModel.GLOBAL + ",")
+                    || users.contains("," + GumgaThreadScope.login.get() + ",");
+        }
+        return false;
+    }
+
+    /**
+     * @return Condição de multitenancy no formato Criteria do Hibernate para o usuário atual
+     */
+    public Criterion tenancyCriterion() {
+        String oiPattern = getMultitenancyPattern();
+        Criterion oiCriterion = useRange(oiPattern)
+                ? and(ge("oi", oiPattern), lt("oi", GumgaTenancyPredicate.upperBound(oiPattern)))
+                : like("oi", oiPattern, MatchMode.START);
+        if (multitenancy.allowPublics()) {
+            oiCriterion = or(oiCriterion, multitenancy.publicMarking() == TenancyPublicMarking.NULL
+                    ? Restrictions.isNull("oi") : Restrictions.eq("oi", multitenancy.publicMarking().getMark()));
+        }
+        if (!shared) {
+            return oiCriterion;
+        }
+        String instanceOi = GumgaThreadScope.instanceOi.get() + GumgaSharedModel.GLOBAL;
+        if (sharedIndex) {
+            DetachedCriteria shares = DetachedCriteria.forClass(GumgaShare.class)
+                    .setProjection(Projections.property(getShareIdProperty()))
+                    .add(Restrictions.eq("entityName", entityClass.getName()))
+                    .add(or(
+                            and(Restrictions.eq("kind", GumgaShare.KIND_ORGANIZATION), Restrictions.in("value", new Object[]{oiPattern, instanceOi})),
+                            and(Restrictions.eq("kind", GumgaShare.KIND_USER), Restrictions.eq("value", String.valueOf(GumgaThreadScope.login.get())))
+                    ));
+            return or(oiCriterion, Subqueries.propertyIn("id", shares));
+        }
+        return or(oiCriterion, or(
+                like("gumgaOrganizations", "," + oiPattern + ",", MatchMode.ANYWHERE),
+                like("gumgaOrganizations", "," + instanceOi + ",", MatchMode.ANYWHERE),
+                like("gumgaUsers", "," + GumgaThreadScope.login.get() + ",", MatchMode.ANYWHERE)
+        ));
+    }
+
+    /**
+     * Lê o {@link GumgaTenancyPredicate#mode} uma única vez
+     */
+    private boolean useRange(String oiPattern) {
+        return multitenancy != null && GumgaTenancyPredicate.useRange(oiPattern);
+    }
+
+}
@@ -0,0 +1,44 @@
+package io.gumga.domain;
+
+/**
+ * Alteração de um atributo entre duas revisões consecutivas de uma entidade auditada
+ *
+ * @author Equipe Gumga
+ */
+public class GumgaFieldChange {
+
+    private String field;
+
+    private Object oldValue;
+
+    private Object newValue;
+
+    public GumgaFieldChange(String field, Object oldValue, Object newValue) {
+        this.field = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return Valor na revisão anterior, o id quando o atributo é uma associação
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return Valor nesta revisão, o id quando o atributo é uma associação
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    @Override
+    public String toString() {
+        return field + ": " + oldValue + " -> " + newValue;
+    }
+}
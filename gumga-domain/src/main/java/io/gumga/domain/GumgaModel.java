@@ -8,6 +8,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.hibernate.annotations.TypeDef;
 import org.hibernate.annotations.TypeDefs;
 
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -22,6 +23,7 @@ import java.util.Objects;
  * @author munif
  */
 @MappedSuperclass
+@EntityListeners(GumgaNormalizedListener.class)
 @TypeDefs({
     @TypeDef(name = "gumgaaddress", defaultForType = GumgaAddress.class, typeClass = GumgaAddressUserType.class),
     @TypeDef(name = "gumgaboolean", defaultForType = GumgaBoolean.class, typeClass = GumgaBooleanUserType.class),
@@ -53,12 +55,11 @@ public abstract class GumgaModel<ID extends Serializable> implements GumgaIdable
     protected GumgaOi oi;
 
     public GumgaModel() {
-        Class classe = this.getClass();
-        if (classe.isAnnotationPresent(GumgaMultitenancy.class)) {
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(this.getClass());
+        if (descriptor.hasMultitenancy()) {
             String oc = GumgaThreadScope.organizationCode.get();
             if (oc == null) {
-                GumgaMultitenancy tenancy = this.getClass().getAnnotation(GumgaMultitenancy.class);
-                oc = tenancy.publicMarking().getMark();
+                oc = descriptor.getPublicMarking().getMark();
             }
             oi = new GumgaOi(oc);
         }
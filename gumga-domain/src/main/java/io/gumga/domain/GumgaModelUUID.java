@@ -10,12 +10,14 @@ import org.hibernate.annotations.TypeDef;
 import org.hibernate.annotations.TypeDefs;
 
 import javax.persistence.Column;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import java.io.Serializable;
 import java.util.Objects;
 
 @MappedSuperclass
+@EntityListeners(GumgaNormalizedListener.class)
 public abstract class GumgaModelUUID implements GumgaIdable<String>, Serializable {
 
     @Id
@@ -26,12 +28,11 @@ public abstract class GumgaModelUUID implements GumgaIdable<String>, Serializabl
     protected GumgaOi oi;
 
     public GumgaModelUUID() {
-        Class classe = this.getClass();
-        if (classe.isAnnotationPresent(GumgaMultitenancy.class) && oi == null) {
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(this.getClass());
+        if (descriptor.hasMultitenancy() && oi == null) {
             String oc = GumgaThreadScope.organizationCode.get();
             if (oc == null) {
-                GumgaMultitenancy tenancy = this.getClass().getAnnotation(GumgaMultitenancy.class);
-                oc = tenancy.publicMarking().getMark();
+                oc = descriptor.getPublicMarking().getMark();
             }
             oi = new GumgaOi(oc);
         }
@@ -20,8 +20,7 @@ public class GumgaMultiTenancyListener {
 
     @PrePersist
     public void prePersist(GumgaModel gumgaModel) {
-        Class classe = gumgaModel.getClass();
-        if (classe.isAnnotationPresent(GumgaMultitenancy.class)) {
+        if (GumgaEntityDescriptor.of(gumgaModel.getClass()).hasMultitenancy()) {
             String oc = GumgaThreadScope.organizationCode.get();
             gumgaModel.oi = new GumgaOi(oc);
         }
@@ -0,0 +1,31 @@
+package io.gumga.domain;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um atributo String como cópia normalizada (sem acentos e em caixa alta) de outro atributo da entidade.
+ * O valor é preenchido pelo {@link GumgaNormalizedListener} ao incluir e alterar a entidade, e as pesquisas simples e
+ * as pesquisas GQuery com ignoreCase/translate sobre o atributo original passam a comparar essa coluna diretamente,
+ * sem funções sobre a coluna, podendo utilizar um índice comum. Exemplo:
+ * <pre>
+ * private String nome;
+ * &#64;GumgaNormalized("nome")
+ * &#64;Column(name = "nome_normalizado")
+ * private String nomeNormalizado;
+ * </pre>
+ * Alterações feitas por comandos update em HQL ou SQL não passam pelo listener e devem atualizar a coluna normalizada
+ *
+ * @author Equipe Gumga
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface GumgaNormalized {
+
+    /**
+     * @return Nome do atributo original
+     */
+    String value();
+}
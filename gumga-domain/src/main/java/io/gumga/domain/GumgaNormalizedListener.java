@@ -0,0 +1,18 @@
+package io.gumga.domain;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * Preenche os atributos anotados com {@link GumgaNormalized} antes de incluir ou alterar a entidade
+ *
+ * @author Equipe Gumga
+ */
+public class GumgaNormalizedListener {
+
+    @PrePersist
+    @PreUpdate
+    public void normalize(Object entity) {
+        GumgaEntityDescriptor.of(entity.getClass()).normalize(entity);
+    }
+}
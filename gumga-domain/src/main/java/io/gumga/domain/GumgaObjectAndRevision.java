@@ -1,5 +1,9 @@
 package io.gumga.domain;
 
+import org.hibernate.envers.RevisionType;
+
+import java.util.List;
+
 /**
  * Classe utilizada para prover as versões anteriores de objetos marcados com
  * auditoria.
@@ -12,11 +16,23 @@ public class GumgaObjectAndRevision {
 
     private Object object;
 
+    private RevisionType revisionType;
+
+    /**
+     * Atributos alterados em relação à revisão anterior, preenchido apenas quando as diferenças são pedidas
+     */
+    private List<GumgaFieldChange> changes;
+
     public GumgaObjectAndRevision(GumgaRevisionEntity gumgaRevisionEntity, Object object) {
         this.gumgaRevisionEntity = gumgaRevisionEntity;
         this.object = object;
     }
 
+    public GumgaObjectAndRevision(GumgaRevisionEntity gumgaRevisionEntity, Object object, RevisionType revisionType) {
+        this(gumgaRevisionEntity, object);
+        this.revisionType = revisionType;
+    }
+
     public GumgaRevisionEntity getGumgaRevisionEntity() {
         return gumgaRevisionEntity;
     }
@@ -33,4 +49,23 @@ public class GumgaObjectAndRevision {
         this.object = object;
     }
 
+    /**
+     * @return Tipo da revisão: inclusão, alteração ou remoção
+     */
+    public RevisionType getRevisionType() {
+        return revisionType;
+    }
+
+    public void setRevisionType(RevisionType revisionType) {
+        this.revisionType = revisionType;
+    }
+
+    public List<GumgaFieldChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<GumgaFieldChange> changes) {
+        this.changes = changes;
+    }
+
 }
@@ -0,0 +1,60 @@
+package io.gumga.domain;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Banco de dados para o qual as pesquisas são geradas, identificado a partir do
+ * {@link GumgaQueryParserProvider#defaultMap}
+ *
+ * @author Equipe Gumga
+ */
+public enum GumgaQueryDialect {
+
+    H2(GumgaQueryParserProvider::getH2LikeMap, null),
+    MYSQL(GumgaQueryParserProvider::getMySqlLikeMap, null),
+    POSTGRESQL(GumgaQueryParserProvider::getPostgreSqlLikeMap, null),
+    ORACLE(GumgaQueryParserProvider::getOracleLikeMap, null),
+    /**
+     * Oracle com comparação de textos sem acentos (nls_comp=linguistic e nls_sort=latin_ai)
+     */
+    ORACLE_WITH_ADJUST(GumgaQueryParserProvider::getOracleLikeMapWithAdjust,
+            "alter session set nls_comp=linguistic nls_sort=latin_ai nls_date_format='YYYY-MM-DD' nls_timestamp_format='YYYY-MM-DD HH24:MI:SS'"),
+    /**
+     * Mapa de parsers personalizado pela aplicação
+     */
+    OTHER(() -> null, null);
+
+    private final Supplier<Map<Class<?>, CriterionParser>> parserMap;
+    private final String sessionInitSql;
+
+    GumgaQueryDialect(Supplier<Map<Class<?>, CriterionParser>> parserMap, String sessionInitSql) {
+        this.parserMap = parserMap;
+        this.sessionInitSql = sessionInitSql;
+    }
+
+    /**
+     * @return Novo mapa de parsers do banco, ou null para {@link #OTHER}
+     */
+    public Map<Class<?>, CriterionParser> createParserMap() {
+        return parserMap.get();
+    }
+
+    /**
+     * @return Comando que deve ser executado uma vez em cada conexão física, ou null quando não é necessário
+     */
+    public String getSessionInitSql() {
+        return sessionInitSql;
+    }
+
+    public boolean isOracle() {
+        return this == ORACLE || this == ORACLE_WITH_ADJUST;
+    }
+
+    /**
+     * @return true se o banco não possui a função translate nem to_timestamp
+     */
+    public boolean isMySqlOrH2() {
+        return this == MYSQL || this == H2;
+    }
+}
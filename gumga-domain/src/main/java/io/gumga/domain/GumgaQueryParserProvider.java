@@ -1,6 +1,7 @@
 package io.gumga.domain;
 
 import io.gumga.core.GumgaValues;
+import io.gumga.core.utils.AsciiFolding;
 import io.gumga.domain.domains.GumgaAddress;
 import io.gumga.domain.domains.GumgaBarCode;
 import io.gumga.domain.domains.GumgaBoolean;
@@ -25,7 +26,6 @@ import org.hibernate.type.StandardBasicTypes;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.text.Normalizer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -45,9 +45,89 @@ public class GumgaQueryParserProvider {
 
     public static Map<Class<?>, CriterionParser> defaultMap = null;
 
+    private static volatile ResolvedDialect resolvedDialect;
+
+    private static volatile boolean sessionInitByPool;
+
     private GumgaQueryParserProvider() {
     }
 
+    /**
+     * Banco de dados do {@link #defaultMap}, identificado novamente quando o mapa é substituído ou alterado
+     *
+     * @return Banco de dados ou {@link GumgaQueryDialect#OTHER} quando o mapa não é um dos mapas padrão
+     */
+    public static GumgaQueryDialect getDialect() {
+        Map<Class<?>, CriterionParser> current = defaultMap;
+        if (current == null) {
+            return GumgaQueryDialect.OTHER;
+        }
+        ResolvedDialect resolved = resolvedDialect;
+        if (resolved == null || !resolved.matches(current)) {
+            resolved = new ResolvedDialect(current, resolve(current));
+            resolvedDialect = resolved;
+        }
+        return resolved.dialect;
+    }
+
+    /**
+     * Define o {@link #defaultMap} com o mapa padrão do banco de dados
+     *
+     * @param dialect Banco de dados
+     */
+    public static void useDialect(GumgaQueryDialect dialect) {
+        useDialect(dialect, false);
+    }
+
+    /**
+     * Define o {@link #defaultMap} com o mapa padrão do banco de dados
+     *
+     * @param dialect Banco de dados
+     * @param sessionInitByPool true quando o pool de conexões já executa o
+     * {@link GumgaQueryDialect#getSessionInitSql()} ao criar cada conexão
+     */
+    public static void useDialect(GumgaQueryDialect dialect, boolean sessionInitByPool) {
+        GumgaQueryParserProvider.sessionInitByPool = sessionInitByPool;
+        defaultMap = dialect.createParserMap();
+    }
+
+    /**
+     * @return Comando que o repositório deve executar uma vez em cada conexão física, ou null quando o banco não
+     * precisa dele ou o pool de conexões já o executa
+     */
+    public static String getSessionInitSql() {
+        return sessionInitByPool ? null : getDialect().getSessionInitSql();
+    }
+
+    private static GumgaQueryDialect resolve(Map<Class<?>, CriterionParser> map) {
+        for (GumgaQueryDialect dialect : GumgaQueryDialect.values()) {
+            if (map.equals(dialect.createParserMap())) {
+                return dialect;
+            }
+        }
+        return GumgaQueryDialect.OTHER;
+    }
+
+    /**
+     * Banco identificado para um mapa, com uma cópia do conteúdo para perceber alterações feitas no próprio mapa
+     */
+    private static class ResolvedDialect {
+
+        private final Map<Class<?>, CriterionParser> map;
+        private final Map<Class<?>, CriterionParser> snapshot;
+        private final GumgaQueryDialect dialect;
+
+        private ResolvedDialect(Map<Class<?>, CriterionParser> map, GumgaQueryDialect dialect) {
+            this.map = map;
+            this.snapshot = new HashMap<>(map);
+            this.dialect = dialect;
+        }
+
+        private boolean matches(Map<Class<?>, CriterionParser> current) {
+            return map == current && snapshot.equals(current);
+        }
+    }
+
     public static final Map<Class<?>, CriterionParser> getH2LikeMap() {
         Map<Class<?>, CriterionParser> h2Map = getBaseMap();
         h2Map.put(String.class, AbstractStringCriterionParser.H2_STRING_CRITERION_PARSER);
@@ -81,7 +161,7 @@ public class GumgaQueryParserProvider {
 
     protected static final CriterionParser STRING_CRITERION_PARSER_WITHOUT_TRANSLATE = (field, value) -> {
 
-        value = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", "");
+        value = AsciiFolding.fold(value);
 
         String[] chain = field.split("\\.");
 
@@ -102,7 +182,7 @@ public class GumgaQueryParserProvider {
     @Deprecated
     protected static final CriterionParser STRING_CRITERION_PARSER = (field, value) -> {
 
-        value = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", "");
+        value = AsciiFolding.fold(value);
 
         String[] chain = field.split("\\.");
 
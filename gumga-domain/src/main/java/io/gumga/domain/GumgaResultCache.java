@@ -0,0 +1,41 @@
+package io.gumga.domain;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém em cache os resultados das pesquisas da entidade feitas pelo repositório (pesquisa simples, avançada, AQO e
+ * GQuery). A chave do cache é formada pela entidade, pelo tenant do usuário e pela pesquisa (filtros, ordenação e
+ * página), e o cache da entidade é limpo quando qualquer registro dela é incluído, alterado ou removido, após o commit.
+ * Apenas os ids da página são mantidos, as entidades são recarregadas por id a cada acerto. Indicado para entidades
+ * muito consultadas e pouco alteradas. Exemplo:
+ * <pre>
+ * &#64;GumgaResultCache(ttl = 5, unit = TimeUnit.MINUTES)
+ * public class Cidade extends GumgaModel&lt;Long&gt; {
+ * </pre>
+ * Alterações feitas por comandos update e delete em HQL ou SQL não limpam o cache e só são vistas após a expiração
+ *
+ * @author Equipe Gumga
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GumgaResultCache {
+
+    /**
+     * @return Tempo de expiração de cada resultado
+     */
+    long ttl() default 60;
+
+    /**
+     * @return Unidade do tempo de expiração
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * @return Quantidade máxima de resultados mantidos para a entidade
+     */
+    int maxSize() default 1000;
+}
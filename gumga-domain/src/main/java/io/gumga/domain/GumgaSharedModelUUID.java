@@ -4,6 +4,7 @@ import io.gumga.core.GumgaIdable;
 import io.gumga.core.GumgaThreadScope;
 import io.gumga.domain.domains.*;
 import io.gumga.domain.domains.usertypes.*;
+import io.gumga.domain.shared.GumgaShareable;
 import io.gumga.domain.util.UUIDUtil;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.hibernate.annotations.TypeDef;
@@ -36,7 +37,7 @@ import java.util.Objects;
         @TypeDef(name = "gumgaoi", defaultForType = GumgaOi.class, typeClass = GumgaOiUserType.class),
         @TypeDef(name = "gumgaurl", defaultForType = GumgaURL.class, typeClass = GumgaURLUserType.class),
 })
-public abstract class GumgaSharedModelUUID  implements GumgaIdable<String>, Serializable {
+public abstract class GumgaSharedModelUUID  implements GumgaIdable<String>, GumgaShareable, Serializable {
     public static final int MAX_LENGTH = 2048;
 
     @Id
@@ -54,12 +55,11 @@ public abstract class GumgaSharedModelUUID  implements GumgaIdable<String>, Seri
 
 
     public GumgaSharedModelUUID() {
-        Class classe = this.getClass();
-        if (classe.isAnnotationPresent(GumgaMultitenancy.class) && oi == null) {
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(this.getClass());
+        if (descriptor.hasMultitenancy() && oi == null) {
             String oc = GumgaThreadScope.organizationCode.get();
             if (oc == null) {
-                GumgaMultitenancy tenancy = this.getClass().getAnnotation(GumgaMultitenancy.class);
-                oc = tenancy.publicMarking().getMark();
+                oc = descriptor.getPublicMarking().getMark();
             }
             oi = new GumgaOi(oc);
         }
@@ -70,10 +70,12 @@ public abstract class GumgaSharedModelUUID  implements GumgaIdable<String>, Seri
         return oi;
     }
 
+    @Override
     public String getGumgaOrganizations() {
         return gumgaOrganizations;
     }
 
+    @Override
     public String getGumgaUsers() {
         return gumgaUsers;
     }
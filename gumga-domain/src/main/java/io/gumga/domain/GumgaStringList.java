@@ -3,9 +3,14 @@ package io.gumga.domain;
 import io.gumga.domain.shared.MaximumSharesExceededException;
 
 /**
+ * Manipulação das listas de compartilhamento no formato ",valor1,valor2,", usada por todos os modelos compartilhados
+ *
  * Created by felipesabadinifacina on 07/10/17.
  */
-class GumgaStringList {
+public final class GumgaStringList {
+
+    private GumgaStringList() {
+    }
 
     public static String add(String base, String value, int max) {
         if(base == null) {
@@ -22,7 +27,13 @@ class GumgaStringList {
     }
 
     public static String remove(String base, String value) {
-        return base.replaceAll("," + value + ",", ",");
+        String item = "," + value + ",";
+        int index = base.indexOf(item);
+        while (index >= 0) {
+            base = base.substring(0, index + 1) + base.substring(index + item.length());
+            index = base.indexOf(item, index);
+        }
+        return base;
     }
 
     public static String removeAll() {
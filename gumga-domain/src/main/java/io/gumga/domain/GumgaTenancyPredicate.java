@@ -0,0 +1,59 @@
+package io.gumga.domain;
+
+/**
+ * Define como as pesquisas filtram o oi do usuário atual.
+ * No modo {@link Mode#RANGE} a condição {@code oi like 'prefixo%'} é substituída pelo intervalo
+ * {@code oi >= 'prefixo' and oi < sucessor(prefixo)}, que utiliza índices (oi) ou (oi, id) em qualquer banco de dados,
+ * inclusive com o prefixo informado por parâmetro. O modo deve ser definido na configuração da aplicação, assim como
+ * {@link GumgaQueryParserProvider#defaultMap}
+ *
+ * @author Equipe Gumga
+ */
+public final class GumgaTenancyPredicate {
+
+    public enum Mode {
+        /**
+         * Condição {@code oi like 'prefixo%'}
+         */
+        LIKE,
+        /**
+         * Condição {@code oi >= 'prefixo' and oi < sucessor(prefixo)}. Exige que a coluna oi utilize ordenação binária
+         * (padrão no Oracle, MySQL e H2; no PostgreSQL a coluna e o índice devem utilizar {@code COLLATE "C"})
+         */
+        RANGE
+    }
+
+    public static volatile Mode mode = Mode.LIKE;
+
+    private GumgaTenancyPredicate() {
+    }
+
+    /**
+     * @param prefix Padrão do oi do usuário
+     * @return true se a condição do prefixo deve ser feita por intervalo
+     */
+    public static boolean useRange(String prefix) {
+        return mode == Mode.RANGE && upperBound(prefix) != null;
+    }
+
+    /**
+     * Menor texto maior que todos os textos iniciados pelo prefixo, ou seja, o prefixo com o último caractere
+     * incrementado
+     *
+     * @param prefix Prefixo
+     * @return Limite superior exclusivo do intervalo ou null quando não existe
+     */
+    public static String upperBound(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+}
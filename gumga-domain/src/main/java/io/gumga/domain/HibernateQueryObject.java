@@ -1,31 +1,42 @@
 package io.gumga.domain;
 
 import io.gumga.core.QueryObject;
+import io.gumga.core.utils.AsciiFolding;
 import io.gumga.core.utils.ReflectionUtils;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Restrictions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.activation.UnsupportedDataTypeException;
-import java.text.Normalizer;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Permite utilizar um QueryObject do framework com o Hibernate.
  */
 public class HibernateQueryObject {
 
+    /**
+     * Campos de pesquisa já resolvidos por classe e caminho do campo
+     */
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, ResolvedField>> RESOLVED_FIELDS = new ConcurrentHashMap<>();
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     protected final QueryObject queryObject;
 
+    /**
+     * Cópia do {@link GumgaQueryParserProvider#defaultMap}, que as subclasses podem alterar sem afetar as demais pesquisas
+     */
     protected final Map<Class<?>, CriterionParser> parsers;
 
     /**
@@ -36,12 +47,12 @@ public class HibernateQueryObject {
 
         this.queryObject = queryObject;
 
-        this.parsers = new HashMap<>(GumgaQueryParserProvider.defaultMap);
-
         if (null == GumgaQueryParserProvider.defaultMap) {
             throw new HibernateQueryObjectException("GumgaQueryParserProvider.defaultMap must be set in Application configuration");
         }
 
+        this.parsers = new HashMap<>(GumgaQueryParserProvider.defaultMap);
+
         if (!queryObject.isPhonetic()) {
             //this.parsers.put(String.class, GumgaQueryParserProvider.STRING_CRITERION_PARSER_WITHOUT_TRANSLATE);
             //this.parsers.put(String.class, GumgaQueryParserProvider.STRING_CRITERION_PARSER);
@@ -49,7 +60,7 @@ public class HibernateQueryObject {
         }
 
         //Não está selecionando registros salvos no banco com acento.
-        this.queryObject.setQ(Normalizer.normalize(queryObject.getQ(), Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", "").toUpperCase());
+        this.queryObject.setQ(AsciiFolding.foldUpperCase(queryObject.getQ()));
         //this.queryObject.setQ(queryObject.getQ().toUpperCase());
     }
 
@@ -99,51 +110,80 @@ public class HibernateQueryObject {
      * @throws UnsupportedDataTypeException Tipo de dados não suportado
      */
     private Criterion createCriterion(String field, String value, Class<?> clazz) throws ParseException, NumberFormatException, UnsupportedDataTypeException {
-        String[] chain = field.split("\\.");
-        Class<?> type;
-        Field javaField = null;
-
-        if (chain.length > 1) {
-            javaField = ReflectionUtils.findField(clazz, chain[0]);
-            Class<?> superType = javaField.getType();
-            type = ReflectionUtils.findField(superType, chain[1]).getType();
-        } else {
-            javaField = ReflectionUtils.findField(clazz, field);
-            type = javaField.getType();
-        }
-        if (javaField.getType().equals(Serializable.class)) {
-            Class c = clazz;
-            while (!((c.getSuperclass().equals(GumgaModel.class) || c.getSuperclass().equals(GumgaModelUUID.class) || c.getSuperclass().equals(Object.class)))) {
-                c = c.getSuperclass();
-            }
-            type = ReflectionUtils.inferGenericType(c, 0);
-        }
-        CriterionParser parser = parsers.get(type);
-        if (type.isEnum()) {
-            parser = parsers.get(Enum.class);
+        ResolvedField resolved = resolve(clazz, field);
+        if (resolved.normalizedColumn != null) {
+            return Restrictions.like(resolved.normalizedColumn, AsciiFolding.foldUpperCase(value), MatchMode.ANYWHERE);
         }
+        CriterionParser parser = parsers.get(resolved.parserType);
 
         if (parser == null) {
-            throw new UnsupportedDataTypeException(type.getName());
-        }
-
-        Field findField = ReflectionUtils.findField(clazz, field);
-        String collumName = null;
-        if(findField != null) {
-            collumName = (findField.getType().isEnum() && findField.isAnnotationPresent(javax.persistence.Column.class)) ? findField.getAnnotation(javax.persistence.Column.class).name() : field;
-        } else {
-            collumName = field;
+            throw new UnsupportedDataTypeException(resolved.type.getName());
         }
 
+        return parser.parse(resolved.columnName, value);
+    }
 
-        return parser.parse(collumName, value);
-//        return parser.parse(field, value);
+    /**
+     * Resolve o tipo e o nome da coluna do campo de pesquisa uma única vez por classe e caminho do campo
+     *
+     * @param clazz Classe a ser buscado o campo
+     * @param field Descrição do campo
+     * @return Campo resolvido
+     */
+    private static ResolvedField resolve(Class<?> clazz, String field) {
+        ConcurrentMap<String, ResolvedField> fields = RESOLVED_FIELDS.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>());
+        ResolvedField resolved = fields.get(field);
+        if (resolved == null) {
+            resolved = new ResolvedField(clazz, field);
+            fields.putIfAbsent(field, resolved);
+        }
+        return resolved;
     }
 
     protected void forceNoResults(List<Criterion> criterions) {
         criterions.add(Restrictions.sqlRestriction("(1=0)"));
     }
 
+    /**
+     * Tipo, chave do parser, nome da coluna e atributo {@link GumgaNormalized} de um campo de pesquisa
+     */
+    private static class ResolvedField {
+
+        private final Class<?> type;
+        private final Class<?> parserType;
+        private final String columnName;
+        private final String normalizedColumn;
+
+        private ResolvedField(Class<?> clazz, String field) {
+            String[] chain = field.split("\\.");
+            Field javaField;
+
+            if (chain.length > 1) {
+                javaField = ReflectionUtils.findField(clazz, chain[0]);
+                Class<?> superType = javaField.getType();
+                this.type = inferIdType(clazz, javaField, ReflectionUtils.findField(superType, chain[1]).getType());
+                this.columnName = field;
+            } else {
+                javaField = ReflectionUtils.findField(clazz, field);
+                this.type = inferIdType(clazz, javaField, javaField.getType());
+                this.columnName = (javaField.getType().isEnum() && javaField.isAnnotationPresent(javax.persistence.Column.class)) ? javaField.getAnnotation(javax.persistence.Column.class).name() : field;
+            }
+            this.parserType = type.isEnum() ? Enum.class : type;
+            this.normalizedColumn = chain.length == 1 && type == String.class ? GumgaEntityDescriptor.of(clazz).getNormalizedField(field) : null;
+        }
+
+        private static Class<?> inferIdType(Class<?> clazz, Field javaField, Class<?> type) {
+            if (!javaField.getType().equals(Serializable.class)) {
+                return type;
+            }
+            Class c = clazz;
+            while (!((c.getSuperclass().equals(GumgaModel.class) || c.getSuperclass().equals(GumgaModelUUID.class) || c.getSuperclass().equals(Object.class)))) {
+                c = c.getSuperclass();
+            }
+            return ReflectionUtils.inferGenericType(c, 0);
+        }
+    }
+
 }
 
 /**
@@ -15,6 +15,7 @@ import java.util.Objects;
 @SequenceGenerator(name = GumgaModel.SEQ_NAME, sequenceName = "SEQ_GUMGA_CTM_FLD")
 //             123456789012345678
 @Table(name = "gumga_ctm_fld")
+@Cacheable
 @GumgaMultitenancy
 public class GumgaCustomField extends GumgaModel<Long> {
 
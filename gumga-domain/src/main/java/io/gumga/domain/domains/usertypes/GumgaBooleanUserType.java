@@ -86,7 +86,7 @@ public class GumgaBooleanUserType extends MutableUserType implements EnhancedUse
 
     @Override
     public String objectToSQLString(Object value) {
-        if(GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getOracleLikeMap()) || GumgaQueryParserProvider.defaultMap.equals(GumgaQueryParserProvider.getOracleLikeMapWithAdjust())) {
+        if(GumgaQueryParserProvider.getDialect().isOracle()) {
             return value != null && value.toString().equals("true") ? "1" : "0";
         }
         return value != null && value.toString().equals("true") ? "true" : "false";
@@ -44,30 +44,3 @@ public class GumgaSharedLDModel<ID extends Serializable> extends GumgaSharedMode
 
 
 }
-
-class StringList {
-
-    public static String add(String base, String value, int max) {
-        if (!contains(base, value)) {
-            String toReturn = base + value + ",";
-//            if (toReturn.length() > max) {
-//                throw new MaximumSharesExceededException("Capacidade de compartilhamentos excedida.");
-//            }
-            return toReturn;
-        }
-        return base;
-    }
-
-    public static String remove(String base, String value) {
-        return base.replaceAll("," + value + ",", ",");
-    }
-
-    public static String removeAll() {
-        return ",";
-    }
-
-    private static boolean contains(String base, String value) {
-        return base.contains("," + value + ",");
-    }
-
-}
@@ -3,6 +3,7 @@ package io.gumga.domain.repository;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
 import io.gumga.core.gquery.GQuery;
+import io.gumga.core.utils.ReflectionUtils;
 import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.GumgaRepository;
 import io.gumga.domain.Pesquisa;
@@ -10,8 +11,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Cria um repositório para CRUD TIPADO
@@ -27,6 +31,16 @@ public interface GumgaCrudRepository<T, ID extends Serializable> extends JpaRepo
      */
     SearchResult<T> search(QueryObject query);
 
+    /**
+     * Faz a pesquisa retornando apenas alguns atributos de cada entidade
+     * @param query o dado a ser pesquisado. Link: {@link QueryObject}
+     * @param fields atributos retornados
+     * @return um mapa do atributo para o seu valor por entidade encontrada
+     */
+    default SearchResult<Map<String, Object>> search(QueryObject query, String[] fields) {
+        return search(query).map(entity -> ReflectionUtils.objectFieldsToMap(fields, entity));
+    }
+
     /**
      * Cria uma nova Pesquisa da entidade que está tipada na interface @{@link GumgaCrudRepository}. Link @{@link Pesquisa}
      * @return nova pesquisa
@@ -60,6 +74,16 @@ public interface GumgaCrudRepository<T, ID extends Serializable> extends JpaRepo
      */
     List<GumgaObjectAndRevision> listOldVersions(ID id);
 
+    /**
+     * Retornar as versões anteriores das entidades marcadas pelas auditoria, paginadas
+     * @param id Id
+     * @param start posição da primeira revisão da página
+     * @param pageSize quantidade de revisões da página
+     * @param diff se true, retorna apenas os atributos alterados em relação à revisão anterior
+     * @return revisões da página e a quantidade total de revisões
+     */
+    SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff);
+
     /**
      * Faz uma pesquisa no banco baseado na entidade que está tipada na interface @{@link GumgaCrudRepository}
      * @param selectQueryWithoutWhere selectQueryWithoutWhere
@@ -78,6 +102,15 @@ public interface GumgaCrudRepository<T, ID extends Serializable> extends JpaRepo
      */
     Object genericFindOne(Class clazz, Object id);
 
+    /**
+     * Pesquisa várias entidades da classe informada pelos ids em poucas consultas, aplicando o Multitenancy na própria consulta
+     * @param clazz Classe
+     * @param ids Ids
+     * @param <A> Tipo da entidade
+     * @return entidades encontradas, ids inexistentes são ignorados
+     */
+    <A> List<A> genericFindAll(Class<A> clazz, Collection<?> ids);
+
     /**
      * Pesquisa todas as entidades com o tenancy do ThreadScope
      * @return resultado da pesquisa
@@ -85,9 +118,100 @@ public interface GumgaCrudRepository<T, ID extends Serializable> extends JpaRepo
     SearchResult<T> findAllWithTenancy();
 
 
+    /**
+     * Pesquisa várias entidades pelos ids em poucas consultas, aplicando o Multitenancy na própria consulta
+     * @param ids ids das entidades
+     * @return entidades na mesma ordem dos ids
+     */
+    List<T> findAllById(Iterable<ID> ids);
+
+    /**
+     * Percorre todos os resultados da pesquisa com um cursor do banco, sem carregar a lista inteira em memória.
+     * A paginação do {@link QueryObject} é ignorada e o Multitenancy continua sendo aplicado.
+     * Deve ser utilizado dentro de uma transação e o Stream deve ser fechado ao final (try-with-resources)
+     * @param query filtro da pesquisa
+     * @return resultados da pesquisa
+     */
+    Stream<T> stream(QueryObject query);
+
+    /**
+     * Percorre todos os resultados do {@link GQuery} com um cursor do banco, da mesma forma que {@link #stream(QueryObject)}
+     * @param gQuery filtro da pesquisa
+     * @return resultados da pesquisa
+     */
+    Stream<T> stream(GQuery gQuery);
+
+    /**
+     * Executa o consumer para cada resultado da pesquisa, mantendo em memória no máximo batchSize entidades.
+     * As entidades de lotes anteriores são desanexadas da sessão
+     * @param query filtro da pesquisa
+     * @param batchSize quantidade de registros buscados por vez
+     * @param consumer ação executada para cada entidade
+     */
+    void forEach(QueryObject query, int batchSize, Consumer<? super T> consumer);
+
+    /**
+     * Executa o consumer para cada resultado do {@link GQuery}, da mesma forma que {@link #forEach(QueryObject, int, Consumer)}
+     * @param gQuery filtro da pesquisa
+     * @param batchSize quantidade de registros buscados por vez
+     * @param consumer ação executada para cada entidade
+     */
+    void forEach(GQuery gQuery, int batchSize, Consumer<? super T> consumer);
+
+    /**
+     * Ids das entidades do {@link GQuery}, com o multitenancy aplicado, para as operações em lote
+     * @param gQuery filtro
+     * @return ids sem repetição
+     */
+    List<ID> findIds(GQuery gQuery);
+
+    /**
+     * Remove em lote as entidades dos ids, com comandos em conjunto em vez de um por entidade. Entidades com remoção
+     * lógica são marcadas como inativas. Apenas os registros da organização do usuário são alterados
+     * @param ids ids das entidades
+     * @return quantidade de registros alterados
+     */
+    int bulkDelete(Collection<ID> ids);
+
+    /**
+     * Remove em lote as entidades do {@link GQuery}, da mesma forma que {@link #bulkDelete(Collection)}. As
+     * implementações podem executar um único comando com a subconsulta do filtro, sem carregar os ids
+     * @param gQuery filtro das entidades
+     * @return quantidade de registros alterados
+     */
+    default int bulkDelete(GQuery gQuery) {
+        return bulkDelete(findIds(gQuery));
+    }
+
+    /**
+     * Remove fisicamente em lote as entidades dos ids, inclusive as de remoção lógica. Apenas os registros da
+     * organização do usuário são removidos; cascatas e auditoria não são executadas
+     * @param ids ids das entidades
+     * @return quantidade de registros removidos
+     */
+    int bulkDeletePermanent(Collection<ID> ids);
+
+    /**
+     * Remove fisicamente em lote as entidades do {@link GQuery}, da mesma forma que {@link #bulkDeletePermanent(Collection)}.
+     * As implementações podem executar um único comando com a subconsulta do filtro, sem carregar os ids
+     * @param gQuery filtro das entidades, por exemplo as inativas: new GQuery(new Criteria("obj.gumgaActive", ComparisonOperator.EQUAL, false))
+     * @return quantidade de registros removidos
+     */
+    default int bulkDeletePermanent(GQuery gQuery) {
+        return bulkDeletePermanent(findIds(gQuery));
+    }
+
     T fetchOne(GQuery gQuery);
     List<T> findAll(GQuery gQuery);
 
+    /**
+     * Executa no banco de dados a agregação do {@link GQuery} (projeções, group by e having), com o multitenancy aplicado
+     * e sem os registros removidos logicamente
+     * @param gQuery filtro e agregação, com ao menos uma projeção
+     * @return uma linha por grupo, mapa do nome de cada projeção para o seu valor
+     */
+    List<Map<String, Object>> aggregate(GQuery gQuery);
+
     /**
      * Remove permanentemente uma entidade marcada com Remoção Lógica
      * @param entity
@@ -2,10 +2,14 @@ package io.gumga.domain.service;
 
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.GQuery;
+import io.gumga.core.utils.ReflectionUtils;
 import io.gumga.domain.GumgaObjectAndRevision;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service com a operação de view, find, obter a classe e listas as versões
@@ -20,6 +24,23 @@ public interface GumgaReadableServiceable<T, ID extends Serializable> {
      */
     public SearchResult<T> pesquisa(QueryObject queryObject);
 
+    /**
+     * Pesquisa na entidade tipada na interface @{@link GumgaReadableServiceable} retornando apenas alguns atributos
+     * @param queryObject filtro da busca da entidade
+     * @param fields atributos retornados, inclusive de associações (company.name)
+     * @return um mapa do atributo para o seu valor por entidade encontrada
+     */
+    public default SearchResult<Map<String, Object>> pesquisa(QueryObject queryObject, String[] fields) {
+        return pesquisa(queryObject).map(entity -> ReflectionUtils.objectFieldsToMap(fields, entity));
+    }
+
+    /**
+     * Agregação (projeções, group by e having) na entidade tipada na interface @{@link GumgaReadableServiceable}
+     * @param gQuery filtro e agregação
+     * @return uma linha por grupo, mapa do nome de cada projeção para o seu valor
+     */
+    public List<Map<String, Object>> aggregate(GQuery gQuery);
+
     /**
      * Pesquisa a entidade tipada na interface @{@link GumgaReadableServiceable} pela primary key
      * @param id
@@ -27,6 +48,19 @@ public interface GumgaReadableServiceable<T, ID extends Serializable> {
      */
     public T view(ID id);
 
+    /**
+     * Pesquisa várias entidades tipadas na interface @{@link GumgaReadableServiceable} pelas primary keys
+     * @param ids
+     * @return entidades na mesma ordem dos ids
+     */
+    public default List<T> viewAll(List<ID> ids) {
+        List<T> entities = new ArrayList<>();
+        for (ID id : ids) {
+            entities.add(view(id));
+        }
+        return entities;
+    }
+
     public Class<T> clazz();
 
     /**
@@ -36,4 +70,14 @@ public interface GumgaReadableServiceable<T, ID extends Serializable> {
      */
     public List<GumgaObjectAndRevision> listOldVersions(ID id);
 
+    /**
+     * Retornar as versões anteriores das entidades marcadas pelas auditoria, paginadas
+     * @param id
+     * @param start posição da primeira revisão da página
+     * @param pageSize quantidade de revisões da página
+     * @param diff se true, retorna apenas os atributos alterados em relação à revisão anterior
+     * @return revisões da página e a quantidade total de revisões
+     */
+    public SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff);
+
 }
@@ -0,0 +1,79 @@
+package io.gumga.domain.shared;
+
+import io.gumga.domain.GumgaModel;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+/**
+ * Compartilhamento de uma entidade anotada com {@link GumgaSharedIndex} com uma organização ou um usuário.
+ * O índice por entidade, tipo e valor permite encontrar os registros compartilhados com o usuário sem percorrer a
+ * tabela da entidade
+ *
+ * @author Equipe Gumga
+ */
+@Entity
+@SequenceGenerator(name = GumgaModel.SEQ_NAME, sequenceName = "SEQ_GUMGA_SHARE")
+@Table(name = "gumga_share", indexes = {
+        @Index(name = "ix_gumga_share_value", columnList = "gumga_entity, gumga_kind, gumga_value, numeric_id, string_id"),
+        @Index(name = "ix_gumga_share_owner", columnList = "gumga_entity, numeric_id, string_id")
+})
+public class GumgaShare extends GumgaModel<Long> {
+
+    public static final String KIND_ORGANIZATION = "O";
+    public static final String KIND_USER = "U";
+
+    @Column(name = "gumga_entity", nullable = false)
+    private String entityName;
+    @Column(name = "numeric_id")
+    private Long numericId;
+    @Column(name = "string_id", length = 64)
+    private String stringId;
+    @Column(name = "gumga_kind", length = 1, nullable = false)
+    private String kind;
+    @Column(name = "gumga_value", nullable = false)
+    private String value;
+
+    public GumgaShare() {
+    }
+
+    /**
+     * @param entityName Nome da classe da entidade compartilhada
+     * @param entityId Id da entidade compartilhada
+     * @param kind {@link #KIND_ORGANIZATION} ou {@link #KIND_USER}
+     * @param value Oi da organização ou login do usuário
+     */
+    public GumgaShare(String entityName, Object entityId, String kind, String value) {
+        this.entityName = entityName;
+        if (entityId instanceof Number) {
+            this.numericId = ((Number) entityId).longValue();
+        } else {
+            this.stringId = String.valueOf(entityId);
+        }
+        this.kind = kind;
+        this.value = value;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public Long getNumericId() {
+        return numericId;
+    }
+
+    public String getStringId() {
+        return stringId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package io.gumga.domain.shared;
+
+/**
+ * Entidade que pode ser compartilhada com organizações e usuários
+ *
+ * @author Equipe Gumga
+ */
+public interface GumgaShareable {
+
+    /**
+     * @return Organizações separadas por vírgula, iniciando e terminando com vírgula
+     */
+    String getGumgaOrganizations();
+
+    /**
+     * @return Usuários separados por vírgula, iniciando e terminando com vírgula
+     */
+    String getGumgaUsers();
+}
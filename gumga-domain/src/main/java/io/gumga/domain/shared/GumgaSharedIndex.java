@@ -0,0 +1,23 @@
+package io.gumga.domain.shared;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mantém os compartilhamentos da entidade também na tabela {@link GumgaShare}, atualizada pelo repositório ao salvar e
+ * remover a entidade. As pesquisas passam a filtrar os compartilhamentos por uma subconsulta indexada nessa tabela, em
+ * vez das condições like '%,valor,%' sobre gumga_orgs e gumga_users.
+ * Alterações de compartilhamento devem ser salvas pelo repositório (ou pelo service) da entidade.
+ * <p>
+ * Ao anotar uma entidade que já possui registros, a tabela precisa ser preenchida uma vez com os compartilhamentos
+ * existentes, por GumgaIndexManager.rebuildShares ou POST /api/gumgaindex/shares/{entidade}; até lá os registros
+ * compartilhados com outras organizações e usuários não são encontrados pelas pesquisas
+ *
+ * @author Equipe Gumga
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GumgaSharedIndex {
+}
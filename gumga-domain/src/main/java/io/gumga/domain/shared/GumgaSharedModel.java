@@ -1,5 +1,6 @@
 package io.gumga.domain.shared;
 import io.gumga.domain.GumgaModel;
+import io.gumga.domain.GumgaStringList;
 import io.gumga.domain.domains.GumgaOi;
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
@@ -10,7 +11,7 @@ import java.io.Serializable;
  * @author munif, mateus, felipe
  */
 @MappedSuperclass
-public class GumgaSharedModel<ID extends Serializable> extends GumgaModel<ID> {
+public class GumgaSharedModel<ID extends Serializable> extends GumgaModel<ID> implements GumgaShareable {
 
     public static final int MAX_LENGTH = 4000;
     public static final String GLOBAL = "GLOBAL.";
@@ -34,10 +35,12 @@ public class GumgaSharedModel<ID extends Serializable> extends GumgaModel<ID> {
         init();
     }
 
+    @Override
     public String getGumgaOrganizations() {
         return gumgaOrganizations;
     }
 
+    @Override
     public String getGumgaUsers() {
         return gumgaUsers;
     }
@@ -48,58 +51,27 @@ public class GumgaSharedModel<ID extends Serializable> extends GumgaModel<ID> {
     }
 
     public void addOrganization(String oi) {
-        gumgaOrganizations = StringList.add(gumgaOrganizations, oi, MAX_LENGTH);
+        gumgaOrganizations = GumgaStringList.add(gumgaOrganizations, oi, MAX_LENGTH);
     }
 
     public void addUser(String login) {
-        gumgaUsers = StringList.add(gumgaUsers, login, MAX_LENGTH);
+        gumgaUsers = GumgaStringList.add(gumgaUsers, login, MAX_LENGTH);
     }
 
     public void removeOrganization(String oi) {
-        gumgaOrganizations = StringList.remove(gumgaOrganizations, oi);
+        gumgaOrganizations = GumgaStringList.remove(gumgaOrganizations, oi);
     }
 
     public void removeUser(String login) {
-        gumgaUsers = StringList.remove(gumgaUsers, login);
+        gumgaUsers = GumgaStringList.remove(gumgaUsers, login);
     }
 
     public void removeAllOrganization() {
-        gumgaOrganizations = StringList.removeAll();
+        gumgaOrganizations = GumgaStringList.removeAll();
     }
 
     public void removeAllUser() {
-        gumgaUsers = StringList.removeAll();
+        gumgaUsers = GumgaStringList.removeAll();
     }
 
 }
-
-class StringList {
-
-    public static String add(String base, String value, int max) {
-        if (!contains(base, value)) {
-            String toReturn = base + value + ",";
-//            if (toReturn.length() > max) {
-//                throw new MaximumSharesExceededException("Capacidade de compartilhamentos excedida.");
-//            }
-            return toReturn;
-        }
-        return base;
-    }
-
-    public static String remove(String base, String value) {
-        return base.replaceAll("," + value + ",", ",");
-    }
-
-    public static String removeAll() {
-        return ",";
-    }
-
-    private static boolean contains(String base, String value) {
-        return base.contains("," + value + ",");
-    }
-
-}
-
-//  ,abacaxi,laranja,fanta-laranja,coca,guarana,
-// ,coca,guarana,
-
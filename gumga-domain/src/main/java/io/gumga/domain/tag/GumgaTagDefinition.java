@@ -16,6 +16,7 @@ import java.util.List;
 @Entity
 @SequenceGenerator(name = GumgaModel.SEQ_NAME, sequenceName = "SEQ_GUMGA_GTAG_DEFI")
 @Table(name = "gumga_gtag_defi")
+@Cacheable
 @GumgaMultitenancy
 public class GumgaTagDefinition extends GumgaModel<Long> {
 
@@ -0,0 +1,76 @@
+package io.gumga.domain.TestGumgaModel;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.domain.GumgaEntityDescriptor;
+import io.gumga.domain.GumgaTenancyPredicate;
+import io.gumga.domain.TestGumgaModel.TestModel.EntityGumgaModelUUID;
+import io.gumga.domain.TestGumgaModel.TestModel.EntityGumgaSharedModelUUID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RunWith(JUnit4.class)
+public class GumgaEntityDescriptorTest {
+
+    @After
+    public void restauraCondicaoDoOi() {
+        GumgaTenancyPredicate.mode = GumgaTenancyPredicate.Mode.LIKE;
+    }
+
+    @Test
+    public void reaproveitaDescritor() {
+        Assert.assertSame(GumgaEntityDescriptor.of(EntityGumgaSharedModelUUID.class), GumgaEntityDescriptor.of(EntityGumgaSharedModelUUID.class));
+    }
+
+    @Test
+    public void descreveEntidadeCompartilhada() {
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(EntityGumgaSharedModelUUID.class);
+        Assert.assertTrue(descriptor.hasMultitenancy());
+        Assert.assertTrue(descriptor.isShared());
+        Assert.assertTrue(descriptor.isUUID());
+        Assert.assertFalse(descriptor.hasLogicalDelete());
+        Assert.assertEquals("(obj.oi is null or obj.oi like :gumgaOi or obj.gumgaOrganizations like :gumgaSharedOi"
+                + " or obj.gumgaOrganizations like :gumgaSharedInstanceOi or obj.gumgaUsers like :gumgaSharedLogin)", descriptor.getTenancyHql());
+    }
+
+    @Test
+    public void parametrosDoUsuarioAtual() {
+        GumgaThreadScope.organizationCode.set("1.2.");
+        GumgaThreadScope.login.set("gumga@gumga.com.br");
+        Map<String, Object> parameters = GumgaEntityDescriptor.of(EntityGumgaSharedModelUUID.class).tenancyParameters();
+        Assert.assertEquals("1.2.%", parameters.get(GumgaEntityDescriptor.OI_PARAMETER));
+        Assert.assertEquals("%,1.2.,%", parameters.get(GumgaEntityDescriptor.SHARED_OI_PARAMETER));
+        Assert.assertEquals("%,gumga@gumga.com.br,%", parameters.get(GumgaEntityDescriptor.SHARED_LOGIN_PARAMETER));
+    }
+
+    @Test
+    public void entidadeNaoCompartilhada() {
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(EntityGumgaModelUUID.class);
+        Assert.assertFalse(descriptor.isShared());
+        Assert.assertEquals(1, descriptor.tenancyParameters().size());
+    }
+
+    @Test
+    public void condicaoEParametrosDoMesmoModo() {
+        GumgaThreadScope.organizationCode.set("1.2.");
+        GumgaEntityDescriptor descriptor = GumgaEntityDescriptor.of(EntityGumgaModelUUID.class);
+        GumgaTenancyPredicate.mode = GumgaTenancyPredicate.Mode.RANGE;
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String hql = descriptor.getTenancyHql(parameters);
+        GumgaTenancyPredicate.mode = GumgaTenancyPredicate.Mode.LIKE;
+
+        Assert.assertTrue(hql, hql.contains(":" + GumgaEntityDescriptor.OI_START_PARAMETER));
+        Assert.assertEquals("1.2.", parameters.get(GumgaEntityDescriptor.OI_START_PARAMETER));
+        Assert.assertEquals("1.2/", parameters.get(GumgaEntityDescriptor.OI_END_PARAMETER));
+        Assert.assertFalse(parameters.containsKey(GumgaEntityDescriptor.OI_PARAMETER));
+
+        parameters.clear();
+        Assert.assertTrue(descriptor.getOwnershipHql(parameters).contains(":" + GumgaEntityDescriptor.OI_PARAMETER));
+        Assert.assertEquals("1.2.%", parameters.get(GumgaEntityDescriptor.OI_PARAMETER));
+    }
+}
@@ -0,0 +1,64 @@
+package io.gumga.domain.TestGumgaModel;
+
+import io.gumga.domain.AbstractStringCriterionParser;
+import io.gumga.domain.CriterionParser;
+import io.gumga.domain.GumgaQueryDialect;
+import io.gumga.domain.GumgaQueryParserProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Map;
+
+@RunWith(JUnit4.class)
+public class GumgaQueryParserProviderTest {
+
+    private Map<Class<?>, CriterionParser> anterior;
+
+    @Before
+    public void guardaMapa() {
+        anterior = GumgaQueryParserProvider.defaultMap;
+    }
+
+    @After
+    public void restauraMapa() {
+        GumgaQueryParserProvider.useDialect(GumgaQueryDialect.H2);
+        GumgaQueryParserProvider.defaultMap = anterior;
+    }
+
+    @Test
+    public void identificaOBancoPeloMapa() {
+        GumgaQueryParserProvider.defaultMap = GumgaQueryParserProvider.getPostgreSqlLikeMap();
+        Assert.assertEquals(GumgaQueryDialect.POSTGRESQL, GumgaQueryParserProvider.getDialect());
+        GumgaQueryParserProvider.defaultMap = GumgaQueryParserProvider.getOracleLikeMap();
+        Assert.assertEquals(GumgaQueryDialect.ORACLE, GumgaQueryParserProvider.getDialect());
+    }
+
+    @Test
+    public void identificaNovamenteAoAlterarOProprioMapa() {
+        GumgaQueryParserProvider.useDialect(GumgaQueryDialect.H2);
+        Assert.assertEquals(GumgaQueryDialect.H2, GumgaQueryParserProvider.getDialect());
+
+        GumgaQueryParserProvider.defaultMap.put(String.class, AbstractStringCriterionParser.ORACLE_STRING_CRITERION_PARSER);
+        Assert.assertEquals(GumgaQueryDialect.ORACLE, GumgaQueryParserProvider.getDialect());
+
+        GumgaQueryParserProvider.defaultMap.remove(String.class);
+        Assert.assertEquals(GumgaQueryDialect.OTHER, GumgaQueryParserProvider.getDialect());
+    }
+
+    @Test
+    public void naoRepeteOAjusteDaSessaoExecutadoPeloPool() {
+        GumgaQueryParserProvider.useDialect(GumgaQueryDialect.ORACLE_WITH_ADJUST);
+        Assert.assertEquals(GumgaQueryDialect.ORACLE_WITH_ADJUST.getSessionInitSql(), GumgaQueryParserProvider.getSessionInitSql());
+
+        GumgaQueryParserProvider.useDialect(GumgaQueryDialect.ORACLE_WITH_ADJUST, true);
+        Assert.assertEquals(GumgaQueryDialect.ORACLE_WITH_ADJUST, GumgaQueryParserProvider.getDialect());
+        Assert.assertNull(GumgaQueryParserProvider.getSessionInitSql());
+
+        GumgaQueryParserProvider.useDialect(GumgaQueryDialect.H2);
+        Assert.assertNull(GumgaQueryParserProvider.getSessionInitSql());
+    }
+}
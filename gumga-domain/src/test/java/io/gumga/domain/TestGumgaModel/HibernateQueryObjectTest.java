@@ -0,0 +1,60 @@
+package io.gumga.domain.TestGumgaModel;
+
+import io.gumga.core.QueryObject;
+import io.gumga.domain.CriterionParser;
+import io.gumga.domain.GumgaQueryDialect;
+import io.gumga.domain.GumgaQueryParserProvider;
+import io.gumga.domain.HibernateQueryObject;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Restrictions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Map;
+
+@RunWith(JUnit4.class)
+public class HibernateQueryObjectTest {
+
+    private Map<Class<?>, CriterionParser> anterior;
+
+    @Before
+    public void usaH2() {
+        anterior = GumgaQueryParserProvider.defaultMap;
+        GumgaQueryParserProvider.useDialect(GumgaQueryDialect.H2);
+    }
+
+    @After
+    public void restauraMapa() {
+        GumgaQueryParserProvider.defaultMap = anterior;
+    }
+
+    @Test
+    public void subclassePersonalizaOsParsersSemAlterarOMapaPadrao() {
+        CriterionParser padrao = GumgaQueryParserProvider.defaultMap.get(String.class);
+        QueryObject query = new QueryObject();
+        query.setQ("gumga");
+        query.setSearchFields("nome");
+
+        Criterion[] criterions = new ExactQueryObject(query).getCriterions(Pessoa.class);
+
+        Assert.assertEquals(Restrictions.eq("nome", "GUMGA").toString(), criterions[0].toString());
+        Assert.assertSame(padrao, GumgaQueryParserProvider.defaultMap.get(String.class));
+    }
+
+    private static class ExactQueryObject extends HibernateQueryObject {
+
+        private ExactQueryObject(QueryObject queryObject) {
+            super(queryObject);
+            parsers.put(String.class, Restrictions::eq);
+        }
+    }
+
+    private static class Pessoa {
+
+        private String nome;
+    }
+}
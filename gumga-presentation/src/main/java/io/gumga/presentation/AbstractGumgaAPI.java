@@ -9,8 +9,9 @@ import io.gumga.domain.GumgaServiceable;
 import io.gumga.presentation.api.AbstractNoDeleteGumgaAPI;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,10 +85,7 @@ public abstract class AbstractGumgaAPI<T, ID extends Serializable> extends Abstr
     @ApiOperation(value = "deletemulti", notes = "Deleta vários objeto com os ids correspondentes.")
     @RequestMapping(value = "multi/{id}", method = RequestMethod.DELETE)
     public RestResponse<T> delete(@PathVariable List<ID> ids) {
-        List<T> entities = new ArrayList<>();
-        for (ID id : ids) {
-            entities.add(service.view(id));
-        }
+        List<T> entities = service.viewAll(ids);
         service.delete(entities);
         RestResponse<T> restResponse = new RestResponse<>("Deleted " + ids);
         return restResponse;
@@ -145,8 +143,7 @@ public abstract class AbstractGumgaAPI<T, ID extends Serializable> extends Abstr
      * @return objeto selectElementsForAction
      */
     protected Object selectElementsForAction(String action, ID[] ids) {
-        for (ID id : ids) {
-            T view = service.view(id);
+        for (T view : service.viewAll(Arrays.asList(ids))) {
             doAction(action, view);
         }
         return new SelectionAndActionTO(action, ids);
@@ -209,7 +206,21 @@ public abstract class AbstractGumgaAPI<T, ID extends Serializable> extends Abstr
     @ApiOperation(value = "gquery", notes = "gquery")
     @RequestMapping(path = "/gquery", method = RequestMethod.POST)
     public SearchResult<T>  qquery(@RequestBody QueryObject query) {
+        applyDefaultFetchPlan(query);
         return service.pesquisa(query);
     }
 
+    /**
+     * Agregação (projeções, group by e having) executada no banco de dados
+     * @param gQuery GQuery com as projeções, o filtro, o group by e o having
+     * @return Uma linha por grupo, mapa do nome de cada projeção para o seu valor
+     */
+    @GumgaSwagger
+    @Transactional(readOnly = true)
+    @ApiOperation(value = "aggregate", notes = "Agregação (count, sum, avg, min e max) com group by e having executada no banco de dados.")
+    @RequestMapping(path = "/aggregate", method = RequestMethod.POST)
+    public List<Map<String, Object>> aggregate(@RequestBody GQuery gQuery) {
+        return service.aggregate(gQuery);
+    }
+
 }
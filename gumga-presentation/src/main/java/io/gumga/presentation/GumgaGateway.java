@@ -4,6 +4,7 @@ import io.gumga.application.GumgaService;
 import io.gumga.core.GumgaIdable;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.GQuery;
 import io.gumga.core.utils.ReflectionUtils;
 import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.GumgaServiceable;
@@ -13,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Deprecated
 public abstract class GumgaGateway<A extends GumgaIdable<ID>, ID extends Serializable, DTO> implements GumgaServiceable<DTO, ID> {
@@ -26,7 +28,7 @@ public abstract class GumgaGateway<A extends GumgaIdable<ID>, ID extends Seriali
     @Override
     public SearchResult<DTO> pesquisa(QueryObject query) {
         SearchResult<A> pesquisa = delegate.pesquisa(query);
-        return new SearchResult<>(query, pesquisa.getCount(), translator.from((List<A>) pesquisa.getValues()));
+        return new SearchResult<>(query, pesquisa.getCount(), translator.from((List<A>) pesquisa.getValues()), pesquisa.getCursor());
     }
 
     @Override
@@ -50,6 +52,11 @@ public abstract class GumgaGateway<A extends GumgaIdable<ID>, ID extends Seriali
         return translator.from(delegate.save(translator.to(resource)));
     }
 
+    @Override
+    public List<Map<String, Object>> aggregate(GQuery gQuery) {
+        return delegate.aggregate(gQuery);
+    }
+
     @SuppressWarnings("unchecked")
     public Class<DTO> clazz() {
         return (Class<DTO>) ReflectionUtils.inferGenericType(getClass());
@@ -60,4 +67,9 @@ public abstract class GumgaGateway<A extends GumgaIdable<ID>, ID extends Seriali
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    public SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff) {
+        return new SearchResult<>(start, pageSize, 0, Collections.emptyList());
+    }
+
 }
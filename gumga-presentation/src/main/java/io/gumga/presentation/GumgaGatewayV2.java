@@ -4,6 +4,7 @@ import io.gumga.application.GumgaService;
 import io.gumga.core.GumgaIdable;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.GQuery;
 import io.gumga.core.utils.ReflectionUtils;
 import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.GumgaServiceable;
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Classe genérica para conversão de tipos de dados distintos
@@ -44,7 +46,7 @@ public class GumgaGatewayV2<A extends GumgaIdable<ID>, ID extends Serializable,
     @Override
     public SearchResult<DTO> pesquisa(QueryObject query) {
         SearchResult<A> pesquisa = this.delegate.pesquisa(query);
-        return new SearchResult<>(query, pesquisa.getCount(), this.translator.from((List<A>) pesquisa.getValues()));
+        return new SearchResult<>(query, pesquisa.getCount(), this.translator.from((List<A>) pesquisa.getValues()), pesquisa.getCursor());
     }
 
     /**
@@ -96,6 +98,16 @@ public class GumgaGatewayV2<A extends GumgaIdable<ID>, ID extends Serializable,
         return this.translator.from(this.delegate.save(this.translator.to(resource)));
     }
 
+    /**
+     * Agregação executada pelo service delegado, as linhas não passam pelo tradutor
+     * @param gQuery Filtro e agregação
+     * @return Uma linha por grupo, mapa do nome de cada projeção para o seu valor
+     */
+    @Override
+    public List<Map<String, Object>> aggregate(GQuery gQuery) {
+        return this.delegate.aggregate(gQuery);
+    }
+
     /**
      * Verifica qual a classe da instância DTO
      * @return Classe DTO
@@ -115,4 +127,17 @@ public class GumgaGatewayV2<A extends GumgaIdable<ID>, ID extends Serializable,
         return Collections.emptyList();
     }
 
+    /**
+     * Lista as versões antigas da instância, paginadas
+     * @param id Id do objeto a ser buscado
+     * @param start Posição da primeira revisão da página
+     * @param pageSize Quantidade de revisões da página
+     * @param diff Se true, apenas os atributos alterados em cada revisão
+     * @return Uma página vazia, como em {@link #listOldVersions(Serializable)}
+     */
+    @Override
+    public SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff) {
+        return new SearchResult<>(start, pageSize, 0, Collections.emptyList());
+    }
+
 }
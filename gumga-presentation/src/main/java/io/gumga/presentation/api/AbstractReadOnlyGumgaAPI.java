@@ -9,7 +9,6 @@ import io.gumga.core.GumgaThreadScope;
 import io.gumga.core.QueryObject;
 import io.gumga.core.QueryToSave;
 import io.gumga.core.SearchResult;
-import io.gumga.core.utils.ReflectionUtils;
 import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.GumgaServiceable;
 import io.gumga.domain.GumgaUserData;
@@ -24,7 +23,6 @@ import org.springframework.web.bind.annotation.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -52,7 +50,7 @@ public abstract class AbstractReadOnlyGumgaAPI<T, ID extends Serializable> exten
     }
 
     /**
-     * Faz uma pesquisa pela query informada através do objeto QueryObjet, cujos atributos são aq, q, start, pageSize, sortField, sortDir e searchFields. Além disso, possibilita filtar os atributos na saída através do parâmetro gumgaFields no header.
+     * Faz uma pesquisa pela query informada através do objeto QueryObjet, cujos atributos são aq, q, start, pageSize, sortField, sortDir, searchFields e cursor (paginação por chave). Além disso, possibilita filtar os atributos na saída através do parâmetro gumgaFields no header.
      * @param request Objeto HttpServletRequest contendo os parâmetros de HTTP
      * @param query Objeto QueryObject contendo os parâmetros da busca {@link QueryObject}
      * @return Resultado da busca em um objeto SearchResult {@link SearchResult}
@@ -62,22 +60,18 @@ public abstract class AbstractReadOnlyGumgaAPI<T, ID extends Serializable> exten
     @ApiOperation(value = "search", notes = "Faz uma pesquisa pela query informada através do objeto QueryObjet, os atributos são aq, q, start, pageSize, sortField, sortDir e searchFields. Além disso, possibilita filtar os atributos na saída através do parâmetro gumgaFields no header.")
     @RequestMapping(value = "lw", method = RequestMethod.GET)
     public SearchResult<T> pesquisa(HttpServletRequest request, QueryObject query) {
-        SearchResult<T> pesquisa = service.pesquisa(query);
         String gumgaFields = request.getHeader("gumgaFields");
         if (gumgaFields != null) {
-            String fields[] = gumgaFields.split(",");
-            List<Map<String, Object>> toReturn = new ArrayList<>();
-            for (Object obj : pesquisa.getValues()) {
-                Map<String, Object> row = ReflectionUtils.objectFieldsToMap(fields, obj);
-                toReturn.add(row);
-            }
-            return new SearchResult(query, pesquisa.getCount(), toReturn);
+            SearchResult<Map<String, Object>> projected = service.pesquisa(query, gumgaFields.split(","));
+            return new SearchResult(query, projected.getCount(), projected.getValues(), projected.getCursor());
         }
-        return new SearchResult<>(query, pesquisa.getCount(), pesquisa.getValues());
+        applyDefaultFetchPlan(query);
+        SearchResult<T> pesquisa = service.pesquisa(query);
+        return new SearchResult<>(query, pesquisa.getCount(), pesquisa.getValues(), pesquisa.getCursor());
     }
 
     /**
-     * Faz uma pesquisa pela query informada através do objeto QueryObjet, cujos atributos são aq, q, start, pageSize, sortField, sortDir e searchFields
+     * Faz uma pesquisa pela query informada através do objeto QueryObjet, cujos atributos são aq, q, start, pageSize, sortField, sortDir, searchFields e cursor (paginação por chave)
      * @param query Objeto QueryObject contendo os parâmetros da busca {@link QueryObject}
      * @return Resultado da busca em um objeto SearchResult {@link SearchResult}
      */
@@ -86,8 +80,45 @@ public abstract class AbstractReadOnlyGumgaAPI<T, ID extends Serializable> exten
     @ApiOperation(value = "search", notes = "Faz uma pesquisa pela query informada através do objeto QueryObjet, os atributos são aq, q, start, pageSize, sortField, sortDir e searchFields.")
     @RequestMapping(method = RequestMethod.GET)
     public SearchResult<T> pesquisa(QueryObject query) {
+        applyDefaultFetchPlan(query);
         SearchResult<T> pesquisa = service.pesquisa(query);
-        return new SearchResult<>(query, pesquisa.getCount(), pesquisa.getValues());
+        return new SearchResult<>(query, pesquisa.getCount(), pesquisa.getValues(), pesquisa.getCursor());
+    }
+
+    /**
+     * Associações carregadas junto com a página nas pesquisas desta API quando a requisição não informa fetch nem
+     * fetchGraph. Sobrescreva com as associações que a serialização da entidade percorre
+     * @return Associações, inclusive aninhadas (company.address), ou null para nenhuma
+     */
+    protected String[] defaultFetch() {
+        return null;
+    }
+
+    /**
+     * Entity graph padrão das pesquisas desta API, tem precedência sobre {@link #defaultFetch()}
+     * @return Nome de um {@link javax.persistence.NamedEntityGraph} da entidade, ou null para nenhum
+     */
+    protected String defaultFetchGraph() {
+        return null;
+    }
+
+    /**
+     * Aplica o plano de carga padrão da API na pesquisa que não informa o seu próprio plano
+     * @param query Pesquisa
+     */
+    protected void applyDefaultFetchPlan(QueryObject query) {
+        if (query.hasFetchPlan()) {
+            return;
+        }
+        String fetchGraph = defaultFetchGraph();
+        if (fetchGraph != null) {
+            query.setFetchGraph(fetchGraph);
+            return;
+        }
+        String[] fetch = defaultFetch();
+        if (fetch != null) {
+            query.setFetch(fetch);
+        }
     }
 
     /**
@@ -143,6 +174,23 @@ public abstract class AbstractReadOnlyGumgaAPI<T, ID extends Serializable> exten
         return service.listOldVersions(id);
     }
 
+    /**
+     * Carrega versões anteriores de um objeto pelo id informado, paginadas
+     * @param id id da entidade a ser buscada
+     * @param start posição da primeira revisão da página
+     * @param pageSize quantidade de revisões da página
+     * @param diff se true, retorna apenas os atributos alterados em relação à revisão anterior
+     * @return Revisões da página e a quantidade total de revisões
+     */
+    @Transactional(readOnly = true)
+    @ApiOperation(value = "listOldVersionsPage", notes = "Mostra versões anteriores do objeto paginadas, opcionalmente apenas os atributos alterados em cada revisão.")
+    @RequestMapping(value = "oldversions/{id}", method = RequestMethod.GET)
+    public SearchResult<GumgaObjectAndRevision> listOldVersions(@PathVariable ID id, @RequestParam(defaultValue = "0") int start,
+                                                                @RequestParam(defaultValue = "10") int pageSize,
+                                                                @RequestParam(defaultValue = "false") boolean diff) {
+        return service.listOldVersions(id, start, pageSize, diff);
+    }
+
     /**
      * Injeta uma entidade "Service" para acesso dos serviços do Framework
      * @param service Objeto GumgaServiceable T {@link GumgaServiceable}
@@ -0,0 +1,148 @@
+package io.gumga.presentation.api;
+
+import io.gumga.core.GumgaIdable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Escreve entidades no formato CSV do {@link CSVGeneratorAPI}.
+ * Os acessos aos atributos são resolvidos uma única vez por classe e reaproveitados em todas as linhas
+ *
+ * @author Equipe Gumga
+ */
+public final class CSVEntityWriter {
+
+    /**
+     * Formato das datas no CSV, seguro para uso concorrente
+     */
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter DATE_PARSE_FORMAT = DateTimeFormatter.ofPattern("d/M/uuuu H:m:s");
+
+    private static final Map<Class<?>, CSVEntityWriter> writers = new ConcurrentHashMap<>();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String title;
+    private final List<Column> columns = new ArrayList<>();
+
+    private CSVEntityWriter(Class<?> clazz) {
+        StringBuilder sb = new StringBuilder();
+        for (Field field : CSVGeneratorAPI.getAllAtributes(clazz)) {
+            sb.append(field.getName()).append(CSVGeneratorAPI.CSV_SEPARATOR);
+            Field idField = CSVGeneratorAPI.getIdField(field.getType());
+            columns.add(new Column(getter(field), idField == null ? null : getter(idField), field.getType().equals(Date.class)));
+        }
+        if (sb.length() > 0) {
+            sb.deleteCharAt(sb.length() - 1);
+        }
+        this.title = sb.append(CSVGeneratorAPI.CSV_LINE_DELIMITER).toString();
+    }
+
+    /**
+     * @param clazz Classe das entidades
+     * @return Writer da classe, criado na primeira chamada e reaproveitado nas seguintes
+     */
+    public static CSVEntityWriter of(Class<?> clazz) {
+        return writers.computeIfAbsent(clazz, CSVEntityWriter::new);
+    }
+
+    /**
+     * @return Linha de título com o nome dos atributos
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Escreve uma linha com os valores dos atributos da entidade
+     *
+     * @param writer Destino da linha
+     * @param entity Entidade
+     * @throws IOException erro ao escrever no destino
+     */
+    public void writeLine(Writer writer, Object entity) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(CSVGeneratorAPI.CSV_SEPARATOR);
+            }
+            try {
+                String value = columns.get(i).format(entity);
+                if (value != null) {
+                    writer.write(value);
+                }
+            } catch (IOException ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                CSVGeneratorAPI.log.error("erro ao criar linha csv", ex);
+            }
+        }
+        writer.write(CSVGeneratorAPI.CSV_LINE_DELIMITER);
+    }
+
+    /**
+     * Converte uma data no formato {@link #DATE_FORMAT}, aceitando dia, mês e horário com um dígito
+     *
+     * @param value Data
+     * @return Data convertida
+     * @throws ParseException data em formato inválido
+     */
+    public static Date parseDate(String value) throws ParseException {
+        try {
+            return Date.from(LocalDateTime.parse(value.trim(), DATE_PARSE_FORMAT).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException ex) {
+            throw new ParseException(ex.getMessage(), ex.getErrorIndex());
+        }
+    }
+
+    private static MethodHandle getter(Field field) {
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException ex) {
+            throw new CSVGeneratorException(ex);
+        }
+    }
+
+    private static class Column {
+
+        private final MethodHandle getter;
+        private final MethodHandle idGetter;
+        private final boolean date;
+
+        private Column(MethodHandle getter, MethodHandle idGetter, boolean date) {
+            this.getter = getter;
+            this.idGetter = idGetter;
+            this.date = date;
+        }
+
+        private String format(Object entity) throws Throwable {
+            Object value = getter.invokeExact(entity);
+            if (value == null) {
+                return null;
+            }
+            if (idGetter != null) {
+                Object id = value instanceof GumgaIdable ? ((GumgaIdable<?>) value).getId() : idGetter.invokeExact(value);
+                return id.toString();
+            }
+            if (date) {
+                return DATE_FORMAT.format(Instant.ofEpochMilli(((Date) value).getTime()));
+            }
+            return value.toString();
+        }
+    }
+}
@@ -9,7 +9,6 @@ import com.wordnik.swagger.annotations.ApiOperation;
 import io.gumga.application.GumgaService;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
-import io.gumga.domain.GumgaModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,19 +18,19 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.persistence.Id;
-import javax.persistence.Version;
 import javax.servlet.http.HttpServletResponse;
-import javax.transaction.Transactional;
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.lang.reflect.Constructor;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
-import java.text.ParseException;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Classe para a manipulação de documentos CSV e manipulação de campos de objetos
@@ -39,123 +38,79 @@ import java.util.*;
  */
 public interface CSVGeneratorAPI {
 
+    /**
+     * @deprecated SimpleDateFormat não é seguro para uso concorrente, utilize {@link CSVEntityWriter#DATE_FORMAT}
+     */
+    @Deprecated
     final SimpleDateFormat SDF = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
     final String CSV_SEPARATOR = ";";
     final String CSV_LINE_DELIMITER = "\r\n";
+    final int CSV_BATCH_SIZE = 500;
+    final int CSV_BUFFER_SIZE = 64 * 1024;
     final Logger log = LoggerFactory.getLogger(CSVGeneratorAPI.class);
 
     GumgaService getGumgaService();
 
     /**
-     * Gera o resultado da pesquisa em um arquivo CSV a partir de um objeto HttpServletResponse
+     * Gera o resultado da pesquisa em um arquivo CSV a partir de um objeto HttpServletResponse.
+     * Os registros são percorridos com um cursor e escritos diretamente na resposta, sem montar o arquivo em memória
      * @param response Objeto HttpServletResponse contendo uma resposta de requisição {@link HttpServletResponse}
+     * @param gzip true para enviar o arquivo compactado (csv.gz)
      * @throws IOException
      */
-    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     @ApiOperation(value = "csv", notes = "Gera resultado da pesquisa em um arquivo CSV.")
     @RequestMapping(value = "/csv", method = RequestMethod.GET)
     @ResponseBody
-    default void geraCSV(HttpServletResponse response) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        QueryObject qo = new QueryObject();
-        SearchResult pesquisa = getGumgaService().pesquisa(qo);
-        if (pesquisa.getValues().isEmpty()) {
-            response.getWriter().write("NO DATA");
-            return;
+    default void geraCSV(HttpServletResponse response, @RequestParam(value = "gzip", required = false) Boolean gzip) throws IOException {
+        boolean compress = Boolean.TRUE.equals(gzip);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (compress) {
+            response.setContentType("application/gzip");
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + getGumgaService().clazz().getSimpleName() + ".csv.gz\"");
+        } else {
+            response.setContentType("text/csv");
+        }
+        OutputStream out = compress ? new GZIPOutputStream(response.getOutputStream(), CSV_BUFFER_SIZE) : response.getOutputStream();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+        boolean[] empty = {true};
+        try {
+            getGumgaService().forEach(new QueryObject(), CSV_BATCH_SIZE, obj -> {
+                CSVEntityWriter csv = CSVEntityWriter.of(obj.getClass());
+                try {
+                    if (empty[0]) {
+                        writer.write(csv.getTitle());
+                        empty[0] = false;
+                    }
+                    csv.writeLine(writer, obj);
+                } catch (IOException ex) {
+                    throw new CSVGeneratorException(ex);
+                }
+            });
+        } catch (CSVGeneratorException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw ex;
         }
-        sb.append(classToCsvTitle(pesquisa.getValues().get(0).getClass()));
-        for (Object obj : pesquisa.getValues()) {
-            sb.append(objectToCsvLine(obj));
+        if (empty[0]) {
+            writer.write("NO DATA");
         }
-        response.getWriter().write(sb.toString());
+        writer.close();
     }
 
     /**
-     * Faz importação de dados a partir de um arquivo CSV
+     * Faz importação de dados a partir de um arquivo CSV.
+     * O arquivo é processado em blocos de {@link #CSV_BATCH_SIZE} linhas e cada bloco é salvo em uma transação própria,
+     * ver {@link CSVImporter}
      * @param csv Objeto MultipartFile contendo um arquivo CSV
      * @return um objeto SearchResult contendo os dados obtidos {@link SearchResult}
      * @throws IOException
      */
-    @Transactional
     @ApiOperation(value = "csvupload", notes = "Faz importação via csv.")
     @RequestMapping(method = RequestMethod.POST, value = "/csvupload")
     default SearchResult<String> csvUpload(@RequestParam MultipartFile csv) throws IOException {
-        int numeroLinha = 0;
-        Class clazz = getGumgaService().clazz();
-        InputStreamReader isr = new InputStreamReader(csv.getInputStream());
-        BufferedReader bf = new BufferedReader(isr);
-        String linha;
-        String[] atributos = bf.readLine().split(CSV_SEPARATOR);
-        numeroLinha++;
-        Field idField = getIdField(clazz);
-        Map<String, String> atributoValor = new HashMap<>();
-        Map<String, Field> atributoField = new HashMap<>();
-        for (String atributo : atributos) {
-            atributoValor.put(atributo, null);
-        }
-        for (Field f : getAllAtributes(clazz)) {
-            f.setAccessible(true);
-            atributoField.put(f.getName(), f);
-        }
-        List<String> problemas = new ArrayList<>();
-        while ((linha = bf.readLine()) != null) {
-            numeroLinha++;
-            String coluna = "";
-            if (linha.trim().isEmpty()) {
-                continue;
-            }
-            try {
-                String[] valores = linha.split(CSV_SEPARATOR);
-                for (int i = 0; i < valores.length; i++) {
-                    atributoValor.put(atributos[i], valores[i]);
-                }
-                Object entidade;
-                String stringChave = atributoValor.get(idField.getName());
-                if (stringChave != null && !stringChave.trim().isEmpty()) {
-                    entidade = getGumgaService().view(new Long(stringChave));
-                } else {
-                    entidade = clazz.newInstance();
-                }
-                for (int i = 0; i < atributos.length; i++) {
-                    coluna = atributos[i];
-                    Field atributo = atributoField.get(coluna);
-                    if (coluna.equals(idField.getName())) {
-                        continue;
-                    }
-                    if (coluna.equals("oi")) {
-                        continue;
-                    }
-                    if (atributo.isAnnotationPresent(Version.class)) {
-                        continue;
-                    }
-                    Class type = atributo.getType();
-                    String valorString = atributoValor.get(atributos[i]);
-                    if (valorString == null || valorString.trim().isEmpty()) {
-                        continue;
-                    }
-                    if (GumgaModel.class.isAssignableFrom(type)) {
-                        GumgaModel gm = (GumgaModel) atributo.get(entidade);
-                        if (gm == null || !gm.getId().toString().equals(valorString)) {
-                            Long valorLong = new Long(valorString);
-                            Object entidadeAssociada = getGumgaService().genercView(type, valorLong);
-                            atributo.set(entidade, entidadeAssociada);
-                        }
-
-                    } else if (type.equals(Date.class)) {
-                        Date valorDate = SDF.parse(valorString);
-                        atributo.set(entidade, valorDate);
-                    } else {
-                        Constructor constructorString = type.getConstructor(String.class);
-                        Object valorAtributo = constructorString.newInstance(valorString);
-                        atributo.set(entidade, valorAtributo);
-                    }
-                }
-                coluna = "ao salvar registro completo";
-                getGumgaService().save(entidade);
-            } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | ParseException | NoSuchMethodException | SecurityException | InvocationTargetException ex) {
-                problemas.add("Linha:" + numeroLinha + " Coluna:" + coluna + " Problema:" + ex);
-            }
-        }
+        List<String> problemas = new CSVImporter(getGumgaService(), true, CSV_BATCH_SIZE).importa(csv.getInputStream());
         return new SearchResult<>(0, problemas.size(), problemas.size(), problemas);
     }
 
@@ -168,81 +123,7 @@ public interface CSVGeneratorAPI {
     @ApiOperation(value = "csvuploadvalidate", notes = "Faz validação da importação via csv.")
     @RequestMapping(method = RequestMethod.POST, value = "/csvuploadvalidate")
     default SearchResult<String> csvUploadValidate(@RequestParam MultipartFile csv) throws IOException {
-        int numeroLinha = 0;
-        Class clazz = getGumgaService().clazz();
-        InputStreamReader isr = new InputStreamReader(csv.getInputStream());
-        BufferedReader bf = new BufferedReader(isr);
-        String linha;
-        String[] atributos = bf.readLine().split(CSV_SEPARATOR);
-        numeroLinha++;
-        Field idField = getIdField(clazz);
-        Map<String, String> atributoValor = new HashMap<>();
-        Map<String, Field> atributoField = new HashMap<>();
-        for (String atributo : atributos) {
-            atributoValor.put(atributo, null);
-        }
-        for (Field f : getAllAtributes(clazz)) {
-            f.setAccessible(true);
-            atributoField.put(f.getName(), f);
-        }
-        List<String> problemas = new ArrayList<>();
-        while ((linha = bf.readLine()) != null) {
-            numeroLinha++;
-            String coluna = "";
-            if (linha.trim().isEmpty()) {
-                continue;
-            }
-            try {
-                String[] valores = linha.split(CSV_SEPARATOR);
-                for (int i = 0; i < valores.length; i++) {
-                    atributoValor.put(atributos[i], valores[i]);
-                }
-                Object entidade;
-                String stringChave = atributoValor.get(idField.getName());
-                if (stringChave != null && !stringChave.trim().isEmpty()) {
-                    entidade = getGumgaService().view(new Long(stringChave));
-                } else {
-                    entidade = clazz.newInstance();
-                }
-                for (int i = 0; i < atributos.length; i++) {
-                    coluna = atributos[i];
-                    Field atributo = atributoField.get(coluna);
-                    if (coluna.equals(idField.getName())) {
-                        continue;
-                    }
-                    if (coluna.equals("oi")) {
-                        continue;
-                    }
-                    if (atributo.isAnnotationPresent(Version.class)) {
-                        continue;
-                    }
-                    Class type = atributo.getType();
-                    String valorString = atributoValor.get(atributos[i]);
-                    if (valorString == null || valorString.trim().isEmpty()) {
-                        continue;
-                    }
-                    if (GumgaModel.class.isAssignableFrom(type)) {
-                        GumgaModel gm = (GumgaModel) atributo.get(entidade);
-                        if (gm == null || !gm.getId().toString().equals(valorString)) {
-                            Long valorLong = new Long(valorString);
-                            Object entidadeAssociada = getGumgaService().genercView(type, valorLong);
-                            atributo.set(entidade, entidadeAssociada);
-                        }
-
-                    } else if (type.equals(Date.class)) {
-                        Date valorDate = SDF.parse(valorString);
-                        atributo.set(entidade, valorDate);
-                    } else {
-                        Constructor constructorString = type.getConstructor(String.class);
-                        Object valorAtributo = constructorString.newInstance(valorString);
-                        atributo.set(entidade, valorAtributo);
-                    }
-                }
-                coluna = "ao salvar registro completo";
-            } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | ParseException | NoSuchMethodException | SecurityException | InvocationTargetException ex) {
-                problemas.add("Linha:" + numeroLinha + " Coluna:" + coluna + " Problema:" + ex);
-            }
-        }
+        List<String> problemas = new CSVImporter(getGumgaService(), false, CSV_BATCH_SIZE).importa(csv.getInputStream());
         return new SearchResult<>(0, problemas.size(), problemas.size(), problemas);
     }
 
@@ -252,14 +133,7 @@ public interface CSVGeneratorAPI {
      * @return String contendo todos os atributos do Objeto
      */
     public static String classToCsvTitle(Class clazz) {
-        StringBuilder sb = new StringBuilder();
-        for (Field f : getAllAtributes(clazz)) {
-            sb.append(f.getName());
-            sb.append(CSV_SEPARATOR);
-        }
-        sb.deleteCharAt(sb.length() - 1);
-        sb.append(CSV_LINE_DELIMITER);
-        return sb.toString();
+        return CSVEntityWriter.of(clazz).getTitle();
     }
 
     /**
@@ -268,30 +142,13 @@ public interface CSVGeneratorAPI {
      * @return Objeto StringBuilder contendo os dados do objeto recebido
      */
     public static StringBuilder objectToCsvLine(Object gm) {
-        StringBuilder sb = new StringBuilder();
-        for (Field f : getAllAtributes(gm.getClass())) {
-            try {
-                f.setAccessible(true);
-                if (f.get(gm) != null) {
-                    Field idField = getIdField(f.getType());
-                    if (idField != null) {
-                        idField.setAccessible(true);
-                        Object idValue = idField.get(f.get(gm));
-                        sb.append(idValue.toString());
-                    } else if (f.getType().equals(Date.class)) {
-                        sb.append(SDF.format(f.get(gm)));
-                    } else {
-                        sb.append(f.get(gm).toString());
-                    }
-                }
-            } catch (Exception ex) {
-                log.error("erro ao criar linha csv", ex);
-            }
-            sb.append(CSV_SEPARATOR);
+        StringWriter writer = new StringWriter();
+        try {
+            CSVEntityWriter.of(gm.getClass()).writeLine(writer, gm);
+        } catch (IOException ex) {
+            throw new CSVGeneratorException(ex);
         }
-        sb.deleteCharAt(sb.length() - 1);
-        sb.append(CSV_LINE_DELIMITER);
-        return sb;
+        return new StringBuilder(writer.getBuffer());
     }
 
     /**
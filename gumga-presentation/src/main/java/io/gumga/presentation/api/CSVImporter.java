@@ -0,0 +1,370 @@
+package io.gumga.presentation.api;
+
+import io.gumga.application.GumgaService;
+import io.gumga.core.GumgaIdable;
+import io.gumga.core.utils.GumgaLocalCache;
+import io.gumga.domain.GumgaModel;
+
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.Version;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Importação dos arquivos CSV do {@link CSVGeneratorAPI} em lotes.
+ * As linhas são lidas sob demanda e processadas em blocos: as entidades existentes e as entidades referenciadas são
+ * buscadas com consultas IN (as referências ficam em cache durante a importação), as entidades são validadas e cada
+ * bloco é salvo em uma transação própria com {@link GumgaService#saveAll(List)}. Quando o bloco não pode ser salvo, suas
+ * linhas são salvas uma a uma para que os problemas indiquem as linhas que falharam. Os blocos são processados em
+ * sequência, na thread que chamou a importação
+ *
+ * @author Equipe Gumga
+ */
+public class CSVImporter {
+
+    private static final Pattern SEPARATOR = Pattern.compile(Pattern.quote(CSVGeneratorAPI.CSV_SEPARATOR));
+    private static final int REFERENCE_CACHE_SIZE = 10000;
+
+    private final GumgaService service;
+    private final Class<?> clazz;
+    private final boolean save;
+    private final int batchSize;
+    private final List<String> problemas = new ArrayList<>();
+    private final GumgaLocalCache<String, Object> references = new GumgaLocalCache<>(10, TimeUnit.MINUTES, REFERENCE_CACHE_SIZE);
+    private Column[] columns;
+    private int idColumn = -1;
+
+    /**
+     * @param service Service da entidade importada
+     * @param save false para apenas validar o arquivo
+     * @param batchSize Quantidade de linhas de cada bloco
+     */
+    public CSVImporter(GumgaService service, boolean save, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than zero");
+        }
+        this.service = service;
+        this.clazz = service.clazz();
+        this.save = save;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importa o arquivo, cuja primeira linha contém o nome dos atributos
+     *
+     * @param csv Conteúdo do arquivo em UTF-8
+     * @return Problemas encontrados, um por linha ou por bloco que não pôde ser salvo
+     * @throws IOException erro na leitura do arquivo
+     */
+    public List<String> importa(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String linha = reader.readLine();
+        if (linha == null) {
+            return problemas;
+        }
+        readHeader(linha);
+        int numeroLinha = 1;
+        List<Row> bloco = new ArrayList<>(batchSize);
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            if (linha.trim().isEmpty()) {
+                continue;
+            }
+            bloco.add(new Row(numeroLinha, SEPARATOR.split(linha, -1)));
+            if (bloco.size() == batchSize) {
+                process(bloco);
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            process(bloco);
+        }
+        return problemas;
+    }
+
+    private void readHeader(String linha) {
+        Map<String, Field> atributoField = new HashMap<>();
+        for (Field f : CSVGeneratorAPI.getAllAtributes(clazz)) {
+            f.setAccessible(true);
+            atributoField.put(f.getName(), f);
+        }
+        Field idField = CSVGeneratorAPI.getIdField(clazz);
+        String[] atributos = SEPARATOR.split(linha, -1);
+        columns = new Column[atributos.length];
+        for (int i = 0; i < atributos.length; i++) {
+            String coluna = atributos[i].trim();
+            Field atributo = atributoField.get(coluna);
+            if (atributo == null) {
+                problemas.add("Linha:1 Coluna:" + coluna + " Problema:atributo inexistente em " + clazz.getSimpleName());
+            }
+            if (idField != null && coluna.equals(idField.getName())) {
+                idColumn = i;
+            }
+            boolean ignored = atributo == null || i == idColumn || coluna.equals("oi") || atributo.isAnnotationPresent(Version.class);
+            columns[i] = new Column(coluna, ignored ? null : atributo);
+        }
+    }
+
+    private void process(List<Row> bloco) {
+        Map<String, Object> existentes = loadExisting(bloco);
+        resolveReferences(bloco);
+        List<Row> validas = new ArrayList<>(bloco.size());
+        List<Object> entidades = new ArrayList<>(bloco.size());
+        for (Row row : bloco) {
+            Object entidade = toEntity(row, existentes);
+            if (entidade != null && isValid(row, entidade)) {
+                validas.add(row);
+                entidades.add(entidade);
+            }
+        }
+        if (!save || entidades.isEmpty()) {
+            return;
+        }
+        try {
+            service.saveAll(entidades);
+        } catch (RuntimeException ex) {
+            saveRowByRow(validas);
+        }
+    }
+
+    /**
+     * Salva cada linha em uma transação própria após a falha do bloco. As entidades são montadas novamente, pois a
+     * transação desfeita pode ter deixado ids e versões nas instâncias do bloco
+     */
+    private void saveRowByRow(List<Row> linhas) {
+        Map<String, Object> existentes = loadExisting(linhas);
+        for (Row row : linhas) {
+            Object entidade = toEntity(row, existentes);
+            if (entidade == null) {
+                continue;
+            }
+            try {
+                service.save((GumgaIdable<?>) entidade);
+            } catch (RuntimeException ex) {
+                problemas.add("Linha:" + row.numero + " Coluna:ao salvar Problema:" + ex);
+            }
+        }
+    }
+
+    /**
+     * Busca com uma consulta as entidades do bloco que possuem id
+     */
+    private Map<String, Object> loadExisting(List<Row> bloco) {
+        if (idColumn < 0) {
+            return Collections.emptyMap();
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (Row row : bloco) {
+            String chave = row.key(idColumn);
+            if (chave != null) {
+                ids.add(chave);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return byRequestedId(service.genericViewAll(clazz, ids), ids);
+    }
+
+    /**
+     * Busca com uma consulta por classe as entidades referenciadas no bloco que ainda não estão em cache
+     */
+    private void resolveReferences(List<Row> bloco) {
+        Map<Class<?>, Set<String>> pendentes = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].isReference()) {
+                continue;
+            }
+            Class<?> type = columns[i].field.getType();
+            for (Row row : bloco) {
+                String valor = row.key(i);
+                if (valor != null && references.getIfPresent(referenceKey(type, valor)) == null) {
+                    pendentes.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(valor);
+                }
+            }
+        }
+        pendentes.forEach((type, ids) -> byRequestedId(service.genericViewAll(type, ids), ids)
+                .forEach((id, entidade) -> references.put(referenceKey(type, id), entidade)));
+    }
+
+    /**
+     * Associa as entidades encontradas aos ids como foram escritos no arquivo, convertendo-os para o tipo do id das
+     * entidades para que valores como "05" encontrem a entidade de id 5
+     *
+     * @return Entidades pelo id informado no arquivo
+     */
+    private static Map<String, Object> byRequestedId(List<Object> entidades, Collection<String> ids) {
+        if (entidades.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Object, Object> porId = new HashMap<>();
+        for (Object entidade : entidades) {
+            porId.put(((GumgaIdable<?>) entidade).getId(), entidade);
+        }
+        Class<?> idType = ((GumgaIdable<?>) entidades.get(0)).getId().getClass();
+        Map<String, Object> encontradas = new HashMap<>();
+        for (String id : ids) {
+            Object entidade = porId.get(toIdType(id, idType));
+            if (entidade != null) {
+                encontradas.put(id, entidade);
+            }
+        }
+        return encontradas;
+    }
+
+    private static Object toIdType(String id, Class<?> idType) {
+        if (idType.isInstance(id)) {
+            return id;
+        }
+        try {
+            return idType.getConstructor(String.class).newInstance(id);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return id;
+        }
+    }
+
+    private Object toEntity(Row row, Map<String, Object> existentes) {
+        String coluna = "";
+        try {
+            Object entidade;
+            String chave = idColumn < 0 ? null : row.key(idColumn);
+            if (chave != null) {
+                entidade = existentes.get(chave);
+                if (entidade == null) {
+                    throw new EntityNotFoundException("cannot find " + clazz.getName() + " with id: " + chave);
+                }
+            } else {
+                entidade = clazz.newInstance();
+            }
+            for (int i = 0; i < columns.length; i++) {
+                Column column = columns[i];
+                coluna = column.name;
+                String valor = column.isReference() ? row.key(i) : row.value(i);
+                if (column.field == null || valor == null) {
+                    continue;
+                }
+                column.field.set(entidade, column.convert(valor));
+            }
+            return entidade;
+        } catch (ReflectiveOperationException | IllegalArgumentException | SecurityException | ParseException
+                | EntityNotFoundException ex) {
+            problemas.add("Linha:" + row.numero + " Coluna:" + coluna + " Problema:" + ex);
+            return null;
+        }
+    }
+
+    private boolean isValid(Row row, Object entidade) {
+        Validator validator = ValidatorHolder.VALIDATOR;
+        if (validator == null) {
+            return true;
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(entidade);
+        for (ConstraintViolation<Object> violation : violations) {
+            problemas.add("Linha:" + row.numero + " Coluna:" + violation.getPropertyPath() + " Problema:" + violation.getMessage());
+        }
+        return violations.isEmpty();
+    }
+
+    private static String referenceKey(Class<?> type, String id) {
+        return type.getName() + "|" + id;
+    }
+
+    private class Column {
+
+        private final String name;
+        private final Field field;
+        private final Constructor<?> constructor;
+
+        private Column(String name, Field field) {
+            this.name = name;
+            this.field = field;
+            this.constructor = field == null ? null : stringConstructor(field.getType());
+        }
+
+        private boolean isReference() {
+            return field != null && GumgaModel.class.isAssignableFrom(field.getType());
+        }
+
+        private Object convert(String valor) throws ParseException, ReflectiveOperationException {
+            Class<?> type = field.getType();
+            if (isReference()) {
+                Object referencia = references.getIfPresent(referenceKey(type, valor));
+                if (referencia == null) {
+                    throw new EntityNotFoundException("cannot find " + type.getName() + " with id: " + valor);
+                }
+                return referencia;
+            }
+            if (type.equals(Date.class)) {
+                return CSVEntityWriter.parseDate(valor);
+            }
+            if (constructor == null) {
+                throw new NoSuchMethodException(type.getName() + ".<init>(java.lang.String)");
+            }
+            return constructor.newInstance(valor);
+        }
+
+        private Constructor<?> stringConstructor(Class<?> type) {
+            try {
+                return type.getConstructor(String.class);
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static class Row {
+
+        private final int numero;
+        private final String[] valores;
+
+        private Row(int numero, String[] valores) {
+            this.numero = numero;
+            this.valores = valores;
+        }
+
+        /**
+         * @return Valor da coluna ou null quando vazio
+         */
+        private String value(int index) {
+            if (index >= valores.length || valores[index].trim().isEmpty()) {
+                return null;
+            }
+            return valores[index];
+        }
+
+        /**
+         * @return Valor da coluna sem espaços nas extremidades, utilizado para ids, ou null quando vazio
+         */
+        private String key(int index) {
+            String valor = value(index);
+            return valor == null ? null : valor.trim();
+        }
+    }
+
+    private static class ValidatorHolder {
+
+        private static final Validator VALIDATOR = create();
+
+        private static Validator create() {
+            try {
+                return Validation.buildDefaultValidatorFactory().getValidator();
+            } catch (ValidationException ex) {
+                CSVGeneratorAPI.log.warn("Bean Validation indisponível, a importação via csv não validará as entidades", ex);
+                return null;
+            }
+        }
+    }
+}
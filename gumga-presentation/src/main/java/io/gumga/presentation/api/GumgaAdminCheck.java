@@ -0,0 +1,27 @@
+package io.gumga.presentation.api;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.GumgaValues;
+import io.gumga.core.exception.ForbiddenException;
+
+/**
+ * Verificação das operações administrativas das APIs do framework, permitidas apenas aos logins de
+ * {@link GumgaValues#getAdminLogins()}
+ */
+final class GumgaAdminCheck {
+
+    private GumgaAdminCheck() {
+    }
+
+    /**
+     * @param gumgaValues Configuração da aplicação, null quando não foi registrada
+     * @param operation Operação recusada, utilizada na mensagem de erro
+     * @throws ForbiddenException se o usuário atual não é administrador
+     */
+    static void check(GumgaValues gumgaValues, String operation) {
+        String login = GumgaThreadScope.login.get();
+        if (gumgaValues == null || login == null || !gumgaValues.getAdminLogins().contains(login)) {
+            throw new ForbiddenException("O usuário " + login + " não pode " + operation);
+        }
+    }
+}
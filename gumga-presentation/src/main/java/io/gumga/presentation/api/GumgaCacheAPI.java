@@ -0,0 +1,76 @@
+package io.gumga.presentation.api;
+
+import com.wordnik.swagger.annotations.ApiOperation;
+import io.gumga.application.GumgaCacheMetrics;
+import io.gumga.application.GumgaSearchCache;
+import io.gumga.application.GumgaSecondLevelCache;
+import io.gumga.core.GumgaValues;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API com as estatísticas do cache de segundo nível ({@link GumgaSecondLevelCache}) e do cache de resultados das
+ * pesquisas ({@link GumgaSearchCache}), além dos demais caches registrados como {@link GumgaCacheMetrics}.
+ * As estatísticas e a limpeza dos caches são permitidas apenas aos logins de {@link GumgaValues#getAdminLogins()}
+ */
+@RestController
+@RequestMapping("/api/gumgacache")
+public class GumgaCacheAPI {
+
+    @Autowired
+    private GumgaSecondLevelCache secondLevelCache;
+
+    @Autowired(required = false)
+    private List<GumgaCacheMetrics> caches = Collections.emptyList();
+
+    @Autowired(required = false)
+    private GumgaValues gumgaValues;
+
+    public GumgaCacheAPI() {
+    }
+
+    GumgaCacheAPI(GumgaSecondLevelCache secondLevelCache, GumgaValues gumgaValues) {
+        this.secondLevelCache = secondLevelCache;
+        this.gumgaValues = gumgaValues;
+    }
+
+    @ApiOperation(value = "metrics", notes = "Estatísticas de cada região do cache de segundo nível, do cache de resultados de cada entidade e dos demais caches.")
+    @RequestMapping(method = RequestMethod.GET)
+    public Map<String, Object> metrics() {
+        checkAdmin();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("secondLevel", secondLevelCache.getMetrics());
+        metrics.put("searchResults", GumgaSearchCache.getMetrics());
+        for (GumgaCacheMetrics cache : caches) {
+            metrics.put(cache.getName(), cache.getMetrics());
+        }
+        return metrics;
+    }
+
+    @ApiOperation(value = "evictAll", notes = "Limpa o cache de segundo nível e o cache de resultados das pesquisas.")
+    @RequestMapping(method = RequestMethod.DELETE)
+    public void evictAll() {
+        checkAdmin();
+        secondLevelCache.evictAll();
+        GumgaSearchCache.invalidateAll();
+    }
+
+    @ApiOperation(value = "evict", notes = "Remove do cache de segundo nível as instâncias de uma entidade alterada diretamente no banco.")
+    @RequestMapping(value = "{entity}", method = RequestMethod.DELETE)
+    public void evict(@PathVariable String entity) {
+        checkAdmin();
+        secondLevelCache.evict(secondLevelCache.getCachedType(entity));
+    }
+
+    private void checkAdmin() {
+        GumgaAdminCheck.check(gumgaValues, "administrar os caches");
+    }
+}
@@ -0,0 +1,86 @@
+package io.gumga.presentation.api;
+
+import com.wordnik.swagger.annotations.ApiOperation;
+import io.gumga.application.GumgaIndexJob;
+import io.gumga.application.GumgaIndexManager;
+import io.gumga.core.GumgaValues;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * API para reindexação e verificação dos índices do Hibernate Search {@link GumgaIndexManager}. A lista de
+ * reindexações e as operações que alteram os índices são permitidas apenas aos logins de
+ * {@link GumgaValues#getAdminLogins()}
+ */
+@RestController
+@RequestMapping("/api/gumgaindex")
+public class GumgaIndexAPI {
+
+    @Autowired
+    private GumgaIndexManager indexManager;
+
+    @Autowired(required = false)
+    private GumgaValues gumgaValues;
+
+    @ApiOperation(value = "jobs", notes = "Lista as reindexações com o progresso e a vazão de cada uma.")
+    @RequestMapping(value = "jobs", method = RequestMethod.GET)
+    public Collection<GumgaIndexJob> jobs() {
+        checkAdmin();
+        return indexManager.getJobs();
+    }
+
+    @ApiOperation(value = "job", notes = "Retorna o progresso de uma reindexação.")
+    @RequestMapping(value = "jobs/{id}", method = RequestMethod.GET)
+    public ResponseEntity<GumgaIndexJob> job(@PathVariable Long id) {
+        GumgaIndexJob job = indexManager.getJob(id);
+        return job == null ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
+    @ApiOperation(value = "cancel", notes = "Cancela uma reindexação em execução.")
+    @RequestMapping(value = "jobs/{id}", method = RequestMethod.DELETE)
+    public boolean cancel(@PathVariable Long id) {
+        checkAdmin();
+        return indexManager.cancel(id);
+    }
+
+    @ApiOperation(value = "reindexAll", notes = "Recria os índices de todas as entidades indexadas em segundo plano.")
+    @RequestMapping(value = "reindex", method = RequestMethod.POST)
+    public GumgaIndexJob reindexAll() {
+        checkAdmin();
+        return indexManager.reindex();
+    }
+
+    @ApiOperation(value = "reindex", notes = "Recria o índice de uma entidade em segundo plano. Com o parâmetro oi reindexa apenas as entidades da organização, sem apagar o índice.")
+    @RequestMapping(value = "reindex/{entity}", method = RequestMethod.POST)
+    public GumgaIndexJob reindex(@PathVariable String entity, @RequestParam(required = false) String oi) {
+        checkAdmin();
+        Class<?> type = indexManager.getIndexedType(entity);
+        return oi == null ? indexManager.reindex(type) : indexManager.reindex(type, oi);
+    }
+
+    @ApiOperation(value = "shares", notes = "Recria em segundo plano a tabela de compartilhamentos de uma entidade anotada com @GumgaSharedIndex que já possui registros.")
+    @RequestMapping(value = "shares/{entity}", method = RequestMethod.POST)
+    public GumgaIndexJob rebuildShares(@PathVariable String entity) {
+        checkAdmin();
+        return indexManager.rebuildShares(indexManager.getSharedIndexType(entity));
+    }
+
+    @ApiOperation(value = "check", notes = "Compara a tabela da entidade com o índice por amostragem.")
+    @RequestMapping(value = "check/{entity}", method = RequestMethod.GET)
+    public Map<String, Object> check(@PathVariable String entity, @RequestParam(defaultValue = "100") int sample) {
+        return indexManager.check(indexManager.getIndexedType(entity), sample);
+    }
+
+    private void checkAdmin() {
+        GumgaAdminCheck.check(gumgaValues, "administrar os índices");
+    }
+}
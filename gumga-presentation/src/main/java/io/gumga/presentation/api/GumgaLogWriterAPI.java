@@ -0,0 +1,33 @@
+package io.gumga.presentation.api;
+
+import com.wordnik.swagger.annotations.ApiOperation;
+import io.gumga.application.GumgaLogWriter;
+import io.gumga.core.GumgaValues;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * API com as métricas da gravação assíncrona dos logs de acesso ({@link GumgaLogWriter}), permitida apenas aos logins
+ * de {@link GumgaValues#getAdminLogins()}
+ */
+@RestController
+@RequestMapping("/api/gumgalogwriter")
+public class GumgaLogWriterAPI {
+
+    @Autowired
+    private GumgaLogWriter gumgaLogWriter;
+
+    @Autowired(required = false)
+    private GumgaValues gumgaValues;
+
+    @ApiOperation(value = "metrics", notes = "Tamanho da fila e quantidade de logs enfileirados, descartados, gravados pela thread da requisição, gravados e com falha.")
+    @RequestMapping(method = RequestMethod.GET)
+    public Map<String, Number> metrics() {
+        GumgaAdminCheck.check(gumgaValues, "consultar a gravação dos logs");
+        return gumgaLogWriter.getMetrics();
+    }
+}
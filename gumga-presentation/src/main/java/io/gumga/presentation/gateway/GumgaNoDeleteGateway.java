@@ -4,7 +4,9 @@ import io.gumga.application.service.GumgaNoDeleteService;
 import io.gumga.core.GumgaIdable;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.GQuery;
 import io.gumga.core.utils.ReflectionUtils;
+import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.service.GumgaReadableServiceable;
 import io.gumga.domain.service.GumgaWritableServiceable;
 import io.gumga.presentation.GumgaTranslator;
@@ -12,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 public abstract class GumgaNoDeleteGateway<A extends GumgaIdable<ID>, DTO, ID extends Serializable> implements GumgaReadableServiceable<DTO, ID>, GumgaWritableServiceable<DTO, ID> {
 
@@ -24,7 +27,7 @@ public abstract class GumgaNoDeleteGateway<A extends GumgaIdable<ID>, DTO, ID ex
 	@Override
 	public SearchResult<DTO> pesquisa(QueryObject query) {
 		SearchResult<A> pesquisa = delegate.pesquisa(query);
-		return new SearchResult<>(query, pesquisa.getCount(), translator.from((List<A>) pesquisa.getValues()));
+		return new SearchResult<>(query, pesquisa.getCount(), translator.from((List<A>) pesquisa.getValues()), pesquisa.getCursor());
 	}
 
 	@Override
@@ -37,6 +40,22 @@ public abstract class GumgaNoDeleteGateway<A extends GumgaIdable<ID>, DTO, ID ex
 		return translator.from(delegate.save(translator.to(resource)));
 	}
 	
+	@Override
+	public List<Map<String, Object>> aggregate(GQuery gQuery) {
+		return delegate.aggregate(gQuery);
+	}
+
+	@Override
+	public SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff) {
+		SearchResult<GumgaObjectAndRevision> revisions = delegate.listOldVersions(id, start, pageSize, diff);
+		for (GumgaObjectAndRevision revision : revisions.getValues()) {
+			if (revision.getObject() != null) {
+				revision.setObject(translator.from((A) revision.getObject()));
+			}
+		}
+		return revisions;
+	}
+
 	@SuppressWarnings("unchecked")
 	public Class<DTO> clazz() {
 		return (Class<DTO>) ReflectionUtils.inferGenericType(getClass());
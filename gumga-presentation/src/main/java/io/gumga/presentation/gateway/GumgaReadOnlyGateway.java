@@ -4,13 +4,16 @@ import io.gumga.application.GumgaService;
 import io.gumga.core.GumgaIdable;
 import io.gumga.core.QueryObject;
 import io.gumga.core.SearchResult;
+import io.gumga.core.gquery.GQuery;
 import io.gumga.core.utils.ReflectionUtils;
+import io.gumga.domain.GumgaObjectAndRevision;
 import io.gumga.domain.service.GumgaReadableServiceable;
 import io.gumga.presentation.GumgaTranslator;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 public abstract class GumgaReadOnlyGateway<A extends GumgaIdable<ID>, DTO, ID extends Serializable> implements GumgaReadableServiceable<DTO, ID> {
 	
@@ -23,7 +26,7 @@ public abstract class GumgaReadOnlyGateway<A extends GumgaIdable<ID>, DTO, ID ex
 	@Override
 	public SearchResult<DTO> pesquisa(QueryObject query) {
 		SearchResult<A> pesquisa = delegate.pesquisa(query);
-		return new SearchResult<>(query, pesquisa.getCount(), translator.from((List<A>) pesquisa.getValues()));
+		return new SearchResult<>(query, pesquisa.getCount(), translator.from((List<A>) pesquisa.getValues()), pesquisa.getCursor());
 	}
 
 	@Override
@@ -31,6 +34,22 @@ public abstract class GumgaReadOnlyGateway<A extends GumgaIdable<ID>, DTO, ID ex
 		return translator.from(delegate.view(id));
 	}
 
+	@Override
+	public List<Map<String, Object>> aggregate(GQuery gQuery) {
+		return delegate.aggregate(gQuery);
+	}
+
+	@Override
+	public SearchResult<GumgaObjectAndRevision> listOldVersions(ID id, int start, int pageSize, boolean diff) {
+		SearchResult<GumgaObjectAndRevision> revisions = delegate.listOldVersions(id, start, pageSize, diff);
+		for (GumgaObjectAndRevision revision : revisions.getValues()) {
+			if (revision.getObject() != null) {
+				revision.setObject(translator.from((A) revision.getObject()));
+			}
+		}
+		return revisions;
+	}
+
 	//	@Override
 //	public DTO view(Long id) {
 //		return translator.from(delegate.view(id));
@@ -0,0 +1,152 @@
+package io.gumga.presentation.api;
+
+import io.gumga.application.GumgaService;
+import io.gumga.domain.GumgaModel;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CSVImporterTest {
+
+    @Test
+    public void salvaOsBlocosEResolveReferenciasComZerosAEsquerda() throws IOException {
+        ProdutoService service = new ProdutoService();
+        List<String> problemas = new CSVImporter(service, true, 2).importa(csv("id;nome;categoria", ";Alfa;05", ";Beta;5", ";Gama;"));
+
+        assertTrue(problemas.toString(), problemas.isEmpty());
+        assertEquals(2, service.lotes);
+        assertEquals(3, service.salvos.size());
+        assertSame(service.categorias.get(5L), service.salvos.get(0).categoria);
+        assertSame(service.categorias.get(5L), service.salvos.get(1).categoria);
+    }
+
+    @Test
+    public void salvaLinhaALinhaQuandoOBlocoFalha() throws IOException {
+        ProdutoService service = new ProdutoService();
+        List<String> problemas = new CSVImporter(service, true, 10).importa(csv("id;nome;categoria", ";Alfa;5", ";falha;5", ";Beta;7", ";Gama;5"));
+
+        assertEquals(2, problemas.size());
+        assertTrue(problemas.get(0), problemas.get(0).startsWith("Linha:4 Coluna:categoria"));
+        assertTrue(problemas.get(1), problemas.get(1).startsWith("Linha:3 Coluna:ao salvar"));
+        List<String> nomes = new ArrayList<>();
+        for (Produto produto : service.salvos) {
+            nomes.add(produto.nome);
+        }
+        assertEquals(Arrays.asList("Alfa", "Gama"), nomes);
+    }
+
+    @Test
+    public void atualizaEntidadesExistentes() throws IOException {
+        ProdutoService service = new ProdutoService();
+        Produto existente = new Produto(10L, "Antigo");
+        service.produtos.put(10L, existente);
+        List<String> problemas = new CSVImporter(service, true, 10).importa(csv("id;nome;categoria", "010;Novo;", "11;Inexistente;"));
+
+        assertEquals(1, problemas.size());
+        assertTrue(problemas.get(0), problemas.get(0).startsWith("Linha:3 Coluna:"));
+        assertSame(existente, service.salvos.get(0));
+        assertEquals("Novo", existente.nome);
+    }
+
+    @Test
+    public void apenasValidaSemSalvar() throws IOException {
+        ProdutoService service = new ProdutoService();
+        List<String> problemas = new CSVImporter(service, false, 10).importa(csv("id;nome;categoria", ";Alfa;5"));
+
+        assertTrue(problemas.isEmpty());
+        assertEquals(0, service.lotes);
+        assertTrue(service.salvos.isEmpty());
+    }
+
+    private static ByteArrayInputStream csv(String... linhas) {
+        return new ByteArrayInputStream(String.join("\n", linhas).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static class Categoria extends GumgaModel<Long> {
+
+        public Categoria() {
+        }
+
+        public Categoria(Long id) {
+            this.id = id;
+        }
+    }
+
+    public static class Produto extends GumgaModel<Long> {
+
+        private String nome;
+        private Categoria categoria;
+
+        public Produto() {
+        }
+
+        public Produto(Long id, String nome) {
+            this.id = id;
+            this.nome = nome;
+        }
+    }
+
+    private static class ProdutoService extends GumgaService<Produto, Long> {
+
+        private final Map<Long, Categoria> categorias = new HashMap<>();
+        private final Map<Long, Produto> produtos = new HashMap<>();
+        private final List<Produto> salvos = new ArrayList<>();
+        private int lotes;
+
+        private ProdutoService() {
+            super(null);
+            categorias.put(5L, new Categoria(5L));
+        }
+
+        @Override
+        public Class<Produto> clazz() {
+            return Produto.class;
+        }
+
+        @Override
+        public List<Object> genericViewAll(Class clazz, Collection<?> ids) {
+            Map<Long, ?> base = clazz.equals(Categoria.class) ? categorias : produtos;
+            List<Object> encontradas = new ArrayList<>();
+            for (Object id : ids) {
+                Object entidade = base.get(Long.valueOf(id.toString()));
+                if (entidade != null) {
+                    encontradas.add(entidade);
+                }
+            }
+            return encontradas;
+        }
+
+        @Override
+        public List<Produto> saveAll(List<Produto> resources) {
+            for (Produto produto : resources) {
+                if ("falha".equals(produto.nome)) {
+                    throw new IllegalStateException("falha ao salvar");
+                }
+            }
+            lotes++;
+            salvos.addAll(resources);
+            return resources;
+        }
+
+        @Override
+        public Produto save(Produto resource) {
+            if ("falha".equals(resource.nome)) {
+                throw new IllegalStateException("falha ao salvar");
+            }
+            salvos.add(resource);
+            return resource;
+        }
+    }
+}
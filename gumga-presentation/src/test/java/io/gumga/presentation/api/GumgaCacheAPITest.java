@@ -0,0 +1,78 @@
+package io.gumga.presentation.api;
+
+import io.gumga.application.GumgaSecondLevelCache;
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.GumgaValues;
+import io.gumga.core.exception.ForbiddenException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class GumgaCacheAPITest {
+
+    @After
+    public void limpaUsuario() {
+        GumgaThreadScope.login.remove();
+    }
+
+    @Test
+    public void limpaOsCachesParaOAdministrador() {
+        ContaLimpezas cache = new ContaLimpezas();
+        GumgaThreadScope.login.set("admin@gumga.com.br");
+        new GumgaCacheAPI(cache, new Administradores()).evictAll();
+        assertEquals(1, cache.limpezas);
+    }
+
+    @Test
+    public void recusaALimpezaParaOsDemaisUsuarios() {
+        ContaLimpezas cache = new ContaLimpezas();
+        GumgaThreadScope.login.set("gumga@gumga.com.br");
+        try {
+            new GumgaCacheAPI(cache, new Administradores()).evictAll();
+            fail();
+        } catch (ForbiddenException e) {
+            assertEquals(0, cache.limpezas);
+        }
+        try {
+            new GumgaCacheAPI(cache, new GumgaValues() {
+            }).evict("GumgaCustomField");
+            fail();
+        } catch (ForbiddenException e) {
+            assertEquals(0, cache.limpezas);
+        }
+    }
+
+    @Test(expected = ForbiddenException.class)
+    public void recusaAsEstatisticasParaOsDemaisUsuarios() {
+        GumgaThreadScope.login.set("gumga@gumga.com.br");
+        new GumgaCacheAPI(new ContaLimpezas(), new Administradores()).metrics();
+    }
+
+    private static class Administradores implements GumgaValues {
+
+        @Override
+        public Set<String> getAdminLogins() {
+            return Collections.singleton("admin@gumga.com.br");
+        }
+    }
+
+    private static class ContaLimpezas extends GumgaSecondLevelCache {
+
+        private int limpezas;
+
+        @Override
+        public void evictAll() {
+            limpezas++;
+        }
+
+        @Override
+        public void evict(Class<?> entity) {
+            limpezas++;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.gumga.presentation.api;
+
+import io.gumga.core.GumgaThreadScope;
+import io.gumga.core.exception.ForbiddenException;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.fail;
+
+public class GumgaIndexAPITest {
+
+    @After
+    public void limpaUsuario() {
+        GumgaThreadScope.login.remove();
+    }
+
+    @Test
+    public void recusaAsOperacoesAdministrativasParaOsDemaisUsuarios() {
+        GumgaThreadScope.login.set("gumga@gumga.com.br");
+        GumgaIndexAPI api = new GumgaIndexAPI();
+        Runnable[] operacoes = {api::jobs, () -> api.cancel(1L), api::reindexAll, () -> api.reindex("Memo", "1."),
+                () -> api.rebuildShares("Bus")};
+        for (Runnable operacao : operacoes) {
+            try {
+                operacao.run();
+                fail();
+            } catch (ForbiddenException e) {
+                // esperado
+            }
+        }
+    }
+}
@@ -6,7 +6,7 @@
 package io.gumga.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.gumga.application.GumgaLogService;
+import io.gumga.application.GumgaLogWriter;
 import io.gumga.application.GumgaLoggerService;
 import io.gumga.core.GumgaThreadScope;
 import io.gumga.core.GumgaValues;
@@ -39,7 +39,7 @@ public class GumgaRequestFilter extends HandlerInterceptorAdapter {
     private ObjectMapper mapper;
 
     @Autowired
-    private GumgaLogService gls;
+    private GumgaLogWriter gumgaLogWriter;
 
     @Autowired
     private GumgaLoggerService gumgaLoggerService;
@@ -163,7 +163,7 @@ public class GumgaRequestFilter extends HandlerInterceptorAdapter {
         if (gumgaValues.isLogActive()) {
             GumgaLog gl = new GumgaLog(ar.getLogin(), request.getRemoteAddr(), ar.getOrganizationCode(),
                     ar.getOrganization(), softwareId, operationKey, endPoint, method, allowed);
-            gls.save(gl);
+            gumgaLogWriter.write(gl);
             gumgaLoggerService.logToFile(gl.toString(), 4);
         }
         if (gumgaValues.isLogRequestOnConsole()) {
@@ -180,7 +180,7 @@ public class GumgaRequestFilter extends HandlerInterceptorAdapter {
         if (gumgaValues.isLogActive()) {
             GumgaLog gl = new GumgaLog(ar.getLogin(), requset.getRemoteAddr(), ar.getOrganizationCode(),
                     ar.getOrganization(), softwareId, operationKey, endPoint, method, a);
-            gls.save(gl);
+            gumgaLogWriter.write(gl);
             gumgaLoggerService.logToFile(gl.toString(), 4);
         }
     }
@@ -5,7 +5,6 @@ import io.gumga.core.GumgaThreadScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.util.StringUtils;
 import org.springframework.web.method.HandlerMethod;
 
 import javax.servlet.http.HttpServletRequest;
@@ -15,7 +14,9 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Filtro das requisições com cache
+ * Filtro das requisições com cache. Requisições simultâneas com o mesmo token aguardam uma única chamada do segurança
+ * e compartilham o acesso permitido, que fica em cache. Uma negação, que depende do endpoint e do endereço da
+ * requisição, não é repassada: cada requisição que aguardava consulta o segurança com os seus próprios dados
  */
 public class GumgaCacheRequestFilterV2 extends GumgaRequestFilterV2 {
 
@@ -62,29 +63,17 @@ public class GumgaCacheRequestFilterV2 extends GumgaRequestFilterV2 {
         }
 
         if (token == null || endPoint.contains("public") || endPoint.contains("api-docs") || ignoreCache(request.getServletPath()) || request.getServletPath().contains("/api/security/facereco")) {
-            return callSecurity(request, response, o, token, Boolean.FALSE);
+            return super.preHandle(request, response, o);
         }
 
-        if(repository.isValid(token, tokenDuration)) {
-            Map<String, Object> data = repository.getData(token);
-            data.put("userRecognition", request.getHeader("userRecognition"));
-            setGumgaThreadScope(data);
-//            log.info("Pegou do cache a autorização!");
-            return true;
-        }
-
-        return callSecurity(request, response, o, token, Boolean.TRUE);
-    }
-
-    private boolean callSecurity(HttpServletRequest request, HttpServletResponse response, Object o, String token, Boolean saveToken) throws Exception {
-//        log.info("Não pegou do cache a autorização!");
-        boolean result = super.preHandle(request, response, o);
-        if(saveToken && result && !StringUtils.isEmpty(token)) {
-            Map<String, Object> data = getData();
-            repository.add(token, data);
-            setGumgaThreadScope(data);
+        GumgaTokenAuthorization authorization = repository.get(token, tokenDuration, t -> authorize(request, o));
+        if (!authorization.isAllowed()) {
+            deny(response, authorization);
+            return false;
         }
-        return result;
+        setGumgaThreadScope(authorization.getData());
+        GumgaThreadScope.userRecognition.set(request.getHeader("userRecognition"));
+        return true;
     }
 
     private void setGumgaThreadScope(Map<String, Object> data) {
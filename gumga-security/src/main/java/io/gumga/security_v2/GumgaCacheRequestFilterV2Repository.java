@@ -1,21 +1,54 @@
 package io.gumga.security_v2;
 
+import io.gumga.application.GumgaCacheMetrics;
+import io.gumga.core.GumgaValues;
+import io.gumga.core.utils.GumgaLocalCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDateTime;
+import javax.annotation.PostConstruct;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
- * Classe com métodos para manipular filtro das requisições com cache
+ * Classe com métodos para manipular filtro das requisições com cache.
+ * As autorizações ficam em um cache local, seguro para acesso concorrente, limitado por
+ * {@link GumgaValues#getTokenCacheMaxSize()} e {@link GumgaValues#getTokenCacheTtl()}. As métricas do cache são
+ * expostas pela API do cache ({@link GumgaCacheMetrics})
  */
 @Component
-public class GumgaCacheRequestFilterV2Repository {
-    private final Map<String, Map<String, Object>> cache;
+public class GumgaCacheRequestFilterV2Repository implements GumgaCacheMetrics {
+
+    /**
+     * Chave, nos dados do token, do momento da autorização em milissegundos
+     */
+    public static final String CREATED_AT = "createdAt";
+
+    private static final int DEFAULT_MAX_SIZE = 10000;
+    private static final long DEFAULT_TTL = 60l * 60l;
+
+    @Autowired(required = false)
+    private GumgaValues gumgaValues;
+
+    private GumgaLocalCache<String, Entry> cache;
+    private long ttl;
 
     public GumgaCacheRequestFilterV2Repository() {
-        this.cache = new HashMap<>();
+        this.ttl = DEFAULT_TTL;
+        this.cache = new GumgaLocalCache<>(ttl, TimeUnit.SECONDS, DEFAULT_MAX_SIZE);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (gumgaValues != null) {
+            this.ttl = gumgaValues.getTokenCacheTtl();
+            this.cache = new GumgaLocalCache<>(ttl, TimeUnit.SECONDS, gumgaValues.getTokenCacheMaxSize());
+        }
     }
 
     /**
@@ -24,8 +57,8 @@ public class GumgaCacheRequestFilterV2Repository {
      * @param data Dados
      */
     public void add(String token, Map<String, Object> data) {
-        if(!StringUtils.isEmpty(token)) {
-            cache.put(token, data);
+        if(!StringUtils.isEmpty(token) && data != null) {
+            cache.put(token, new Entry(GumgaTokenAuthorization.allowed(data), System.currentTimeMillis()));
         }
     }
 
@@ -35,7 +68,7 @@ public class GumgaCacheRequestFilterV2Repository {
      */
     public void remove(String token) {
         if(!StringUtils.isEmpty(token)) {
-            cache.remove(token);
+            cache.invalidate(token);
         }
     }
 
@@ -47,8 +80,8 @@ public class GumgaCacheRequestFilterV2Repository {
      */
     public Boolean isValid(String token, Long seconds) {
         if(!StringUtils.isEmpty(token)) {
-            Map<String, Object> result = cache.get(token);
-            return result != null && result.containsKey("created") && ((LocalDateTime)result.get("created")).isAfter(LocalDateTime.now().minusSeconds(seconds));
+            Entry entry = cache.getIfPresent(token);
+            return entry != null && entry.authorization.isAllowed() && entry.isValid(seconds, System.currentTimeMillis());
         }
         return Boolean.FALSE;
     }
@@ -56,9 +89,90 @@ public class GumgaCacheRequestFilterV2Repository {
     /**
      * Dados do token
      * @param token Token
-     * @return Dados do token
+     * @return Dados do token, que não podem ser alterados
      */
     public Map<String, Object> getData(String token) {
-        return cache.get(token);
+        Entry entry = StringUtils.isEmpty(token) ? null : cache.getIfPresent(token);
+        return entry == null ? null : entry.authorization.getData();
+    }
+
+    /**
+     * Retorna a autorização do token obtida há menos de seconds segundos, autorizando-o quando necessário.
+     * Requisições simultâneas com o mesmo token aguardam uma única chamada do loader e recebem o mesmo resultado
+     * quando o acesso é permitido. Um acesso negado depende do endpoint e do endereço da requisição que o carregou:
+     * ele não é mantido em cache e as requisições que aguardavam chamam o loader com os seus próprios dados
+     *
+     * @param token Token
+     * @param seconds Tempo em segundos
+     * @param loader Autoriza o token no segurança
+     * @return Autorização do token, cujos dados não podem ser alterados
+     */
+    public GumgaTokenAuthorization get(String token, Long seconds, Function<String, GumgaTokenAuthorization> loader) {
+        Entry entry = null;
+        for (int i = 0; i < 2; i++) {
+            boolean[] loaded = new boolean[1];
+            entry = cache.get(token, t -> {
+                loaded[0] = true;
+                return new Entry(loader.apply(t), System.currentTimeMillis());
+            });
+            if (!entry.authorization.isAllowed()) {
+                cache.invalidate(token, entry);
+                return loaded[0] ? entry.authorization : load(token, loader);
+            }
+            if (entry.isValid(seconds, System.currentTimeMillis())) {
+                return entry.authorization;
+            }
+            cache.invalidate(token, entry);
+        }
+        return entry.authorization;
+    }
+
+    /**
+     * Autoriza o token fora do carregamento compartilhado, mantendo em cache somente o acesso permitido
+     */
+    private GumgaTokenAuthorization load(String token, Function<String, GumgaTokenAuthorization> loader) {
+        Entry entry = new Entry(loader.apply(token), System.currentTimeMillis());
+        if (entry.authorization.isAllowed()) {
+            cache.put(token, entry);
+        }
+        return entry.authorization;
+    }
+
+    @Override
+    public String getName() {
+        return "tokens";
+    }
+
+    /**
+     * @return Métricas do cache local
+     */
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("size", cache.size());
+        metrics.put("hits", cache.getHits());
+        metrics.put("misses", cache.getMisses());
+        metrics.put("evictions", cache.getEvictions());
+        return metrics;
+    }
+
+    private static class Entry {
+
+        private final GumgaTokenAuthorization authorization;
+        private final long createdAt;
+
+        private Entry(GumgaTokenAuthorization authorization, long createdAt) {
+            if (authorization.isAllowed()) {
+                Map<String, Object> copy = new HashMap<>(authorization.getData());
+                copy.put(CREATED_AT, createdAt);
+                authorization = GumgaTokenAuthorization.allowed(Collections.unmodifiableMap(copy));
+            }
+            this.authorization = authorization;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isValid(Long seconds, long now) {
+            return seconds != null && now - createdAt < TimeUnit.SECONDS.toMillis(seconds);
+        }
     }
 }
@@ -1,7 +1,7 @@
 package io.gumga.security_v2;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.gumga.application.GumgaLogService;
+import io.gumga.application.GumgaLogWriter;
 import io.gumga.core.GumgaThreadScope;
 import io.gumga.core.GumgaValues;
 import io.gumga.domain.GumgaLog;
@@ -17,7 +17,7 @@ import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.time.LocalDateTime;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,7 +36,7 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
     private ObjectMapper mapper;
 
     @Autowired
-    private GumgaLogService gls;
+    private GumgaLogWriter gumgaLogWriter;
 
     @Autowired
     private GumgaValues gumgaValues;
@@ -45,8 +45,9 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
 
     @Autowired(required = false)
     private ApiOperationTranslator aot;
-    private  Map<String, Object> data;
+    private final ThreadLocal<Map<String, Object>> data = new ThreadLocal<>();
 
+    @Autowired(required = false)
     private GumgaCacheRequestFilterV2Repository requestFilterV2Repository;
 
     public void setAot(ApiOperationTranslator aot) {
@@ -71,14 +72,31 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object o) throws Exception {
+        GumgaTokenAuthorization authorization = authorize(request, o);
+        if (authorization.isAllowed()) {
+            return true;
+        }
+        deny(response, authorization);
+        return false;
+    }
+
+    /**
+     * Autoriza a requisição no segurança, preenchendo o {@link GumgaThreadScope} e registrando o log de acesso, sem
+     * escrever a resposta
+     *
+     * @param request Requisição
+     * @param o Handler da requisição
+     * @return Autorização com os dados do token ou com a resposta de acesso negado
+     */
+    protected GumgaTokenAuthorization authorize(HttpServletRequest request, Object o) {
         tempo.set(System.currentTimeMillis());
         String token = null;
         String errorMessage = "Error";
         String errorResponse = GumgaSecurityCode.SECURITY_INTERNAL_ERROR.toString();
         AuthorizationResponseV2 ar=new AuthorizationResponseV2();
         String operationKey = "NOOP";
-        data = new HashMap<>();
-        data.put("created", LocalDateTime.now());
+        Map<String, Object> data = new HashMap<>();
+        this.data.set(data);
         try {
             GumgaThreadScope.userRecognition.set(request.getHeader("userRecognition"));
             data.put("userRecognition", request.getHeader("userRecognition"));
@@ -100,7 +118,7 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
             if (o instanceof HandlerMethod) {
                 hm = (HandlerMethod) o;
             } else {
-                return true;
+                return GumgaTokenAuthorization.allowed(data);
             }
 
             GumgaOperationKey gumgaOperationKeyMethodAnnotation = hm.getMethodAnnotation(GumgaOperationKey.class);
@@ -120,7 +138,7 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
 
             if (endPoint.contains("public") || endPoint.contains("api-docs")) {
                 saveLog(new AuthorizationResponseV2("allow", "public", "public", "public", "public", "public", null,"no instance"), request, operationKey, endPoint, method, true);
-                return true;
+                return GumgaTokenAuthorization.allowed(data);
             }
 
 
@@ -161,32 +179,44 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
 
             saveLog(ar, request, operationKey, endPoint, method, ar.isAllowed());
             if (ar.isAllowed()) {
-                return true;
+                return GumgaTokenAuthorization.allowed(data);
             } else {
                 errorMessage = ar.toString();
                 errorResponse = ar.getResponse();
             }
         } catch (Exception ex) {
-            requestFilterV2Repository.remove(token);
+            if (requestFilterV2Repository != null) {
+                requestFilterV2Repository.remove(token);
+            }
             log.error("erro no filtro segurança", ex);
         }
 
         GumgaSecurityCode gsc = GumgaSecurityCode.valueOf(errorResponse);
-        response.setStatus(gsc.httpStatus.value());
         Map<String, Object> resposta = new HashMap<>();
         resposta.put("response", ar.getResponse());
         resposta.put("operation", operationKey);
-        mapper.writeValue(response.getOutputStream(), resposta);
 
         //response.getOutputStream().write(("Error:" + errorMessage).getBytes());
-        return false;
+        return GumgaTokenAuthorization.denied(gsc.httpStatus.value(), resposta);
+    }
+
+    /**
+     * Escreve a resposta de acesso negado
+     *
+     * @param response Resposta da requisição
+     * @param authorization Autorização negada
+     * @throws IOException erro ao escrever a resposta
+     */
+    protected void deny(HttpServletResponse response, GumgaTokenAuthorization authorization) throws IOException {
+        response.setStatus(authorization.getStatus());
+        mapper.writeValue(response.getOutputStream(), authorization.getResponse());
     }
 
     public void saveLog(AuthorizatonResponse ar, HttpServletRequest request, String operationKey, String endPoint, String method, boolean allowed, String token) {
         if (gumgaValues.isLogActive()) {
             GumgaLog gl = new GumgaLog(ar.getLogin(), request.getRemoteAddr(), ar.getOrganizationCode(),
                     ar.getOrganization(), softwareId, operationKey, endPoint, method, allowed);
-            gls.save(gl);
+            gumgaLogWriter.write(gl);
         }
         if (gumgaValues.isLogRequestOnConsole()) {
             String contextRoot = request.getContextPath();
@@ -202,13 +232,14 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
         if (gumgaValues.isLogActive()) {
             GumgaLog gl = new GumgaLog(ar.getLogin(), requset.getRemoteAddr(), ar.getOrganizationCode(),
                     ar.getOrganization(), softwareId, operationKey, endPoint, method, a);
-            gls.save(gl);
+            gumgaLogWriter.write(gl);
         }
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
         tempo.remove();
+        data.remove();
         GumgaThreadScope.ip.remove();
         GumgaThreadScope.login.remove();
         GumgaThreadScope.organization.remove();
@@ -219,7 +250,7 @@ public class GumgaRequestFilterV2 extends HandlerInterceptorAdapter {
 
 
     protected Map<String, Object> getData() {
-        return data;
+        return data.get();
     }
 
 
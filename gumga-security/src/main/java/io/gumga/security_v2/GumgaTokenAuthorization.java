@@ -0,0 +1,64 @@
+package io.gumga.security_v2;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resultado da autorização de um token pelo segurança: os dados da autorização quando o acesso é permitido ou o
+ * status e a resposta que devem ser enviados quando é negado
+ */
+public final class GumgaTokenAuthorization {
+
+    private final Map<String, Object> data;
+    private final int status;
+    private final Map<String, Object> response;
+
+    private GumgaTokenAuthorization(Map<String, Object> data, int status, Map<String, Object> response) {
+        this.data = data;
+        this.status = status;
+        this.response = response;
+    }
+
+    /**
+     * @param data Dados da autorização
+     * @return Acesso permitido
+     */
+    public static GumgaTokenAuthorization allowed(Map<String, Object> data) {
+        return new GumgaTokenAuthorization(data == null ? Collections.emptyMap() : data, 0, null);
+    }
+
+    /**
+     * @param status Status HTTP da resposta
+     * @param response Corpo da resposta
+     * @return Acesso negado
+     */
+    public static GumgaTokenAuthorization denied(int status, Map<String, Object> response) {
+        return new GumgaTokenAuthorization(null, status, Collections.unmodifiableMap(new HashMap<>(response)));
+    }
+
+    public boolean isAllowed() {
+        return data != null;
+    }
+
+    /**
+     * @return Dados da autorização ou null quando o acesso foi negado
+     */
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    /**
+     * @return Status HTTP da resposta quando o acesso foi negado
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Corpo da resposta quando o acesso foi negado
+     */
+    public Map<String, Object> getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,127 @@
+package io.gumga.security_v2;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GumgaCacheRequestFilterV2RepositoryTest {
+
+    private static final int REQUISICOES = 8;
+
+    @Test
+    public void autorizaUmaVezEntreRequisicoesSimultaneas() throws Exception {
+        GumgaCacheRequestFilterV2Repository repository = new GumgaCacheRequestFilterV2Repository();
+        AtomicInteger chamadas = new AtomicInteger();
+        List<GumgaTokenAuthorization> resultados = simultaneas(repository, lento(chamadas,
+                GumgaTokenAuthorization.allowed(Collections.singletonMap("login", "gumga@gumga.com.br"))));
+
+        assertEquals(1, chamadas.get());
+        for (GumgaTokenAuthorization resultado : resultados) {
+            assertSame(resultados.get(0), resultado);
+            assertEquals("gumga@gumga.com.br", resultado.getData().get("login"));
+        }
+        assertTrue(repository.isValid("token", 60L));
+        assertEquals(1, repository.getMetrics().get("misses").intValue());
+    }
+
+    @Test
+    public void naoCompartilhaNemMantemANegacaoEmCache() throws Exception {
+        GumgaCacheRequestFilterV2Repository repository = new GumgaCacheRequestFilterV2Repository();
+        AtomicInteger chamadas = new AtomicInteger();
+        GumgaTokenAuthorization negado = GumgaTokenAuthorization.denied(403, Collections.singletonMap("response", "NO_USER"));
+        List<GumgaTokenAuthorization> resultados = simultaneas(repository, lento(chamadas, negado));
+
+        assertEquals(REQUISICOES, chamadas.get());
+        for (GumgaTokenAuthorization resultado : resultados) {
+            assertFalse(resultado.isAllowed());
+            assertEquals(403, resultado.getStatus());
+        }
+        assertFalse(repository.isValid("token", 60L));
+
+        repository.get("token", 60L, t -> {
+            chamadas.incrementAndGet();
+            return negado;
+        });
+        assertEquals(REQUISICOES + 1, chamadas.get());
+    }
+
+    @Test
+    public void requisicaoQueAguardavaUmaNegacaoAutorizaComOsSeusDados() throws Exception {
+        GumgaCacheRequestFilterV2Repository repository = new GumgaCacheRequestFilterV2Repository();
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch aguardando = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<GumgaTokenAuthorization> negada = executor.submit(() -> repository.get("token", 60L, t -> {
+            carregando.countDown();
+            try {
+                aguardando.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return GumgaTokenAuthorization.denied(403, Collections.singletonMap("response", "NO_ACCESS"));
+        }));
+        carregando.await();
+        Thread liberacao = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            aguardando.countDown();
+        });
+        liberacao.start();
+        GumgaTokenAuthorization permitida = repository.get("token", 60L,
+                t -> GumgaTokenAuthorization.allowed(Collections.singletonMap("login", "gumga@gumga.com.br")));
+
+        assertFalse(negada.get().isAllowed());
+        assertTrue(permitida.isAllowed());
+        assertTrue(repository.isValid("token", 60L));
+        executor.shutdown();
+    }
+
+    private static Function<String, GumgaTokenAuthorization> lento(AtomicInteger chamadas, GumgaTokenAuthorization resultado) {
+        return token -> {
+            chamadas.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return resultado;
+        };
+    }
+
+    private static List<GumgaTokenAuthorization> simultaneas(GumgaCacheRequestFilterV2Repository repository,
+                                                             Function<String, GumgaTokenAuthorization> loader) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUISICOES);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<GumgaTokenAuthorization>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUISICOES; i++) {
+            futures.add(executor.submit((Callable<GumgaTokenAuthorization>) () -> {
+                inicio.await();
+                return repository.get("token", 60L, loader);
+            }));
+        }
+        inicio.countDown();
+        List<GumgaTokenAuthorization> resultados = new ArrayList<>();
+        for (Future<GumgaTokenAuthorization> future : futures) {
+            resultados.add(future.get());
+        }
+        executor.shutdown();
+        return resultados;
+    }
+}